@@ -11,7 +11,13 @@
 
 package alluxio.client;
 
+import alluxio.file.FileRange;
+
+import com.google.common.base.Preconditions;
+
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
 
 /**
  * Stream that permits positional reading.
@@ -34,4 +40,36 @@ public interface PositionedReadable {
    * @return actual number of bytes read; -1 means "EOF";
    */
   int positionedRead(long position, byte[] buffer, int offset, int length) throws IOException;
+
+  /**
+   * Reads several ranges of the file, each into its own buffer. This does not change the current
+   * offset of a file, and is thread-safe. Implementations may read all the ranges in a single
+   * request, the default implementation reads them one by one.
+   *
+   * @param ranges the ranges to read
+   * @param buffers the buffers to read the ranges into, the i-th range into the i-th buffer,
+   *                each with enough space remaining for the length of its range
+   * @return the number of bytes read into each buffer, which is less than the length of the
+   *         range only if the range goes past the end of the file
+   */
+  default int[] positionedReadVectored(List<FileRange> ranges, List<ByteBuffer> buffers)
+      throws IOException {
+    Preconditions.checkArgument(ranges.size() == buffers.size(),
+        "number of ranges %s does not match number of buffers %s", ranges.size(), buffers.size());
+    int[] bytesRead = new int[ranges.size()];
+    for (int i = 0; i < ranges.size(); i++) {
+      FileRange range = ranges.get(i);
+      byte[] data = new byte[range.getLength()];
+      while (bytesRead[i] < data.length) {
+        int read = positionedRead(range.getOffset() + bytesRead[i], data, bytesRead[i],
+            data.length - bytesRead[i]);
+        if (read <= 0) {
+          break;
+        }
+        bytesRead[i] += read;
+      }
+      buffers.get(i).put(data, 0, bytesRead[i]);
+    }
+    return bytesRead;
+  }
 }
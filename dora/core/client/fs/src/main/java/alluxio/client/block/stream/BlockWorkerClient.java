@@ -34,6 +34,8 @@ import alluxio.grpc.GetStatusPResponse;
 import alluxio.grpc.GrpcServerAddress;
 import alluxio.grpc.ListStatusPRequest;
 import alluxio.grpc.ListStatusPResponse;
+import alluxio.grpc.ListStatusPartialPRequest;
+import alluxio.grpc.ListStatusPartialPResponse;
 import alluxio.grpc.LoadFileRequest;
 import alluxio.grpc.LoadFileResponse;
 import alluxio.grpc.LoadRequest;
@@ -50,6 +52,8 @@ import alluxio.grpc.RenamePRequest;
 import alluxio.grpc.RenamePResponse;
 import alluxio.grpc.SetAttributePRequest;
 import alluxio.grpc.SetAttributePResponse;
+import alluxio.grpc.WatchMetadataInvalidationRequest;
+import alluxio.grpc.WatchMetadataInvalidationResponse;
 import alluxio.grpc.WriteRequest;
 import alluxio.grpc.WriteResponse;
 import alluxio.security.user.UserState;
@@ -198,6 +202,13 @@ public interface BlockWorkerClient extends Closeable {
    */
   Iterator<ListStatusPResponse> listStatus(ListStatusPRequest request);
 
+  /**
+   * Lists a part of a directory from Worker.
+   * @param request the partial listing request
+   * @return the partial listing
+   */
+  ListStatusPartialPResponse listStatusPartial(ListStatusPartialPRequest request);
+
   /**
    * copy files from src to dst.
    *
@@ -264,4 +275,14 @@ public interface BlockWorkerClient extends Closeable {
    * @return a response of this operation
    */
   SetAttributePResponse setAttribute(SetAttributePRequest request);
+
+  /**
+   * Watches the paths whose metadata is invalidated by the worker. The worker keeps streaming
+   * the invalidated paths until the call is cancelled through the gRPC context.
+   *
+   * @param request the watch request
+   * @param responseObserver the stream observer for the invalidated paths
+   */
+  void watchMetadataInvalidation(WatchMetadataInvalidationRequest request,
+      StreamObserver<WatchMetadataInvalidationResponse> responseObserver);
 }
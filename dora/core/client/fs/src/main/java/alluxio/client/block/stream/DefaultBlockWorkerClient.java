@@ -45,6 +45,8 @@ import alluxio.grpc.GrpcSerializationUtils;
 import alluxio.grpc.GrpcServerAddress;
 import alluxio.grpc.ListStatusPRequest;
 import alluxio.grpc.ListStatusPResponse;
+import alluxio.grpc.ListStatusPartialPRequest;
+import alluxio.grpc.ListStatusPartialPResponse;
 import alluxio.grpc.LoadFileRequest;
 import alluxio.grpc.LoadFileResponse;
 import alluxio.grpc.LoadRequest;
@@ -61,6 +63,8 @@ import alluxio.grpc.RenamePRequest;
 import alluxio.grpc.RenamePResponse;
 import alluxio.grpc.SetAttributePRequest;
 import alluxio.grpc.SetAttributePResponse;
+import alluxio.grpc.WatchMetadataInvalidationRequest;
+import alluxio.grpc.WatchMetadataInvalidationResponse;
 import alluxio.grpc.WriteRequest;
 import alluxio.grpc.WriteResponse;
 import alluxio.resource.AlluxioResourceLeakDetectorFactory;
@@ -352,6 +356,12 @@ public class DefaultBlockWorkerClient implements BlockWorkerClient {
         .listStatus(request);
   }
 
+  @Override
+  public ListStatusPartialPResponse listStatusPartial(ListStatusPartialPRequest request) {
+    return mRpcBlockingStub.withDeadlineAfter(mRpcTimeoutMs, TimeUnit.MILLISECONDS)
+        .listStatusPartial(request);
+  }
+
   @Override
   public ListenableFuture<CopyResponse> copy(CopyRequest request) {
     return mRpcFutureStub.copy(request);
@@ -403,4 +413,11 @@ public class DefaultBlockWorkerClient implements BlockWorkerClient {
     return mRpcBlockingStub.withDeadlineAfter(mRpcTimeoutMs, TimeUnit.MILLISECONDS)
         .setAttribute(request);
   }
+
+  @Override
+  public void watchMetadataInvalidation(WatchMetadataInvalidationRequest request,
+      StreamObserver<WatchMetadataInvalidationResponse> responseObserver) {
+    // no deadline, the stream lasts until cancelled
+    mStreamingAsyncStub.watchMetadataInvalidation(request, responseObserver);
+  }
 }
@@ -30,6 +30,7 @@ import alluxio.exception.FileIncompleteException;
 import alluxio.exception.InvalidPathException;
 import alluxio.exception.OpenDirectoryException;
 import alluxio.exception.runtime.AlluxioRuntimeException;
+import alluxio.exception.runtime.InvalidArgumentRuntimeException;
 import alluxio.grpc.CreateDirectoryPOptions;
 import alluxio.grpc.CreateFilePOptions;
 import alluxio.grpc.DeletePOptions;
@@ -37,9 +38,11 @@ import alluxio.grpc.ExistsPOptions;
 import alluxio.grpc.GetStatusPOptions;
 import alluxio.grpc.GrpcUtils;
 import alluxio.grpc.ListStatusPOptions;
+import alluxio.grpc.ListStatusPartialPOptions;
 import alluxio.grpc.OpenFilePOptions;
 import alluxio.grpc.RenamePOptions;
 import alluxio.grpc.SetAttributePOptions;
+import alluxio.grpc.WatchMetadataInvalidationResponse;
 import alluxio.metrics.MetricKey;
 import alluxio.metrics.MetricsSystem;
 import alluxio.proto.dataserver.Protocol;
@@ -57,6 +60,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -66,6 +70,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import javax.annotation.Nullable;
 
@@ -280,6 +285,50 @@ public class DoraCacheFileSystem extends DelegatingFileSystem {
     }
   }
 
+  @Override
+  public ListStatusPartialResult listStatusPartial(AlluxioURI path,
+      ListStatusPartialPOptions options) throws AlluxioException, IOException {
+    AlluxioURI ufsFullPath = convertToUfsPath(path);
+    ufsFullPath = new AlluxioURI(PathUtils.normalizePath(ufsFullPath.toString(), "/"));
+
+    try {
+      ListStatusPartialPOptions.Builder mergedOptions =
+          FileSystemOptionsUtils.listStatusPartialDefaults(mFsContext.getClusterConf())
+              .toBuilder().mergeFrom(options);
+      if (options.hasStartAfter() && options.getStartAfter().startsWith(AlluxioURI.SEPARATOR)) {
+        // the worker takes the offset relative to the listed ufs directory
+        String dirPath = PathUtils.normalizePath(path.getPath(), AlluxioURI.SEPARATOR);
+        if (options.getStartAfter().startsWith(dirPath)) {
+          mergedOptions.setStartAfter(options.getStartAfter().substring(dirPath.length()));
+        }
+      }
+      ListStatusPartialResult result =
+          mDoraClient.listStatusPartial(ufsFullPath.toString(), mergedOptions.build());
+      List<URIStatus> statusesWithRelativePath = new ArrayList<>(result.getListings().size());
+      for (URIStatus s : result.getListings()) {
+        statusesWithRelativePath.add(
+            new URIStatus(GrpcUtils.fromProto(GrpcUtils.toProto(s.getFileInfo())).setPath(
+                convertToAlluxioPath(new AlluxioURI(s.getUfsPath())).getPath())));
+      }
+      return new ListStatusPartialResult(statusesWithRelativePath, result.isTruncated(),
+          result.getFileCount());
+    } catch (RuntimeException ex) {
+      if (ex instanceof StatusRuntimeException) {
+        if (((StatusRuntimeException) ex).getStatus().getCode() == Status.NOT_FOUND.getCode()) {
+          return new ListStatusPartialResult(Collections.emptyList(), false, 0);
+        }
+      }
+      if (!mUfsFallbackEnabled) {
+        throw ex;
+      }
+
+      UFS_FALLBACK_COUNTER.inc();
+      LOG.error("Dora client partial list status error ({} times). Fall back to UFS.",
+          UFS_FALLBACK_COUNTER.getCount(), ex);
+      return mDelegatedFileSystem.listStatusPartial(ufsFullPath, options);
+    }
+  }
+
   @Override
   public FileOutStream createFile(AlluxioURI alluxioPath, CreateFilePOptions options)
       throws FileAlreadyExistsException, InvalidPathException, IOException, AlluxioException {
@@ -393,7 +442,41 @@ public class DoraCacheFileSystem extends DelegatingFileSystem {
   public void iterateStatus(AlluxioURI path, ListStatusPOptions options,
                             Consumer<? super URIStatus> action)
       throws FileDoesNotExistException, IOException, AlluxioException {
-    listStatus(path, options).forEach(action);
+    AlluxioURI ufsFullPath = convertToUfsPath(path);
+    ufsFullPath = new AlluxioURI(PathUtils.normalizePath(ufsFullPath.toString(), "/"));
+    AtomicLong iterated = new AtomicLong();
+
+    try {
+      ListStatusPOptions mergedOptions = FileSystemOptionsUtils.listStatusDefaults(
+          mFsContext.getClusterConf()).toBuilder().mergeFrom(options).build();
+
+      mDoraClient.iterateStatus(ufsFullPath.toString(), mergedOptions, s -> {
+        iterated.incrementAndGet();
+        String alluxioPath;
+        try {
+          alluxioPath = convertToAlluxioPath(new AlluxioURI(s.getUfsPath())).getPath();
+        } catch (InvalidPathException e) {
+          throw new InvalidArgumentRuntimeException(e);
+        }
+        action.accept(new URIStatus(GrpcUtils.fromProto(GrpcUtils.toProto(s.getFileInfo()))
+            .setPath(alluxioPath)));
+      });
+    } catch (RuntimeException ex) {
+      if (ex instanceof StatusRuntimeException) {
+        if (((StatusRuntimeException) ex).getStatus().getCode() == Status.NOT_FOUND.getCode()) {
+          return;
+        }
+      }
+      // the statuses already iterated would be iterated again from the UFS
+      if (!mUfsFallbackEnabled || iterated.get() > 0) {
+        throw ex;
+      }
+
+      UFS_FALLBACK_COUNTER.inc();
+      LOG.error("Dora client iterate status error ({} times). Fall back to UFS.",
+          UFS_FALLBACK_COUNTER.getCount(), ex);
+      mDelegatedFileSystem.iterateStatus(ufsFullPath, options, action);
+    }
   }
 
   @Override
@@ -528,16 +611,20 @@ public class DoraCacheFileSystem extends DelegatingFileSystem {
   public List<BlockLocationInfo> getBlockLocations(URIStatus status)
       throws IOException, AlluxioException {
     AlluxioURI ufsPath = convertToUfsPath(new AlluxioURI(status.getUfsPath()));
-    WorkerNetAddress workerNetAddress = mDoraClient.getWorkerNetAddress(ufsPath.toString());
     // Dora does not have blocks; to apps who need block location info, we split multiple virtual
     // blocks from a file according to a fixed size
-    long blockSize = mDefaultVirtualBlockSize;
     long length = status.getLength();
+    boolean split = mDoraClient.getVirtualBlockPlacement().isSplit(length);
+    // report the virtual blocks files are placed by, so that each of them is local to its worker
+    long blockSize = split
+        ? mDoraClient.getVirtualBlockPlacement().getBlockSize() : mDefaultVirtualBlockSize;
     int blockNum = length == blockSize ? 1 : (int) (length / blockSize) + 1;
     // construct BlockLocation
     ImmutableList.Builder<BlockLocationInfo> listBuilder = ImmutableList.builder();
     for (int i = 0; i < blockNum; i++) {
       long offset = i * blockSize;
+      WorkerNetAddress workerNetAddress =
+          mDoraClient.getWorkerNetAddress(ufsPath.toString(), length, offset);
       BlockLocation blockLocation = new BlockLocation().setWorkerAddress(workerNetAddress);
       BlockInfo bi = new BlockInfo()
           // a dummy block ID which shouldn't be used to identify the block
@@ -557,6 +644,19 @@ public class DoraCacheFileSystem extends DelegatingFileSystem {
     return listBuilder.build();
   }
 
+  /**
+   * Watches the paths whose metadata is invalidated by a worker, e.g. when the worker finds a
+   * file changed in the ufs. The paths are streamed as full ufs paths, which are converted back
+   * with {@link #convertToAlluxioPath(AlluxioURI)}.
+   *
+   * @param worker the address of the worker
+   * @param observer the observer of the invalidated paths
+   */
+  public void watchMetadataInvalidation(WorkerNetAddress worker,
+      StreamObserver<WatchMetadataInvalidationResponse> observer) throws IOException {
+    mDoraClient.watchMetadataInvalidation(worker, observer);
+  }
+
   /**
    * Dora Cache file system implementation.
    * @param enabled is ufs fall back enabled
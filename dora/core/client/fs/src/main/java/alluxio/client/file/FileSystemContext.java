@@ -21,6 +21,7 @@ import alluxio.client.block.BlockWorkerInfo;
 import alluxio.client.block.stream.BlockWorkerClient;
 import alluxio.client.block.stream.BlockWorkerClientPool;
 import alluxio.client.file.FileSystemContextReinitializer.ReinitBlockerResource;
+import alluxio.client.file.dora.ReadaheadManager;
 import alluxio.client.file.options.UfsFileSystemOptions;
 import alluxio.client.file.ufs.UfsBaseFileSystem;
 import alluxio.client.metrics.MetricsHeartbeatContext;
@@ -172,6 +173,13 @@ public class FileSystemContext implements Closeable {
   @GuardedBy("this")
   private WorkerNetAddress mLocalWorker;
 
+  /**
+   * The readahead shared by the streams reading from the workers. This is initialized lazily.
+   */
+  @GuardedBy("this")
+  @Nullable
+  private ReadaheadManager mReadaheadManager;
+
   /**
    * Reinitializer contains a daemon heartbeat thread to reinitialize this context when
    * configuration hashes change.
@@ -502,6 +510,11 @@ public class FileSystemContext implements Closeable {
       mBlockWorkerClientPoolMap = null;
       mLocalWorkerInitialized = false;
       mLocalWorker = null;
+      if (mReadaheadManager != null) {
+        LOG.debug("Closing readahead manager for id: {}", mId);
+        mReadaheadManager.close();
+        mReadaheadManager = null;
+      }
 
       if (mMetricsEnabled) {
         MetricsHeartbeatContext.removeHeartbeat(getClientContext());
@@ -845,6 +858,18 @@ public class FileSystemContext implements Closeable {
     return mLocalWorker;
   }
 
+  /**
+   * @return the readahead shared by the streams reading from the workers, or empty if readahead
+   *         is disabled or the context is closed
+   */
+  public synchronized Optional<ReadaheadManager> getReadaheadManager() {
+    if (mReadaheadManager == null && !mClosed.get()
+        && getClusterConf().getBoolean(PropertyKey.USER_POSITION_READER_READAHEAD_ENABLED)) {
+      mReadaheadManager = new ReadaheadManager(getClusterConf());
+    }
+    return Optional.ofNullable(mReadaheadManager);
+  }
+
   /**
    * Gets the cached live worker information list.
    * This method is relatively cheap as the result is cached, but may not
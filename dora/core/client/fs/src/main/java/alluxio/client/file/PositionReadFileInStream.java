@@ -13,9 +13,13 @@ package alluxio.client.file;
 
 import alluxio.PositionReader;
 import alluxio.client.file.dora.DoraCacheClient;
+import alluxio.client.file.dora.ReadaheadManager;
 import alluxio.conf.Configuration;
 import alluxio.conf.PropertyKey;
 import alluxio.exception.PreconditionMessage;
+import alluxio.file.ByteBufferTargetBuffer;
+import alluxio.file.FileRange;
+import alluxio.file.ReadTargetBuffer;
 import alluxio.network.protocol.databuffer.PooledDirectNioByteBuf;
 
 import com.amazonaws.annotation.NotThreadSafe;
@@ -28,7 +32,10 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 /**
  * Implementation of {@link FileInStream} that reads from a dora cache if possible.
@@ -41,6 +48,9 @@ public class PositionReadFileInStream extends FileInStream {
   private boolean mClosed;
   private final PositionReader mPositionReader;
   private final PrefetchCache mCache;
+  /** The readahead shared with the other streams of the client, replacing the prefetch cache. */
+  @Nullable
+  private final ReadaheadManager.Stream mReadahead;
   private final URIStatus mURIStatus;
   private final DoraCacheClient mClient;
   // Preload requests are async so a cached thread pool is used here.
@@ -107,7 +117,7 @@ public class PositionReadFileInStream extends FileInStream {
       if (mDataPreloadEnabled) {
         try {
           mClient.cacheData(
-              mURIStatus.getUfsPath(), pos,
+              mURIStatus.getUfsPath(), mURIStatus.getLength(), pos,
               Math.min(mURIStatus.getLength() - pos, mNumPreloadedDataSize));
         } catch (Throwable t) {
           LOG.warn("Preload data failed for {}", mURIStatus.getUfsPath(), t);
@@ -167,6 +177,8 @@ public class PositionReadFileInStream extends FileInStream {
     mLength = uriStatus.getLength();
     mCache = new PrefetchCache(
         PrefetchCachePolicy.Factory.create(), mLength);
+    mReadahead = client == null ? null : client.getReadaheadManager()
+        .map(manager -> manager.openStream(uriStatus, reader)).orElse(null);
     long dataPreloadFileSizeThreshold =
         Configuration.getBytes(PropertyKey.USER_POSITION_READER_PRELOAD_DATA_FILE_SIZE_THRESHOLD);
     mDataPreloadEnabled =
@@ -204,6 +216,13 @@ public class PositionReadFileInStream extends FileInStream {
   @Override
   public int read(ByteBuffer byteBuffer, int off, int len) throws IOException {
     byteBuffer.position(off).limit(off + len);
+    if (mReadahead != null) {
+      int bytesRead = readWithReadahead(mPos, byteBuffer);
+      if (bytesRead > 0) {
+        mPos += bytesRead;
+      }
+      return bytesRead;
+    }
     mCache.addTrace(mPos, len);
     int totalBytesRead = 0;
     int bytesReadFromCache = mCache.fillWithCache(mPos, byteBuffer);
@@ -242,6 +261,9 @@ public class PositionReadFileInStream extends FileInStream {
       throws IOException {
     long pos = position;
     ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, offset, len);
+    if (mReadahead != null) {
+      return readWithReadahead(pos, byteBuffer);
+    }
     mCache.addTrace(position, len);
     int totalBytesRead = 0;
     int bytesReadFromCache = mCache.fillWithCache(pos, byteBuffer);
@@ -275,6 +297,40 @@ public class PositionReadFileInStream extends FileInStream {
     return totalBytesRead;
   }
 
+  /**
+   * Reads the ranges straight from the position reader, which fetches them from the worker in
+   * a single request, bypassing the prefetch cache and the readahead.
+   */
+  @Override
+  public int[] positionedReadVectored(List<FileRange> ranges, List<ByteBuffer> buffers)
+      throws IOException {
+    Preconditions.checkArgument(ranges.size() == buffers.size(),
+        "number of ranges %s does not match number of buffers %s", ranges.size(), buffers.size());
+    for (int i = 0; i < buffers.size(); i++) {
+      Preconditions.checkArgument(buffers.get(i).remaining() >= ranges.get(i).getLength(),
+          "buffer of range %s does not have enough space", ranges.get(i));
+    }
+    List<ReadTargetBuffer> targetBuffers = buffers.stream()
+        .map(ByteBufferTargetBuffer::new).collect(Collectors.toList());
+    return mPositionReader.readVectored(ranges, targetBuffers);
+  }
+
+  private int readWithReadahead(long position, ByteBuffer byteBuffer) throws IOException {
+    if (position >= mLength) {
+      return -1;
+    }
+    int totalBytesRead = mReadahead.read(position, byteBuffer);
+    if (!byteBuffer.hasRemaining()) {
+      return totalBytesRead;
+    }
+    int bytesRead = mPositionReader.read(position + totalBytesRead, byteBuffer,
+        byteBuffer.remaining());
+    if (bytesRead < 0) {
+      return totalBytesRead == 0 ? -1 : totalBytesRead;
+    }
+    return totalBytesRead + bytesRead;
+  }
+
   @Override
   public long getPos() throws IOException {
     return mPos;
@@ -309,6 +365,10 @@ public class PositionReadFileInStream extends FileInStream {
       return;
     }
     mClosed = true;
+    if (mReadahead != null) {
+      // the chunks in flight are read with the position reader
+      mReadahead.close();
+    }
     mPositionReader.close();
     mCache.close();
   }
@@ -23,6 +23,7 @@ import alluxio.network.protocol.databuffer.DataFileChannel;
 import alluxio.resource.LockResource;
 
 import com.codahale.metrics.Counter;
+import com.google.common.base.Preconditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -219,6 +220,28 @@ public interface CacheManager extends AutoCloseable, CacheStatus {
    */
   boolean put(PageId pageId, ByteBuffer page, CacheContext cacheContext);
 
+  /**
+   * Puts a batch of pages into the cache manager with scope and quota respected. This method is
+   * best effort. It is possible that some of the pages are not written. Implementations may
+   * insert the pages together to share locking, eviction and I/O across the batch.
+   *
+   * @param pageIds page identifiers
+   * @param pages page data, in the same order as the page identifiers
+   * @param cacheContext cache related context
+   * @return the number of pages that were put
+   */
+  default int putAll(List<PageId> pageIds, List<ByteBuffer> pages, CacheContext cacheContext) {
+    Preconditions.checkArgument(pageIds.size() == pages.size(),
+        "got %s page ids for %s pages", pageIds.size(), pages.size());
+    int numPut = 0;
+    for (int i = 0; i < pageIds.size(); i++) {
+      if (put(pageIds.get(i), pages.get(i), cacheContext)) {
+        numPut++;
+      }
+    }
+    return numPut;
+  }
+
   /**
    * Reads the entire page if the queried page is found in the cache, stores the result in buffer.
    *
@@ -30,6 +30,10 @@ public class CacheManagerOptions {
   private long mPageSize;
   private List<PageStoreOptions> mPageStoreOptions;
   private boolean mQuotaEnabled;
+  private boolean mCompactMetaStoreEnabled;
+  private boolean mShardedMetaStoreEnabled;
+  private boolean mMetaSnapshotEnabled;
+  private long mMetaSnapshotIntervalMs;
   private boolean mTtlEnabled;
   private long mTtlCheckIntervalSeconds;
   private long mTtlThresholdSeconds;
@@ -43,7 +47,9 @@ public class CacheManagerOptions {
         .setEvictorClass(conf.getClass(PropertyKey.USER_CLIENT_CACHE_EVICTOR_CLASS))
         .setIsNondeterministic(
             conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_EVICTOR_NONDETERMINISTIC_ENABLED))
-        .setLFULogBase(conf.getDouble(PropertyKey.USER_CLIENT_CACHE_EVICTOR_LFU_LOGBASE));
+        .setLFULogBase(conf.getDouble(PropertyKey.USER_CLIENT_CACHE_EVICTOR_LFU_LOGBASE))
+        .setTinyLfuWindowRatio(
+            conf.getDouble(PropertyKey.USER_CLIENT_CACHE_EVICTOR_TINYLFU_WINDOW_RATIO));
     CacheManagerOptions options = new CacheManagerOptions()
         .setAsyncRestoreEnabled(
             conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_ASYNC_RESTORE_ENABLED))
@@ -53,6 +59,14 @@ public class CacheManagerOptions {
         .setMaxEvictionRetries(conf.getInt(PropertyKey.USER_CLIENT_CACHE_EVICTION_RETRIES))
         .setPageSize(conf.getBytes(PropertyKey.USER_CLIENT_CACHE_PAGE_SIZE))
         .setQuotaEnabled(conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_QUOTA_ENABLED))
+        .setCompactMetaStoreEnabled(
+            conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_METASTORE_COMPACT_ENABLED))
+        .setShardedMetaStoreEnabled(
+            conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_METASTORE_SHARDED_ENABLED))
+        .setMetaSnapshotEnabled(
+            conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_METASTORE_SNAPSHOT_ENABLED))
+        .setMetaSnapshotIntervalMs(
+            conf.getMs(PropertyKey.USER_CLIENT_CACHE_METASTORE_SNAPSHOT_INTERVAL))
         .setTtlEnabled(conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_TTL_ENABLED))
         .setTtlCheckIntervalSeconds(
             conf.getLong(PropertyKey.USER_CLIENT_CACHE_TTL_CHECK_INTERVAL_SECONDS))
@@ -71,7 +85,9 @@ public class CacheManagerOptions {
         .setEvictorClass(conf.getClass(PropertyKey.WORKER_PAGE_STORE_EVICTOR_CLASS))
         .setIsNondeterministic(
             conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_EVICTOR_NONDETERMINISTIC_ENABLED))
-        .setLFULogBase(conf.getDouble(PropertyKey.WORKER_PAGE_STORE_EVICTOR_LFU_LOGBASE));
+        .setLFULogBase(conf.getDouble(PropertyKey.WORKER_PAGE_STORE_EVICTOR_LFU_LOGBASE))
+        .setTinyLfuWindowRatio(
+            conf.getDouble(PropertyKey.WORKER_PAGE_STORE_EVICTOR_TINYLFU_WINDOW_RATIO));
     CacheManagerOptions options = new CacheManagerOptions()
         .setAsyncRestoreEnabled(
             conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_ASYNC_RESTORE_ENABLED))
@@ -81,6 +97,14 @@ public class CacheManagerOptions {
         .setMaxEvictionRetries(conf.getInt(PropertyKey.WORKER_PAGE_STORE_EVICTION_RETRIES))
         .setPageSize(conf.getBytes(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE))
         .setQuotaEnabled(conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_QUOTA_ENABLED))
+        .setCompactMetaStoreEnabled(
+            conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_METASTORE_COMPACT_ENABLED))
+        .setShardedMetaStoreEnabled(
+            conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_METASTORE_SHARDED_ENABLED))
+        .setMetaSnapshotEnabled(
+            conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_METASTORE_SNAPSHOT_ENABLED))
+        .setMetaSnapshotIntervalMs(
+            conf.getMs(PropertyKey.WORKER_PAGE_STORE_METASTORE_SNAPSHOT_INTERVAL))
         .setCacheEvictorOptions(cacheEvictorOptions)
         .setPageStoreOptions(PageStoreOptions.createForWorkerPageStore(conf));
     return options;
@@ -120,6 +144,34 @@ public class CacheManagerOptions {
     return mQuotaEnabled;
   }
 
+  /**
+   * @return if the compact page meta store is enabled
+   */
+  public boolean isCompactMetaStoreEnabled() {
+    return mCompactMetaStoreEnabled;
+  }
+
+  /**
+   * @return if the sharded page meta store is enabled
+   */
+  public boolean isShardedMetaStoreEnabled() {
+    return mShardedMetaStoreEnabled;
+  }
+
+  /**
+   * @return if the snapshots of the metadata of the pages are enabled
+   */
+  public boolean isMetaSnapshotEnabled() {
+    return mMetaSnapshotEnabled;
+  }
+
+  /**
+   * @return the interval between the snapshots of the metadata of the pages in ms
+   */
+  public long getMetaSnapshotIntervalMs() {
+    return mMetaSnapshotIntervalMs;
+  }
+
   /**
    * @return if cache ttl is enabled
    */
@@ -233,6 +285,42 @@ public class CacheManagerOptions {
     return this;
   }
 
+  /**
+   * @param isCompactMetaStoreEnabled
+   * @return the updated options
+   */
+  public CacheManagerOptions setCompactMetaStoreEnabled(boolean isCompactMetaStoreEnabled) {
+    mCompactMetaStoreEnabled = isCompactMetaStoreEnabled;
+    return this;
+  }
+
+  /**
+   * @param isShardedMetaStoreEnabled
+   * @return the updated options
+   */
+  public CacheManagerOptions setShardedMetaStoreEnabled(boolean isShardedMetaStoreEnabled) {
+    mShardedMetaStoreEnabled = isShardedMetaStoreEnabled;
+    return this;
+  }
+
+  /**
+   * @param isMetaSnapshotEnabled
+   * @return the updated options
+   */
+  public CacheManagerOptions setMetaSnapshotEnabled(boolean isMetaSnapshotEnabled) {
+    mMetaSnapshotEnabled = isMetaSnapshotEnabled;
+    return this;
+  }
+
+  /**
+   * @param metaSnapshotIntervalMs
+   * @return the updated options
+   */
+  public CacheManagerOptions setMetaSnapshotIntervalMs(long metaSnapshotIntervalMs) {
+    mMetaSnapshotIntervalMs = metaSnapshotIntervalMs;
+    return this;
+  }
+
   /**
    * @param pageStoreOptions
    * @return the updated options
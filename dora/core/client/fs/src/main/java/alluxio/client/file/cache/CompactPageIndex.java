@@ -0,0 +1,537 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import alluxio.client.file.cache.store.PageStoreDir;
+import alluxio.client.quota.CacheScope;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * An index of the cached pages keeping the metadata of each page in primitive arrays, instead
+ * of a {@link PageId} and a {@link PageInfo} per page plus the entries of the maps indexing them.
+ *
+ * Each file is interned once, and a page is keyed by the int key of its file and its page index.
+ * The metadata of a page takes a slot in parallel arrays: file key, page index, page size,
+ * creation time, directory and scope, plus the links of the list of the pages of its file. The
+ * slots are looked up through an open addressing table of slot numbers with linear probing,
+ * so a page costs a few dozen bytes, and nothing is allocated to look a page up by a
+ * {@link PageId} or to add or remove a page. {@link PageInfo} objects are only created when
+ * returned to the caller.
+ *
+ * Renaming a file, e.g. when committing a temporary file, only renames the interned file.
+ */
+@NotThreadSafe
+final class CompactPageIndex {
+  private static final int NONE = -1;
+  private static final int INITIAL_CAPACITY = 1024;
+  private static final double MAX_LOAD_FACTOR = 0.75;
+
+  private final List<PageStoreDir> mDirs;
+
+  /** The interned files, by file id and by file key. */
+  private final Map<String, FileEntry> mFiles = new HashMap<>();
+  private FileEntry[] mFilesByKey = new FileEntry[16];
+  /** The file keys released by the files without pages. */
+  private int[] mFreeFileKeys = new int[16];
+  private int mNumFreeFileKeys = 0;
+  private int mNextFileKey = 0;
+
+  /** The interned scopes of the pages. */
+  private final List<CacheScope> mScopes = new ArrayList<>();
+  private final Map<CacheScope, Integer> mScopeIds = new HashMap<>();
+
+  // the slots of the pages, a free slot is chained to the next free slot through mNext
+  private int[] mFileKey;
+  private long[] mPageIndex;
+  private int[] mPageSize;
+  private long[] mCreatedTime;
+  private byte[] mDir;
+  private int[] mScope;
+  private int[] mPrev;
+  private int[] mNext;
+  private int mFreeSlot = NONE;
+  /** The slots from this one on have never been used. */
+  private int mNextSlot = 0;
+
+  /** The slot numbers of the pages, by hash of the page key. */
+  private int[] mTable;
+  private int mSize = 0;
+  private long mBytes = 0;
+
+  /**
+   * @param dirs the page store directories of the pages
+   */
+  CompactPageIndex(List<PageStoreDir> dirs) {
+    Preconditions.checkArgument(dirs.size() <= Byte.MAX_VALUE + 1,
+        "at most %s page store directories are supported", Byte.MAX_VALUE + 1);
+    mDirs = dirs;
+    allocateSlots(INITIAL_CAPACITY);
+    mTable = newTable(tableSizeFor(INITIAL_CAPACITY));
+  }
+
+  /**
+   * @return the number of pages
+   */
+  int size() {
+    return mSize;
+  }
+
+  /**
+   * @return the number of bytes of the pages
+   */
+  long bytes() {
+    return mBytes;
+  }
+
+  /**
+   * @param pageId the page id
+   * @return whether the page is indexed
+   */
+  boolean contains(PageId pageId) {
+    return findSlot(pageId) != NONE;
+  }
+
+  /**
+   * @param pageId the page id
+   * @return the info of the page, or null if the page is not indexed
+   */
+  @Nullable
+  PageInfo get(PageId pageId) {
+    int slot = findSlot(pageId);
+    return slot == NONE ? null : toPageInfo(slot);
+  }
+
+  /**
+   * Adds a page, replacing the page with the same id if any.
+   *
+   * @param pageInfo the info of the page
+   * @return the size of the replaced page, or -1 if no page is replaced
+   */
+  long put(PageInfo pageInfo) {
+    PageId pageId = pageInfo.getPageId();
+    Preconditions.checkArgument(pageInfo.getPageSize() <= Integer.MAX_VALUE,
+        "page size %s exceeds %s", pageInfo.getPageSize(), Integer.MAX_VALUE);
+    FileEntry file = mFiles.get(pageId.getFileId());
+    if (file == null) {
+      file = newFile(pageId.getFileId());
+    }
+    return putPage(file, pageId.getPageIndex(), (int) pageInfo.getPageSize(),
+        pageInfo.getCreatedTimestamp(), getDirIndex(pageInfo.getLocalCacheDir()),
+        getScopeId(pageInfo.getScope()));
+  }
+
+  /**
+   * @param pageId the page id
+   * @return the info of the removed page, or null if the page is not indexed
+   */
+  @Nullable
+  PageInfo remove(PageId pageId) {
+    FileEntry file = mFiles.get(pageId.getFileId());
+    if (file == null) {
+      return null;
+    }
+    int position = findPosition(file.mKey, pageId.getPageIndex());
+    if (position == NONE) {
+      return null;
+    }
+    int slot = mTable[position];
+    PageInfo pageInfo = toPageInfo(slot);
+    removeAt(position);
+    return pageInfo;
+  }
+
+  /**
+   * @param fileId the file id
+   * @return the infos of the pages of the file
+   */
+  List<PageInfo> getPages(String fileId) {
+    FileEntry file = mFiles.get(fileId);
+    if (file == null) {
+      return new ArrayList<>(0);
+    }
+    List<PageInfo> pages = new ArrayList<>(file.mNumPages);
+    for (int slot = file.mHead; slot != NONE; slot = mNext[slot]) {
+      pages.add(toPageInfo(slot));
+    }
+    return pages;
+  }
+
+  /**
+   * @param fileId the file id
+   * @return the number of bytes of the pages of the file
+   */
+  long getBytes(String fileId) {
+    FileEntry file = mFiles.get(fileId);
+    long bytes = 0;
+    if (file != null) {
+      for (int slot = file.mHead; slot != NONE; slot = mNext[slot]) {
+        bytes += mPageSize[slot];
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * @param fileId the file id
+   * @return the directory of a page of the file, or null if no page of the file is indexed
+   */
+  @Nullable
+  PageStoreDir getDir(String fileId) {
+    FileEntry file = mFiles.get(fileId);
+    return file == null ? null : mDirs.get(mDir[file.mHead]);
+  }
+
+  /**
+   * Renames a file, its pages replacing the pages with the same index of the new file.
+   *
+   * @param fileId the file id
+   * @param newFileId the new file id
+   * @return whether the file has pages
+   */
+  boolean rename(String fileId, String newFileId) {
+    FileEntry file = mFiles.get(fileId);
+    if (file == null) {
+      return false;
+    }
+    if (fileId.equals(newFileId)) {
+      return true;
+    }
+    FileEntry target = mFiles.get(newFileId);
+    if (target == null) {
+      mFiles.remove(fileId);
+      file.mFileId = newFileId;
+      mFiles.put(newFileId, file);
+      return true;
+    }
+    // moves the pages one by one, the last page removes the file
+    while (mFiles.get(fileId) == file) {
+      int slot = file.mHead;
+      long pageIndex = mPageIndex[slot];
+      int pageSize = mPageSize[slot];
+      long createdTime = mCreatedTime[slot];
+      byte dir = mDir[slot];
+      int scope = mScope[slot];
+      removeAt(findPosition(file.mKey, pageIndex));
+      putPage(target, pageIndex, pageSize, createdTime, dir, scope);
+    }
+    return true;
+  }
+
+  /**
+   * Visits the infos of all the pages.
+   *
+   * @param consumer the consumer of the infos of the pages
+   */
+  void forEach(Consumer<PageInfo> consumer) {
+    for (int slot = 0; slot < mNextSlot; slot++) {
+      if (mFileKey[slot] != NONE) {
+        consumer.accept(toPageInfo(slot));
+      }
+    }
+  }
+
+  /**
+   * @param timeMs the time in ms
+   * @return the infos of the pages created no later than the given time, oldest first
+   */
+  List<PageInfo> getCreatedBefore(long timeMs) {
+    List<PageInfo> pages = new ArrayList<>();
+    for (int slot = 0; slot < mNextSlot; slot++) {
+      if (mFileKey[slot] != NONE && mCreatedTime[slot] <= timeMs) {
+        pages.add(toPageInfo(slot));
+      }
+    }
+    pages.sort((a, b) -> Long.compare(a.getCreatedTimestamp(), b.getCreatedTimestamp()));
+    return pages;
+  }
+
+  /**
+   * @return the infos of the pages in each page store directory storing any
+   */
+  Map<PageStoreDir, List<PageInfo>> getPagesByDir() {
+    Map<PageStoreDir, List<PageInfo>> pages = new HashMap<>();
+    for (int slot = 0; slot < mNextSlot; slot++) {
+      if (mFileKey[slot] != NONE) {
+        pages.computeIfAbsent(mDirs.get(mDir[slot]), dir -> new ArrayList<>())
+            .add(toPageInfo(slot));
+      }
+    }
+    return pages;
+  }
+
+  /**
+   * Removes all the pages.
+   */
+  void clear() {
+    mFiles.clear();
+    mFilesByKey = new FileEntry[16];
+    mNumFreeFileKeys = 0;
+    mNextFileKey = 0;
+    mFileKey = null;
+    allocateSlots(INITIAL_CAPACITY);
+    mFreeSlot = NONE;
+    mNextSlot = 0;
+    mTable = newTable(tableSizeFor(INITIAL_CAPACITY));
+    mSize = 0;
+    mBytes = 0;
+  }
+
+  private long putPage(FileEntry file, long pageIndex, int pageSize, long createdTime, byte dir,
+      int scope) {
+    int position = findPosition(file.mKey, pageIndex);
+    if (position != NONE) {
+      int slot = mTable[position];
+      long previousSize = mPageSize[slot];
+      mBytes += pageSize - previousSize;
+      mPageSize[slot] = pageSize;
+      mCreatedTime[slot] = createdTime;
+      mDir[slot] = dir;
+      mScope[slot] = scope;
+      return previousSize;
+    }
+    if (mSize + 1 > mTable.length * MAX_LOAD_FACTOR) {
+      rehash(mTable.length * 2);
+    }
+    int slot = allocateSlot();
+    mFileKey[slot] = file.mKey;
+    mPageIndex[slot] = pageIndex;
+    mPageSize[slot] = pageSize;
+    mCreatedTime[slot] = createdTime;
+    mDir[slot] = dir;
+    mScope[slot] = scope;
+    // links the page at the head of the pages of its file
+    mPrev[slot] = NONE;
+    mNext[slot] = file.mHead;
+    if (file.mHead != NONE) {
+      mPrev[file.mHead] = slot;
+    }
+    file.mHead = slot;
+    file.mNumPages++;
+    insert(slot);
+    mSize++;
+    mBytes += pageSize;
+    return NONE;
+  }
+
+  /**
+   * Removes the page at a position of the table.
+   */
+  private void removeAt(int position) {
+    int slot = mTable[position];
+    FileEntry file = mFilesByKey[mFileKey[slot]];
+    // unlinks the page from the pages of its file
+    if (mPrev[slot] != NONE) {
+      mNext[mPrev[slot]] = mNext[slot];
+    } else {
+      file.mHead = mNext[slot];
+    }
+    if (mNext[slot] != NONE) {
+      mPrev[mNext[slot]] = mPrev[slot];
+    }
+    if (--file.mNumPages == 0) {
+      releaseFile(file);
+    }
+    // fills the hole with the following entries of the probe sequence, so lookups do not stop
+    // early, instead of leaving a tombstone
+    int mask = mTable.length - 1;
+    int hole = position;
+    int next = (hole + 1) & mask;
+    while (mTable[next] != NONE) {
+      int moved = mTable[next];
+      int home = hash(mFileKey[moved], mPageIndex[moved]) & mask;
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        mTable[hole] = moved;
+        hole = next;
+      }
+      next = (next + 1) & mask;
+    }
+    mTable[hole] = NONE;
+    mSize--;
+    mBytes -= mPageSize[slot];
+    freeSlot(slot);
+  }
+
+  private int findSlot(PageId pageId) {
+    FileEntry file = mFiles.get(pageId.getFileId());
+    if (file == null) {
+      return NONE;
+    }
+    int position = findPosition(file.mKey, pageId.getPageIndex());
+    return position == NONE ? NONE : mTable[position];
+  }
+
+  /**
+   * @return the position of the page in the table, or -1 if the page is not indexed
+   */
+  private int findPosition(int fileKey, long pageIndex) {
+    int mask = mTable.length - 1;
+    for (int position = hash(fileKey, pageIndex) & mask; ; position = (position + 1) & mask) {
+      int slot = mTable[position];
+      if (slot == NONE) {
+        return NONE;
+      }
+      if (mFileKey[slot] == fileKey && mPageIndex[slot] == pageIndex) {
+        return position;
+      }
+    }
+  }
+
+  private void insert(int slot) {
+    int mask = mTable.length - 1;
+    int position = hash(mFileKey[slot], mPageIndex[slot]) & mask;
+    while (mTable[position] != NONE) {
+      position = (position + 1) & mask;
+    }
+    mTable[position] = slot;
+  }
+
+  private void rehash(int tableSize) {
+    mTable = newTable(tableSize);
+    for (int slot = 0; slot < mNextSlot; slot++) {
+      if (mFileKey[slot] != NONE) {
+        insert(slot);
+      }
+    }
+  }
+
+  private int allocateSlot() {
+    if (mFreeSlot != NONE) {
+      int slot = mFreeSlot;
+      mFreeSlot = mNext[slot];
+      return slot;
+    }
+    if (mNextSlot == mFileKey.length) {
+      allocateSlots(mFileKey.length * 2);
+    }
+    return mNextSlot++;
+  }
+
+  private void freeSlot(int slot) {
+    mFileKey[slot] = NONE;
+    mNext[slot] = mFreeSlot;
+    mFreeSlot = slot;
+  }
+
+  private void allocateSlots(int capacity) {
+    if (mFileKey == null) {
+      mFileKey = new int[capacity];
+      mPageIndex = new long[capacity];
+      mPageSize = new int[capacity];
+      mCreatedTime = new long[capacity];
+      mDir = new byte[capacity];
+      mScope = new int[capacity];
+      mPrev = new int[capacity];
+      mNext = new int[capacity];
+      return;
+    }
+    mFileKey = Arrays.copyOf(mFileKey, capacity);
+    mPageIndex = Arrays.copyOf(mPageIndex, capacity);
+    mPageSize = Arrays.copyOf(mPageSize, capacity);
+    mCreatedTime = Arrays.copyOf(mCreatedTime, capacity);
+    mDir = Arrays.copyOf(mDir, capacity);
+    mScope = Arrays.copyOf(mScope, capacity);
+    mPrev = Arrays.copyOf(mPrev, capacity);
+    mNext = Arrays.copyOf(mNext, capacity);
+  }
+
+  private FileEntry newFile(String fileId) {
+    int key;
+    if (mNumFreeFileKeys > 0) {
+      key = mFreeFileKeys[--mNumFreeFileKeys];
+    } else {
+      key = mNextFileKey++;
+      if (key == mFilesByKey.length) {
+        mFilesByKey = Arrays.copyOf(mFilesByKey, key * 2);
+      }
+    }
+    FileEntry file = new FileEntry(fileId, key);
+    mFiles.put(fileId, file);
+    mFilesByKey[key] = file;
+    return file;
+  }
+
+  private void releaseFile(FileEntry file) {
+    mFiles.remove(file.mFileId);
+    mFilesByKey[file.mKey] = null;
+    if (mNumFreeFileKeys == mFreeFileKeys.length) {
+      mFreeFileKeys = Arrays.copyOf(mFreeFileKeys, mNumFreeFileKeys * 2);
+    }
+    mFreeFileKeys[mNumFreeFileKeys++] = file.mKey;
+  }
+
+  private byte getDirIndex(PageStoreDir dir) {
+    for (int i = 0; i < mDirs.size(); i++) {
+      if (mDirs.get(i) == dir) {
+        return (byte) i;
+      }
+    }
+    throw new IllegalArgumentException("Unknown page store directory " + dir.getRootPath());
+  }
+
+  private int getScopeId(CacheScope scope) {
+    Integer id = mScopeIds.get(scope);
+    if (id == null) {
+      id = mScopes.size();
+      mScopes.add(scope);
+      mScopeIds.put(scope, id);
+    }
+    return id;
+  }
+
+  private PageInfo toPageInfo(int slot) {
+    return new PageInfo(new PageId(mFilesByKey[mFileKey[slot]].mFileId, mPageIndex[slot]),
+        mPageSize[slot], mScopes.get(mScope[slot]), mDirs.get(mDir[slot]), mCreatedTime[slot]);
+  }
+
+  private static int[] newTable(int size) {
+    int[] table = new int[size];
+    Arrays.fill(table, NONE);
+    return table;
+  }
+
+  private static int tableSizeFor(int capacity) {
+    return Integer.highestOneBit((int) (capacity / MAX_LOAD_FACTOR) - 1) << 1;
+  }
+
+  private static int hash(int fileKey, long pageIndex) {
+    long h = pageIndex * 0x9E3779B97F4A7C15L + fileKey;
+    h ^= h >>> 32;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 29;
+    return (int) h;
+  }
+
+  /**
+   * An interned file, with the list of its pages.
+   */
+  private static final class FileEntry {
+    private String mFileId;
+    private final int mKey;
+    private int mHead = NONE;
+    private int mNumPages = 0;
+
+    private FileEntry(String fileId, int key) {
+      mFileId = fileId;
+      mKey = key;
+    }
+  }
+}
@@ -0,0 +1,288 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import static java.util.Objects.requireNonNull;
+
+import alluxio.client.file.cache.allocator.Allocator;
+import alluxio.client.file.cache.allocator.HashAllocator;
+import alluxio.client.file.cache.evictor.CacheEvictor;
+import alluxio.client.file.cache.store.PageStoreDir;
+import alluxio.client.quota.CacheScope;
+import alluxio.exception.FileDoesNotExistException;
+import alluxio.exception.PageNotFoundException;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+
+import com.codahale.metrics.Counter;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A metadata store for pages stored in cache, keeping the metadata of the pages in a
+ * {@link CompactPageIndex} instead of a {@link PageInfo} object per page indexed by hash maps,
+ * to cut the heap taken by the metadata of caches with many pages.
+ *
+ * Like {@link DefaultPageMetaStore}, this implementation is not thread safe and requires
+ * synchronizations on external callers by acquiring the associated lock. The page infos returned
+ * are created on each call, and the pages created before a given time are found by scanning the
+ * index instead of keeping them ordered by creation time.
+ */
+@NotThreadSafe
+public class CompactPageMetaStore implements PageMetaStore {
+  private static final Logger LOG = LoggerFactory.getLogger(CompactPageMetaStore.class);
+
+  private final CompactPageIndex mIndex;
+  private final ImmutableList<PageStoreDir> mDirs;
+  /** The number of logical bytes used, updated from the index under the write lock. */
+  private final AtomicLong mBytes = new AtomicLong(0);
+
+  protected final ReentrantReadWriteLock mLock = new ReentrantReadWriteLock();
+  private final Allocator mAllocator;
+
+  /**
+   * @param dirs storage directories
+   */
+  public CompactPageMetaStore(List<PageStoreDir> dirs) {
+    this(dirs, new HashAllocator(dirs));
+  }
+
+  /**
+   * @param dirs storage directories
+   * @param allocator storage allocator
+   */
+  public CompactPageMetaStore(List<PageStoreDir> dirs, Allocator allocator) {
+    mDirs = ImmutableList.copyOf(requireNonNull(dirs));
+    mAllocator = requireNonNull(allocator);
+    mIndex = new CompactPageIndex(mDirs);
+    //metrics for the num of pages stored in the cache
+    MetricsSystem.registerGaugeIfAbsent(MetricKey.CLIENT_CACHE_PAGES.getName(),
+        mIndex::size);
+  }
+
+  @Override
+  public ReentrantReadWriteLock getLock() {
+    return mLock;
+  }
+
+  @Override
+  @GuardedBy("getLock()")
+  public boolean hasPage(PageId pageId) {
+    return mIndex.contains(pageId);
+  }
+
+  @Override
+  @GuardedBy("getLock().writeLock()")
+  public void addPage(PageId pageId, PageInfo pageInfo) {
+    addPageInternal(pageId, pageInfo);
+    pageInfo.getLocalCacheDir().putPage(pageInfo);
+  }
+
+  @Override
+  @GuardedBy("getLock().writeLock()")
+  public void addTempPage(PageId pageId, PageInfo pageInfo) {
+    addPageInternal(pageId, pageInfo);
+    pageInfo.getLocalCacheDir().putTempPage(pageInfo);
+  }
+
+  private void addPageInternal(PageId pageId, PageInfo pageInfo) {
+    Preconditions.checkArgument(pageId.equals(pageInfo.getPageId()), "page id mismatch");
+    mIndex.put(pageInfo);
+    updateBytes();
+  }
+
+  @Override
+  @GuardedBy("getLock().writeLock()")
+  public void commitFile(String fileId, String newFileId) throws PageNotFoundException {
+    if (!mIndex.rename(fileId, newFileId)) {
+      throw new PageNotFoundException(
+          String.format("No Pages found for file %s when committing", fileId));
+    }
+    updateBytes();
+  }
+
+  @Override
+  @GuardedBy("getLock()")
+  public PageStoreDir getStoreDirOfFile(String fileId) throws FileDoesNotExistException {
+    PageStoreDir dir = mIndex.getDir(fileId);
+    if (dir == null) {
+      throw new FileDoesNotExistException(String.format("File %s does not exist in cache", fileId));
+    }
+    return dir;
+  }
+
+  @Override
+  public List<PageStoreDir> getStoreDirs() {
+    return mDirs;
+  }
+
+  @Override
+  public PageStoreDir allocate(String fileId, long fileLength) {
+    return mAllocator.allocate(fileId, fileLength);
+  }
+
+  @Override
+  @GuardedBy("getLock()")
+  public PageInfo getPageInfo(PageId pageId) throws PageNotFoundException {
+    PageInfo pageInfo = mIndex.get(pageId);
+    if (pageInfo == null) {
+      throw new PageNotFoundException(String.format("Page %s could not be found", pageId));
+    }
+    pageInfo.getLocalCacheDir().getEvictor().updateOnGet(pageId);
+    return pageInfo;
+  }
+
+  @Override
+  @GuardedBy("getLock().writeLock()")
+  public PageInfo removePage(PageId pageId, boolean isTemporary) throws PageNotFoundException {
+    PageInfo pageInfo = mIndex.remove(pageId);
+    if (pageInfo == null) {
+      throw new PageNotFoundException(String.format("Page %s could not be found", pageId));
+    }
+    updateBytes();
+    if (isTemporary) {
+      pageInfo.getLocalCacheDir().deleteTempPage(pageInfo);
+    } else {
+      pageInfo.getLocalCacheDir().deletePage(pageInfo);
+    }
+    return pageInfo;
+  }
+
+  @Override
+  @GuardedBy("getLock().writeLock()")
+  public PageInfo removePage(PageId pageId) throws PageNotFoundException {
+    return removePage(pageId, false);
+  }
+
+  @Override
+  public long bytes() {
+    return mBytes.get();
+  }
+
+  @Override
+  @GuardedBy("getLock()")
+  public long numPages() {
+    return mIndex.size();
+  }
+
+  @Override
+  @GuardedBy("getLock().writeLock()")
+  public void reset() {
+    mIndex.clear();
+    updateBytes();
+  }
+
+  @Override
+  @Nullable
+  @GuardedBy("getLock()")
+  public PageInfo evict(CacheScope scope, PageStoreDir pageStoreDir) {
+    CacheEvictor evictor = pageStoreDir.getEvictor();
+    PageId victim = evictor.evict();
+    if (victim == null) {
+      return null;
+    }
+    PageInfo victimInfo = mIndex.get(victim);
+    if (victimInfo == null) {
+      LOG.error("Invalid result returned by evictor: page {} not available", victim);
+      evictor.updateOnDelete(victim);
+      return null;
+    }
+    return victimInfo;
+  }
+
+  @Override
+  @GuardedBy("getLock().readLock()")
+  public Set<PageInfo> getAllPagesByFileId(String fileId) {
+    return new HashSet<>(mIndex.getPages(fileId));
+  }
+
+  @Override
+  @GuardedBy("getLock().readLock()")
+  public List<PageInfo> getPagesCreatedBefore(long timeMs) {
+    return mIndex.getCreatedBefore(timeMs);
+  }
+
+  @Override
+  @GuardedBy("getLock().readLock()")
+  public Map<PageStoreDir, List<PageInfo>> getPagesByDir() {
+    return mIndex.getPagesByDir();
+  }
+
+  @Override
+  public Optional<CacheUsage> getUsage() {
+    return Optional.of(new Usage());
+  }
+
+  private void updateBytes() {
+    long bytes = mIndex.bytes();
+    Metrics.SPACE_USED.inc(bytes - mBytes.getAndSet(bytes));
+  }
+
+  class Usage implements CacheUsage {
+
+    @Override
+    public long used() {
+      return bytes();
+    }
+
+    @Override
+    public long available() {
+      return capacity() - used();
+    }
+
+    @Override
+    public long capacity() {
+      return mDirs.stream().mapToLong(PageStoreDir::getCapacityBytes).sum();
+    }
+
+    @Override
+    public Optional<CacheUsage> partitionedBy(PartitionDescriptor<?> partition) {
+      if (partition instanceof FilePartition) {
+        String fileId = ((FilePartition) partition).getIdentifier();
+        long used = mIndex.getBytes(fileId);
+        long capacity = capacity();
+        long available = capacity - bytes();
+        return Optional.of(new ImmutableCacheUsageView(used, available, capacity));
+      }
+      if (partition instanceof DirPartition) {
+        int dirIndex = ((DirPartition) partition).getIdentifier();
+        if (dirIndex < 0 || dirIndex >= mDirs.size()) {
+          return Optional.empty();
+        }
+        return mDirs.get(dirIndex).getUsage();
+      }
+      return Optional.empty();
+    }
+  }
+
+  private static final class Metrics {
+    // Note that only counter can be added here.
+    // Both meter and timer need to be used inline
+    // because new meter and timer will be created after {@link MetricsSystem.resetAllMetrics()}
+    /** Bytes used in the cache. */
+    private static final Counter SPACE_USED =
+        MetricsSystem.counter(MetricKey.CLIENT_CACHE_SPACE_USED_COUNT.getName());
+  }
+}
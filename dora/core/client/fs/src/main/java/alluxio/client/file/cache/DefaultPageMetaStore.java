@@ -32,10 +32,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.NotThreadSafe;
@@ -50,6 +52,9 @@ public class DefaultPageMetaStore implements PageMetaStore {
   private static final Logger LOG = LoggerFactory.getLogger(DefaultPageMetaStore.class);
   /** A map from PageId to page info. */
   private final IndexedSet<PageInfo> mPages = new IndexedSet<>(INDEX_PAGE_ID, INDEX_FILE_ID);
+  /** The pages ordered by their creation time, or null if not indexed. */
+  @Nullable
+  private final PageCreationTimeIndex mPagesByCreationTime;
   private final ImmutableList<PageStoreDir> mDirs;
   /** The number of logical bytes used. */
   private final AtomicLong mBytes = new AtomicLong(0);
@@ -76,8 +81,21 @@ public class DefaultPageMetaStore implements PageMetaStore {
    * @param allocator storage allocator
    */
   public DefaultPageMetaStore(List<PageStoreDir> dirs, Allocator allocator) {
+    this(dirs, allocator, false);
+  }
+
+  /**
+   * Constructor of DefaultMetaStore.
+   *
+   * @param dirs storage directories
+   * @param allocator storage allocator
+   * @param indexCreationTime whether to index the pages by creation time, to expire them
+   */
+  public DefaultPageMetaStore(List<PageStoreDir> dirs, Allocator allocator,
+      boolean indexCreationTime) {
     mDirs = ImmutableList.copyOf(requireNonNull(dirs));
     mAllcator = requireNonNull(allocator);
+    mPagesByCreationTime = indexCreationTime ? new PageCreationTimeIndex() : null;
     //metrics for the num of pages stored in the cache
     MetricsSystem.registerGaugeIfAbsent(MetricKey.CLIENT_CACHE_PAGES.getName(),
         mPages::size);
@@ -103,7 +121,9 @@ public class DefaultPageMetaStore implements PageMetaStore {
 
   private void addPageInternal(PageId pageId, PageInfo pageInfo) {
     Preconditions.checkArgument(pageId.equals(pageInfo.getPageId()), "page id mismatch");
-    mPages.add(pageInfo);
+    if (mPages.add(pageInfo) && mPagesByCreationTime != null) {
+      mPagesByCreationTime.add(pageInfo);
+    }
     mBytes.addAndGet(pageInfo.getPageSize());
     Metrics.SPACE_USED.inc(pageInfo.getPageSize());
   }
@@ -129,6 +149,10 @@ public class DefaultPageMetaStore implements PageMetaStore {
           oldPageInfo.getScope(), oldPageInfo.getLocalCacheDir());
       mPages.remove(oldPageInfo);
       mPages.add(newPageInfo);
+      if (mPagesByCreationTime != null) {
+        mPagesByCreationTime.remove(oldPageInfo);
+        mPagesByCreationTime.add(newPageInfo);
+      }
     }
   }
 
@@ -171,6 +195,9 @@ public class DefaultPageMetaStore implements PageMetaStore {
 
     PageInfo pageInfo = mPages.getFirstByField(INDEX_PAGE_ID, pageId);
     mPages.remove(pageInfo);
+    if (mPagesByCreationTime != null) {
+      mPagesByCreationTime.remove(pageInfo);
+    }
     mBytes.addAndGet(-pageInfo.getPageSize());
     Metrics.SPACE_USED.dec(pageInfo.getPageSize());
     if (isTemporary) {
@@ -204,6 +231,9 @@ public class DefaultPageMetaStore implements PageMetaStore {
     mBytes.set(0);
     Metrics.SPACE_USED.dec(Metrics.SPACE_USED.getCount());
     mPages.clear();
+    if (mPagesByCreationTime != null) {
+      mPagesByCreationTime.clear();
+    }
   }
 
   @Override
@@ -234,6 +264,22 @@ public class DefaultPageMetaStore implements PageMetaStore {
     return pages;
   }
 
+  @Override
+  @GuardedBy("getLock().readLock()")
+  public List<PageInfo> getPagesCreatedBefore(long timeMs) {
+    if (mPagesByCreationTime == null) {
+      return PageCreationTimeIndex.scanPagesCreatedBefore(mPages, timeMs);
+    }
+    return mPagesByCreationTime.getPagesCreatedBefore(timeMs);
+  }
+
+  @Override
+  @GuardedBy("getLock().readLock()")
+  public Map<PageStoreDir, List<PageInfo>> getPagesByDir() {
+    return mPages.stream()
+        .collect(Collectors.groupingBy(PageInfo::getLocalCacheDir));
+  }
+
   @Override
   public Optional<CacheUsage> getUsage() {
     return Optional.of(new Usage());
@@ -62,6 +62,8 @@ public class LocalCacheFileInStream extends FileInStream {
   private final CacheContext mCacheContext;
   /** File info, fetched from external FS. */
   private final URIStatus mStatus;
+  /** File id of the pages of this file, resolved once so reads do not rebuild it. */
+  private final String mPageFileId;
   private final FileInStreamOpener mExternalFileInStreamOpener;
   private final int mBufferSize;
   private final boolean mFallbackEnabled;
@@ -115,6 +117,7 @@ public class LocalCacheFileInStream extends FileInStream {
     mCacheManager = cacheManager;
     mStatus = status;
     mIsDora = conf.getBoolean(PropertyKey.DORA_ENABLED);
+    mPageFileId = getPageFileId(status, mIsDora);
     // Currently quota is only supported when it is set by external systems in status context
     mQuotaEnabled = conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_QUOTA_ENABLED);
     if (mQuotaEnabled && status.getCacheContext() != null) {
@@ -181,17 +184,8 @@ public class LocalCacheFileInStream extends FileInStream {
   private int localCachedRead(ReadTargetBuffer bytesBuffer, int length,
       ReadType readType, long position, Stopwatch stopwatch) throws IOException {
     long currentPage = position / mPageSize;
-    PageId pageId;
+    PageId pageId = new PageId(mPageFileId, currentPage);
     CacheContext cacheContext = mStatus.getCacheContext();
-    if (cacheContext != null && cacheContext.getCacheIdentifier() != null) {
-      pageId = new PageId(cacheContext.getCacheIdentifier(), currentPage);
-    } else {
-      // In Dora, the fileId is generated by Worker or by local client, which maybe is not unique.
-      // So we use the ufs path hash as its fileId.
-      String fileId = mIsDora ? new AlluxioURI(mStatus.getUfsPath()).hash() :
-          Long.toString(mStatus.getFileId());
-      pageId = new PageId(fileId, currentPage);
-    }
     int currentPageOffset = (int) (position % mPageSize);
     int bytesLeftInPage = (int) (mPageSize - currentPageOffset);
     int bytesToReadInPage = Math.min(bytesLeftInPage, length);
@@ -233,6 +227,17 @@ public class LocalCacheFileInStream extends FileInStream {
     return bytesToReadInPage;
   }
 
+  private static String getPageFileId(URIStatus status, boolean isDora) {
+    CacheContext cacheContext = status.getCacheContext();
+    if (cacheContext != null && cacheContext.getCacheIdentifier() != null) {
+      return cacheContext.getCacheIdentifier();
+    }
+    // In Dora, the fileId is generated by Worker or by local client, which maybe is not unique.
+    // So we use the ufs path hash as its fileId.
+    return isDora ? new AlluxioURI(status.getUfsPath()).hash() :
+        Long.toString(status.getFileId());
+  }
+
   // TODO(binfan): take ByteBuffer once CacheManager takes ByteBuffer to avoid extra mem copy
   private int readInternal(ReadTargetBuffer targetBuffer, int offset, int length,
       ReadType readType, long position, boolean isPositionedRead) throws IOException {
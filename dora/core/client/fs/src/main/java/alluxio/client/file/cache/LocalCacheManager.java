@@ -17,8 +17,10 @@ import static alluxio.client.file.cache.CacheManager.State.NOT_IN_USE;
 import static alluxio.client.file.cache.CacheManager.State.READ_ONLY;
 import static alluxio.client.file.cache.CacheManager.State.READ_WRITE;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
+import alluxio.Constants;
 import alluxio.client.file.CacheContext;
 import alluxio.client.file.cache.store.PageStoreDir;
 import alluxio.client.quota.CacheQuota;
@@ -45,7 +47,13 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
@@ -56,6 +64,7 @@ import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Predicate;
@@ -106,6 +115,8 @@ public class LocalCacheManager implements CacheManager {
   private final Optional<ExecutorService> mAsyncCacheExecutor;
   /** Executor service for execute the cache ttl check tasks. */
   private final Optional<ScheduledExecutorService> mTtlEnforcerExecutor;
+  /** Executor service for persisting the metadata of the pages periodically. */
+  private final Optional<ScheduledExecutorService> mMetaSnapshotExecutor;
   private final ConcurrentHashSet<PageId> mPendingRequests;
   /**
    * State of this cache.
@@ -162,19 +173,29 @@ public class LocalCacheManager implements CacheManager {
             Optional.empty();
     if (options.isTtlEnabled()) {
       mTtlEnforcerExecutor = Optional.of(newScheduledThreadPool(1));
-      mTtlEnforcerExecutor.get().scheduleAtFixedRate(() ->
-          LocalCacheManager.this.invalidate(pageInfo -> {
-            try {
-              return System.currentTimeMillis() - pageInfo.getCreatedTimestamp()
-                  >= options.getTtlThresholdSeconds() * 1000;
-            } catch (Exception ex) {
-              // In case of any exception, do not invalidate the cache
-              return false;
-            }
-          }), 0, options.getTtlCheckIntervalSeconds(), SECONDS);
+      mTtlEnforcerExecutor.get().scheduleAtFixedRate(() -> {
+        try {
+          invalidateExpiredPages(options.getTtlThresholdSeconds() * Constants.SECOND_MS);
+        } catch (Exception e) {
+          // keep the ttl check running on the next interval
+          LOG.error("Failed to invalidate expired pages", e);
+        }
+      }, 0, options.getTtlCheckIntervalSeconds(), SECONDS);
     } else {
       mTtlEnforcerExecutor = Optional.empty();
     }
+    if (options.isMetaSnapshotEnabled()) {
+      mMetaSnapshotExecutor = Optional.of(newScheduledThreadPool(1));
+      mMetaSnapshotExecutor.get().scheduleWithFixedDelay(() -> {
+        // the pages are restored, and checkpointed once, before the cache is in READ_WRITE
+        if (mState.get() == READ_WRITE) {
+          checkpoint();
+        }
+      }, options.getMetaSnapshotIntervalMs(), options.getMetaSnapshotIntervalMs(),
+          MILLISECONDS);
+    } else {
+      mMetaSnapshotExecutor = Optional.empty();
+    }
     Metrics.registerGauges(mCacheSize, mPageMetaStore);
     mState.set(READ_ONLY);
     Metrics.STATE.inc();
@@ -358,6 +379,180 @@ public class LocalCacheManager implements CacheManager {
     return true;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * With synchronous writes, the batch is first inserted as a whole: the locks of all the pages
+   * are acquired at once, space for all of them is allocated and freed in a single metastore
+   * critical section, and the pages of each directory are handed to its page store in one
+   * call. The pages this cannot handle, e.g. because a page to evict is in use, are then put one
+   * by one.
+   */
+  @Override
+  public int putAll(List<PageId> pageIds, List<ByteBuffer> pages, CacheContext cacheContext) {
+    Preconditions.checkArgument(pageIds.size() == pages.size(),
+        "got %s page ids for %s pages", pageIds.size(), pages.size());
+    LOG.debug("putAll({} pages) enters", pageIds.size());
+    if (mOptions.isAsyncWriteEnabled() || pageIds.size() <= 1) {
+      return CacheManager.super.putAll(pageIds, pages, cacheContext);
+    }
+    if (mState.get() != READ_WRITE) {
+      Metrics.PUT_NOT_READY_ERRORS.inc(pageIds.size());
+      Metrics.PUT_ERRORS.inc(pageIds.size());
+      return 0;
+    }
+    boolean[] done = putBatch(pageIds, pages, cacheContext);
+    int numPut = 0;
+    for (int i = 0; i < pageIds.size(); i++) {
+      if (done[i] || putInternal(pageIds.get(i), pages.get(i), cacheContext)) {
+        numPut++;
+      } else {
+        Metrics.PUT_ERRORS.inc();
+      }
+    }
+    LOG.debug("putAll({} pages) exits: {} pages put", pageIds.size(), numPut);
+    return numPut;
+  }
+
+  /**
+   * Puts as many pages of a batch as possible in one go.
+   *
+   * The page locks are acquired in ascending order, like for a pair of pages. Pages evicted to
+   * make room for the batch are locked with tryLock while the metastore lock is held, so the
+   * batch stops at the first victim in use rather than risking a deadlock.
+   *
+   * @return for each page, whether it is cached after this call
+   */
+  private boolean[] putBatch(List<PageId> pageIds, List<ByteBuffer> pages,
+      CacheContext cacheContext) {
+    boolean[] done = new boolean[pageIds.size()];
+    BitSet lockIds = new BitSet(LOCK_SIZE);
+    for (PageId pageId : pageIds) {
+      lockIds.set(getPageLockId(pageId));
+    }
+    List<Lock> heldLocks = new ArrayList<>();
+    for (int id = lockIds.nextSetBit(0); id >= 0; id = lockIds.nextSetBit(id + 1)) {
+      Lock lock = mPageLocks[id].writeLock();
+      lock.lock();
+      heldLocks.add(lock);
+    }
+    try {
+      List<PageInfo> victims = new ArrayList<>();
+      Map<PageStoreDir, List<Integer>> pagesByDir = new LinkedHashMap<>();
+      Set<PageId> added = new HashSet<>();
+      try (LockResource r = new LockResource(mPageMetaStore.getLock().writeLock())) {
+        for (int i = 0; i < pageIds.size(); i++) {
+          PageId pageId = pageIds.get(i);
+          if (mPageMetaStore.hasPage(pageId)) {
+            done[i] = true;
+            continue;
+          }
+          int pageSize = pages.get(i).remaining();
+          PageStoreDir pageStoreDir = mPageMetaStore.allocate(pageId.getFileId(), pageSize);
+          if (!evictForBatch(pageSize, pageStoreDir, cacheContext, added, lockIds, heldLocks,
+              victims)) {
+            break;
+          }
+          addPageToMetaStore(pageId, pages.get(i), cacheContext, pageStoreDir);
+          added.add(pageId);
+          pagesByDir.computeIfAbsent(pageStoreDir, dir -> new ArrayList<>()).add(i);
+        }
+      }
+      boolean deleteFailed = false;
+      for (PageInfo victim : victims) {
+        try {
+          victim.getLocalCacheDir().getPageStore().delete(victim.getPageId());
+          MetricsSystem.meter(MetricKey.CLIENT_CACHE_BYTES_EVICTED.getName())
+              .mark(victim.getPageSize());
+          MetricsSystem.meter(MetricKey.CLIENT_CACHE_PAGES_EVICTED.getName()).mark();
+        } catch (PageNotFoundException e) {
+          // the victim got deleted by another thread, its space is free anyway
+          LOG.debug("Page {} is unavailable to evict, likely due to a benign race",
+              victim.getPageId());
+        } catch (IOException e) {
+          LOG.error("Failed to delete page {} from pageStore", victim.getPageId(), e);
+          Metrics.PUT_STORE_DELETE_ERRORS.inc();
+          deleteFailed = true;
+        }
+      }
+      if (deleteFailed) {
+        // the space of the victims cannot be reused, leave the batch to the regular path
+        added.forEach(this::undoAddPage);
+        return done;
+      }
+      for (Map.Entry<PageStoreDir, List<Integer>> entry : pagesByDir.entrySet()) {
+        List<PageId> batchIds = new ArrayList<>(entry.getValue().size());
+        List<ByteBuffer> batchPages = new ArrayList<>(entry.getValue().size());
+        long bytesToWrite = 0;
+        for (int i : entry.getValue()) {
+          batchIds.add(pageIds.get(i));
+          // keep the positions of the pages in case they have to be put again one by one
+          batchPages.add(pages.get(i).duplicate());
+          bytesToWrite += pages.get(i).remaining();
+        }
+        try {
+          entry.getKey().getPageStore().putAll(batchIds, batchPages, cacheContext.isTemporary());
+          MetricsSystem.meter(MetricKey.CLIENT_CACHE_BYTES_WRITTEN_CACHE.getName())
+              .mark(bytesToWrite);
+          for (int i : entry.getValue()) {
+            done[i] = true;
+          }
+        } catch (ResourceExhaustedException e) {
+          batchIds.forEach(this::undoAddPage);
+          LOG.error("Failed to add {} pages to pageStore", batchIds.size(), e);
+          Metrics.PUT_STORE_WRITE_NO_SPACE_ERRORS.inc();
+        } catch (IOException e) {
+          batchIds.forEach(this::undoAddPage);
+          LOG.error("Failed to add {} pages to pageStore", batchIds.size(), e);
+          Metrics.PUT_STORE_WRITE_ERRORS.inc();
+        }
+      }
+      return done;
+    } finally {
+      for (int i = heldLocks.size() - 1; i >= 0; i--) {
+        heldLocks.get(i).unlock();
+      }
+    }
+  }
+
+  /**
+   * Removes pages from the metastore until a page of the given size fits into the directory.
+   * The removed pages are locked and added to the victims, to be deleted from their page store.
+   *
+   * @return false if not enough space could be freed without waiting
+   */
+  @GuardedBy("mPageMetaStore.getLock().writeLock()")
+  private boolean evictForBatch(int pageSize, PageStoreDir pageStoreDir,
+      CacheContext cacheContext, Set<PageId> added, BitSet lockIds, List<Lock> heldLocks,
+      List<PageInfo> victims) {
+    CacheScope scopeToEvict;
+    while ((scopeToEvict = checkScopeToEvict(pageSize, pageStoreDir,
+        cacheContext.getCacheScope(), cacheContext.getCacheQuota(), false)) != null) {
+      PageInfo victim = mOptions.isQuotaEnabled()
+          ? ((QuotaPageMetaStore) mPageMetaStore).evict(scopeToEvict, pageStoreDir)
+          : mPageMetaStore.evict(pageStoreDir);
+      if (victim == null || added.contains(victim.getPageId())) {
+        return false;
+      }
+      int lockId = getPageLockId(victim.getPageId());
+      if (!lockIds.get(lockId)) {
+        Lock lock = mPageLocks[lockId].writeLock();
+        if (!lock.tryLock()) {
+          return false;
+        }
+        lockIds.set(lockId);
+        heldLocks.add(lock);
+      }
+      try {
+        mPageMetaStore.removePage(victim.getPageId());
+      } catch (PageNotFoundException e) {
+        return false;
+      }
+      victims.add(victim);
+    }
+    return true;
+  }
+
   private boolean putInternal(PageId pageId, ByteBuffer page, CacheContext cacheContext) {
     PutResult result = PutResult.OK;
     boolean forcedToEvict = false;
@@ -756,6 +951,10 @@ public class LocalCacheManager implements CacheManager {
         }
       }
     }
+    if (mOptions.isMetaSnapshotEnabled()) {
+      // persist the restored pages, so the pages changing from now on are logged on top of them
+      checkpoint();
+    }
     LOG.info("Cache is in READ_WRITE.");
     mState.set(READ_WRITE);
     Metrics.STATE.inc();
@@ -774,7 +973,7 @@ public class LocalCacheManager implements CacheManager {
       return false;
     }
     try {
-      pageStoreDir.scanPages(pageInfo -> {
+      pageStoreDir.restorePages(pageInfo -> {
         if (pageInfo.isPresent()) {
           addPageToDir(pageStoreDir, pageInfo.get());
         }
@@ -791,6 +990,43 @@ public class LocalCacheManager implements CacheManager {
     return true;
   }
 
+  /**
+   * Persists the metadata of the pages of each page store directory, so the pages can be
+   * restored without scanning the directories at the next start.
+   */
+  private void checkpoint() {
+    Map<PageStoreDir, PageStoreDir.Checkpoint> checkpoints = new HashMap<>();
+    Map<PageStoreDir, List<PageInfo>> pagesByDir;
+    // the pages only change under the write lock, so the pages got with the checkpoints started
+    // under the read lock are the pages when they started, and the changes since are logged
+    try (LockResource r = new LockResource(mPageMetaStore.getLock().readLock())) {
+      for (PageStoreDir pageStoreDir : mPageStoreDirs) {
+        try {
+          PageStoreDir.Checkpoint checkpoint = pageStoreDir.startCheckpoint();
+          if (checkpoint != null) {
+            checkpoints.put(pageStoreDir, checkpoint);
+          }
+        } catch (IOException | RuntimeException e) {
+          LOG.error("Failed to checkpoint the pages of PageStoreDir ({})",
+              pageStoreDir.getRootPath(), e);
+        }
+      }
+      if (checkpoints.isEmpty()) {
+        return;
+      }
+      pagesByDir = mPageMetaStore.getPagesByDir();
+    }
+    for (Map.Entry<PageStoreDir, PageStoreDir.Checkpoint> entry : checkpoints.entrySet()) {
+      try {
+        entry.getValue().write(
+            pagesByDir.getOrDefault(entry.getKey(), Collections.emptyList()));
+      } catch (IOException | RuntimeException e) {
+        LOG.error("Failed to checkpoint the pages of PageStoreDir ({})",
+            entry.getKey().getRootPath(), e);
+      }
+    }
+  }
+
   private void addPageToDir(PageStoreDir pageStoreDir, PageInfo pageInfo) {
     PageId pageId = pageInfo.getPageId();
     ReadWriteLock pageLock = getPageLock(pageId);
@@ -872,8 +1108,36 @@ public class LocalCacheManager implements CacheManager {
     });
   }
 
+  /**
+   * Invalidates the pages outliving the TTL. The expired pages are looked up in the meta store,
+   * instead of scanning the page store directories.
+   *
+   * @param ttlMs the TTL of the pages in milliseconds
+   */
+  @VisibleForTesting
+  void invalidateExpiredPages(long ttlMs) {
+    long now = System.currentTimeMillis();
+    List<PageInfo> expiredPages;
+    try (LockResource r = new LockResource(mPageMetaStore.getLock().readLock())) {
+      expiredPages = mPageMetaStore.getPagesCreatedBefore(now - ttlMs);
+    }
+    for (PageInfo pageInfo : expiredPages) {
+      if (delete(pageInfo.getPageId())) {
+        MetricsSystem.meter(MetricKey.CLIENT_CACHE_PAGES_INVALIDATED.getName()).mark();
+        MetricsSystem.histogram(MetricKey.CLIENT_CACHE_PAGES_AGES.getName())
+            .update(now - pageInfo.getCreatedTimestamp());
+        MetricsSystem.histogram(MetricKey.CLIENT_CACHE_PAGES_EXPIRY_LAG.getName())
+            .update(now - pageInfo.getCreatedTimestamp() - ttlMs);
+      }
+    }
+  }
+
   @Override
   public void close() throws Exception {
+    mMetaSnapshotExecutor.ifPresent(ExecutorService::shutdownNow);
+    if (mOptions.isMetaSnapshotEnabled() && mState.get() == READ_WRITE) {
+      checkpoint();
+    }
     for (PageStoreDir pageStoreDir : mPageStoreDirs) {
       pageStoreDir.close();
     }
@@ -59,6 +59,8 @@ public class LocalCachePositionReader implements PositionReader {
    */
   private final CloseableSupplier<PositionReader> mFallbackReader;
   private final FileId mFileId;
+  /** File id of the pages of this file, resolved once so reads do not rebuild it. */
+  private final String mPageFileId;
   private final long mFileSize;
   private volatile boolean mClosed;
 
@@ -111,6 +113,8 @@ public class LocalCachePositionReader implements PositionReader {
     mFileSize = fileSize;
     mPageSize = pageSize;
     mCacheContext = Preconditions.checkNotNull(context);
+    mPageFileId = mCacheContext.getCacheIdentifier() != null
+        ? mCacheContext.getCacheIdentifier() : mFileId.toString();
   }
 
   @Override
@@ -161,12 +165,7 @@ public class LocalCachePositionReader implements PositionReader {
    */
   public Optional<DataFileChannel> getDataFileChannel(long position, int length) {
     long currentPage = position / mPageSize;
-    PageId pageId;
-    if (mCacheContext.getCacheIdentifier() != null) {
-      pageId = new PageId(mCacheContext.getCacheIdentifier(), currentPage);
-    } else {
-      pageId = new PageId(mFileId.toString(), currentPage);
-    }
+    PageId pageId = new PageId(mPageFileId, currentPage);
     int currentPageOffset = (int) (position % mPageSize);
     int bytesLeftInPage = (int) (mPageSize - currentPageOffset);
     int bytesToReadInPage = Math.min(bytesLeftInPage, length);
@@ -182,12 +181,7 @@ public class LocalCachePositionReader implements PositionReader {
   private int localCachedRead(ReadTargetBuffer bytesBuffer, int length,
                               long position, Stopwatch stopwatch) {
     long currentPage = position / mPageSize;
-    PageId pageId;
-    if (mCacheContext.getCacheIdentifier() != null) {
-      pageId = new PageId(mCacheContext.getCacheIdentifier(), currentPage);
-    } else {
-      pageId = new PageId(mFileId.toString(), currentPage);
-    }
+    PageId pageId = new PageId(mPageFileId, currentPage);
     int currentPageOffset = (int) (position % mPageSize);
     int bytesLeftInPage = (int) (mPageSize - currentPageOffset);
     int bytesToReadInPage = Math.min(bytesLeftInPage, length);
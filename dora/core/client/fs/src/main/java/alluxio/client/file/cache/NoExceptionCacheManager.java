@@ -73,6 +73,17 @@ public class NoExceptionCacheManager implements CacheManager {
     }
   }
 
+  @Override
+  public int putAll(List<PageId> pageIds, List<ByteBuffer> pages, CacheContext cacheContext) {
+    try {
+      return mCacheManager.putAll(pageIds, pages, cacheContext);
+    } catch (Exception e) {
+      LOG.error("Failed to put {} pages, cacheContext {}", pageIds.size(), cacheContext, e);
+      Metrics.PUT_ERRORS.inc();
+      return 0;
+    }
+  }
+
   @Override
   public int get(PageId pageId, int pageOffset, ReadTargetBuffer buffer,
                  CacheContext cacheContext) {
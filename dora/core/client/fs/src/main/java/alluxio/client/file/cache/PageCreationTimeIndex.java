@@ -0,0 +1,90 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * An index of the pages in the cache ordered by their creation time, so the pages created
+ * before a given time, e.g. the pages outliving their TTL, are found in time proportional to
+ * their number, without scanning the pages in the page store directories. It is only kept by
+ * the meta stores of caches with TTL enabled, as every page added or removed updates it.
+ */
+@ThreadSafe
+final class PageCreationTimeIndex {
+  private static final Comparator<PageInfo> CREATION_TIME_ORDER =
+      Comparator.comparingLong(PageInfo::getCreatedTimestamp)
+          .thenComparing(pageInfo -> pageInfo.getPageId().getFileId())
+          .thenComparingLong(pageInfo -> pageInfo.getPageId().getPageIndex());
+
+  private final NavigableSet<PageInfo> mPages = new ConcurrentSkipListSet<>(CREATION_TIME_ORDER);
+
+  /**
+   * @param pageInfo the page to add
+   */
+  void add(PageInfo pageInfo) {
+    mPages.add(pageInfo);
+  }
+
+  /**
+   * @param pageInfo the page to remove, as it was added
+   */
+  void remove(PageInfo pageInfo) {
+    mPages.remove(pageInfo);
+  }
+
+  /**
+   * @param timeMs the time in milliseconds
+   * @return the pages created at or before the time, the oldest first
+   */
+  List<PageInfo> getPagesCreatedBefore(long timeMs) {
+    List<PageInfo> pages = new ArrayList<>();
+    for (PageInfo pageInfo : mPages) {
+      if (pageInfo.getCreatedTimestamp() > timeMs) {
+        break;
+      }
+      pages.add(pageInfo);
+    }
+    return pages;
+  }
+
+  /**
+   * Removes all the pages.
+   */
+  void clear() {
+    mPages.clear();
+  }
+
+  /**
+   * Finds the pages created before a given time by scanning them, for the meta stores not
+   * keeping the index.
+   *
+   * @param pages the pages to scan
+   * @param timeMs the time in milliseconds
+   * @return the pages created at or before the time, the oldest first
+   */
+  static List<PageInfo> scanPagesCreatedBefore(Iterable<PageInfo> pages, long timeMs) {
+    List<PageInfo> created = new ArrayList<>();
+    for (PageInfo pageInfo : pages) {
+      if (pageInfo.getCreatedTimestamp() <= timeMs) {
+        created.add(pageInfo);
+      }
+    }
+    created.sort(CREATION_TIME_ORDER);
+    return created;
+  }
+}
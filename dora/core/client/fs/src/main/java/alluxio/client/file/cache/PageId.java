@@ -12,12 +12,15 @@
 package alluxio.client.file.cache;
 
 import com.google.common.base.MoreObjects;
-import com.google.common.base.Objects;
 
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * A class identifies a single cached page.
+ *
+ * Page ids are created and hashed on every cache lookup, so {@link #hashCode()} and
+ * {@link #equals(Object)} are kept free of allocations: the hash is derived from the cached hash
+ * of the file id string and the page index, without boxing or varargs arrays.
  */
 @ThreadSafe
 public class PageId {
@@ -49,7 +52,7 @@ public class PageId {
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(mFileId, mPageIndex);
+    return 31 * mFileId.hashCode() + Long.hashCode(mPageIndex);
   }
 
   @Override
@@ -61,7 +64,7 @@ public class PageId {
       return false;
     }
     PageId that = (PageId) obj;
-    return mFileId.equals(that.mFileId) && mPageIndex == that.mPageIndex;
+    return mPageIndex == that.mPageIndex && mFileId.equals(that.mFileId);
   }
 
   @Override
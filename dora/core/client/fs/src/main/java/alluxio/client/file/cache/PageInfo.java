@@ -116,7 +116,10 @@ public class PageInfo {
 
   @Override
   public int hashCode() {
-    return Objects.hash(mPageId, mPageSize, mCacheScope);
+    int result = mPageId.hashCode();
+    result = 31 * result + Long.hashCode(mPageSize);
+    result = 31 * result + Objects.hashCode(mCacheScope);
+    return result;
   }
 
   @Override
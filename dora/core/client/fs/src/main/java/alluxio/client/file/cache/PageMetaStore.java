@@ -11,6 +11,7 @@
 
 package alluxio.client.file.cache;
 
+import alluxio.client.file.cache.allocator.HashAllocator;
 import alluxio.client.file.cache.store.PageStoreDir;
 import alluxio.client.quota.CacheScope;
 import alluxio.exception.FileDoesNotExistException;
@@ -18,6 +19,7 @@ import alluxio.exception.PageNotFoundException;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.ReadWriteLock;
 
@@ -32,10 +34,19 @@ public interface PageMetaStore extends CacheStatus {
    */
   static PageMetaStore create(CacheManagerOptions options) throws IOException {
     List<PageStoreDir> dirs = PageStoreDir.createPageStoreDirs(options);
+    // the pages are only indexed by creation time to be expired
+    boolean indexCreationTime = options.isTtlEnabled();
     if (options.isQuotaEnabled()) {
-      return new QuotaPageMetaStore(options.getCacheEvictorOptions(), dirs);
+      return new QuotaPageMetaStore(options.getCacheEvictorOptions(), dirs, indexCreationTime);
     }
-    return new DefaultPageMetaStore(dirs);
+    if (options.isCompactMetaStoreEnabled()) {
+      return new CompactPageMetaStore(dirs);
+    }
+    if (options.isShardedMetaStoreEnabled()) {
+      return new ShardedPageMetaStore(dirs, new HashAllocator(dirs),
+          ShardedPageMetaStore.DEFAULT_NUM_SHARDS, indexCreationTime);
+    }
+    return new DefaultPageMetaStore(dirs, new HashAllocator(dirs), indexCreationTime);
   }
 
   /**
@@ -143,6 +154,24 @@ public interface PageMetaStore extends CacheStatus {
    */
   Set<PageInfo> getAllPagesByFileId(String fileId);
 
+  /**
+   * Gets the pages created at or before the given time, e.g. to expire the pages outliving
+   * their TTL. The pages are found from an index of their creation times, without scanning the
+   * page store directories.
+   *
+   * @param timeMs the time in milliseconds
+   * @return the pages created at or before the time, the oldest first
+   */
+  List<PageInfo> getPagesCreatedBefore(long timeMs);
+
+  /**
+   * Gets the pages stored in each page store directory in a single pass over the pages, e.g. to
+   * persist their metadata.
+   *
+   * @return the pages stored in each page store directory, without the directories storing none
+   */
+  Map<PageStoreDir, List<PageInfo>> getPagesByDir();
+
   /**
    * @param pageStoreDir
    * @return a page to evict
@@ -14,6 +14,7 @@ package alluxio.client.file.cache;
 import alluxio.client.file.cache.store.LocalPageStore;
 import alluxio.client.file.cache.store.MemoryPageStore;
 import alluxio.client.file.cache.store.PageStoreOptions;
+import alluxio.client.file.cache.store.SegmentedPageStore;
 import alluxio.exception.PageNotFoundException;
 import alluxio.exception.status.ResourceExhaustedException;
 import alluxio.file.ReadTargetBuffer;
@@ -27,6 +28,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.List;
 
 /**
  * A simple abstraction on the storage to put, get and delete pages. The implementation of this
@@ -48,6 +50,9 @@ public interface PageStore extends AutoCloseable {
       case LOCAL:
         pageStore = new LocalPageStore(options);
         break;
+      case SEGMENT:
+        pageStore = new SegmentedPageStore(options);
+        break;
       case MEM:
         pageStore = new MemoryPageStore((int) options.getPageSize());
         break;
@@ -115,6 +120,25 @@ public interface PageStore extends AutoCloseable {
       ByteBuffer page,
       boolean isTemporary) throws ResourceExhaustedException, IOException;
 
+  /**
+   * Writes a batch of new pages to the store. Stores writing pages next to each other may write
+   * the whole batch at once. If an exception is thrown, any of the pages may or may not have
+   * been written.
+   *
+   * @param pageIds page identifiers
+   * @param pages page data, in the same order as the page identifiers
+   * @param isTemporary is page data temporary
+   * @throws ResourceExhaustedException when there is not enough space found on disk
+   * @throws IOException when the store fails to write the pages
+   */
+  default void putAll(List<PageId> pageIds,
+      List<ByteBuffer> pages,
+      boolean isTemporary) throws ResourceExhaustedException, IOException {
+    for (int i = 0; i < pageIds.size(); i++) {
+      put(pageIds.get(i), pages.get(i), isTemporary);
+    }
+  }
+
   /**
    * Gets a page from the store to the destination buffer.
    *
@@ -11,6 +11,7 @@
 
 package alluxio.client.file.cache;
 
+import alluxio.client.file.cache.allocator.HashAllocator;
 import alluxio.client.file.cache.evictor.CacheEvictor;
 import alluxio.client.file.cache.evictor.CacheEvictorOptions;
 import alluxio.client.file.cache.store.PageStoreDir;
@@ -41,7 +42,17 @@ public class QuotaPageMetaStore extends DefaultPageMetaStore {
    * @param dirs storage directories
    */
   public QuotaPageMetaStore(CacheEvictorOptions cacheEvictorOptions, List<PageStoreDir> dirs) {
-    super(dirs);
+    this(cacheEvictorOptions, dirs, false);
+  }
+
+  /**
+   * @param cacheEvictorOptions options of cache evictor
+   * @param dirs storage directories
+   * @param indexCreationTime whether to index the pages by creation time, to expire them
+   */
+  public QuotaPageMetaStore(CacheEvictorOptions cacheEvictorOptions, List<PageStoreDir> dirs,
+      boolean indexCreationTime) {
+    super(dirs, new HashAllocator(dirs), indexCreationTime);
     mBytesInScope = new ConcurrentHashMap<>();
     mCacheEvictors = new ConcurrentHashMap<>();
     mSupplier = () -> CacheEvictor.create(cacheEvictorOptions);
@@ -0,0 +1,456 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import static java.util.Objects.requireNonNull;
+
+import alluxio.client.file.cache.allocator.Allocator;
+import alluxio.client.file.cache.allocator.HashAllocator;
+import alluxio.client.file.cache.evictor.CacheEvictor;
+import alluxio.client.file.cache.store.PageStoreDir;
+import alluxio.client.quota.CacheScope;
+import alluxio.exception.FileDoesNotExistException;
+import alluxio.exception.PageNotFoundException;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.resource.LockResource;
+
+import com.codahale.metrics.Counter;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A thread-safe implementation of a metadata store for pages stored in cache.
+ *
+ * Unlike {@link DefaultPageMetaStore}, which relies on callers holding a single global
+ * read-write lock, this implementation keeps the pages in a concurrent hash map so lookups are
+ * lock-free, and serializes mutations per file with a set of lock stripes selected by file id.
+ * The per-file index and the byte accounting are updated while holding the stripe of the file,
+ * so they stay consistent with the page map without a global lock.
+ *
+ * The lock returned by {@link #getLock()} is kept for compatibility with callers of the
+ * {@link PageMetaStore} interface: its write lock only serializes compound operations of callers,
+ * such as checking for space and evicting before adding a page. Page lookups update the evictor of
+ * their directory, so the read lock is a no-op only when all the evictors support concurrent
+ * updates (see {@link CacheEvictor#isConcurrent()}). Otherwise it is a regular read lock, which
+ * keeps lookups from racing with the callers holding the write lock.
+ */
+@ThreadSafe
+public class ShardedPageMetaStore implements PageMetaStore {
+  private static final Logger LOG = LoggerFactory.getLogger(ShardedPageMetaStore.class);
+  /** Default number of lock stripes for mutating the pages of files. */
+  public static final int DEFAULT_NUM_SHARDS = 64;
+
+  /** A map from PageId to page info. */
+  private final Map<PageId, PageInfo> mPages = new ConcurrentHashMap<>();
+  /** A map from file id to the page infos of the file, guarded by the shard of the file. */
+  private final Map<String, Set<PageInfo>> mFilePages = new ConcurrentHashMap<>();
+  /**
+   * The pages ordered by their creation time, updated under the shard of the file, or null if
+   * not indexed.
+   */
+  @Nullable
+  private final PageCreationTimeIndex mPagesByCreationTime;
+  private final ReentrantLock[] mShardLocks;
+  private final ImmutableList<PageStoreDir> mDirs;
+  /** The number of logical bytes used. */
+  private final AtomicLong mBytes = new AtomicLong(0);
+
+  private final ReadWriteLock mLock;
+  private final Allocator mAllocator;
+
+  /**
+   * @param dirs storage directories
+   */
+  public ShardedPageMetaStore(List<PageStoreDir> dirs) {
+    this(dirs, new HashAllocator(dirs), DEFAULT_NUM_SHARDS);
+  }
+
+  /**
+   * Constructor of ShardedPageMetaStore.
+   *
+   * @param dirs storage directories
+   * @param allocator storage allocator
+   * @param numShards number of lock stripes for mutating pages
+   */
+  public ShardedPageMetaStore(List<PageStoreDir> dirs, Allocator allocator, int numShards) {
+    this(dirs, allocator, numShards, false);
+  }
+
+  /**
+   * Constructor of ShardedPageMetaStore.
+   *
+   * @param dirs storage directories
+   * @param allocator storage allocator
+   * @param numShards number of lock stripes for mutating pages
+   * @param indexCreationTime whether to index the pages by creation time, to expire them
+   */
+  public ShardedPageMetaStore(List<PageStoreDir> dirs, Allocator allocator, int numShards,
+      boolean indexCreationTime) {
+    Preconditions.checkArgument(numShards > 0, "number of shards should be positive");
+    mDirs = ImmutableList.copyOf(requireNonNull(dirs));
+    mAllocator = requireNonNull(allocator);
+    mPagesByCreationTime = indexCreationTime ? new PageCreationTimeIndex() : null;
+    if (mDirs.stream().allMatch(dir -> dir.getEvictor().isConcurrent())) {
+      mLock = new WriteOnlyReadWriteLock();
+    } else {
+      LOG.info("Evictors of the cache directories do not support concurrent updates, "
+          + "page lookups will hold the read lock of the meta store");
+      mLock = new ReentrantReadWriteLock();
+    }
+    mShardLocks = new ReentrantLock[numShards];
+    for (int i = 0; i < numShards; i++) {
+      mShardLocks[i] = new ReentrantLock();
+    }
+    //metrics for the num of pages stored in the cache
+    MetricsSystem.registerGaugeIfAbsent(MetricKey.CLIENT_CACHE_PAGES.getName(),
+        mPages::size);
+  }
+
+  @Override
+  public ReadWriteLock getLock() {
+    return mLock;
+  }
+
+  @Override
+  public boolean hasPage(PageId pageId) {
+    return mPages.containsKey(pageId);
+  }
+
+  @Override
+  public void addPage(PageId pageId, PageInfo pageInfo) {
+    addPageInternal(pageId, pageInfo);
+    pageInfo.getLocalCacheDir().putPage(pageInfo);
+  }
+
+  @Override
+  public void addTempPage(PageId pageId, PageInfo pageInfo) {
+    addPageInternal(pageId, pageInfo);
+    pageInfo.getLocalCacheDir().putTempPage(pageInfo);
+  }
+
+  private void addPageInternal(PageId pageId, PageInfo pageInfo) {
+    Preconditions.checkArgument(pageId.equals(pageInfo.getPageId()), "page id mismatch");
+    try (LockResource r = new LockResource(getShardLock(pageId.getFileId()))) {
+      PageInfo previous = mPages.put(pageId, pageInfo);
+      Set<PageInfo> pages =
+          mFilePages.computeIfAbsent(pageId.getFileId(), k -> ConcurrentHashMap.newKeySet());
+      if (previous != null) {
+        pages.remove(previous);
+        if (mPagesByCreationTime != null) {
+          mPagesByCreationTime.remove(previous);
+        }
+        mBytes.addAndGet(-previous.getPageSize());
+        Metrics.SPACE_USED.dec(previous.getPageSize());
+      }
+      pages.add(pageInfo);
+      if (mPagesByCreationTime != null) {
+        mPagesByCreationTime.add(pageInfo);
+      }
+      mBytes.addAndGet(pageInfo.getPageSize());
+      Metrics.SPACE_USED.inc(pageInfo.getPageSize());
+    }
+  }
+
+  @Override
+  public void commitFile(String fileId, String newFileId) throws PageNotFoundException {
+    int shard = getShard(fileId);
+    int newShard = getShard(newFileId);
+    // always acquire the stripes in the order of their index to avoid deadlocks
+    try (LockResource r1 = new LockResource(mShardLocks[Math.min(shard, newShard)]);
+         LockResource r2 = shard == newShard ? null
+             : new LockResource(mShardLocks[Math.max(shard, newShard)])) {
+      Set<PageInfo> pages = mFilePages.remove(fileId);
+      if (pages == null || pages.isEmpty()) {
+        throw new PageNotFoundException(
+            String.format("No Pages found for file %s when committing", fileId));
+      }
+      Set<PageInfo> newPages =
+          mFilePages.computeIfAbsent(newFileId, k -> ConcurrentHashMap.newKeySet());
+      for (PageInfo oldPageInfo : pages) {
+        PageId newPageId = new PageId(newFileId, oldPageInfo.getPageId().getPageIndex());
+        PageInfo newPageInfo = new PageInfo(newPageId, oldPageInfo.getPageSize(),
+            oldPageInfo.getScope(), oldPageInfo.getLocalCacheDir());
+        mPages.remove(oldPageInfo.getPageId());
+        mPages.put(newPageId, newPageInfo);
+        newPages.add(newPageInfo);
+        if (mPagesByCreationTime != null) {
+          mPagesByCreationTime.remove(oldPageInfo);
+          mPagesByCreationTime.add(newPageInfo);
+        }
+      }
+    }
+  }
+
+  @Override
+  public PageStoreDir getStoreDirOfFile(String fileId) throws FileDoesNotExistException {
+    Set<PageInfo> pages = mFilePages.get(fileId);
+    if (pages != null) {
+      Iterator<PageInfo> iterator = pages.iterator();
+      if (iterator.hasNext()) {
+        return iterator.next().getLocalCacheDir();
+      }
+    }
+    throw new FileDoesNotExistException(String.format("File %s does not exist in cache", fileId));
+  }
+
+  @Override
+  public List<PageStoreDir> getStoreDirs() {
+    return mDirs;
+  }
+
+  @Override
+  public PageStoreDir allocate(String fileId, long fileLength) {
+    return mAllocator.allocate(fileId, fileLength);
+  }
+
+  @Override
+  public PageInfo getPageInfo(PageId pageId) throws PageNotFoundException {
+    PageInfo pageInfo = mPages.get(pageId);
+    if (pageInfo == null) {
+      throw new PageNotFoundException(String.format("Page %s could not be found", pageId));
+    }
+    pageInfo.getLocalCacheDir().getEvictor().updateOnGet(pageId);
+    return pageInfo;
+  }
+
+  @Override
+  public PageInfo removePage(PageId pageId, boolean isTemporary) throws PageNotFoundException {
+    PageInfo pageInfo;
+    try (LockResource r = new LockResource(getShardLock(pageId.getFileId()))) {
+      pageInfo = mPages.remove(pageId);
+      if (pageInfo == null) {
+        throw new PageNotFoundException(String.format("Page %s could not be found", pageId));
+      }
+      Set<PageInfo> pages = mFilePages.get(pageId.getFileId());
+      if (pages != null) {
+        pages.remove(pageInfo);
+        if (pages.isEmpty()) {
+          mFilePages.remove(pageId.getFileId());
+        }
+      }
+      if (mPagesByCreationTime != null) {
+        mPagesByCreationTime.remove(pageInfo);
+      }
+      mBytes.addAndGet(-pageInfo.getPageSize());
+      Metrics.SPACE_USED.dec(pageInfo.getPageSize());
+    }
+    if (isTemporary) {
+      pageInfo.getLocalCacheDir().deleteTempPage(pageInfo);
+    } else {
+      pageInfo.getLocalCacheDir().deletePage(pageInfo);
+    }
+    return pageInfo;
+  }
+
+  @Override
+  public PageInfo removePage(PageId pageId) throws PageNotFoundException {
+    return removePage(pageId, false);
+  }
+
+  @Override
+  public long bytes() {
+    return mBytes.get();
+  }
+
+  @Override
+  public long numPages() {
+    return mPages.size();
+  }
+
+  @Override
+  public void reset() {
+    int locked = 0;
+    try {
+      for (ReentrantLock lock : mShardLocks) {
+        lock.lock();
+        locked++;
+      }
+      mPages.clear();
+      mFilePages.clear();
+      if (mPagesByCreationTime != null) {
+        mPagesByCreationTime.clear();
+      }
+      mBytes.set(0);
+      Metrics.SPACE_USED.dec(Metrics.SPACE_USED.getCount());
+    } finally {
+      for (int i = 0; i < locked; i++) {
+        mShardLocks[i].unlock();
+      }
+    }
+  }
+
+  @Override
+  @Nullable
+  public PageInfo evict(CacheScope scope, PageStoreDir pageStoreDir) {
+    CacheEvictor evictor = pageStoreDir.getEvictor();
+    PageId victim = evictor.evict();
+    if (victim == null) {
+      return null;
+    }
+    PageInfo victimInfo = mPages.get(victim);
+    if (victimInfo == null) {
+      LOG.error("Invalid result returned by evictor: page {} not available", victim);
+      evictor.updateOnDelete(victim);
+      return null;
+    }
+    return victimInfo;
+  }
+
+  @Override
+  public Set<PageInfo> getAllPagesByFileId(String fileId) {
+    Set<PageInfo> pages = mFilePages.get(fileId);
+    if (pages == null) {
+      return Collections.emptySet();
+    }
+    return new HashSet<>(pages);
+  }
+
+  @Override
+  public List<PageInfo> getPagesCreatedBefore(long timeMs) {
+    if (mPagesByCreationTime == null) {
+      return PageCreationTimeIndex.scanPagesCreatedBefore(mPages.values(), timeMs);
+    }
+    return mPagesByCreationTime.getPagesCreatedBefore(timeMs);
+  }
+
+  @Override
+  public Map<PageStoreDir, List<PageInfo>> getPagesByDir() {
+    return mPages.values().stream()
+        .collect(Collectors.groupingBy(PageInfo::getLocalCacheDir));
+  }
+
+  @Override
+  public Optional<CacheUsage> getUsage() {
+    return Optional.of(new Usage());
+  }
+
+  private int getShard(String fileId) {
+    return Math.floorMod(fileId.hashCode(), mShardLocks.length);
+  }
+
+  private ReentrantLock getShardLock(String fileId) {
+    return mShardLocks[getShard(fileId)];
+  }
+
+  class Usage implements CacheUsage {
+
+    @Override
+    public long used() {
+      return bytes();
+    }
+
+    @Override
+    public long available() {
+      return capacity() - used();
+    }
+
+    @Override
+    public long capacity() {
+      return mDirs.stream().mapToLong(PageStoreDir::getCapacityBytes).sum();
+    }
+
+    @Override
+    public Optional<CacheUsage> partitionedBy(PartitionDescriptor<?> partition) {
+      if (partition instanceof FilePartition) {
+        String fileId = ((FilePartition) partition).getIdentifier();
+        long used = getAllPagesByFileId(fileId).stream().mapToLong(PageInfo::getPageSize).sum();
+        long capacity = capacity();
+        long available = capacity - bytes();
+        return Optional.of(new ImmutableCacheUsageView(used, available, capacity));
+      }
+      if (partition instanceof DirPartition) {
+        int dirIndex = ((DirPartition) partition).getIdentifier();
+        if (dirIndex < 0 || dirIndex >= mDirs.size()) {
+          return Optional.empty();
+        }
+        return mDirs.get(dirIndex).getUsage();
+      }
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * A read-write lock whose read lock does not block. Reads of the meta store are thread-safe
+   * on their own, so only writers of compound operations need to be serialized.
+   */
+  private static final class WriteOnlyReadWriteLock implements ReadWriteLock {
+    private final Lock mReadLock = new NoopLock();
+    private final Lock mWriteLock = new ReentrantLock();
+
+    @Override
+    public Lock readLock() {
+      return mReadLock;
+    }
+
+    @Override
+    public Lock writeLock() {
+      return mWriteLock;
+    }
+  }
+
+  private static final class NoopLock implements Lock {
+    @Override
+    public void lock() {}
+
+    @Override
+    public void lockInterruptibly() {}
+
+    @Override
+    public boolean tryLock() {
+      return true;
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) {
+      return true;
+    }
+
+    @Override
+    public void unlock() {}
+
+    @Override
+    public Condition newCondition() {
+      throw new UnsupportedOperationException("NoopLock does not support conditions");
+    }
+  }
+
+  private static final class Metrics {
+    // Note that only counter can be added here.
+    // Both meter and timer need to be used inline
+    // because new meter and timer will be created after {@link MetricsSystem.resetAllMetrics()}
+    /** Bytes used in the cache. */
+    private static final Counter SPACE_USED =
+        MetricsSystem.counter(MetricKey.CLIENT_CACHE_SPACE_USED_COUNT.getName());
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.evictor;
+
+import alluxio.client.file.cache.PageId;
+import alluxio.resource.LockResource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * LRU client-side cache eviction policy that does not block cache hits.
+ *
+ * Unlike {@link LRUCacheEvictor}, where every hit locks the LRU list to move the page, hits are
+ * appended to a {@link StripedReadBuffer} and replayed onto the LRU list in batches by whichever
+ * thread next acquires the eviction lock. A hit only tries the lock when its buffer fills up, and
+ * never waits for it. Insertions, deletions and evictions take the lock and replay pending hits
+ * first, so the LRU order they observe includes all recorded hits. Under heavy contention some
+ * hits may be dropped, which only makes the recency order approximate.
+ *
+ * Buffered hits only reorder pages that are still tracked, so a hit recorded concurrently with
+ * the deletion of its page does not bring the page back.
+ */
+@ThreadSafe
+public class BufferedLRUCacheEvictor implements CacheEvictor {
+  private static final int LINKED_HASH_MAP_INIT_CAPACITY = 200;
+  private static final float LINKED_HASH_MAP_INIT_LOAD_FACTOR = 0.75f;
+  private static final boolean LINKED_HASH_MAP_ACCESS_ORDERED = true;
+  private static final boolean UNUSED_MAP_VALUE = true;
+
+  private final ReentrantLock mLock = new ReentrantLock();
+  @GuardedBy("mLock")
+  private final Map<PageId, Boolean> mLRUCache = new LinkedHashMap<>(
+      LINKED_HASH_MAP_INIT_CAPACITY, LINKED_HASH_MAP_INIT_LOAD_FACTOR,
+      LINKED_HASH_MAP_ACCESS_ORDERED);
+  private final StripedReadBuffer<PageId> mReadBuffer = new StripedReadBuffer<>();
+
+  /**
+   * Required constructor.
+   *
+   * @param options
+   */
+  public BufferedLRUCacheEvictor(CacheEvictorOptions options) {
+  }
+
+  @Override
+  public void updateOnGet(PageId pageId) {
+    if (mReadBuffer.offer(pageId) && mLock.tryLock()) {
+      try {
+        drainReadBuffer();
+      } finally {
+        mLock.unlock();
+      }
+    }
+  }
+
+  @Override
+  public void updateOnPut(PageId pageId) {
+    try (LockResource r = new LockResource(mLock)) {
+      drainReadBuffer();
+      mLRUCache.put(pageId, UNUSED_MAP_VALUE);
+    }
+  }
+
+  @Override
+  public void updateOnDelete(PageId pageId) {
+    try (LockResource r = new LockResource(mLock)) {
+      drainReadBuffer();
+      mLRUCache.remove(pageId);
+    }
+  }
+
+  @Nullable
+  @Override
+  public PageId evict() {
+    try (LockResource r = new LockResource(mLock)) {
+      drainReadBuffer();
+      return mLRUCache.isEmpty() ? null : mLRUCache.keySet().iterator().next();
+    }
+  }
+
+  @Nullable
+  @Override
+  public PageId evictMatching(Predicate<PageId> criterion) {
+    try (LockResource r = new LockResource(mLock)) {
+      drainReadBuffer();
+      for (PageId candidate : mLRUCache.keySet()) {
+        if (criterion.test(candidate)) {
+          return candidate;
+        }
+      }
+      return null;
+    }
+  }
+
+  @Override
+  public void reset() {
+    try (LockResource r = new LockResource(mLock)) {
+      drainReadBuffer();
+      mLRUCache.clear();
+    }
+  }
+
+  @Override
+  public boolean isConcurrent() {
+    return true;
+  }
+
+  @GuardedBy("mLock")
+  private void drainReadBuffer() {
+    // get on an access-ordered map moves an existing page to the tail and ignores missing ones
+    mReadBuffer.drainTo(mLRUCache::get);
+  }
+}
@@ -78,4 +78,14 @@ public interface CacheEvictor {
    * Resets the evictor.
    */
   void reset();
+
+  /**
+   * Whether the evictor can be updated by concurrent gets that are not excluded from puts and
+   * deletes by the lock of the page meta store.
+   *
+   * @return true if all the updates of this evictor are atomic, false by default
+   */
+  default boolean isConcurrent() {
+    return false;
+  }
 }
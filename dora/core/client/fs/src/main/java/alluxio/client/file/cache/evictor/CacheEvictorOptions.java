@@ -19,6 +19,8 @@ public class CacheEvictorOptions {
   private Class<? extends CacheEvictor> mEvictorClass = LFUCacheEvictor.class;
   private boolean mIsNondeterministic;
   private double mLFULogBase = 2.0;
+  private double mTinyLfuWindowRatio = 0.01;
+  private long mMaxPages = 0;
 
   /**
    * @return if true, the evictor picks uniformly from the worst k elements
@@ -41,6 +43,20 @@ public class CacheEvictorOptions {
     return mLFULogBase;
   }
 
+  /**
+   * @return the share of the cache used as the admission window of the TinyLFU evictor
+   */
+  public double getTinyLfuWindowRatio() {
+    return mTinyLfuWindowRatio;
+  }
+
+  /**
+   * @return the max number of pages tracked by the evictor, or 0 if unknown
+   */
+  public long getMaxPages() {
+    return mMaxPages;
+  }
+
   /**
    * @param isNondeterministic
    * @return CacheEvictorOptions
@@ -67,4 +83,34 @@ public class CacheEvictorOptions {
     mLFULogBase = logBase;
     return this;
   }
+
+  /**
+   * @param windowRatio
+   * @return CacheEvictorOptions
+   */
+  public CacheEvictorOptions setTinyLfuWindowRatio(double windowRatio) {
+    mTinyLfuWindowRatio = windowRatio;
+    return this;
+  }
+
+  /**
+   * @param maxPages the max number of pages tracked by the evictor, or 0 if unknown
+   * @return CacheEvictorOptions
+   */
+  public CacheEvictorOptions setMaxPages(long maxPages) {
+    mMaxPages = maxPages;
+    return this;
+  }
+
+  /**
+   * @return a copy of the options
+   */
+  public CacheEvictorOptions copy() {
+    return new CacheEvictorOptions()
+        .setEvictorClass(mEvictorClass)
+        .setIsNondeterministic(mIsNondeterministic)
+        .setLFULogBase(mLFULogBase)
+        .setTinyLfuWindowRatio(mTinyLfuWindowRatio)
+        .setMaxPages(mMaxPages);
+  }
 }
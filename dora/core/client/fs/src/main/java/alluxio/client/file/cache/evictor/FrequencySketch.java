@@ -0,0 +1,135 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.evictor;
+
+import com.google.common.math.LongMath;
+
+import java.util.Arrays;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A count-min sketch estimating the popularity of items within a time window, with 4-bit
+ * counters packed into longs. Each item maps to one counter in each of the four rows, and its
+ * frequency is the minimum of those counters. Once the number of increments reaches the sample
+ * size, all counters are halved so the sketch keeps adapting to recent history.
+ */
+@NotThreadSafe
+final class FrequencySketch {
+  private static final long[] SEEDS = {
+      0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+  private static final long RESET_MASK = 0x7777777777777777L;
+  private static final int MIN_TABLE_SIZE = 64;
+  private static final int MAX_COUNT = 15;
+  private static final int SAMPLE_FACTOR = 10;
+
+  private long[] mTable;
+  private int mTableMask;
+  private long mSampleSize;
+  private long mSize;
+
+  /**
+   * Creates an empty sketch.
+   */
+  FrequencySketch() {
+    ensureCapacity(MIN_TABLE_SIZE);
+  }
+
+  /**
+   * Resizes the sketch so it tracks at least the given number of items. Resizing drops the
+   * collected counts.
+   *
+   * @param maximumSize the number of items expected to be tracked
+   */
+  void ensureCapacity(long maximumSize) {
+    int maximum = (int) Math.min(Math.max(maximumSize, MIN_TABLE_SIZE), 1 << 30);
+    if (mTable != null && mTable.length >= maximum) {
+      return;
+    }
+    mTable = new long[(int) LongMath.ceilingPowerOfTwo(maximum)];
+    mTableMask = mTable.length - 1;
+    mSampleSize = (long) SAMPLE_FACTOR * mTable.length;
+    mSize = 0;
+  }
+
+  /**
+   * @param item the item
+   * @return the estimated number of occurrences of the item, up to 15
+   */
+  int frequency(Object item) {
+    int hash = spread(item.hashCode());
+    int frequency = MAX_COUNT;
+    for (int i = 0; i < SEEDS.length; i++) {
+      long slot = slot(hash, i);
+      int index = (int) slot & mTableMask;
+      int offset = (int) (slot >>> 32);
+      frequency = Math.min(frequency, (int) ((mTable[index] >>> offset) & MAX_COUNT));
+    }
+    return frequency;
+  }
+
+  /**
+   * Increments the popularity of the item if it does not exceed the maximum of 15.
+   *
+   * @param item the item
+   */
+  void increment(Object item) {
+    int hash = spread(item.hashCode());
+    boolean added = false;
+    for (int i = 0; i < SEEDS.length; i++) {
+      long slot = slot(hash, i);
+      int index = (int) slot & mTableMask;
+      int offset = (int) (slot >>> 32);
+      long mask = (long) MAX_COUNT << offset;
+      if ((mTable[index] & mask) != mask) {
+        mTable[index] += 1L << offset;
+        added = true;
+      }
+    }
+    if (added && ++mSize >= mSampleSize) {
+      reset();
+    }
+  }
+
+  /**
+   * Drops all collected counts.
+   */
+  void clear() {
+    Arrays.fill(mTable, 0L);
+    mSize = 0;
+  }
+
+  /**
+   * Halves every counter to age the collected counts.
+   */
+  private void reset() {
+    for (int i = 0; i < mTable.length; i++) {
+      mTable[i] = (mTable[i] >>> 1) & RESET_MASK;
+    }
+    mSize /= 2;
+  }
+
+  /**
+   * @return the table index in the lower 32 bits and the counter offset in the upper 32 bits
+   */
+  private static long slot(int hash, int row) {
+    long h = (hash + SEEDS[row]) * SEEDS[row];
+    h += h >>> 32;
+    long offset = ((h >>> 40) & 0xF) << 2;
+    return (offset << 32) | (h & 0xFFFFFFFFL);
+  }
+
+  private static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+}
@@ -172,4 +172,9 @@ public class LFUCacheEvictor implements CacheEvictor {
     mBucketMap.clear();
     mMinBucket = -1;
   }
+
+  @Override
+  public boolean isConcurrent() {
+    return true;
+  }
 }
@@ -82,4 +82,9 @@ public class LRUCacheEvictor implements CacheEvictor {
   public void reset() {
     mLRUCache.clear();
   }
+
+  @Override
+  public boolean isConcurrent() {
+    return true;
+  }
 }
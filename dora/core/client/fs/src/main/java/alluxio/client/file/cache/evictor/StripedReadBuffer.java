@@ -0,0 +1,117 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.evictor;
+
+import com.google.common.math.IntMath;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A lossy buffer recording events from many threads without blocking, drained by a single
+ * consumer. Events are spread across bounded ring buffers selected by the calling thread, so
+ * producers rarely contend on the same counter. When a ring is full or a producer loses a race
+ * for a slot, the event is dropped: the buffer is meant for hints such as cache accesses, where
+ * losing a few events only makes the recorded order slightly less precise.
+ *
+ * @param <E> the type of the buffered events
+ */
+@ThreadSafe
+final class StripedReadBuffer<E> {
+  /** Number of events held by each ring. */
+  static final int RING_SIZE = 16;
+  private static final int RING_MASK = RING_SIZE - 1;
+  /** Number of pending events of a ring after which the consumer should drain it. */
+  private static final int DRAIN_THRESHOLD = RING_SIZE / 2;
+
+  private final Ring<E>[] mRings;
+  private final int mRingMask;
+
+  /**
+   * Creates a buffer with a number of rings scaled to the available processors.
+   */
+  @SuppressWarnings("unchecked")
+  StripedReadBuffer() {
+    int numRings = IntMath.ceilingPowerOfTwo(4 * Runtime.getRuntime().availableProcessors());
+    mRings = new Ring[numRings];
+    for (int i = 0; i < numRings; i++) {
+      mRings[i] = new Ring<>();
+    }
+    mRingMask = numRings - 1;
+  }
+
+  /**
+   * Records an event without blocking.
+   *
+   * @param event the event
+   * @return whether the buffer should be drained
+   */
+  boolean offer(E event) {
+    Ring<E> ring = mRings[ringIndex()];
+    long head = ring.mReadCounter.get();
+    long tail = ring.mWriteCounter.get();
+    long pending = tail - head;
+    if (pending >= RING_SIZE) {
+      return true;
+    }
+    if (ring.mWriteCounter.compareAndSet(tail, tail + 1)) {
+      ring.mBuffer.lazySet((int) (tail & RING_MASK), event);
+      return pending + 1 >= DRAIN_THRESHOLD;
+    }
+    // lost the slot to another producer, the ring is contended
+    return true;
+  }
+
+  /**
+   * Passes all recorded events to the consumer. Must be called by one thread at a time.
+   *
+   * @param consumer the consumer of the events
+   */
+  void drainTo(Consumer<E> consumer) {
+    for (Ring<E> ring : mRings) {
+      ring.drainTo(consumer);
+    }
+  }
+
+  private int ringIndex() {
+    long id = Thread.currentThread().getId();
+    int hash = (int) (id ^ (id >>> 32)) * 0x9e3779b9;
+    return (hash ^ (hash >>> 16)) & mRingMask;
+  }
+
+  private static final class Ring<E> {
+    private final AtomicLong mReadCounter = new AtomicLong();
+    private final AtomicLong mWriteCounter = new AtomicLong();
+    private final AtomicReferenceArray<E> mBuffer = new AtomicReferenceArray<>(RING_SIZE);
+
+    private void drainTo(Consumer<E> consumer) {
+      long head = mReadCounter.get();
+      long tail = mWriteCounter.get();
+      if (head == tail) {
+        return;
+      }
+      for (; head < tail; head++) {
+        int index = (int) (head & RING_MASK);
+        E event = mBuffer.get(index);
+        if (event == null) {
+          // the producer claimed the slot but has not published the event yet
+          break;
+        }
+        mBuffer.lazySet(index, null);
+        consumer.accept(event);
+      }
+      mReadCounter.lazySet(head);
+    }
+  }
+}
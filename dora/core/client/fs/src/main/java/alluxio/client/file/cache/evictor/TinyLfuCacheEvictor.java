@@ -0,0 +1,243 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.evictor;
+
+import alluxio.client.file.cache.PageId;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+
+import com.codahale.metrics.Counter;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * W-TinyLFU client-side cache eviction policy.
+ *
+ * New pages enter a small LRU admission window. The rest of the cache is a segmented LRU with a
+ * probation and a protected segment: pages move from probation to protected when they are hit
+ * again, and the protected segment is capped at a fixed share of the main space. When the window
+ * grows beyond its share, its oldest page competes with the oldest page of the main space, and
+ * the one with the lower estimated access frequency is the eviction victim. Frequencies are
+ * estimated by a {@link FrequencySketch} that ages periodically, so pages touched only once by a
+ * large scan cannot displace frequently used pages.
+ *
+ * The shares are computed from the number of tracked pages at the time of eviction, which is
+ * when the cache is full. The sketch is sized once from the number of pages the cache can hold,
+ * see {@link CacheEvictorOptions#getMaxPages()}.
+ */
+@ThreadSafe
+public class TinyLfuCacheEvictor implements CacheEvictor {
+  private static final int MAP_INIT_CAPACITY = 200;
+  private static final float MAP_INIT_LOAD_FACTOR = 0.75f;
+  private static final boolean UNUSED_MAP_VALUE = true;
+  /** Share of the main space reserved for the protected segment. */
+  private static final double PROTECTED_RATIO = 0.8;
+
+  private final double mWindowRatio;
+  /**
+   * Whether the sketch is sized from the capacity of the cache. Resizing the sketch drops the
+   * collected counts, so it is only grown with the tracked pages when the capacity is unknown.
+   */
+  private final boolean mSizedSketch;
+  @GuardedBy("this")
+  private final FrequencySketch mSketch = new FrequencySketch();
+  @GuardedBy("this")
+  private final Map<PageId, Boolean> mWindow =
+      new LinkedHashMap<>(MAP_INIT_CAPACITY, MAP_INIT_LOAD_FACTOR);
+  @GuardedBy("this")
+  private final Map<PageId, Boolean> mProbation =
+      new LinkedHashMap<>(MAP_INIT_CAPACITY, MAP_INIT_LOAD_FACTOR);
+  @GuardedBy("this")
+  private final Map<PageId, Boolean> mProtected =
+      new LinkedHashMap<>(MAP_INIT_CAPACITY, MAP_INIT_LOAD_FACTOR);
+
+  /**
+   * Required constructor.
+   *
+   * @param options
+   */
+  public TinyLfuCacheEvictor(CacheEvictorOptions options) {
+    mWindowRatio = options.getTinyLfuWindowRatio();
+    Preconditions.checkArgument(mWindowRatio > 0 && mWindowRatio < 1,
+        "TinyLFU window ratio should be within (0, 1): %s", mWindowRatio);
+    mSizedSketch = options.getMaxPages() > 0;
+    if (mSizedSketch) {
+      mSketch.ensureCapacity(options.getMaxPages());
+    }
+  }
+
+  @Override
+  public synchronized void updateOnGet(PageId pageId) {
+    mSketch.increment(pageId);
+    if (mWindow.remove(pageId) != null) {
+      mWindow.put(pageId, UNUSED_MAP_VALUE);
+    } else if (mProbation.remove(pageId) != null) {
+      mProtected.put(pageId, UNUSED_MAP_VALUE);
+      demoteProtected();
+    } else if (mProtected.remove(pageId) != null) {
+      mProtected.put(pageId, UNUSED_MAP_VALUE);
+    }
+  }
+
+  @Override
+  public synchronized void updateOnPut(PageId pageId) {
+    if (contains(pageId)) {
+      updateOnGet(pageId);
+      return;
+    }
+    mSketch.increment(pageId);
+    mWindow.put(pageId, UNUSED_MAP_VALUE);
+    if (!mSizedSketch) {
+      mSketch.ensureCapacity(size());
+    }
+  }
+
+  @Override
+  public synchronized void updateOnDelete(PageId pageId) {
+    if (mWindow.remove(pageId) == null && mProbation.remove(pageId) == null) {
+      mProtected.remove(pageId);
+    }
+  }
+
+  @Nullable
+  @Override
+  public synchronized PageId evict() {
+    long windowCapacity = windowCapacity();
+    // pages that overflowed the window while the cache still had free space are admitted
+    // without competing, only the latest overflow competes with the main space victim
+    while (mWindow.size() > windowCapacity + 1
+        || (mWindow.size() > windowCapacity && mProbation.isEmpty() && mProtected.isEmpty())) {
+      PageId admitted = first(mWindow);
+      mWindow.remove(admitted);
+      mProbation.put(admitted, UNUSED_MAP_VALUE);
+    }
+    int mainSize = mProbation.size() + mProtected.size();
+    if (mWindow.size() > windowCapacity && mainSize > 0) {
+      PageId candidate = first(mWindow);
+      PageId victim = mProbation.isEmpty() ? first(mProtected) : first(mProbation);
+      if (mSketch.frequency(candidate) > mSketch.frequency(victim)) {
+        // admit the candidate into the main space, the main victim is evicted instead
+        mWindow.remove(candidate);
+        mProbation.put(candidate, UNUSED_MAP_VALUE);
+        Metrics.ADMISSION_ACCEPTED.inc();
+        return victim;
+      }
+      Metrics.ADMISSION_REJECTED.inc();
+      return candidate;
+    }
+    if (!mProbation.isEmpty()) {
+      return first(mProbation);
+    }
+    if (!mProtected.isEmpty()) {
+      return first(mProtected);
+    }
+    return first(mWindow);
+  }
+
+  @Nullable
+  @Override
+  public synchronized PageId evictMatching(Predicate<PageId> criterion) {
+    PageId candidate = firstMatching(mWindow, criterion);
+    if (candidate == null) {
+      candidate = firstMatching(mProbation, criterion);
+    }
+    if (candidate == null) {
+      candidate = firstMatching(mProtected, criterion);
+    }
+    return candidate;
+  }
+
+  @Override
+  public synchronized void reset() {
+    mWindow.clear();
+    mProbation.clear();
+    mProtected.clear();
+    mSketch.clear();
+  }
+
+  @Override
+  public boolean isConcurrent() {
+    return true;
+  }
+
+  /**
+   * @param pageId page identifier
+   * @return the estimated access frequency of the page
+   */
+  @VisibleForTesting
+  public synchronized int frequency(PageId pageId) {
+    return mSketch.frequency(pageId);
+  }
+
+  private boolean contains(PageId pageId) {
+    return mWindow.containsKey(pageId) || mProbation.containsKey(pageId)
+        || mProtected.containsKey(pageId);
+  }
+
+  private int size() {
+    return mWindow.size() + mProbation.size() + mProtected.size();
+  }
+
+  private long windowCapacity() {
+    return Math.max(1, (long) (size() * mWindowRatio));
+  }
+
+  /**
+   * Moves the oldest pages of the protected segment back to probation while it exceeds its share.
+   */
+  private void demoteProtected() {
+    long protectedCapacity =
+        Math.max(1, (long) ((size() - windowCapacity()) * PROTECTED_RATIO));
+    while (mProtected.size() > protectedCapacity) {
+      PageId demoted = first(mProtected);
+      mProtected.remove(demoted);
+      mProbation.put(demoted, UNUSED_MAP_VALUE);
+    }
+  }
+
+  @Nullable
+  private static PageId first(Map<PageId, Boolean> segment) {
+    Iterator<PageId> iterator = segment.keySet().iterator();
+    return iterator.hasNext() ? iterator.next() : null;
+  }
+
+  @Nullable
+  private static PageId firstMatching(Map<PageId, Boolean> segment,
+      Predicate<PageId> criterion) {
+    for (PageId candidate : segment.keySet()) {
+      if (criterion.test(candidate)) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  private static final class Metrics {
+    // Note that only counter can be added here.
+    // Both meter and timer need to be used inline
+    // because new meter and timer will be created after {@link MetricsSystem.resetAllMetrics()}
+    /** Pages admitted from the window into the main space. */
+    private static final Counter ADMISSION_ACCEPTED =
+        MetricsSystem.counter(MetricKey.CLIENT_CACHE_ADMISSION_ACCEPTED.getName());
+    /** Pages evicted from the window because they were less popular than the main victim. */
+    private static final Counter ADMISSION_REJECTED =
+        MetricsSystem.counter(MetricKey.CLIENT_CACHE_ADMISSION_REJECTED.getName());
+  }
+}
@@ -91,4 +91,9 @@ public class TwoChoiceRandomEvictor implements CacheEvictor {
   public void reset() {
     mCache.clear();
   }
+
+  @Override
+  public boolean isConcurrent() {
+    return true;
+  }
 }
@@ -51,4 +51,9 @@ public class UnevictableCacheEvictor implements CacheEvictor {
 
   @Override
   public void reset() {}
+
+  @Override
+  public boolean isConcurrent() {
+    return true;
+  }
 }
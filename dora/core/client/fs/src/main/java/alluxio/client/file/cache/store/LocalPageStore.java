@@ -216,8 +216,13 @@ public class LocalPageStore implements PageStore {
       bytesToRead = (int) (fileLength - (long) pageOffset);
     }
 
-    DataFileChannel dataFileChannel = new DataFileChannel(pageFile, pageOffset, bytesToRead);
-    return dataFileChannel;
+    // open the page file right away, so the data remains readable until it has been sent even
+    // if the page is evicted in the meantime
+    try {
+      return DataFileChannel.open(pageFile, pageOffset, bytesToRead);
+    } catch (IOException e) {
+      throw new PageNotFoundException(pagePath.toString(), e);
+    }
   }
 
   @Override
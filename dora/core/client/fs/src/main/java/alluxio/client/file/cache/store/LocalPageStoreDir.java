@@ -27,11 +27,16 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.nio.file.attribute.FileTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
 
 /**
  *
@@ -42,6 +47,9 @@ public class LocalPageStoreDir extends QuotaManagedPageStoreDir {
   private final PageStoreOptions mPageStoreOptions;
   private final int mFileBuckets;
   private final Pattern mPagePattern;
+  /** The persisted metadata of the pages, or null if disabled. */
+  @Nullable
+  private final PageMetaSnapshot mMetaSnapshot;
 
   private PageStore mPageStore;
 
@@ -65,6 +73,10 @@ public class LocalPageStoreDir extends QuotaManagedPageStoreDir {
         String.format("%s/%d/(\\d+)/([^/]+)/(\\d+)",
             Pattern.quote(pageStoreOptions.getRootDir().toString()),
             pageStoreOptions.getPageSize()));
+    mMetaSnapshot = pageStoreOptions.isMetaSnapshotEnabled()
+        ? new PageMetaSnapshot(pageStoreOptions.getRootDir(), pageStoreOptions.getPageSize(),
+            this, this::getPagePath)
+        : null;
   }
 
   /**
@@ -82,6 +94,9 @@ public class LocalPageStoreDir extends QuotaManagedPageStoreDir {
   @Override
   public void reset() throws IOException {
     close();
+    if (mMetaSnapshot != null) {
+      mMetaSnapshot.clear();
+    }
     // when cache is large, e.g. millions of pages, the clear may take a while on deletion
     PageStoreDir.clear(getRootPath());
     mPageStore = PageStore.create(mPageStoreOptions);
@@ -95,8 +110,90 @@ public class LocalPageStoreDir extends QuotaManagedPageStoreDir {
    */
   @Override
   public void scanPages(Consumer<Optional<PageInfo>> pageInfoConsumer) throws IOException {
-    Files.walk(getRootPath()).filter(Files::isRegularFile).map(this::getPageInfo)
-        .forEach(pageInfoConsumer);
+    try (Stream<Path> paths = Files.walk(getRootPath())) {
+      paths.filter(Files::isRegularFile)
+          .filter(path -> mMetaSnapshot == null || !mMetaSnapshot.isMetaFile(path))
+          .map(this::getPageInfo)
+          .forEach(pageInfoConsumer);
+    }
+  }
+
+  /**
+   * Restores the pages from the snapshot of their metadata if enabled and valid, or by
+   * scanning the pages otherwise, which takes long for a large cache as each page file is
+   * visited.
+   */
+  @Override
+  public void restorePages(Consumer<Optional<PageInfo>> pageInfoConsumer) throws IOException {
+    if (mMetaSnapshot != null) {
+      Collection<PageInfo> pages = mMetaSnapshot.restore();
+      if (pages != null) {
+        LOG.info("Restoring {} pages of {} from the snapshot", pages.size(), getRootPath());
+        pages.forEach(pageInfo -> pageInfoConsumer.accept(Optional.of(pageInfo)));
+        return;
+      }
+      // drop the stale metadata, the next checkpoint writes it from the scanned pages
+      mMetaSnapshot.clear();
+    }
+    scanPages(pageInfoConsumer);
+  }
+
+  @Override
+  @Nullable
+  public Checkpoint startCheckpoint() throws IOException {
+    if (mMetaSnapshot == null) {
+      return null;
+    }
+    long generation = mMetaSnapshot.startCheckpoint();
+    return pages -> mMetaSnapshot.writeSnapshot(generation, pages);
+  }
+
+  @Override
+  public void putPage(PageInfo pageInfo) {
+    super.putPage(pageInfo);
+    if (mMetaSnapshot != null) {
+      mMetaSnapshot.logAdd(pageInfo);
+    }
+  }
+
+  @Override
+  public long deletePage(PageInfo pageInfo) {
+    long bytesUsed = super.deletePage(pageInfo);
+    if (mMetaSnapshot != null) {
+      mMetaSnapshot.logRemove(pageInfo.getPageId());
+    }
+    return bytesUsed;
+  }
+
+  @Override
+  public void commit(String fileId, String newFileId) throws IOException {
+    List<PageInfo> pages = mMetaSnapshot == null ? null : getTempPages(fileId);
+    super.commit(fileId, newFileId);
+    if (pages != null) {
+      for (PageInfo pageInfo : pages) {
+        mMetaSnapshot.logAdd(new PageInfo(
+            new PageId(newFileId, pageInfo.getPageId().getPageIndex()),
+            pageInfo.getPageSize(), pageInfo.getScope(), this));
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    if (mMetaSnapshot != null) {
+      mMetaSnapshot.close();
+    }
+    super.close();
+  }
+
+  /**
+   * @param pageId page id
+   * @return the path of the file of the page
+   */
+  private Path getPagePath(PageId pageId) {
+    return Paths.get(getRootPath().toString(), Long.toString(mPageStoreOptions.getPageSize()),
+        getFileBucket(mFileBuckets, pageId.getFileId()), pageId.getFileId(),
+        Long.toString(pageId.getPageIndex()));
   }
 
   /**
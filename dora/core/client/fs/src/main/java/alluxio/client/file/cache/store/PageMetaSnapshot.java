@@ -0,0 +1,443 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.store;
+
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.PageInfo;
+import alluxio.client.quota.CacheScope;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The metadata of the pages of a page store directory, persisted in the directory so the pages
+ * can be restored at startup without walking all the page files.
+ *
+ * The metadata consists of a snapshot of the pages written at each checkpoint, and of logs of
+ * the pages added and removed since. A checkpoint first switches to a new log, then writes the
+ * snapshot of the pages, and finally deletes the previous logs. A page changing in between is
+ * both in the snapshot and in the new log, which is harmless as the log is replayed on top of
+ * the snapshot. The logs are only written once the first checkpoint is done, after the pages
+ * are restored.
+ *
+ * The logs are buffered, so the metadata is only trusted after a clean shutdown: closing syncs
+ * the log and then writes a marker file, which restoring deletes before the pages change again.
+ * Without the marker, like after a crash, the pages are restored by scanning them instead.
+ */
+@ThreadSafe
+final class PageMetaSnapshot {
+  private static final Logger LOG = LoggerFactory.getLogger(PageMetaSnapshot.class);
+  @VisibleForTesting
+  static final String SNAPSHOT_FILE = "pages.snapshot";
+  /** The marker of a clean shutdown, after which the snapshot and the logs are complete. */
+  @VisibleForTesting
+  static final String CLEAN_FILE = "pages.clean";
+  @VisibleForTesting
+  static final String LOG_FILE_PREFIX = "pages.log.";
+  private static final int MAGIC = 0x50474d53;
+  private static final byte ADD = 1;
+  private static final byte REMOVE = 2;
+  /** The max number of restored pages whose files are checked to validate the snapshot. */
+  private static final int VALIDATION_SAMPLES = 100;
+
+  private final Path mDir;
+  private final long mPageSize;
+  private final PageStoreDir mPageStoreDir;
+  /** Resolves the file of a page. */
+  private final Function<PageId, Path> mPagePath;
+  private final Object mCheckpointLock = new Object();
+  /** The generation of the last snapshot written. */
+  @GuardedBy("mCheckpointLock")
+  private long mSnapshotGeneration = 0;
+  @GuardedBy("this")
+  @Nullable
+  private DataOutputStream mLog;
+  @GuardedBy("this")
+  @Nullable
+  private FileChannel mLogChannel;
+  /** The generation of the current log, the snapshot was started when it started. */
+  @GuardedBy("this")
+  private long mGeneration = 0;
+  /** Whether the marker of a clean shutdown is written, and no page changed since. */
+  @GuardedBy("this")
+  private boolean mCleanMarked = false;
+
+  /**
+   * @param dir the directory to persist the metadata in
+   * @param pageSize the page size of the page store
+   * @param pageStoreDir the page store directory of the pages
+   * @param pagePath resolves the file of a page
+   */
+  PageMetaSnapshot(Path dir, long pageSize, PageStoreDir pageStoreDir,
+      Function<PageId, Path> pagePath) {
+    mDir = dir;
+    mPageSize = pageSize;
+    mPageStoreDir = pageStoreDir;
+    mPagePath = pagePath;
+  }
+
+  /**
+   * @param path a path in the directory
+   * @return whether the path is a file of the persisted metadata
+   */
+  boolean isMetaFile(Path path) {
+    String name = path.getFileName().toString();
+    return mDir.equals(path.getParent()) && (name.startsWith(SNAPSHOT_FILE)
+        || name.startsWith(LOG_FILE_PREFIX) || name.equals(CLEAN_FILE));
+  }
+
+  /**
+   * Restores the pages from the snapshot and the logs replayed on top of it. The snapshot is
+   * only trusted after a clean shutdown, and if a sample of the restored pages is found on disk
+   * as recorded.
+   *
+   * @return the restored pages, or null if there is no valid snapshot to restore from
+   */
+  @Nullable
+  synchronized Collection<PageInfo> restore() {
+    // the marker only vouches for the metadata until the pages change again
+    try {
+      if (!Files.deleteIfExists(mDir.resolve(CLEAN_FILE))) {
+        if (Files.exists(mDir.resolve(SNAPSHOT_FILE))) {
+          LOG.info("Ignoring the snapshot of the pages in {} not shut down cleanly", mDir);
+        }
+        return null;
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to delete the marker of the clean shutdown in {}", mDir, e);
+      return null;
+    }
+    Path snapshot = mDir.resolve(SNAPSHOT_FILE);
+    if (!Files.exists(snapshot)) {
+      return null;
+    }
+    Map<PageId, PageInfo> pages = new LinkedHashMap<>();
+    long generation;
+    try (DataInputStream in = openInput(snapshot)) {
+      if (in.readInt() != MAGIC || in.readLong() != mPageSize) {
+        LOG.warn("Ignoring the snapshot of the pages in {} written with another format", mDir);
+        return null;
+      }
+      generation = in.readLong();
+      long count = in.readLong();
+      for (long i = 0; i < count; i++) {
+        PageInfo pageInfo = readPageInfo(in);
+        pages.put(pageInfo.getPageId(), pageInfo);
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to read the snapshot of the pages in {}", mDir, e);
+      return null;
+    }
+    for (; Files.exists(getLogPath(generation)); generation++) {
+      if (!replayLog(getLogPath(generation), pages)) {
+        return null;
+      }
+    }
+    if (!validate(pages.values())) {
+      LOG.warn("Ignoring the snapshot of the pages in {} not matching the page files", mDir);
+      return null;
+    }
+    // start the next log after the replayed ones
+    mGeneration = generation - 1;
+    synchronized (mCheckpointLock) {
+      mSnapshotGeneration = 0;
+    }
+    return pages.values();
+  }
+
+  /**
+   * Starts a checkpoint by switching to a new log, which logs the pages added and removed from
+   * now on. The checkpoint is done by {@link #writeSnapshot} with the pages at the time of this
+   * call.
+   *
+   * @return the generation of the checkpoint
+   */
+  synchronized long startCheckpoint() throws IOException {
+    long generation = mGeneration + 1;
+    closeLog(false);
+    mLogChannel = FileChannel.open(getLogPath(generation), StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    mLog = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(mLogChannel)));
+    mGeneration = generation;
+    return generation;
+  }
+
+  /**
+   * Writes the snapshot of a checkpoint, and deletes the logs replaced by it. A snapshot older
+   * than the last one written, from checkpoints racing each other, is skipped.
+   *
+   * @param generation the generation of the checkpoint
+   * @param pages the pages in the directory when the checkpoint started
+   */
+  void writeSnapshot(long generation, Collection<PageInfo> pages) throws IOException {
+    synchronized (mCheckpointLock) {
+      if (generation <= mSnapshotGeneration) {
+        return;
+      }
+      Path tmp = mDir.resolve(SNAPSHOT_FILE + ".tmp");
+      try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        DataOutputStream out =
+            new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+        out.writeInt(MAGIC);
+        out.writeLong(mPageSize);
+        out.writeLong(generation);
+        out.writeLong(pages.size());
+        for (PageInfo pageInfo : pages) {
+          writePageInfo(out, pageInfo);
+        }
+        out.flush();
+        channel.force(false);
+      }
+      Files.move(tmp, mDir.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      mSnapshotGeneration = generation;
+      for (Path log : listLogs()) {
+        if (getGeneration(log) < generation) {
+          Files.deleteIfExists(log);
+        }
+      }
+    }
+  }
+
+  /**
+   * @param pageInfo the page added to the directory
+   */
+  synchronized void logAdd(PageInfo pageInfo) {
+    if (mLog == null) {
+      dropCleanMark();
+      return;
+    }
+    try {
+      mLog.writeByte(ADD);
+      writePageInfo(mLog, pageInfo);
+    } catch (IOException e) {
+      onLogFailure(e);
+    }
+  }
+
+  /**
+   * @param pageId the page removed from the directory
+   */
+  synchronized void logRemove(PageId pageId) {
+    if (mLog == null) {
+      dropCleanMark();
+      return;
+    }
+    try {
+      mLog.writeByte(REMOVE);
+      mLog.writeUTF(pageId.getFileId());
+      mLog.writeLong(pageId.getPageIndex());
+    } catch (IOException e) {
+      onLogFailure(e);
+    }
+  }
+
+  /**
+   * Stops logging, syncs the log, and marks the shutdown as clean if the pages have been logged
+   * since the last restore.
+   */
+  synchronized void close() {
+    if (mLog == null) {
+      return;
+    }
+    try {
+      closeLog(true);
+      Files.write(mDir.resolve(CLEAN_FILE), new byte[0]);
+      mCleanMarked = true;
+    } catch (IOException e) {
+      onLogFailure(e);
+    }
+  }
+
+  /**
+   * Stops logging, and deletes the persisted metadata.
+   */
+  synchronized void clear() throws IOException {
+    try {
+      closeLog(false);
+    } catch (IOException e) {
+      LOG.debug("Failed to close the log of the pages in {}", mDir, e);
+    }
+    // keep counting the generations, so a snapshot of a checkpoint started before is skipped
+    mCleanMarked = false;
+    Files.deleteIfExists(mDir.resolve(CLEAN_FILE));
+    Files.deleteIfExists(mDir.resolve(SNAPSHOT_FILE));
+    for (Path log : listLogs()) {
+      Files.deleteIfExists(log);
+    }
+  }
+
+  /**
+   * @param sync whether to sync the log to the disk before closing it
+   */
+  @GuardedBy("this")
+  private void closeLog(boolean sync) throws IOException {
+    if (mLog != null) {
+      DataOutputStream log = mLog;
+      FileChannel channel = mLogChannel;
+      mLog = null;
+      mLogChannel = null;
+      try {
+        log.flush();
+        if (sync) {
+          channel.force(false);
+        }
+      } finally {
+        log.close();
+      }
+    }
+  }
+
+  /**
+   * Drops the marker of the clean shutdown when a page changes after closing, as the change is
+   * not logged.
+   */
+  @GuardedBy("this")
+  private void dropCleanMark() {
+    if (!mCleanMarked) {
+      return;
+    }
+    mCleanMarked = false;
+    try {
+      Files.deleteIfExists(mDir.resolve(CLEAN_FILE));
+    } catch (IOException e) {
+      LOG.error("Failed to delete the marker of the clean shutdown in {}", mDir, e);
+    }
+  }
+
+  @GuardedBy("this")
+  private void onLogFailure(IOException e) {
+    // the snapshot would miss the changes from now on, restore by scanning the pages instead
+    LOG.warn("Failed to log the pages in {}, dropping the snapshot of the pages", mDir, e);
+    try {
+      clear();
+    } catch (IOException ex) {
+      LOG.error("Failed to delete the snapshot of the pages in {}", mDir, ex);
+    }
+  }
+
+  /**
+   * @return whether the log was replayed, a truncated last record being ignored
+   */
+  private boolean replayLog(Path log, Map<PageId, PageInfo> pages) {
+    try (DataInputStream in = openInput(log)) {
+      int op;
+      while ((op = in.read()) != -1) {
+        if (op == ADD) {
+          PageInfo pageInfo = readPageInfo(in);
+          pages.put(pageInfo.getPageId(), pageInfo);
+        } else if (op == REMOVE) {
+          pages.remove(new PageId(in.readUTF(), in.readLong()));
+        } else {
+          LOG.warn("Unrecognized record in the log {} of the pages", log);
+          return false;
+        }
+      }
+    } catch (EOFException e) {
+      LOG.info("Ignoring the last record of the log {}, which was not fully written", log);
+    } catch (IOException e) {
+      LOG.warn("Failed to read the log {} of the pages", log, e);
+      return false;
+    }
+    return true;
+  }
+
+  private boolean validate(Collection<PageInfo> pages) {
+    int step = Math.max(1, pages.size() / VALIDATION_SAMPLES);
+    int index = 0;
+    for (PageInfo pageInfo : pages) {
+      if (index++ % step != 0) {
+        continue;
+      }
+      Path path = mPagePath.apply(pageInfo.getPageId());
+      try {
+        if (Files.size(path) != pageInfo.getPageSize()) {
+          return false;
+        }
+      } catch (IOException e) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private PageInfo readPageInfo(DataInputStream in) throws IOException {
+    PageId pageId = new PageId(in.readUTF(), in.readLong());
+    long pageSize = in.readLong();
+    long createdTimestamp = in.readLong();
+    return new PageInfo(pageId, pageSize, CacheScope.GLOBAL, mPageStoreDir, createdTimestamp);
+  }
+
+  private static void writePageInfo(DataOutputStream out, PageInfo pageInfo)
+      throws IOException {
+    out.writeUTF(pageInfo.getPageId().getFileId());
+    out.writeLong(pageInfo.getPageId().getPageIndex());
+    out.writeLong(pageInfo.getPageSize());
+    out.writeLong(pageInfo.getCreatedTimestamp());
+  }
+
+  private static DataInputStream openInput(Path path) throws IOException {
+    return new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+  }
+
+  private Path getLogPath(long generation) {
+    return mDir.resolve(LOG_FILE_PREFIX + generation);
+  }
+
+  private List<Path> listLogs() throws IOException {
+    List<Path> logs = new ArrayList<>();
+    if (!Files.isDirectory(mDir)) {
+      return logs;
+    }
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(mDir, LOG_FILE_PREFIX + "*")) {
+      for (Path log : stream) {
+        if (getGeneration(log) >= 0) {
+          logs.add(log);
+        }
+      }
+    }
+    return logs;
+  }
+
+  private static long getGeneration(Path log) {
+    try {
+      return Long.parseLong(log.getFileName().toString().substring(LOG_FILE_PREFIX.length()));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+}
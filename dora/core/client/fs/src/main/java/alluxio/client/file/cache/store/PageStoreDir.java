@@ -26,10 +26,12 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
+import javax.annotation.Nullable;
 
 /**
  * Directory of page store.
@@ -37,6 +39,18 @@ import java.util.stream.Stream;
 public interface PageStoreDir extends CacheStatus {
   Logger LOG = LoggerFactory.getLogger(PageStoreDir.class);
 
+  /**
+   * A checkpoint of the metadata of the pages under a dir, started by {@link #startCheckpoint}.
+   */
+  interface Checkpoint {
+    /**
+     * Persists the pages under the dir when the checkpoint started.
+     * @param pages the pages under the dir when the checkpoint started
+     * @throws IOException
+     */
+    void write(Collection<PageInfo> pages) throws IOException;
+  }
+
   /**
    * Create a list of PageStoreDir based on the configuration.
    * @param options of cache manager
@@ -60,6 +74,11 @@ public interface PageStoreDir extends CacheStatus {
    */
   static PageStoreDir createPageStoreDir(CacheEvictorOptions cacheEvictorOptions,
                                          PageStoreOptions pageStoreOptions) {
+    if (pageStoreOptions.getPageSize() > 0) {
+      // lets the evictor size its structures once from the capacity of the directory
+      cacheEvictorOptions = cacheEvictorOptions.copy()
+          .setMaxPages(pageStoreOptions.getCacheSize() / pageStoreOptions.getPageSize());
+    }
     switch (pageStoreOptions.getType()) {
       case LOCAL:
         return new LocalPageStoreDir(
@@ -67,6 +86,11 @@ public interface PageStoreDir extends CacheStatus {
             PageStore.create(pageStoreOptions),
             CacheEvictor.create(cacheEvictorOptions)
         );
+      case SEGMENT:
+        return new SegmentedPageStoreDir(
+            pageStoreOptions,
+            CacheEvictor.create(cacheEvictorOptions)
+        );
       case MEM:
         return new MemoryPageStoreDir(
             pageStoreOptions,
@@ -136,6 +160,28 @@ public interface PageStoreDir extends CacheStatus {
    */
   void scanPages(Consumer<Optional<PageInfo>> pageInfoConsumer) throws IOException;
 
+  /**
+   * Restores the pages under this dir, from the metadata persisted by the last
+   * {@link #checkpoint} when the dir supports it, or by scanning the pages otherwise.
+   * @param pageInfoConsumer
+   * @throws IOException
+   */
+  default void restorePages(Consumer<Optional<PageInfo>> pageInfoConsumer) throws IOException {
+    scanPages(pageInfoConsumer);
+  }
+
+  /**
+   * Starts persisting the metadata of the pages under this dir, so they can be restored without
+   * scanning the pages. The pages changing from now on are persisted on top of the pages given
+   * to the returned checkpoint, which must be the pages under this dir at the time of this call.
+   * @return the checkpoint to write the pages to, or null for the dirs not supporting it
+   * @throws IOException
+   */
+  @Nullable
+  default Checkpoint startCheckpoint() throws IOException {
+    return null;
+  }
+
   /**
    * @return cached bytes in this directory
    */
@@ -39,11 +39,21 @@ public class PageStoreOptions {
     List<PageStoreOptions> optionsList = createPageStoreOptions(dirs, cacheSizes, storeType);
     optionsList.forEach(options -> {
       options.setFileBuckets(conf.getInt(PropertyKey.USER_CLIENT_CACHE_LOCAL_STORE_FILE_BUCKETS))
+          .setSegmentSize(conf.getBytes(PropertyKey.USER_CLIENT_CACHE_SEGMENT_STORE_SEGMENT_SIZE))
+          .setSegmentCompactionRatio(
+              conf.getDouble(PropertyKey.USER_CLIENT_CACHE_SEGMENT_STORE_COMPACTION_RATIO))
           .setPageSize(conf.getBytes(PropertyKey.USER_CLIENT_CACHE_PAGE_SIZE))
           .setAlluxioVersion(conf.getString(PropertyKey.VERSION))
           .setTimeoutDuration(conf.getMs(PropertyKey.USER_CLIENT_CACHE_TIMEOUT_DURATION))
-          .setTimeoutThreads(conf.getInt(PropertyKey.USER_CLIENT_CACHE_TIMEOUT_THREADS));
-      if (conf.isSet(PropertyKey.USER_CLIENT_CACHE_STORE_OVERHEAD)) {
+          .setTimeoutThreads(conf.getInt(PropertyKey.USER_CLIENT_CACHE_TIMEOUT_THREADS))
+          .setMetaSnapshotEnabled(
+              conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_METASTORE_SNAPSHOT_ENABLED));
+      if (storeType == PageStoreType.SEGMENT
+          && !conf.isSetByUser(PropertyKey.USER_CLIENT_CACHE_STORE_OVERHEAD)) {
+        // reserves room for the bytes of deleted pages kept until the segments are compacted
+        options.setOverheadRatio(
+            PageStoreType.getSegmentOverheadRatio(options.getSegmentCompactionRatio()));
+      } else if (conf.isSet(PropertyKey.USER_CLIENT_CACHE_STORE_OVERHEAD)) {
         options.setOverheadRatio(conf.getDouble(PropertyKey.USER_CLIENT_CACHE_STORE_OVERHEAD));
       }
     });
@@ -62,11 +72,21 @@ public class PageStoreOptions {
     List<PageStoreOptions> optionsList = createPageStoreOptions(dirs, cacheSizes, storeType);
     optionsList.forEach(options -> {
       options.setFileBuckets(conf.getInt(PropertyKey.WORKER_PAGE_STORE_LOCAL_STORE_FILE_BUCKETS))
+          .setSegmentSize(conf.getBytes(PropertyKey.WORKER_PAGE_STORE_SEGMENT_STORE_SEGMENT_SIZE))
+          .setSegmentCompactionRatio(
+              conf.getDouble(PropertyKey.WORKER_PAGE_STORE_SEGMENT_STORE_COMPACTION_RATIO))
           .setPageSize(conf.getBytes(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE))
           .setAlluxioVersion(conf.getString(PropertyKey.VERSION))
           .setTimeoutDuration(conf.getMs(PropertyKey.WORKER_PAGE_STORE_TIMEOUT_DURATION))
-          .setTimeoutThreads(conf.getInt(PropertyKey.WORKER_PAGE_STORE_TIMEOUT_THREADS));
-      if (conf.isSet(PropertyKey.WORKER_PAGE_STORE_OVERHEAD)) {
+          .setTimeoutThreads(conf.getInt(PropertyKey.WORKER_PAGE_STORE_TIMEOUT_THREADS))
+          .setMetaSnapshotEnabled(
+              conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_METASTORE_SNAPSHOT_ENABLED));
+      if (storeType == PageStoreType.SEGMENT
+          && !conf.isSetByUser(PropertyKey.WORKER_PAGE_STORE_OVERHEAD)) {
+        // reserves room for the bytes of deleted pages kept until the segments are compacted
+        options.setOverheadRatio(
+            PageStoreType.getSegmentOverheadRatio(options.getSegmentCompactionRatio()));
+      } else if (conf.isSet(PropertyKey.WORKER_PAGE_STORE_OVERHEAD)) {
         options.setOverheadRatio(conf.getDouble(PropertyKey.WORKER_PAGE_STORE_OVERHEAD));
       }
     });
@@ -95,6 +115,16 @@ public class PageStoreOptions {
 
   private PageStoreType mStoreType = PageStoreType.LOCAL;
   private int mFileBuckets = 1000;
+
+  /**
+   * Size of each segment file of the segmented page store.
+   */
+  private long mSegmentSize = 256L * 1024 * 1024;
+
+  /**
+   * Fraction of garbage bytes in a sealed segment that triggers its compaction.
+   */
+  private double mSegmentCompactionRatio = 0.5;
   /**
    * Root directory where the data is stored.
    */
@@ -137,6 +167,11 @@ public class PageStoreOptions {
    */
   private double mOverheadRatio;
 
+  /**
+   * Whether to persist the metadata of the pages, so they are restored without a scan.
+   */
+  private boolean mMetaSnapshotEnabled;
+
   /**
    * @return the type corresponding to the page store
    */
@@ -272,6 +307,22 @@ public class PageStoreOptions {
     return this;
   }
 
+  /**
+   * @return whether to persist the metadata of the pages
+   */
+  public boolean isMetaSnapshotEnabled() {
+    return mMetaSnapshotEnabled;
+  }
+
+  /**
+   * @param metaSnapshotEnabled whether to persist the metadata of the pages
+   * @return the updated options
+   */
+  public PageStoreOptions setMetaSnapshotEnabled(boolean metaSnapshotEnabled) {
+    mMetaSnapshotEnabled = metaSnapshotEnabled;
+    return this;
+  }
+
   /**
    * @param fileBuckets the number of buckets to place files in
    * @return the updated options
@@ -288,6 +339,39 @@ public class PageStoreOptions {
     return mFileBuckets;
   }
 
+  /**
+   * @return the size of each segment file in bytes
+   */
+  public long getSegmentSize() {
+    return mSegmentSize;
+  }
+
+  /**
+   * @param segmentSize the size of each segment file in bytes
+   * @return the updated options
+   */
+  public PageStoreOptions setSegmentSize(long segmentSize) {
+    mSegmentSize = segmentSize;
+    return this;
+  }
+
+  /**
+   * @return the fraction of garbage bytes in a sealed segment that triggers its compaction
+   */
+  public double getSegmentCompactionRatio() {
+    return mSegmentCompactionRatio;
+  }
+
+  /**
+   * @param segmentCompactionRatio the fraction of garbage bytes in a sealed segment that
+   *        triggers its compaction
+   * @return the updated options
+   */
+  public PageStoreOptions setSegmentCompactionRatio(double segmentCompactionRatio) {
+    mSegmentCompactionRatio = segmentCompactionRatio;
+    return this;
+  }
+
   /**
    * @param storeType
    * @return the updated options
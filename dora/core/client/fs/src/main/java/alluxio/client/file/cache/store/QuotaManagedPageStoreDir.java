@@ -21,6 +21,7 @@ import alluxio.resource.LockResource;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -195,6 +196,15 @@ abstract class QuotaManagedPageStoreDir implements PageStoreDir {
     }
   }
 
+  /**
+   * @param fileId the id of a temp file
+   * @return the pages of the temp file
+   */
+  protected List<PageInfo> getTempPages(String fileId) {
+    List<PageInfo> pages = mTempFileToPageInfoListMap.get(fileId);
+    return pages == null ? Collections.emptyList() : new ArrayList<>(pages);
+  }
+
   /**
    * Generic implementation of cache usage stats.
    * Subclasses may need to override the individual cache stat to reflect their own logic
@@ -0,0 +1,1038 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.store;
+
+import alluxio.Constants;
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.PageInfo;
+import alluxio.client.file.cache.PageStore;
+import alluxio.client.quota.CacheScope;
+import alluxio.exception.PageNotFoundException;
+import alluxio.exception.status.ResourceExhaustedException;
+import alluxio.file.ByteBufferTargetBuffer;
+import alluxio.file.ReadTargetBuffer;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.network.protocol.databuffer.DataFileChannel;
+import alluxio.resource.LockResource;
+import alluxio.util.ThreadFactoryUtils;
+
+import com.codahale.metrics.Counter;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The {@link SegmentedPageStore} is an implementation of {@link PageStore} which packs pages
+ * into large pre-allocated segment files on the local disk, instead of creating one file per
+ * page like {@link LocalPageStore}.
+ *
+ * A segment starts with a small segment header followed by page records appended one after
+ * another. Each record is a header describing the page (file id, page index, length, creation
+ * time and state) followed by the page data. An in-memory index maps every page to its record,
+ * and reads are served by positional reads on the segment's shared {@link FileChannel}.
+ *
+ * Deleting a page only flips the state byte in its record header. Once the fraction of deleted
+ * bytes in a sealed segment exceeds the configured compaction ratio, the live pages are copied
+ * into the active segment in the background and the old segment file is removed. On restart,
+ * the index is rebuilt by scanning the record headers of every segment.
+ */
+@ThreadSafe
+public class SegmentedPageStore implements PageStore {
+  private static final String ERROR_NO_SPACE_LEFT = "No space left on device";
+  public static final String SEGMENT_DIR = "segments";
+  private static final String SEGMENT_FILE_SUFFIX = ".seg";
+
+  // segment header: magic (4) + version (4) + page size (8)
+  private static final int SEGMENT_MAGIC = 0x414c5347;
+  private static final int SEGMENT_VERSION = 1;
+  private static final int SEGMENT_HEADER_SIZE = 16;
+
+  // record header: magic (4) + checksum (4) + state (1) + page length (4) + page index (8)
+  // + created time (8) + file id length (2), followed by the UTF-8 encoded file id.
+  // The checksum covers everything after the state byte, so the state can be updated in place.
+  private static final int RECORD_MAGIC = 0x50414745;
+  private static final int RECORD_FIXED_HEADER_SIZE = 31;
+  private static final int RECORD_STATE_OFFSET = 8;
+  private static final int RECORD_CHECKSUM_START = 9;
+  private static final int MAX_FILE_ID_LENGTH = 0xFFFF;
+  /** Size of the reads scanning for the next record after a corrupt one. */
+  private static final int RESYNC_BUFFER_SIZE = 64 * Constants.KB;
+
+  private static final byte STATE_TEMPORARY = 1;
+  private static final byte STATE_COMMITTED = 2;
+  private static final byte STATE_DELETED = 3;
+
+  private final Path mRoot;
+  private final long mPageSize;
+  private final long mCapacity;
+  private final long mSegmentSize;
+  private final double mCompactionRatio;
+
+  /**
+   * Guards the lifetime of segment files. Page I/O holds the read lock, while removing a
+   * compacted segment or closing the store holds the write lock, so a location obtained from
+   * the index stays readable for as long as the read lock is held.
+   */
+  private final ReentrantReadWriteLock mLock = new ReentrantReadWriteLock();
+  private final ReentrantLock mAllocationLock = new ReentrantLock();
+  private final ReentrantLock mTempLock = new ReentrantLock();
+
+  @GuardedBy("mAllocationLock")
+  private Segment mActiveSegment;
+  @GuardedBy("mAllocationLock")
+  private long mNextSegmentId;
+
+  private final Map<Long, Segment> mSegments = new ConcurrentHashMap<>();
+  private final Map<PageId, PageLocation> mPages = new ConcurrentHashMap<>();
+  @GuardedBy("mTempLock")
+  private final Map<String, Map<Long, PageLocation>> mTempPages = new HashMap<>();
+
+  private final ExecutorService mCompactionExecutor;
+  private volatile boolean mClosed = false;
+
+  /**
+   * Creates a new instance of {@link SegmentedPageStore}, recovering the pages stored in
+   * existing segments under the root directory.
+   *
+   * @param options options for the segmented page store
+   */
+  public SegmentedPageStore(PageStoreOptions options) {
+    mRoot = Paths.get(options.getRootDir().toString(), Long.toString(options.getPageSize()),
+        SEGMENT_DIR);
+    mPageSize = options.getPageSize();
+    mCapacity = (long) (options.getCacheSize() / (1 + options.getOverheadRatio()));
+    // a segment must at least be able to hold one full page with the largest record header
+    mSegmentSize = Math.max(options.getSegmentSize(),
+        SEGMENT_HEADER_SIZE + RECORD_FIXED_HEADER_SIZE + MAX_FILE_ID_LENGTH + mPageSize);
+    mCompactionRatio = options.getSegmentCompactionRatio();
+    mCompactionExecutor = Executors.newSingleThreadExecutor(
+        ThreadFactoryUtils.build("segment-page-store-compaction-%d", true));
+    try {
+      recover();
+    } catch (IOException e) {
+      mCompactionExecutor.shutdownNow();
+      throw new RuntimeException("Failed to recover segmented page store at " + mRoot, e);
+    }
+  }
+
+  @Override
+  public void put(PageId pageId,
+      ByteBuffer page,
+      boolean isTemporary) throws ResourceExhaustedException, IOException {
+    LOG.debug("Put page: {}, page's position: {}, page's limit: {}, page's capacity: {}",
+        pageId, page.position(), page.limit(), page.capacity());
+    try (LockResource r = new LockResource(mLock.readLock())) {
+      checkNotClosed();
+      PageLocation location = append(pageId.getFileId(), pageId.getPageIndex(),
+          isTemporary ? STATE_TEMPORARY : STATE_COMMITTED, System.currentTimeMillis(), page);
+      index(pageId, location, isTemporary);
+    } catch (IOException e) {
+      if (e.getMessage() != null && e.getMessage().contains(ERROR_NO_SPACE_LEFT)) {
+        throw new ResourceExhaustedException(
+            String.format("%s is full, configured with %d bytes", mRoot, mCapacity), e);
+      }
+      throw new IOException("Failed to write page " + pageId + " to segments in " + mRoot, e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * The records of the batch are allocated next to each other, and the records falling into the
+   * same segment are written with a single gathering write. The records are written as deleted
+   * and only switched to their actual state afterwards, so a record is not recognized on
+   * recovery unless the write of its data has been issued, like for a single page.
+   */
+  @Override
+  public void putAll(List<PageId> pageIds,
+      List<ByteBuffer> pages,
+      boolean isTemporary) throws ResourceExhaustedException, IOException {
+    Preconditions.checkArgument(pageIds.size() == pages.size(),
+        "got %s page ids for %s pages", pageIds.size(), pages.size());
+    int numPages = pageIds.size();
+    byte state = isTemporary ? STATE_TEMPORARY : STATE_COMMITTED;
+    long createdTime = System.currentTimeMillis();
+    try (LockResource r = new LockResource(mLock.readLock())) {
+      checkNotClosed();
+      ByteBuffer[] headers = new ByteBuffer[numPages];
+      PageLocation[] locations = new PageLocation[numPages];
+      for (int i = 0; i < numPages; i++) {
+        PageId pageId = pageIds.get(i);
+        headers[i] = encodeHeader(pageId.getFileId(), pageId.getPageIndex(), STATE_DELETED,
+            createdTime, pages.get(i).remaining());
+      }
+      try (LockResource a = new LockResource(mAllocationLock)) {
+        for (int i = 0; i < numPages; i++) {
+          locations[i] = allocateLocked(headers[i].remaining(), pages.get(i).remaining(),
+              createdTime);
+        }
+      }
+      // the records before this one have already been switched to their actual state
+      int switched = 0;
+      int start = 0;
+      while (start < numPages) {
+        Segment segment = locations[start].mSegment;
+        int end = start + 1;
+        while (end < numPages && locations[end].mSegment == segment) {
+          end++;
+        }
+        ByteBuffer[] buffers = new ByteBuffer[2 * (end - start)];
+        for (int i = start; i < end; i++) {
+          buffers[2 * (i - start)] = headers[i];
+          buffers[2 * (i - start) + 1] = pages.get(i);
+        }
+        try {
+          segment.write(buffers, locations[start].mOffset);
+          for (int i = start; i < end; i++) {
+            segment.writeState(locations[i].mOffset, state);
+            switched = i + 1;
+          }
+        } catch (IOException e) {
+          // none of the records is indexed yet, but the switched ones would be recovered after
+          // a restart although the caller sees the whole batch fail
+          for (int i = 0; i < switched; i++) {
+            try {
+              locations[i].mSegment.writeState(locations[i].mOffset, STATE_DELETED);
+            } catch (IOException deleteError) {
+              e.addSuppressed(deleteError);
+            }
+          }
+          for (int i = 0; i < numPages; i++) {
+            locations[i].mSegment.mLiveBytes.addAndGet(-locations[i].getLength());
+          }
+          throw e;
+        }
+        start = end;
+      }
+      for (int i = 0; i < numPages; i++) {
+        index(pageIds.get(i), locations[i], isTemporary);
+      }
+    } catch (IOException e) {
+      if (e.getMessage() != null && e.getMessage().contains(ERROR_NO_SPACE_LEFT)) {
+        throw new ResourceExhaustedException(
+            String.format("%s is full, configured with %d bytes", mRoot, mCapacity), e);
+      }
+      throw new IOException("Failed to write " + numPages + " pages to segments in " + mRoot, e);
+    }
+  }
+
+  /**
+   * Makes a written page visible. The caller must hold the read lock.
+   */
+  private void index(PageId pageId, PageLocation location, boolean isTemporary)
+      throws IOException {
+    PageLocation previous;
+    if (isTemporary) {
+      try (LockResource t = new LockResource(mTempLock)) {
+        previous = mTempPages.computeIfAbsent(pageId.getFileId(), id -> new HashMap<>())
+            .put(pageId.getPageIndex(), location);
+      }
+    } else {
+      previous = mPages.put(pageId, location);
+    }
+    if (previous != null) {
+      markDeleted(previous);
+    }
+  }
+
+  @Override
+  public int get(PageId pageId, int pageOffset, int bytesToRead, ReadTargetBuffer target,
+      boolean isTemporary) throws IOException, PageNotFoundException {
+    Preconditions.checkArgument(pageOffset >= 0, "page offset should be non-negative");
+    try (LockResource r = new LockResource(mLock.readLock())) {
+      checkNotClosed();
+      PageLocation location = getLocation(pageId, isTemporary);
+      Preconditions.checkArgument(pageOffset <= location.mPageLength,
+          "page offset %s exceeded page size %s", pageOffset, location.mPageLength);
+      long position = location.getDataOffset() + pageOffset;
+      int bytesRead = 0;
+      int bytesLeft = (int) Math.min(Math.min(target.remaining(), bytesToRead),
+          location.mPageLength - pageOffset);
+      while (bytesLeft > 0) {
+        int bytes = location.mSegment.read(target, position + bytesRead, bytesLeft);
+        if (bytes <= 0) {
+          break;
+        }
+        bytesRead += bytes;
+        bytesLeft -= bytes;
+      }
+      return bytesRead;
+    }
+  }
+
+  @Override
+  public void delete(PageId pageId, boolean isTemporary)
+      throws IOException, PageNotFoundException {
+    try (LockResource r = new LockResource(mLock.readLock())) {
+      checkNotClosed();
+      PageLocation location;
+      if (isTemporary) {
+        try (LockResource t = new LockResource(mTempLock)) {
+          Map<Long, PageLocation> pages = mTempPages.get(pageId.getFileId());
+          location = pages == null ? null : pages.remove(pageId.getPageIndex());
+          if (pages != null && pages.isEmpty()) {
+            mTempPages.remove(pageId.getFileId());
+          }
+        }
+      } else {
+        location = mPages.remove(pageId);
+      }
+      if (location == null) {
+        throw new PageNotFoundException(pageId.getFileId() + "_" + pageId.getPageIndex());
+      }
+      markDeleted(location);
+    }
+  }
+
+  @Override
+  public void commit(String fileId, String newFileId) throws IOException {
+    try (LockResource r = new LockResource(mLock.readLock());
+         LockResource t = new LockResource(mTempLock)) {
+      checkNotClosed();
+      Map<Long, PageLocation> pages = mTempPages.remove(fileId);
+      if (pages == null) {
+        return;
+      }
+      for (Map.Entry<Long, PageLocation> entry : pages.entrySet()) {
+        PageLocation location = entry.getValue();
+        if (fileId.equals(newFileId)) {
+          location.mSegment.writeState(location.mOffset, STATE_COMMITTED);
+        } else {
+          // the file id is part of the record, so a renamed page has to be rewritten
+          PageLocation renamed = copy(location, newFileId, entry.getKey(), STATE_COMMITTED);
+          markDeleted(location);
+          location = renamed;
+        }
+        PageLocation previous = mPages.put(new PageId(newFileId, entry.getKey()), location);
+        if (previous != null) {
+          markDeleted(previous);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void abort(String fileId) throws IOException {
+    try (LockResource r = new LockResource(mLock.readLock());
+         LockResource t = new LockResource(mTempLock)) {
+      checkNotClosed();
+      Map<Long, PageLocation> pages = mTempPages.remove(fileId);
+      if (pages == null) {
+        return;
+      }
+      for (PageLocation location : pages.values()) {
+        markDeleted(location);
+      }
+    }
+  }
+
+  @Override
+  public DataFileChannel getDataFileChannel(
+      PageId pageId, int pageOffset, int bytesToRead, boolean isTemporary)
+      throws PageNotFoundException {
+    Preconditions.checkArgument(pageOffset >= 0,
+        "page offset should be non-negative");
+    try (LockResource r = new LockResource(mLock.readLock())) {
+      checkNotClosed();
+      PageLocation location = getLocation(pageId, isTemporary);
+      if (pageOffset + bytesToRead > location.mPageLength) {
+        bytesToRead = location.mPageLength - pageOffset;
+      }
+      // pin the segment while holding the lock, compaction only ever unlinks segment files, so
+      // the data remains readable until it has been sent
+      try {
+        return DataFileChannel.open(location.mSegment.mPath.toFile(),
+            location.getDataOffset() + pageOffset, bytesToRead);
+      } catch (IOException e) {
+        throw new PageNotFoundException(location.mSegment.mPath.toString(), e);
+      }
+    }
+  }
+
+  /**
+   * Scans the committed pages of this store. This only reads the in-memory index, which is
+   * rebuilt from the segment headers when the store is created.
+   *
+   * @param pageStoreDir the dir the pages belong to
+   * @param pageInfoConsumer consumer of the page info of each page
+   */
+  public void scanPages(PageStoreDir pageStoreDir,
+      Consumer<Optional<PageInfo>> pageInfoConsumer) {
+    mPages.forEach((pageId, location) -> pageInfoConsumer.accept(Optional.of(
+        new PageInfo(pageId, location.mPageLength, CacheScope.GLOBAL, pageStoreDir,
+            location.mCreatedTime))));
+  }
+
+  /**
+   * @return the number of segment files of this store
+   */
+  @VisibleForTesting
+  public int getNumSegments() {
+    return mSegments.size();
+  }
+
+  /**
+   * @return the directory holding the segment files
+   */
+  @VisibleForTesting
+  public Path getSegmentDir() {
+    return mRoot;
+  }
+
+  @Override
+  public void close() {
+    try (LockResource r = new LockResource(mLock.writeLock())) {
+      if (mClosed) {
+        return;
+      }
+      mClosed = true;
+      mCompactionExecutor.shutdownNow();
+      for (Segment segment : mSegments.values()) {
+        segment.close();
+      }
+      mSegments.clear();
+      mPages.clear();
+      try (LockResource t = new LockResource(mTempLock)) {
+        mTempPages.clear();
+      }
+    }
+  }
+
+  private void checkNotClosed() {
+    Preconditions.checkState(!mClosed, "segmented page store %s is closed", mRoot);
+  }
+
+  private PageLocation getLocation(PageId pageId, boolean isTemporary)
+      throws PageNotFoundException {
+    PageLocation location;
+    if (isTemporary) {
+      try (LockResource t = new LockResource(mTempLock)) {
+        Map<Long, PageLocation> pages = mTempPages.get(pageId.getFileId());
+        location = pages == null ? null : pages.get(pageId.getPageIndex());
+      }
+    } else {
+      location = mPages.get(pageId);
+    }
+    if (location == null) {
+      throw new PageNotFoundException(pageId.getFileId() + "_" + pageId.getPageIndex());
+    }
+    return location;
+  }
+
+  /**
+   * Appends a new record to the active segment. The caller must hold the read lock.
+   */
+  private PageLocation append(String fileId, long pageIndex, byte state, long createdTime,
+      ByteBuffer page) throws IOException {
+    ByteBuffer header = encodeHeader(fileId, pageIndex, state, createdTime, page.remaining());
+    PageLocation location = allocate(header.remaining(), page.remaining(), createdTime);
+    // the data goes before the header, so a record is not recognized on recovery unless the
+    // write of its data has been issued
+    try {
+      location.mSegment.write(page, location.getDataOffset());
+      location.mSegment.write(header, location.mOffset);
+    } catch (IOException e) {
+      location.mSegment.mLiveBytes.addAndGet(-location.getLength());
+      throw e;
+    }
+    return location;
+  }
+
+  /**
+   * Rewrites the page at the given location into the active segment. The caller must hold the
+   * read lock.
+   */
+  private PageLocation copy(PageLocation location, String fileId, long pageIndex, byte state)
+      throws IOException {
+    ByteBuffer data = ByteBuffer.allocate(location.mPageLength);
+    ReadTargetBuffer target = new ByteBufferTargetBuffer(data);
+    long position = location.getDataOffset();
+    while (data.hasRemaining()) {
+      int bytes = location.mSegment.read(target, position + data.position(), data.remaining());
+      if (bytes <= 0) {
+        throw new IOException(String.format("Unexpected end of segment %s at position %d",
+            location.mSegment.mPath, position + data.position()));
+      }
+    }
+    data.flip();
+    return append(fileId, pageIndex, state, location.mCreatedTime, data);
+  }
+
+  private PageLocation allocate(int headerLength, int pageLength, long createdTime)
+      throws IOException {
+    try (LockResource r = new LockResource(mAllocationLock)) {
+      return allocateLocked(headerLength, pageLength, createdTime);
+    }
+  }
+
+  @GuardedBy("mAllocationLock")
+  private PageLocation allocateLocked(int headerLength, int pageLength, long createdTime)
+      throws IOException {
+    long recordLength = (long) headerLength + pageLength;
+    Preconditions.checkArgument(SEGMENT_HEADER_SIZE + recordLength <= mSegmentSize,
+        "page of %s bytes does not fit into a segment of %s bytes", pageLength, mSegmentSize);
+    if (mActiveSegment == null || mActiveSegment.mWritePosition + recordLength > mSegmentSize) {
+      Segment sealed = mActiveSegment;
+      mActiveSegment = Segment.create(mRoot.resolve(mNextSegmentId + SEGMENT_FILE_SUFFIX),
+          mNextSegmentId, mSegmentSize, mPageSize);
+      mSegments.put(mNextSegmentId, mActiveSegment);
+      mNextSegmentId++;
+      if (sealed != null) {
+        sealed.mSealed = true;
+        maybeCompact(sealed);
+      }
+    }
+    long offset = mActiveSegment.mWritePosition;
+    mActiveSegment.mWritePosition += recordLength;
+    // the record counts as live from now on, so its segment is not compacted before the record
+    // is written, even if the segment gets sealed by a concurrent allocation
+    mActiveSegment.mLiveBytes.addAndGet(recordLength);
+    return new PageLocation(mActiveSegment, offset, headerLength, pageLength, createdTime);
+  }
+
+  private void markDeleted(PageLocation location) throws IOException {
+    location.mSegment.mLiveBytes.addAndGet(-location.getLength());
+    location.mSegment.writeState(location.mOffset, STATE_DELETED);
+    maybeCompact(location.mSegment);
+  }
+
+  private void maybeCompact(Segment segment) {
+    if (segment.mSealed && !mClosed && segment.getGarbageRatio() > mCompactionRatio
+        && segment.mCompacting.compareAndSet(false, true)) {
+      mCompactionExecutor.submit(() -> compact(segment));
+    }
+  }
+
+  /**
+   * Moves the live pages of a sealed segment into the active segment, and removes the segment
+   * file afterwards. Readers are only blocked for the removal of the file.
+   */
+  private void compact(Segment segment) {
+    long bytesCompacted = 0;
+    try {
+      long position = SEGMENT_HEADER_SIZE;
+      while (position < segment.mWritePosition) {
+        try (LockResource r = new LockResource(mLock.readLock())) {
+          if (mClosed) {
+            return;
+          }
+          RecordHeader header = readHeader(segment, position);
+          if (header == null) {
+            // the bytes skipped are already counted as garbage by the recovery
+            position = findNextRecord(segment, position, segment.mWritePosition);
+            if (position < 0) {
+              break;
+            }
+            continue;
+          }
+          if (header.mState != STATE_DELETED) {
+            bytesCompacted += relocate(segment, position, header);
+          }
+          position += header.getRecordLength();
+        }
+      }
+      try (LockResource r = new LockResource(mLock.writeLock())) {
+        if (mClosed) {
+          return;
+        }
+        mSegments.remove(segment.mId);
+        segment.close();
+        Files.deleteIfExists(segment.mPath);
+      }
+      Metrics.SEGMENT_COMPACTIONS.inc();
+      Metrics.SEGMENT_BYTES_COMPACTED.inc(bytesCompacted);
+      LOG.debug("Compacted segment {}, {} bytes of pages relocated", segment.mPath,
+          bytesCompacted);
+    } catch (IOException | RuntimeException e) {
+      LOG.warn("Failed to compact segment {}", segment.mPath, e);
+      segment.mCompacting.set(false);
+    }
+  }
+
+  /**
+   * Copies a live record to the active segment, and swaps the index entry if the page was
+   * neither deleted nor overwritten in the meantime. The caller must hold the read lock.
+   *
+   * @return the number of page bytes relocated
+   */
+  private long relocate(Segment segment, long position, RecordHeader header) throws IOException {
+    PageId pageId = new PageId(header.mFileId, header.mPageIndex);
+    PageLocation current = mPages.get(pageId);
+    if (current == null || current.mSegment != segment || current.mOffset != position) {
+      try (LockResource t = new LockResource(mTempLock)) {
+        Map<Long, PageLocation> pages = mTempPages.get(header.mFileId);
+        current = pages == null ? null : pages.get(header.mPageIndex);
+      }
+      if (current == null || current.mSegment != segment || current.mOffset != position) {
+        // a stale record which is no longer referenced by the index
+        return 0;
+      }
+    }
+    PageLocation moved = copy(current, header.mFileId, header.mPageIndex, header.mState);
+    boolean swapped;
+    try (LockResource t = new LockResource(mTempLock)) {
+      // committing a temporary page also holds the temp lock, so a page cannot move between
+      // the temporary and committed indexes while being swapped here
+      if (mPages.replace(pageId, current, moved)) {
+        swapped = true;
+        if (header.mState != STATE_COMMITTED) {
+          moved.mSegment.writeState(moved.mOffset, STATE_COMMITTED);
+        }
+      } else {
+        Map<Long, PageLocation> pages = mTempPages.get(header.mFileId);
+        swapped = pages != null && pages.replace(header.mPageIndex, current, moved);
+      }
+    }
+    if (!swapped) {
+      markDeleted(moved);
+      return 0;
+    }
+    segment.mLiveBytes.addAndGet(-current.getLength());
+    return current.mPageLength;
+  }
+
+  /**
+   * Rebuilds the index from the segments found under the root directory. Temporary pages are
+   * not recovered, in line with {@link LocalPageStore} discarding its temporary directory.
+   */
+  private void recover() throws IOException {
+    Files.createDirectories(mRoot);
+    List<Path> segmentFiles = new ArrayList<>();
+    try (Stream<Path> stream = Files.list(mRoot)) {
+      stream.forEach(segmentFiles::add);
+    }
+    List<Segment> segments = new ArrayList<>(segmentFiles.size());
+    for (Path path : segmentFiles) {
+      Optional<Long> id = getSegmentId(path);
+      if (!id.isPresent()) {
+        LOG.error("Unrecognized segment file {} is going to be deleted.", path);
+        Files.deleteIfExists(path);
+        continue;
+      }
+      Optional<Segment> segment = Segment.open(path, id.get(), mPageSize);
+      if (!segment.isPresent()) {
+        LOG.error("Segment file {} has an invalid header and is going to be deleted.", path);
+        Files.deleteIfExists(path);
+        continue;
+      }
+      segments.add(segment.get());
+    }
+    // later segments hold the newer copies of a page, so they are scanned last
+    segments.sort((a, b) -> Long.compare(a.mId, b.mId));
+    long nextSegmentId = 0;
+    for (Segment segment : segments) {
+      long position = SEGMENT_HEADER_SIZE;
+      long end = position;
+      while (true) {
+        RecordHeader header = readHeader(segment, position);
+        if (header == null) {
+          // a corrupt record does not hide the records after it, the bytes skipped count as
+          // garbage once a valid record is found after them
+          long next = findNextRecord(segment, position, segment.mCapacity);
+          if (next < 0) {
+            break;
+          }
+          LOG.warn("Skipped {} bytes of invalid records at position {} of segment {}",
+              next - position, position, segment.mPath);
+          position = next;
+          continue;
+        }
+        if (header.mState == STATE_COMMITTED) {
+          PageLocation location = new PageLocation(segment, position, header.mHeaderLength,
+              header.mPageLength, header.mCreatedTime);
+          segment.mLiveBytes.addAndGet(location.getLength());
+          PageLocation previous =
+              mPages.put(new PageId(header.mFileId, header.mPageIndex), location);
+          if (previous != null) {
+            markDeleted(previous);
+          }
+        } else if (header.mState == STATE_TEMPORARY) {
+          segment.writeState(position, STATE_DELETED);
+        }
+        position += header.getRecordLength();
+        end = position;
+      }
+      segment.mWritePosition = end;
+      mSegments.put(segment.mId, segment);
+      nextSegmentId = segment.mId + 1;
+    }
+    try (LockResource r = new LockResource(mAllocationLock)) {
+      mNextSegmentId = nextSegmentId;
+    }
+    // recovered segments are never appended to again
+    for (Segment segment : segments) {
+      segment.mSealed = true;
+      maybeCompact(segment);
+    }
+    LOG.info("Recovered {} pages from {} segments in {}", mPages.size(), segments.size(), mRoot);
+  }
+
+  private static Optional<Long> getSegmentId(Path path) {
+    String fileName = String.valueOf(path.getFileName());
+    if (!fileName.endsWith(SEGMENT_FILE_SUFFIX)) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(Long.parseLong(
+          fileName.substring(0, fileName.length() - SEGMENT_FILE_SUFFIX.length())));
+    } catch (NumberFormatException e) {
+      return Optional.empty();
+    }
+  }
+
+  private static ByteBuffer encodeHeader(String fileId, long pageIndex, byte state,
+      long createdTime, int pageLength) {
+    byte[] fileIdBytes = fileId.getBytes(StandardCharsets.UTF_8);
+    Preconditions.checkArgument(fileIdBytes.length <= MAX_FILE_ID_LENGTH,
+        "file id %s is too long to be stored in a segment", fileId);
+    ByteBuffer header = ByteBuffer.allocate(RECORD_FIXED_HEADER_SIZE + fileIdBytes.length);
+    header.putInt(RECORD_MAGIC)
+        .putInt(0)
+        .put(state)
+        .putInt(pageLength)
+        .putLong(pageIndex)
+        .putLong(createdTime)
+        .putShort((short) fileIdBytes.length)
+        .put(fileIdBytes);
+    header.putInt(Integer.BYTES, checksum(header.array()));
+    header.flip();
+    return header;
+  }
+
+  private static int checksum(byte[] header) {
+    CRC32 crc = new CRC32();
+    crc.update(header, RECORD_CHECKSUM_START, header.length - RECORD_CHECKSUM_START);
+    return (int) crc.getValue();
+  }
+
+  /**
+   * @return the record header at the given position, or null if there is no valid record
+   */
+  @Nullable
+  private static RecordHeader readHeader(Segment segment, long position) throws IOException {
+    if (position + RECORD_FIXED_HEADER_SIZE > segment.mCapacity) {
+      return null;
+    }
+    ByteBuffer fixed = ByteBuffer.allocate(RECORD_FIXED_HEADER_SIZE);
+    segment.readFully(fixed, position);
+    if (fixed.position() < RECORD_FIXED_HEADER_SIZE || fixed.getInt(0) != RECORD_MAGIC) {
+      return null;
+    }
+    int fileIdLength = Short.toUnsignedInt(fixed.getShort(RECORD_FIXED_HEADER_SIZE - 2));
+    int pageLength = fixed.getInt(RECORD_CHECKSUM_START);
+    int headerLength = RECORD_FIXED_HEADER_SIZE + fileIdLength;
+    if (pageLength < 0 || position + headerLength + pageLength > segment.mCapacity) {
+      return null;
+    }
+    ByteBuffer header = ByteBuffer.allocate(headerLength);
+    fixed.flip();
+    header.put(fixed);
+    segment.readFully(header, position + RECORD_FIXED_HEADER_SIZE);
+    if (header.position() < headerLength || header.getInt(Integer.BYTES) != checksum(
+        header.array())) {
+      return null;
+    }
+    String fileId = new String(header.array(), RECORD_FIXED_HEADER_SIZE, fileIdLength,
+        StandardCharsets.UTF_8);
+    return new RecordHeader(header.get(RECORD_STATE_OFFSET), fileId,
+        header.getLong(RECORD_CHECKSUM_START + 4), header.getLong(RECORD_CHECKSUM_START + 12),
+        headerLength, pageLength);
+  }
+
+  /**
+   * Finds the first valid record after a position holding no valid record, by scanning for the
+   * record magic, each candidate being validated by its header checksum.
+   *
+   * @param segment the segment to scan
+   * @param position the position of the invalid record
+   * @param limit the position the records found must end before
+   * @return the position of the next valid record, or -1 if there is none before the limit
+   */
+  private static long findNextRecord(Segment segment, long position, long limit)
+      throws IOException {
+    ByteBuffer buf = ByteBuffer.allocate(RESYNC_BUFFER_SIZE);
+    long start = position + 1;
+    while (start + RECORD_FIXED_HEADER_SIZE <= limit) {
+      buf.clear();
+      buf.limit((int) Math.min(buf.capacity(), limit - start));
+      segment.readFully(buf, start);
+      int bytesRead = buf.position();
+      if (bytesRead < Integer.BYTES) {
+        return -1;
+      }
+      for (int i = 0; i + Integer.BYTES <= bytesRead; i++) {
+        if (buf.getInt(i) != RECORD_MAGIC) {
+          continue;
+        }
+        RecordHeader header = readHeader(segment, start + i);
+        if (header != null && start + i + header.getRecordLength() <= limit) {
+          return start + i;
+        }
+      }
+      // a magic may span the end of the buffer
+      start += bytesRead - (Integer.BYTES - 1);
+    }
+    return -1;
+  }
+
+  /**
+   * A segment file holding a sequence of page records.
+   */
+  private static final class Segment {
+    private final long mId;
+    private final Path mPath;
+    private final long mCapacity;
+    private final AtomicLong mLiveBytes = new AtomicLong();
+    private final AtomicBoolean mCompacting = new AtomicBoolean(false);
+    /** End of the last allocated record, only advanced under the allocation lock. */
+    private volatile long mWritePosition = SEGMENT_HEADER_SIZE;
+    private volatile boolean mSealed = false;
+    private volatile FileChannel mChannel;
+    private final Object mAppendLock = new Object();
+    private boolean mClosed = false;
+
+    private Segment(long id, Path path, long capacity, FileChannel channel) {
+      mId = id;
+      mPath = path;
+      mCapacity = capacity;
+      mChannel = channel;
+    }
+
+    static Segment create(Path path, long id, long capacity, long pageSize) throws IOException {
+      FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+          StandardOpenOption.READ, StandardOpenOption.WRITE);
+      Segment segment = new Segment(id, path, capacity, channel);
+      try {
+        // reserve the whole segment up front, records are then written in place
+        segment.write(ByteBuffer.allocate(1), capacity - 1);
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+        header.putInt(SEGMENT_MAGIC).putInt(SEGMENT_VERSION).putLong(pageSize).flip();
+        segment.write(header, 0);
+      } catch (IOException e) {
+        segment.close();
+        Files.deleteIfExists(path);
+        throw e;
+      }
+      return segment;
+    }
+
+    static Optional<Segment> open(Path path, long id, long pageSize) throws IOException {
+      FileChannel channel = FileChannel.open(path, StandardOpenOption.READ,
+          StandardOpenOption.WRITE);
+      Segment segment = new Segment(id, path, channel.size(), channel);
+      ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+      segment.readFully(header, 0);
+      if (header.position() < SEGMENT_HEADER_SIZE || header.getInt(0) != SEGMENT_MAGIC
+          || header.getInt(4) != SEGMENT_VERSION || header.getLong(8) != pageSize) {
+        segment.close();
+        return Optional.empty();
+      }
+      return Optional.of(segment);
+    }
+
+    double getGarbageRatio() {
+      long used = mWritePosition - SEGMENT_HEADER_SIZE;
+      if (used <= 0) {
+        return 0;
+      }
+      return 1 - (double) mLiveBytes.get() / used;
+    }
+
+    int read(ReadTargetBuffer target, long position, int length) throws IOException {
+      while (true) {
+        FileChannel channel = mChannel;
+        try {
+          return target.readFromFileChannel(channel, position, length);
+        } catch (ClosedChannelException e) {
+          reopen(channel, e);
+        }
+      }
+    }
+
+    void readFully(ByteBuffer buffer, long position) throws IOException {
+      long start = position - buffer.position();
+      while (buffer.hasRemaining()) {
+        FileChannel channel = mChannel;
+        try {
+          if (channel.read(buffer, start + buffer.position()) < 0) {
+            return;
+          }
+        } catch (ClosedChannelException e) {
+          reopen(channel, e);
+        }
+      }
+    }
+
+    void write(ByteBuffer buffer, long position) throws IOException {
+      long start = position - buffer.position();
+      while (buffer.hasRemaining()) {
+        FileChannel channel = mChannel;
+        try {
+          channel.write(buffer, start + buffer.position());
+        } catch (ClosedChannelException e) {
+          reopen(channel, e);
+        }
+      }
+    }
+
+    /**
+     * Writes a sequence of buffers to consecutive positions with gathering writes. Relative
+     * writes are the only way to write several buffers at once, so they are serialized on
+     * the append lock. All other I/O on the channel is positional and not affected by them.
+     */
+    void write(ByteBuffer[] buffers, long position) throws IOException {
+      long length = remaining(buffers);
+      synchronized (mAppendLock) {
+        long remaining = length;
+        while (remaining > 0) {
+          FileChannel channel = mChannel;
+          try {
+            channel.position(position + length - remaining);
+            channel.write(buffers);
+          } catch (ClosedChannelException e) {
+            reopen(channel, e);
+          }
+          remaining = remaining(buffers);
+        }
+      }
+    }
+
+    private static long remaining(ByteBuffer[] buffers) {
+      long remaining = 0;
+      for (ByteBuffer buffer : buffers) {
+        remaining += buffer.remaining();
+      }
+      return remaining;
+    }
+
+    void writeState(long recordOffset, byte state) throws IOException {
+      write(ByteBuffer.wrap(new byte[] {state}), recordOffset + RECORD_STATE_OFFSET);
+    }
+
+    /**
+     * An interrupted thread closes a {@link FileChannel} for all the threads sharing it, so
+     * the channel is reopened unless the segment itself has been closed.
+     */
+    private synchronized void reopen(FileChannel closedChannel, ClosedChannelException cause)
+        throws IOException {
+      if (mClosed || Thread.currentThread().isInterrupted()) {
+        throw cause;
+      }
+      if (mChannel == closedChannel) {
+        mChannel = FileChannel.open(mPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      }
+    }
+
+    synchronized void close() {
+      mClosed = true;
+      try {
+        mChannel.close();
+      } catch (IOException e) {
+        LOG.warn("Failed to close segment {}", mPath, e);
+      }
+    }
+  }
+
+  /**
+   * Location of a page record within a segment.
+   */
+  private static final class PageLocation {
+    private final Segment mSegment;
+    private final long mOffset;
+    private final int mHeaderLength;
+    private final int mPageLength;
+    private final long mCreatedTime;
+
+    PageLocation(Segment segment, long offset, int headerLength, int pageLength,
+        long createdTime) {
+      mSegment = segment;
+      mOffset = offset;
+      mHeaderLength = headerLength;
+      mPageLength = pageLength;
+      mCreatedTime = createdTime;
+    }
+
+    long getDataOffset() {
+      return mOffset + mHeaderLength;
+    }
+
+    long getLength() {
+      return (long) mHeaderLength + mPageLength;
+    }
+  }
+
+  /**
+   * Decoded header of a page record.
+   */
+  private static final class RecordHeader {
+    private final byte mState;
+    private final String mFileId;
+    private final long mPageIndex;
+    private final long mCreatedTime;
+    private final int mHeaderLength;
+    private final int mPageLength;
+
+    RecordHeader(byte state, String fileId, long pageIndex, long createdTime, int headerLength,
+        int pageLength) {
+      mState = state;
+      mFileId = fileId;
+      mPageIndex = pageIndex;
+      mCreatedTime = createdTime;
+      mHeaderLength = headerLength;
+      mPageLength = pageLength;
+    }
+
+    long getRecordLength() {
+      return (long) mHeaderLength + mPageLength;
+    }
+  }
+
+  private static final class Metrics {
+    // Note that only counter/guage can be added here.
+    // Both meter and timer need to be used inline
+    // because new meter and timer will be created after {@link MetricsSystem.resetAllMetrics()}
+    /** Number of segments compacted. */
+    private static final Counter SEGMENT_COMPACTIONS =
+        MetricsSystem.counter(MetricKey.CLIENT_CACHE_SEGMENT_COMPACTIONS.getName());
+    /** Bytes of live pages rewritten by compaction. */
+    private static final Counter SEGMENT_BYTES_COMPACTED =
+        MetricsSystem.counter(MetricKey.CLIENT_CACHE_SEGMENT_BYTES_COMPACTED.getName());
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.store;
+
+import alluxio.client.file.cache.CacheUsage;
+import alluxio.client.file.cache.PageInfo;
+import alluxio.client.file.cache.PageStore;
+import alluxio.client.file.cache.TimeBoundPageStore;
+import alluxio.client.file.cache.evictor.CacheEvictor;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Represents the dir and file level metadata of the {@link SegmentedPageStore}.
+ */
+public class SegmentedPageStoreDir extends QuotaManagedPageStoreDir {
+
+  private final PageStoreOptions mPageStoreOptions;
+
+  private SegmentedPageStore mSegmentedPageStore;
+  private PageStore mPageStore;
+
+  /**
+   * Constructor of SegmentedPageStoreDir.
+   *
+   * @param pageStoreOptions page store options
+   * @param evictor the evictor
+   */
+  public SegmentedPageStoreDir(PageStoreOptions pageStoreOptions, CacheEvictor evictor) {
+    super(pageStoreOptions.getRootDir(),
+        (long) (pageStoreOptions.getCacheSize() / (1 + pageStoreOptions.getOverheadRatio())),
+        evictor);
+    mPageStoreOptions = pageStoreOptions;
+    createPageStore();
+  }
+
+  @Override
+  public PageStore getPageStore() {
+    return mPageStore;
+  }
+
+  @Override
+  public void reset() throws IOException {
+    close();
+    PageStoreDir.clear(getRootPath());
+    createPageStore();
+  }
+
+  /**
+   * Gets all pages from the index of the page store, which is recovered from the segment
+   * headers when the page store is opened.
+   *
+   * @param pageInfoConsumer consumer of the page info of each page
+   */
+  @Override
+  public void scanPages(Consumer<Optional<PageInfo>> pageInfoConsumer) {
+    mSegmentedPageStore.scanPages(this, pageInfoConsumer);
+  }
+
+  @Override
+  public Optional<CacheUsage> getUsage() {
+    return Optional.of(new QuotaManagedPageStoreDir.Usage());
+  }
+
+  private void createPageStore() {
+    mSegmentedPageStore = new SegmentedPageStore(mPageStoreOptions);
+    // keeps a reference to the unwrapped store, which is needed to scan the pages
+    mPageStore = mPageStoreOptions.getTimeoutDuration() > 0
+        ? new TimeBoundPageStore(mSegmentedPageStore, mPageStoreOptions) : mSegmentedPageStore;
+  }
+}
@@ -0,0 +1,232 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.dora;
+
+import alluxio.Constants;
+import alluxio.client.block.BlockWorkerInfo;
+import alluxio.conf.AlluxioConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.exception.status.ResourceExhaustedException;
+import alluxio.wire.WorkerIdentity;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * An impl of WorkerLocationPolicy.
+ *
+ * A policy based on consistent hashing with bounded loads. A file path is matched to the
+ * sequence of workers following it on the same hash ring as {@link ConsistentHashPolicy}, and is
+ * served by the first worker of the sequence whose load is within a factor of the average load
+ * of the workers. The load of a worker is the recent rate of requests this client sent to it.
+ * On top of that, the requests to a hot path, whose recent rate of requests is above a threshold,
+ * are spread over the least loaded of its first few workers on the ring.
+ *
+ * Under light or balanced load, paths are matched to the same workers as with
+ * {@link ConsistentHashPolicy}. Under skewed load, a path may be served by a few more workers,
+ * the ones following its worker on the ring, trading some cache space for the tail latency of
+ * the reads.
+ *
+ * Only the reads of the data are balanced this way, see {@link #getPreferredWorkersForRead}.
+ * The metadata and write requests of a path always go to its workers on the ring, which own
+ * its metadata, and are not counted in the load of the workers.
+ */
+@ThreadSafe
+public class BoundedLoadConsistentHashPolicy implements WorkerLocationPolicy {
+  private static final ConsistentHashProvider HASH_PROVIDER =
+      new ConsistentHashProvider(100, Constants.SECOND_MS);
+  /** The max number of paths whose recent rate of requests is tracked. */
+  private static final int MAX_TRACKED_KEYS = 10_000;
+  /**
+   * The load every worker is assumed to have on top of its recent load when bounding loads, so
+   * that light traffic keeps following the hash ring.
+   */
+  private static final double BASE_LOAD = 16;
+  /**
+   * The number of workers after the replicas of a path on the ring that are considered before
+   * looking for a worker within the load bound further along the ring.
+   */
+  private static final int NUM_EXTRA_CANDIDATES = 2;
+
+  private final int mNumVirtualNodes;
+  private final double mLoadFactor;
+  private final double mHotKeyRate;
+  private final int mHotKeyReplicas;
+  private final double mHalfLifeNs;
+  private final Ticker mTicker;
+  private final ConcurrentHashMap<WorkerIdentity, DecayingCounter> mWorkerLoads =
+      new ConcurrentHashMap<>();
+  private final DecayingCounter mTotalLoad;
+  /** The number of updates of the hash ring when the loads were last pruned. */
+  private final AtomicLong mRingVersion = new AtomicLong(-1);
+  private final Cache<String, DecayingCounter> mKeyLoads =
+      CacheBuilder.newBuilder().maximumSize(MAX_TRACKED_KEYS).build();
+
+  /**
+   * Constructs a new {@link BoundedLoadConsistentHashPolicy}.
+   *
+   * @param conf the configuration used by the policy
+   */
+  public BoundedLoadConsistentHashPolicy(AlluxioConfiguration conf) {
+    this(conf, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  BoundedLoadConsistentHashPolicy(AlluxioConfiguration conf, Ticker ticker) {
+    mNumVirtualNodes = conf.getInt(PropertyKey.USER_CONSISTENT_HASH_VIRTUAL_NODE_COUNT_PER_WORKER);
+    mLoadFactor = conf.getDouble(PropertyKey.USER_BOUNDED_LOAD_HASH_LOAD_FACTOR);
+    mHotKeyRate = conf.getDouble(PropertyKey.USER_BOUNDED_LOAD_HASH_HOT_KEY_RATE);
+    mHotKeyReplicas = conf.getInt(PropertyKey.USER_BOUNDED_LOAD_HASH_HOT_KEY_REPLICAS);
+    mHalfLifeNs =
+        conf.getMs(PropertyKey.USER_BOUNDED_LOAD_HASH_LOAD_HALF_LIFE) * (double) Constants.MS_NANO;
+    Preconditions.checkArgument(mLoadFactor >= 1,
+        "%s should be at least 1", PropertyKey.USER_BOUNDED_LOAD_HASH_LOAD_FACTOR);
+    Preconditions.checkArgument(mHotKeyReplicas >= 1,
+        "%s should be positive", PropertyKey.USER_BOUNDED_LOAD_HASH_HOT_KEY_REPLICAS);
+    Preconditions.checkArgument(mHalfLifeNs > 0,
+        "%s should be positive", PropertyKey.USER_BOUNDED_LOAD_HASH_LOAD_HALF_LIFE);
+    mTicker = ticker;
+    mTotalLoad = new DecayingCounter();
+  }
+
+  @Override
+  public List<BlockWorkerInfo> getPreferredWorkers(List<BlockWorkerInfo> blockWorkerInfos,
+      String fileId, int count) throws ResourceExhaustedException {
+    return getRing(blockWorkerInfos, fileId, count, count);
+  }
+
+  @Override
+  public List<BlockWorkerInfo> getPreferredWorkersForRead(List<BlockWorkerInfo> blockWorkerInfos,
+      String fileId, int count) throws ResourceExhaustedException {
+    int numCandidates = Math.min(blockWorkerInfos.size(),
+        Math.max(count, mHotKeyReplicas) + NUM_EXTRA_CANDIDATES);
+    List<BlockWorkerInfo> ring = getRing(blockWorkerInfos, fileId, count, numCandidates);
+    long now = mTicker.read();
+    List<BlockWorkerInfo> candidates = new ArrayList<>(ring);
+    if (isHot(fileId, now)) {
+      // serve the hot path from the least loaded of its first workers
+      int replicas = Math.min(mHotKeyReplicas, candidates.size());
+      candidates.subList(0, replicas).sort(Comparator.comparingDouble(w -> getLoad(w, now)));
+    }
+    double bound = mLoadFactor * (mTotalLoad.get(now) / blockWorkerInfos.size() + BASE_LOAD);
+    Predicate<BlockWorkerInfo> withinBound = worker -> getLoad(worker, now) + 1 <= bound;
+    Optional<BlockWorkerInfo> underBound = candidates.stream().filter(withinBound).findFirst();
+    if (!underBound.isPresent() && ring.size() < blockWorkerInfos.size()) {
+      // every candidate is over the bound, look further along the ring, which starts with them
+      underBound = HASH_PROVIDER.getMultiple(fileId, blockWorkerInfos.size()).stream()
+          .skip(ring.size())
+          .filter(withinBound)
+          .findFirst();
+    }
+    BlockWorkerInfo chosen = underBound.orElse(candidates.get(0));
+    recordRequest(fileId, chosen, now);
+
+    ImmutableList.Builder<BlockWorkerInfo> workers = ImmutableList.builder();
+    workers.add(chosen);
+    ring.stream().filter(worker -> !worker.getIdentity().equals(chosen.getIdentity()))
+        .limit(count - 1).forEach(workers::add);
+    return workers.build();
+  }
+
+  /**
+   * @param count the number of workers required
+   * @param numWorkers the number of workers to return, at least count
+   * @return the first workers in the order they follow the path on the hash ring
+   */
+  private List<BlockWorkerInfo> getRing(List<BlockWorkerInfo> blockWorkerInfos, String fileId,
+      int count, int numWorkers) throws ResourceExhaustedException {
+    if (blockWorkerInfos.size() < count) {
+      throw new ResourceExhaustedException(String.format(
+          "Not enough workers in the cluster %d workers in the cluster but %d required",
+          blockWorkerInfos.size(), count));
+    }
+    HASH_PROVIDER.refresh(blockWorkerInfos, mNumVirtualNodes);
+    long ringVersion = HASH_PROVIDER.getUpdateCount();
+    if (mRingVersion.getAndSet(ringVersion) != ringVersion) {
+      // forget the loads of the workers that left the cluster
+      Set<WorkerIdentity> workers = blockWorkerInfos.stream()
+          .map(BlockWorkerInfo::getIdentity).collect(Collectors.toSet());
+      mWorkerLoads.keySet().retainAll(workers);
+    }
+    List<BlockWorkerInfo> ring = HASH_PROVIDER.getMultiple(fileId, numWorkers);
+    if (ring.size() < count) {
+      throw new ResourceExhaustedException(String.format(
+          "Found %d workers from the hash ring but %d required", ring.size(), count));
+    }
+    return ring;
+  }
+
+  @VisibleForTesting
+  Set<WorkerIdentity> getTrackedWorkers() {
+    return mWorkerLoads.keySet();
+  }
+
+  private boolean isHot(String key, long now) {
+    DecayingCounter load = mKeyLoads.getIfPresent(key);
+    // a steady rate r of requests decays to a count of r * half life / ln(2)
+    return load != null
+        && load.get(now) * Math.log(2) / mHalfLifeNs * Constants.SECOND_NANO >= mHotKeyRate;
+  }
+
+  private double getLoad(BlockWorkerInfo worker, long now) {
+    DecayingCounter load = mWorkerLoads.get(worker.getIdentity());
+    return load == null ? 0 : load.get(now);
+  }
+
+  private void recordRequest(String key, BlockWorkerInfo worker, long now) {
+    mWorkerLoads.computeIfAbsent(worker.getIdentity(), w -> new DecayingCounter()).add(now);
+    mTotalLoad.add(now);
+    try {
+      mKeyLoads.get(key, DecayingCounter::new).add(now);
+    } catch (ExecutionException e) {
+      // the loader does not throw
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * A count of events which decays exponentially over time.
+   */
+  private final class DecayingCounter {
+    private double mValue;
+    private long mLastUpdateNs = mTicker.read();
+
+    synchronized void add(long now) {
+      mValue = decay(now) + 1;
+      mLastUpdateNs = now;
+    }
+
+    synchronized double get(long now) {
+      return decay(now);
+    }
+
+    private double decay(long now) {
+      return mValue * Math.pow(0.5, Math.max(0, now - mLastUpdateNs) / mHalfLifeNs);
+    }
+  }
+}
@@ -234,8 +234,10 @@ public class ConsistentHashProvider {
     return mActiveNodesByConsistentHashing;
   }
 
-  @VisibleForTesting
-  long getUpdateCount() {
+  /**
+   * @return the number of times the hash ring has been rebuilt for a changed worker list
+   */
+  public long getUpdateCount() {
     return mUpdateCount.sum();
   }
 
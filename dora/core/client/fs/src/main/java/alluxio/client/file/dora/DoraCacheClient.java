@@ -22,6 +22,7 @@ import alluxio.client.block.stream.GrpcDataReader;
 import alluxio.client.file.DoraFileOutStream;
 import alluxio.client.file.FileOutStream;
 import alluxio.client.file.FileSystemContext;
+import alluxio.client.file.ListStatusPartialResult;
 import alluxio.client.file.PositionReadFileInStream;
 import alluxio.client.file.URIStatus;
 import alluxio.client.file.dora.netty.NettyDataReader;
@@ -53,12 +54,16 @@ import alluxio.grpc.GetStatusPRequest;
 import alluxio.grpc.GrpcUtils;
 import alluxio.grpc.ListStatusPOptions;
 import alluxio.grpc.ListStatusPRequest;
+import alluxio.grpc.ListStatusPartialPOptions;
+import alluxio.grpc.ListStatusPartialPRequest;
 import alluxio.grpc.ReadRequest;
 import alluxio.grpc.RenamePOptions;
 import alluxio.grpc.RenamePRequest;
 import alluxio.grpc.RequestType;
 import alluxio.grpc.SetAttributePOptions;
 import alluxio.grpc.SetAttributePRequest;
+import alluxio.grpc.WatchMetadataInvalidationRequest;
+import alluxio.grpc.WatchMetadataInvalidationResponse;
 import alluxio.proto.dataserver.Protocol;
 import alluxio.resource.CloseableResource;
 import alluxio.wire.WorkerNetAddress;
@@ -67,6 +72,7 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.stub.StreamObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -76,7 +82,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 import javax.annotation.Nullable;
 
 /**
@@ -93,6 +99,8 @@ public class DoraCacheClient {
   private final int mPreferredWorkerCount;
 
   private final boolean mEnableDynamicHashRing;
+
+  private final VirtualBlockPlacement mVirtualBlockPlacement;
   private static final Logger LOG = LoggerFactory.getLogger(DoraCacheClient.class);
 
   /**
@@ -111,6 +119,7 @@ public class DoraCacheClient {
         context.getClusterConf().getBoolean(PropertyKey.USER_DYNAMIC_CONSISTENT_HASH_RING_ENABLED);
     int minReplicaCount = context.getClusterConf().getInt(PropertyKey.USER_FILE_REPLICATION_MIN);
     mPreferredWorkerCount = Math.max(1, minReplicaCount);
+    mVirtualBlockPlacement = new VirtualBlockPlacement(context.getClusterConf());
   }
 
   /**
@@ -122,15 +131,12 @@ public class DoraCacheClient {
    */
   public PositionReadFileInStream getInStream(URIStatus status,
       Protocol.OpenUfsBlockOptions ufsOptions) {
-    WorkerNetAddress workerNetAddress = getWorkerNetAddress(status.getUfsPath());
-    // Construct the partial read request
-    NettyDataReader reader;
-    if (mNettyTransEnabled) {
-      reader = createNettyDataReader(workerNetAddress, ufsOptions);
-    } else {
+    if (!mNettyTransEnabled) {
       throw new UnsupportedOperationException("Grpc dora reader not implemented");
     }
-    return new PositionReadFileInStream(reader, status, this);
+    return new PositionReadFileInStream(
+        createDataReader(status.getUfsPath(), status.getUfsPath(), status.getLength(), ufsOptions),
+        status, this);
   }
 
   /**
@@ -157,6 +163,13 @@ public class DoraCacheClient {
     return mChunkSize;
   }
 
+  /**
+   * @return the readahead shared by the streams of the file system context, if enabled
+   */
+  public Optional<ReadaheadManager> getReadaheadManager() {
+    return mContext.getReadaheadManager();
+  }
+
   /**
    * @param status
    * @param ufsOptions
@@ -166,12 +179,31 @@ public class DoraCacheClient {
   public DoraCachePositionReader createNettyPositionReader(URIStatus status,
       Protocol.OpenUfsBlockOptions ufsOptions,
       Optional<CloseableSupplier<PositionReader>> externalPositionReader) {
-    WorkerNetAddress workerNetAddress = getWorkerNetAddress(status.toString());
-    // Construct the partial read request
-    NettyDataReader reader = createNettyDataReader(workerNetAddress, ufsOptions);
+    PositionReader reader = createDataReader(status.toString(), status.getUfsPath(),
+        status.getLength(), ufsOptions);
     return new DoraCachePositionReader(reader, status.getLength(), externalPositionReader);
   }
 
+  /**
+   * Creates a reader of a file from the worker serving it, or from the workers serving its
+   * virtual blocks if it is split into virtual blocks.
+   *
+   * @param path the path used to pick the worker serving the whole file
+   * @param ufsPath the UFS path of the file
+   * @param fileLength the file length
+   * @param ufsOptions the options to open the file in the UFS
+   * @return the reader
+   */
+  private PositionReader createDataReader(String path, String ufsPath, long fileLength,
+      Protocol.OpenUfsBlockOptions ufsOptions) {
+    if (!mVirtualBlockPlacement.isSplit(fileLength)) {
+      return createNettyDataReader(getWorkerNetAddress(path, true), ufsOptions);
+    }
+    return new VirtualBlockPositionReader(mVirtualBlockPlacement, fileLength,
+        blockIndex -> createNettyDataReader(getWorkerNetAddress(
+            VirtualBlockPlacement.getBlockShardKey(ufsPath, blockIndex), true), ufsOptions));
+  }
+
   protected GrpcDataReader.Factory createGrpcDataReader(
       WorkerNetAddress workerNetAddress,
       Protocol.OpenUfsBlockOptions ufsOptions) {
@@ -201,16 +233,47 @@ public class DoraCacheClient {
    */
   public List<URIStatus> listStatus(String path, ListStatusPOptions options)
       throws PermissionDeniedException {
+    List<URIStatus> result = new ArrayList<>();
+    iterateStatus(path, options, result::add);
+    return result;
+  }
+
+  /**
+   * Iterates the statuses of a directory listed by the worker, as they are streamed from the
+   * worker, without holding the whole listing in memory.
+   *
+   * @param path the ufs path of the directory
+   * @param options the listing options
+   * @param action the action to apply to each status
+   */
+  public void iterateStatus(String path, ListStatusPOptions options,
+      Consumer<? super URIStatus> action) throws PermissionDeniedException {
     try (CloseableResource<BlockWorkerClient> client =
              mContext.acquireBlockWorkerClient(getWorkerNetAddress(path))) {
-      List<URIStatus> result = new ArrayList<>();
+      // the next batch of the listing is only requested from the worker once the previous one
+      // is consumed
       client.get().listStatus(ListStatusPRequest.newBuilder().setPath(path)
               .setOptions(options).build())
-          .forEachRemaining(
-              (pListStatusResponse) -> result.addAll(pListStatusResponse.getFileInfosList().stream()
-                  .map((pFileInfo) -> new URIStatus(GrpcUtils.fromProto(pFileInfo)))
-                  .collect(Collectors.toList())));
-      return result;
+          .forEachRemaining(response -> response.getFileInfosList().forEach(
+              fileInfo -> action.accept(new URIStatus(GrpcUtils.fromProto(fileInfo)))));
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Lists a part of a directory.
+   *
+   * @param path the ufs path of the directory
+   * @param options the partial listing options
+   * @return the partial listing
+   */
+  public ListStatusPartialResult listStatusPartial(String path,
+      ListStatusPartialPOptions options) throws PermissionDeniedException {
+    try (CloseableResource<BlockWorkerClient> client =
+             mContext.acquireBlockWorkerClient(getWorkerNetAddress(path))) {
+      return ListStatusPartialResult.fromProto(client.get().listStatusPartial(
+          ListStatusPartialPRequest.newBuilder().setPath(path).setOptions(options).build()));
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
@@ -443,13 +506,23 @@ public class DoraCacheClient {
    * @return the related worker net address where file locates
    */
   public WorkerNetAddress getWorkerNetAddress(String path) {
+    return getWorkerNetAddress(path, false);
+  }
+
+  /**
+   * @param path the file path
+   * @param forRead whether the worker serves a read of the data, which may be balanced over
+   *        more workers than the ones owning the metadata of the file
+   * @return the worker net address
+   */
+  private WorkerNetAddress getWorkerNetAddress(String path, boolean forRead) {
     try {
       List<BlockWorkerInfo> workers = mEnableDynamicHashRing ? mContext.getCachedWorkers(
           FileSystemContext.GetWorkerListType.LIVE) : mContext.getCachedWorkers(
           FileSystemContext.GetWorkerListType.ALL);
-      List<BlockWorkerInfo> preferredWorkers =
-          mWorkerLocationPolicy.getPreferredWorkers(workers,
-              path, mPreferredWorkerCount);
+      List<BlockWorkerInfo> preferredWorkers = forRead
+          ? mWorkerLocationPolicy.getPreferredWorkersForRead(workers, path, mPreferredWorkerCount)
+          : mWorkerLocationPolicy.getPreferredWorkers(workers, path, mPreferredWorkerCount);
       checkState(preferredWorkers.size() > 0);
       BlockWorkerInfo worker = choosePreferredWorker(preferredWorkers);
       if (!worker.isActive()) {
@@ -465,16 +538,50 @@ public class DoraCacheClient {
   }
 
   /**
-   * Caches data from ufs.
+   * Get the worker net address serving the data of a file at a position.
+   * @param path the file path
+   * @param fileLength the file length
+   * @param position the position in the file
+   * @return the related worker net address where the data at the position locates
+   */
+  public WorkerNetAddress getWorkerNetAddress(String path, long fileLength, long position) {
+    return getWorkerNetAddress(mVirtualBlockPlacement.getShardKey(path, fileLength, position));
+  }
+
+  /**
+   * @return the placement of the data of files on the workers
+   */
+  public VirtualBlockPlacement getVirtualBlockPlacement() {
+    return mVirtualBlockPlacement;
+  }
+
+  /**
+   * Caches data from ufs. The range is split at the boundaries of virtual blocks if the file is
+   * split into virtual blocks, and each part is cached by the worker serving it.
    * @param ufsPath the full ufs path
+   * @param fileLength the file length
    * @param pos the position
    * @param length the length
    */
-  public void cacheData(String ufsPath, long pos, long length) {
-    // TODO(yimin.wei) break down the load request into loading virtual block requests
-    // and load them on different workers.
+  public void cacheData(String ufsPath, long fileLength, long pos, long length) {
+    if (!mVirtualBlockPlacement.isSplit(fileLength)) {
+      cacheData(ufsPath, getWorkerNetAddress(ufsPath), pos, length);
+      return;
+    }
+    long blockSize = mVirtualBlockPlacement.getBlockSize();
+    long end = Math.min(fileLength, pos + length);
+    while (pos < end) {
+      long blockIndex = mVirtualBlockPlacement.getBlockIndex(pos);
+      long partEnd = Math.min(end, (blockIndex + 1) * blockSize);
+      cacheData(ufsPath, getWorkerNetAddress(
+          VirtualBlockPlacement.getBlockShardKey(ufsPath, blockIndex)), pos, partEnd - pos);
+      pos = partEnd;
+    }
+  }
+
+  private void cacheData(String ufsPath, WorkerNetAddress address, long pos, long length) {
     try (CloseableResource<BlockWorkerClient> client =
-             mContext.acquireBlockWorkerClient(getWorkerNetAddress(ufsPath))) {
+             mContext.acquireBlockWorkerClient(address)) {
       CacheDataRequest request = CacheDataRequest.newBuilder()
           .setUfsPath(ufsPath)
           .setPos(pos)
@@ -497,6 +604,24 @@ public class DoraCacheClient {
     }
   }
 
+  /**
+   * Watches the ufs paths whose metadata is invalidated by a worker. The invalidated paths are
+   * streamed to the observer until the call is cancelled, e.g. through the
+   * {@link io.grpc.stub.ClientCallStreamObserver} of a
+   * {@link io.grpc.stub.ClientResponseObserver}, or fails.
+   *
+   * @param address the address of the worker
+   * @param observer the observer of the invalidated paths
+   */
+  public void watchMetadataInvalidation(WorkerNetAddress address,
+      StreamObserver<WatchMetadataInvalidationResponse> observer) throws IOException {
+    try (CloseableResource<BlockWorkerClient> client =
+             mContext.acquireBlockWorkerClient(address)) {
+      client.get().watchMetadataInvalidation(
+          WatchMetadataInvalidationRequest.getDefaultInstance(), observer);
+    }
+  }
+
   /**
    * Chooses a client preferred worker from multiple workers which hold multiple replicas.
    *
@@ -14,6 +14,7 @@ package alluxio.client.file.dora;
 import alluxio.CloseableSupplier;
 import alluxio.PositionReader;
 import alluxio.client.file.dora.netty.PartialReadException;
+import alluxio.file.FileRange;
 import alluxio.file.ReadTargetBuffer;
 import alluxio.metrics.MetricKey;
 import alluxio.metrics.MetricsSystem;
@@ -24,6 +25,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -84,6 +86,22 @@ public class DoraCachePositionReader implements PositionReader {
     }
   }
 
+  @Override
+  public int[] readVectored(List<FileRange> ranges, List<ReadTargetBuffer> buffers)
+      throws IOException {
+    int[] originalOffsets = buffers.stream().mapToInt(ReadTargetBuffer::offset).toArray();
+    try {
+      return mNettyReader.readVectored(ranges, buffers);
+    } catch (Throwable t) {
+      LOG.debug("Failed to read ranges of file from worker through Netty", t);
+      for (int i = 0; i < buffers.size(); i++) {
+        buffers.get(i).offset(originalOffsets[i]);
+      }
+      // read the ranges one by one, each of them falling back on its own if needed
+      return PositionReader.super.readVectored(ranges, buffers);
+    }
+  }
+
   @Override
   public synchronized void close() throws IOException {
     if (mClosed) {
@@ -0,0 +1,483 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.dora;
+
+import alluxio.PositionReader;
+import alluxio.client.file.URIStatus;
+import alluxio.conf.AlluxioConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.network.protocol.databuffer.PooledDirectNioByteBuf;
+import alluxio.util.ThreadFactoryUtils;
+
+import com.codahale.metrics.Counter;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Reads files ahead of their sequential readers, on behalf of all the streams of a client.
+ *
+ * Files are divided into fixed size chunks. A stream reading sequentially keeps a window of
+ * chunks in flight ahead of its position, which doubles with every sequential read up to a
+ * configured number of chunks, and is dropped as soon as the stream seeks. The chunks are read
+ * from the workers asynchronously by a pool of threads, so the reads of a window are pipelined
+ * rather than issued one by one from the reader thread.
+ *
+ * The chunks are kept in pooled direct buffers and indexed by file, so a stream opened on a file
+ * read by a previous stream finds the chunks the previous stream read ahead. The memory taken by
+ * the chunks is bounded: the least recently used chunks are released to make room for new ones,
+ * and readahead is skipped while all of them are still in flight.
+ *
+ * A chunk is read with the reader of the stream that scheduled it, so a stream must be closed
+ * with {@link Stream#close()} before its reader. The manager is owned by the
+ * {@link alluxio.client.file.FileSystemContext} and closed with it.
+ */
+@ThreadSafe
+public final class ReadaheadManager {
+  private static final Logger LOG = LoggerFactory.getLogger(ReadaheadManager.class);
+
+  private final int mChunkSize;
+  private final int mMaxWindowChunks;
+  private final long mCapacity;
+  private final ThreadPoolExecutor mExecutor;
+
+  private final Object mLock = new Object();
+  /** The chunks in access order, the least recently used first. */
+  @GuardedBy("mLock")
+  private final LinkedHashMap<ChunkKey, Chunk> mChunks = new LinkedHashMap<>(16, 0.75f, true);
+  @GuardedBy("mLock")
+  private long mBytesReserved = 0;
+
+  /**
+   * @param conf the client configuration
+   */
+  public ReadaheadManager(AlluxioConfiguration conf) {
+    this((int) conf.getBytes(PropertyKey.USER_POSITION_READER_READAHEAD_CHUNK_SIZE),
+        conf.getInt(PropertyKey.USER_POSITION_READER_READAHEAD_WINDOW_MAX_CHUNKS),
+        conf.getBytes(PropertyKey.USER_POSITION_READER_READAHEAD_BUFFER_SIZE),
+        conf.getInt(PropertyKey.USER_POSITION_READER_READAHEAD_THREADS));
+  }
+
+  /**
+   * @param chunkSize the size of a chunk
+   * @param maxWindowChunks the max number of chunks a stream reads ahead
+   * @param capacity the max number of bytes taken by the chunks
+   * @param numThreads the number of threads reading the chunks
+   */
+  @VisibleForTesting
+  public ReadaheadManager(int chunkSize, int maxWindowChunks, long capacity, int numThreads) {
+    Preconditions.checkArgument(chunkSize > 0, "chunk size must be positive: %s", chunkSize);
+    Preconditions.checkArgument(maxWindowChunks > 0,
+        "max readahead window must be positive: %s", maxWindowChunks);
+    Preconditions.checkArgument(numThreads > 0,
+        "number of readahead threads must be positive: %s", numThreads);
+    mChunkSize = chunkSize;
+    mMaxWindowChunks = maxWindowChunks;
+    mCapacity = capacity;
+    mExecutor = new ThreadPoolExecutor(numThreads, numThreads, 30, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), ThreadFactoryUtils.build("dora-readahead-%d", true));
+    mExecutor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Creates the readahead state of a stream.
+   *
+   * @param status the status of the file read by the stream
+   * @param reader the reader of the stream, also used to read the chunks ahead of the stream
+   * @return the readahead state of the stream
+   */
+  public Stream openStream(URIStatus status, PositionReader reader) {
+    // a file rewritten in the UFS gets a new key, so the stale chunks are never read again
+    String fileKey = status.getUfsPath() + "@" + status.getLastModificationTimeMs()
+        + ":" + status.getLength();
+    return new Stream(fileKey, status.getLength(), reader);
+  }
+
+  /**
+   * @return the number of bytes taken by the chunks, including those in flight
+   */
+  @VisibleForTesting
+  public long getBytesReserved() {
+    synchronized (mLock) {
+      return mBytesReserved;
+    }
+  }
+
+  /**
+   * Releases all the chunks and stops reading ahead.
+   */
+  public void close() {
+    mExecutor.shutdownNow();
+    synchronized (mLock) {
+      for (Chunk chunk : mChunks.values()) {
+        if (!chunk.mLoading) {
+          // the queued reads are discarded by the executor and never complete the chunks
+          chunk.mOwner.mPendingChunks.remove(chunk);
+          chunk.mFuture.complete(null);
+        }
+        // the chunks in flight are released by their loader
+        release(chunk);
+      }
+      mChunks.clear();
+      mLock.notifyAll();
+    }
+  }
+
+  /**
+   * Schedules the read of a chunk, unless it is present or there is no room for it.
+   */
+  private void schedule(Stream stream, long index) {
+    ChunkKey key = new ChunkKey(stream.mFileKey, index);
+    long start = index * mChunkSize;
+    int length = (int) Math.min(mChunkSize, stream.mFileLength - start);
+    if (length <= 0) {
+      return;
+    }
+    Chunk chunk;
+    synchronized (mLock) {
+      if (stream.mClosed || mChunks.containsKey(key) || !reserve(length)) {
+        return;
+      }
+      chunk = new Chunk(key, length, stream);
+      mChunks.put(key, chunk);
+      stream.mPendingChunks.add(chunk);
+    }
+    try {
+      mExecutor.execute(() -> load(chunk, start));
+    } catch (RejectedExecutionException e) {
+      fail(chunk, e);
+    }
+  }
+
+  /**
+   * Makes room for a new chunk by releasing the least recently used chunks. The chunks already
+   * read by a stream go first, so the chunks read ahead are not released before their stream
+   * gets to them unless there is no other choice.
+   *
+   * @return whether the room has been reserved
+   */
+  @GuardedBy("mLock")
+  private boolean reserve(int length) {
+    evict(length, true);
+    evict(length, false);
+    if (mBytesReserved + length > mCapacity) {
+      return false;
+    }
+    mBytesReserved += length;
+    return true;
+  }
+
+  @GuardedBy("mLock")
+  private void evict(int length, boolean readOnly) {
+    for (Iterator<Chunk> it = mChunks.values().iterator();
+         it.hasNext() && mBytesReserved + length > mCapacity; ) {
+      Chunk chunk = it.next();
+      if (chunk.mFuture.isDone() && (chunk.mRead || !readOnly)) {
+        it.remove();
+        release(chunk);
+      }
+    }
+  }
+
+  @GuardedBy("mLock")
+  private void release(Chunk chunk) {
+    mBytesReserved -= chunk.mLength;
+    chunk.mReleased = true;
+    ByteBuf buf = chunk.mFuture.getNow(null);
+    if (buf != null) {
+      if (!chunk.mRead) {
+        Metrics.BYTES_WASTED.inc(buf.readableBytes());
+      }
+      buf.release();
+    }
+  }
+
+  private void load(Chunk chunk, long start) {
+    synchronized (mLock) {
+      if (chunk.mReleased) {
+        // dropped before the read started, by the stream or the manager being closed
+        return;
+      }
+      chunk.mLoading = true;
+    }
+    ByteBuf buf = null;
+    try {
+      buf = PooledDirectNioByteBuf.allocate(chunk.mLength);
+      int bytesRead = chunk.mOwner.mReader.read(start, buf, chunk.mLength);
+      buf.readerIndex(0).writerIndex(Math.max(bytesRead, 0));
+      Metrics.BYTES_PREFETCHED.inc(buf.readableBytes());
+    } catch (Throwable t) {
+      if (buf != null) {
+        buf.release();
+      }
+      fail(chunk, t);
+      return;
+    }
+    synchronized (mLock) {
+      chunk.mOwner.mPendingChunks.remove(chunk);
+      mLock.notifyAll();
+      if (chunk.mReleased) {
+        // released while in flight by close()
+        chunk.mFuture.complete(null);
+        buf.release();
+        return;
+      }
+      chunk.mFuture.complete(buf);
+    }
+  }
+
+  private void fail(Chunk chunk, Throwable cause) {
+    LOG.debug("Failed to read ahead chunk {} of {}", chunk.mKey.mIndex, chunk.mKey.mFileKey,
+        cause);
+    synchronized (mLock) {
+      drop(chunk);
+    }
+  }
+
+  /**
+   * Removes a chunk which is not read, and completes it without data.
+   */
+  @GuardedBy("mLock")
+  private void drop(Chunk chunk) {
+    if (mChunks.remove(chunk.mKey, chunk)) {
+      mBytesReserved -= chunk.mLength;
+    }
+    chunk.mReleased = true;
+    chunk.mOwner.mPendingChunks.remove(chunk);
+    mLock.notifyAll();
+    chunk.mFuture.complete(null);
+  }
+
+  /**
+   * Copies the data of a chunk to the output, waiting for the chunk if it is in flight.
+   *
+   * @return the number of bytes copied, 0 if the chunk is not available
+   */
+  private int copy(String fileKey, long position, ByteBuffer out) {
+    ChunkKey key = new ChunkKey(fileKey, position / mChunkSize);
+    Chunk chunk;
+    synchronized (mLock) {
+      chunk = mChunks.get(key);
+    }
+    if (chunk == null) {
+      return 0;
+    }
+    try {
+      chunk.mFuture.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return 0;
+    } catch (ExecutionException e) {
+      return 0;
+    }
+    ByteBuf buf;
+    synchronized (mLock) {
+      buf = chunk.mFuture.getNow(null);
+      if (buf == null || chunk.mReleased) {
+        return 0;
+      }
+      // keeps the chunk from being released while being copied
+      buf.retain();
+      chunk.mRead = true;
+    }
+    try {
+      int offset = (int) (position - key.mIndex * mChunkSize);
+      int length = Math.min(out.remaining(), buf.readableBytes() - offset);
+      if (length <= 0) {
+        return 0;
+      }
+      ByteBuffer slice = out.slice();
+      slice.limit(length);
+      buf.getBytes(offset, slice);
+      out.position(out.position() + length);
+      Metrics.BYTES_HIT.inc(length);
+      return length;
+    } finally {
+      buf.release();
+    }
+  }
+
+  /**
+   * The readahead state of a stream. The chunks are shared with the other streams reading the
+   * same file.
+   */
+  @NotThreadSafe
+  public final class Stream {
+    private final String mFileKey;
+    private final long mFileLength;
+    private final PositionReader mReader;
+    /** The chunks scheduled by the stream which are not read yet. */
+    @GuardedBy("mLock")
+    private final Set<Chunk> mPendingChunks = new HashSet<>();
+    @GuardedBy("mLock")
+    private boolean mClosed = false;
+    /** The end of the last read, where the next read starts if the stream is sequential. */
+    private long mNextPosition = 0;
+    private int mWindowChunks = 0;
+
+    private Stream(String fileKey, long fileLength, PositionReader reader) {
+      mFileKey = fileKey;
+      mFileLength = fileLength;
+      mReader = Objects.requireNonNull(reader);
+    }
+
+    /**
+     * Reads from the chunks read ahead, and issues the readahead of the following chunks if the
+     * stream is sequential. The caller is expected to read the rest of the output from the
+     * worker directly.
+     *
+     * @param position the position in the file to read from
+     * @param out the output buffer
+     * @return the number of bytes copied to the output, 0 if the position is not read ahead
+     */
+    public int read(long position, ByteBuffer out) {
+      int length = out.remaining();
+      if (position == mNextPosition) {
+        mWindowChunks = Math.min(mMaxWindowChunks, Math.max(1, mWindowChunks * 2));
+      } else {
+        mWindowChunks = 0;
+      }
+      mNextPosition = position + length;
+      if (mWindowChunks > 0) {
+        long first = position / mChunkSize;
+        long last = Math.min((mFileLength - 1) / mChunkSize,
+            (position + length - 1) / mChunkSize + mWindowChunks);
+        for (long index = first; index <= last; index++) {
+          schedule(this, index);
+        }
+      }
+      int totalCopied = 0;
+      long pos = position;
+      while (out.hasRemaining() && pos < mFileLength) {
+        int copied = copy(mFileKey, pos, out);
+        if (copied == 0) {
+          break;
+        }
+        totalCopied += copied;
+        pos += copied;
+      }
+      return totalCopied;
+    }
+
+    /**
+     * Stops reading ahead for the stream. The chunks the stream scheduled are dropped unless
+     * their read has started, in which case the read is waited for, so the reader of the stream
+     * can be closed once this returns. The chunks already read stay available to the other
+     * streams of the file.
+     */
+    public void close() {
+      synchronized (mLock) {
+        mClosed = true;
+        for (Chunk chunk : new ArrayList<>(mPendingChunks)) {
+          if (!chunk.mLoading) {
+            drop(chunk);
+          }
+        }
+        while (!mPendingChunks.isEmpty()) {
+          try {
+            mLock.wait();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+        }
+      }
+    }
+
+    /**
+     * @return the number of chunks the stream reads ahead of its position
+     */
+    @VisibleForTesting
+    public int getWindowChunks() {
+      return mWindowChunks;
+    }
+  }
+
+  private static final class ChunkKey {
+    private final String mFileKey;
+    private final long mIndex;
+
+    ChunkKey(String fileKey, long index) {
+      mFileKey = fileKey;
+      mIndex = index;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ChunkKey)) {
+        return false;
+      }
+      ChunkKey that = (ChunkKey) o;
+      return mIndex == that.mIndex && mFileKey.equals(that.mFileKey);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * mFileKey.hashCode() + Long.hashCode(mIndex);
+    }
+  }
+
+  private static final class Chunk {
+    private final ChunkKey mKey;
+    private final int mLength;
+    /** The stream that scheduled the chunk, whose reader reads it. */
+    private final Stream mOwner;
+    /** Completed with the data once read, or with null if the read failed. */
+    private final CompletableFuture<ByteBuf> mFuture = new CompletableFuture<>();
+    private volatile boolean mRead = false;
+    /** Whether the chunk has left the manager, guarded by the lock of the manager. */
+    private boolean mReleased = false;
+    /** Whether the read of the chunk has started, guarded by the lock of the manager. */
+    private boolean mLoading = false;
+
+    Chunk(ChunkKey key, int length, Stream owner) {
+      mKey = key;
+      mLength = length;
+      mOwner = owner;
+    }
+  }
+
+  private static final class Metrics {
+    private static final Counter BYTES_PREFETCHED =
+        MetricsSystem.counter(MetricKey.CLIENT_READAHEAD_BYTES_PREFETCHED.getName());
+    private static final Counter BYTES_HIT =
+        MetricsSystem.counter(MetricKey.CLIENT_READAHEAD_BYTES_HIT.getName());
+    private static final Counter BYTES_WASTED =
+        MetricsSystem.counter(MetricKey.CLIENT_READAHEAD_BYTES_WASTED.getName());
+
+    private Metrics() {} // prevent instantiation
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.dora;
+
+import alluxio.conf.AlluxioConfiguration;
+import alluxio.conf.PropertyKey;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Placement of the data of files on the workers. Files larger than the configured threshold are
+ * split into fixed-size virtual blocks, each of them hashed to a worker on its own, so that a
+ * large file is served by many workers rather than a single one. Other files are hashed to a
+ * worker as a whole by their path.
+ *
+ * Clients and load jobs both place data through this class, so that the data loaded by a job is
+ * found by the readers.
+ */
+@ThreadSafe
+public final class VirtualBlockPlacement {
+  private final long mBlockSize;
+  private final long mThreshold;
+
+  /**
+   * @param conf the configuration
+   */
+  public VirtualBlockPlacement(AlluxioConfiguration conf) {
+    this(conf.getBytes(PropertyKey.DORA_READ_VIRTUAL_BLOCK_SIZE),
+        conf.getBytes(PropertyKey.DORA_READ_VIRTUAL_BLOCK_THRESHOLD));
+  }
+
+  /**
+   * @param blockSize the virtual block size, 0 to place all files as a whole
+   * @param threshold the min size of the files split into virtual blocks
+   */
+  public VirtualBlockPlacement(long blockSize, long threshold) {
+    Preconditions.checkArgument(blockSize >= 0,
+        "virtual block size should be non-negative: %s", blockSize);
+    mBlockSize = blockSize;
+    mThreshold = Math.max(blockSize, threshold);
+  }
+
+  /**
+   * @param fileLength the file length
+   * @return whether the file is split into virtual blocks
+   */
+  public boolean isSplit(long fileLength) {
+    return mBlockSize > 0 && fileLength > mThreshold;
+  }
+
+  /**
+   * @return the virtual block size
+   */
+  public long getBlockSize() {
+    return mBlockSize;
+  }
+
+  /**
+   * @param position a position in a file split into virtual blocks
+   * @return the index of the virtual block of the position
+   */
+  public long getBlockIndex(long position) {
+    return position / mBlockSize;
+  }
+
+  /**
+   * @param path the path of the file
+   * @param fileLength the file length
+   * @param position a position in the file
+   * @return the key used to pick the worker serving the data of the file at the position
+   */
+  public String getShardKey(String path, long fileLength, long position) {
+    return isSplit(fileLength) ? getBlockShardKey(path, getBlockIndex(position)) : path;
+  }
+
+  /**
+   * @param path the path of the file
+   * @param blockIndex the index of the virtual block
+   * @return the key used to pick the worker serving the virtual block
+   */
+  public static String getBlockShardKey(String path, long blockIndex) {
+    return path + blockIndex;
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.dora;
+
+import alluxio.PositionReader;
+import alluxio.client.file.dora.netty.PartialReadException;
+import alluxio.file.FileRange;
+import alluxio.file.ReadTargetBuffer;
+
+import com.google.common.io.Closer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link PositionReader} of a file split into virtual blocks, which reads each range of the
+ * file from the reader of the virtual block it falls in. The reader of a virtual block is
+ * created on the first read of the block.
+ */
+@ThreadSafe
+public class VirtualBlockPositionReader implements PositionReader {
+  private final VirtualBlockPlacement mPlacement;
+  private final long mFileLength;
+  private final LongFunction<PositionReader> mBlockReaderFactory;
+  private final ConcurrentHashMap<Long, PositionReader> mBlockReaders = new ConcurrentHashMap<>();
+  private volatile boolean mClosed;
+
+  /**
+   * @param placement the placement splitting the file into virtual blocks
+   * @param fileLength the file length
+   * @param blockReaderFactory the factory creating the reader of a virtual block from its index
+   */
+  public VirtualBlockPositionReader(VirtualBlockPlacement placement, long fileLength,
+      LongFunction<PositionReader> blockReaderFactory) {
+    mPlacement = placement;
+    mFileLength = fileLength;
+    mBlockReaderFactory = blockReaderFactory;
+  }
+
+  @Override
+  public int readInternal(long position, ReadTargetBuffer buffer, int length)
+      throws IOException {
+    if (position >= mFileLength) {
+      return -1;
+    }
+    int totalBytesRead = 0;
+    while (totalBytesRead < length && position + totalBytesRead < mFileLength) {
+      long pos = position + totalBytesRead;
+      long blockIndex = mPlacement.getBlockIndex(pos);
+      int bytesToRead = (int) Math.min(length - totalBytesRead, getBlockEnd(blockIndex) - pos);
+      int originalOffset = buffer.offset();
+      int bytesRead;
+      try {
+        bytesRead = getBlockReader(blockIndex).read(pos, buffer, bytesToRead);
+      } catch (PartialReadException e) {
+        if (totalBytesRead + e.getBytesRead() == 0) {
+          throw e;
+        }
+        // return what has been read so far, the caller reads the rest again
+        buffer.offset(originalOffset + e.getBytesRead());
+        return totalBytesRead + e.getBytesRead();
+      } catch (IOException | RuntimeException e) {
+        if (totalBytesRead == 0) {
+          throw e;
+        }
+        buffer.offset(originalOffset);
+        return totalBytesRead;
+      }
+      if (bytesRead <= 0) {
+        break;
+      }
+      totalBytesRead += bytesRead;
+      if (bytesRead < bytesToRead) {
+        break;
+      }
+    }
+    return totalBytesRead == 0 ? -1 : totalBytesRead;
+  }
+
+  /**
+   * Reads the ranges falling in the same virtual block with a single vectored read of the reader
+   * of the block, and the ranges across virtual blocks one by one.
+   */
+  @Override
+  public int[] readVectored(List<FileRange> ranges, List<ReadTargetBuffer> buffers)
+      throws IOException {
+    int[] bytesRead = new int[ranges.size()];
+    Map<Long, List<Integer>> rangesByBlock = new LinkedHashMap<>();
+    for (int i = 0; i < ranges.size(); i++) {
+      FileRange range = ranges.get(i);
+      long blockIndex = mPlacement.getBlockIndex(range.getOffset());
+      if (range.getOffset() + range.getLength() <= getBlockEnd(blockIndex)) {
+        rangesByBlock.computeIfAbsent(blockIndex, index -> new ArrayList<>()).add(i);
+      } else {
+        bytesRead[i] = readRange(range, buffers.get(i));
+      }
+    }
+    for (Map.Entry<Long, List<Integer>> entry : rangesByBlock.entrySet()) {
+      List<FileRange> blockRanges = new ArrayList<>(entry.getValue().size());
+      List<ReadTargetBuffer> blockBuffers = new ArrayList<>(entry.getValue().size());
+      for (int i : entry.getValue()) {
+        blockRanges.add(ranges.get(i));
+        blockBuffers.add(buffers.get(i));
+      }
+      int[] blockBytesRead =
+          getBlockReader(entry.getKey()).readVectored(blockRanges, blockBuffers);
+      for (int j = 0; j < blockBytesRead.length; j++) {
+        bytesRead[entry.getValue().get(j)] = blockBytesRead[j];
+      }
+    }
+    return bytesRead;
+  }
+
+  /**
+   * Reads a range until it is filled or the end of the file is reached.
+   *
+   * @return the number of bytes read, 0 if the range starts past the end of the file
+   */
+  private int readRange(FileRange range, ReadTargetBuffer buffer) throws IOException {
+    int totalBytesRead = 0;
+    while (totalBytesRead < range.getLength()) {
+      int bytesRead = read(range.getOffset() + totalBytesRead, buffer,
+          range.getLength() - totalBytesRead);
+      if (bytesRead <= 0) {
+        break;
+      }
+      totalBytesRead += bytesRead;
+    }
+    return totalBytesRead;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (mClosed) {
+      return;
+    }
+    mClosed = true;
+    try (Closer closer = Closer.create()) {
+      mBlockReaders.values().forEach(closer::register);
+      mBlockReaders.clear();
+    }
+  }
+
+  private long getBlockEnd(long blockIndex) {
+    return Math.min(mFileLength, (blockIndex + 1) * mPlacement.getBlockSize());
+  }
+
+  private PositionReader getBlockReader(long blockIndex) throws IOException {
+    if (mClosed) {
+      throw new IOException("Reader is closed");
+    }
+    return mBlockReaders.computeIfAbsent(blockIndex, mBlockReaderFactory::apply);
+  }
+}
@@ -52,6 +52,23 @@ public interface WorkerLocationPolicy {
   List<BlockWorkerInfo> getPreferredWorkers(List<BlockWorkerInfo> blockWorkerInfos,
       String fileId, int count) throws ResourceExhaustedException;
 
+  /**
+   * Find a specified number of workers to serve a read of the data of a file, with the same
+   * contract as {@link #getPreferredWorkers}. Metadata and write requests must reach the workers
+   * owning the file, while the data can be read through any worker, so a policy may spread the
+   * reads of a file over more workers than its owners. By default the reads go to the owners.
+   *
+   * @param blockWorkerInfos
+   * @param fileId
+   * @param count
+   * @return a list of preferred workers
+   * @throws ResourceExhaustedException if unable to return exactly #{count} workers
+   */
+  default List<BlockWorkerInfo> getPreferredWorkersForRead(List<BlockWorkerInfo> blockWorkerInfos,
+      String fileId, int count) throws ResourceExhaustedException {
+    return getPreferredWorkers(blockWorkerInfos, fileId, count);
+  }
+
   /**
    * The factory for the {@link WorkerLocationPolicy}.
    */
@@ -13,6 +13,7 @@ package alluxio.client.file.dora.netty;
 
 import alluxio.PositionReader;
 import alluxio.client.file.FileSystemContext;
+import alluxio.file.FileRange;
 import alluxio.file.ReadTargetBuffer;
 import alluxio.metrics.MetricKey;
 import alluxio.metrics.MetricsSystem;
@@ -20,8 +21,16 @@ import alluxio.proto.dataserver.Protocol;
 import alluxio.wire.WorkerNetAddress;
 
 import com.codahale.metrics.Counter;
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
 import java.util.function.Supplier;
 
 /**
@@ -69,6 +78,155 @@ public class NettyDataReader implements PositionReader {
     }
   }
 
+  /**
+   * Reads all the ranges in a single request. The worker sends the data of the ranges one after
+   * another, which is scattered into the buffers of the ranges in the same order.
+   */
+  @Override
+  public int[] readVectored(List<FileRange> ranges, List<ReadTargetBuffer> buffers)
+      throws IOException {
+    Preconditions.checkArgument(ranges.size() == buffers.size(),
+        "number of ranges %s does not match number of buffers %s", ranges.size(), buffers.size());
+    Protocol.ReadRequest.Builder builder = mRequestBuilder.get().clearCancel().clearOffset();
+    // the worker stops at the end of the file, so a range going past it would shift the data of
+    // the following ranges
+    long fileLength = builder.getOpenUfsBlockOptions().hasBlockSize()
+        ? builder.getOpenUfsBlockOptions().getBlockSize() : Long.MAX_VALUE;
+    int[] lengths = new int[ranges.size()];
+    long totalLength = 0;
+    for (int i = 0; i < ranges.size(); i++) {
+      FileRange range = ranges.get(i);
+      lengths[i] = (int) Math.max(0, Math.min(range.getLength(), fileLength - range.getOffset()));
+      if (lengths[i] > 0) {
+        builder.addRanges(Protocol.ReadRange.newBuilder()
+            .setOffset(range.getOffset()).setLength(lengths[i]));
+      }
+      totalLength += lengths[i];
+    }
+    if (totalLength == 0) {
+      return new int[ranges.size()];
+    }
+    if (totalLength > Integer.MAX_VALUE) {
+      return PositionReader.super.readVectored(ranges, buffers);
+    }
+    builder.setLength(totalLength);
+    NettyDataReaderStateMachine clientStateMachine = new NettyDataReaderStateMachine(
+        mContext, mAddress, builder, new ScatterTargetBuffer(buffers, lengths));
+    clientStateMachine.run();
+    PartialReadException exception = clientStateMachine.getException();
+    if (exception != null) {
+      throw exception;
+    }
+    int bytesLeft = clientStateMachine.getBytesRead();
+    Metrics.BYTES_READ_FROM_WORKERS.inc(bytesLeft);
+    int[] bytesRead = new int[ranges.size()];
+    for (int i = 0; i < ranges.size() && bytesLeft > 0; i++) {
+      bytesRead[i] = Math.min(lengths[i], bytesLeft);
+      bytesLeft -= bytesRead[i];
+    }
+    return bytesRead;
+  }
+
+  /**
+   * Target buffer writing the data received for a vectored read into the buffers of the ranges,
+   * filling each of them with the length of its range before moving to the next.
+   */
+  private static final class ScatterTargetBuffer implements ReadTargetBuffer {
+    private final List<ReadTargetBuffer> mBuffers;
+    private final int[] mLengths;
+    private int mIndex;
+    private int mWritten;
+    private long mRemaining;
+
+    ScatterTargetBuffer(List<ReadTargetBuffer> buffers, int[] lengths) {
+      mBuffers = buffers;
+      mLengths = lengths;
+      for (int length : lengths) {
+        mRemaining += length;
+      }
+    }
+
+    /**
+     * @param length the number of bytes to write
+     * @return the number of bytes which can be written into the current buffer
+     */
+    private int nextChunk(int length) {
+      Preconditions.checkState(length <= mRemaining,
+          "received %s bytes with %s bytes left to read", length, mRemaining);
+      while (mWritten == mLengths[mIndex]) {
+        mIndex++;
+        mWritten = 0;
+      }
+      int chunk = Math.min(length, mLengths[mIndex] - mWritten);
+      mWritten += chunk;
+      mRemaining -= chunk;
+      return chunk;
+    }
+
+    @Override
+    public void writeBytes(byte[] srcArray, int srcOffset, int length) {
+      while (length > 0) {
+        int chunk = nextChunk(length);
+        mBuffers.get(mIndex).writeBytes(srcArray, srcOffset, chunk);
+        srcOffset += chunk;
+        length -= chunk;
+      }
+    }
+
+    @Override
+    public void writeBytes(ByteBuf buf) {
+      while (buf.isReadable()) {
+        int chunk = nextChunk(buf.readableBytes());
+        mBuffers.get(mIndex).writeBytes(buf.readSlice(chunk));
+      }
+    }
+
+    @Override
+    public long remaining() {
+      return mRemaining;
+    }
+
+    @Override
+    public byte[] byteArray() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ByteBuffer byteBuffer() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int offset() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void offset(int newOffset) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public WritableByteChannel byteChannel() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int readFromFile(RandomAccessFile file, int length) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int readFromFileChannel(FileChannel channel, long position, int length) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int readFromInputStream(InputStream is, int length) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
   /**
    * Class that contains metrics about FileOutStream.
    */
@@ -0,0 +1,123 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import alluxio.client.file.cache.evictor.BufferedLRUCacheEvictor;
+import alluxio.client.file.cache.evictor.CacheEvictorOptions;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tests for the {@link BufferedLRUCacheEvictor} class.
+ */
+public final class BufferedLRUCacheEvictorTest {
+  private BufferedLRUCacheEvictor mEvictor;
+  private final PageId mFirst = new PageId("1L", 2L);
+  private final PageId mSecond = new PageId("3L", 4L);
+  private final PageId mThird = new PageId("5L", 6L);
+
+  /**
+   * Sets up the instances.
+   */
+  @Before
+  public void before() {
+    mEvictor = new BufferedLRUCacheEvictor(new CacheEvictorOptions());
+  }
+
+  @Test
+  public void evictPutOrder() {
+    mEvictor.updateOnPut(mFirst);
+    mEvictor.updateOnPut(mSecond);
+    Assert.assertEquals(mFirst, mEvictor.evict());
+    mEvictor.updateOnDelete(mFirst);
+    Assert.assertEquals(mSecond, mEvictor.evict());
+    mEvictor.updateOnDelete(mSecond);
+    Assert.assertNull(mEvictor.evict());
+  }
+
+  @Test
+  public void evictUpdatedGetOrder() {
+    mEvictor.updateOnPut(mFirst);
+    mEvictor.updateOnPut(mSecond);
+    mEvictor.updateOnPut(mThird);
+    mEvictor.updateOnGet(mFirst);
+    Assert.assertEquals(mSecond, mEvictor.evict());
+    mEvictor.updateOnDelete(mSecond);
+    Assert.assertEquals(mThird, mEvictor.evict());
+    mEvictor.updateOnDelete(mThird);
+    Assert.assertEquals(mFirst, mEvictor.evict());
+  }
+
+  @Test
+  public void getMissingPage() {
+    mEvictor.updateOnGet(mFirst);
+    Assert.assertNull(mEvictor.evict());
+    mEvictor.updateOnPut(mSecond);
+    mEvictor.updateOnDelete(mSecond);
+    mEvictor.updateOnGet(mSecond);
+    Assert.assertNull(mEvictor.evict());
+  }
+
+  @Test
+  public void evictMatching() {
+    mEvictor.updateOnPut(mFirst);
+    mEvictor.updateOnPut(mSecond);
+    mEvictor.updateOnPut(mThird);
+    mEvictor.updateOnGet(mFirst);
+    Assert.assertEquals(mThird, mEvictor.evictMatching(pageId -> !pageId.equals(mSecond)));
+  }
+
+  @Test
+  public void concurrentGets() throws Exception {
+    final int numPages = 1000;
+    final int numThreads = 8;
+    for (int i = 0; i < numPages; i++) {
+      mEvictor.updateOnPut(new PageId("0", i));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < numThreads; t++) {
+        futures.add(executor.submit(() -> {
+          for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < numPages; i++) {
+              mEvictor.updateOnGet(new PageId("0", i));
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    // every page is still tracked exactly once, and hits never add pages
+    Set<PageId> evicted = new HashSet<>();
+    PageId victim;
+    while ((victim = mEvictor.evict()) != null) {
+      Assert.assertTrue(evicted.add(victim));
+      mEvictor.updateOnDelete(victim);
+    }
+    Assert.assertEquals(numPages, evicted.size());
+  }
+}
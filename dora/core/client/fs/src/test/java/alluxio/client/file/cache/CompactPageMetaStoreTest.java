@@ -0,0 +1,237 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import static alluxio.client.file.cache.CacheUsage.PartitionDescriptor.file;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.Constants;
+import alluxio.client.file.cache.evictor.CacheEvictorOptions;
+import alluxio.client.file.cache.evictor.LRUCacheEvictor;
+import alluxio.client.file.cache.store.PageStoreDir;
+import alluxio.client.file.cache.store.PageStoreOptions;
+import alluxio.client.quota.CacheScope;
+import alluxio.exception.PageNotFoundException;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+
+import com.codahale.metrics.Gauge;
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * Tests for the {@link CompactPageMetaStore} class.
+ */
+public class CompactPageMetaStoreTest {
+  private final PageId mPage = new PageId("1L", 2L);
+  private PageStoreDir mPageStoreDir;
+  private PageInfo mPageInfo;
+  private CompactPageMetaStore mMetaStore;
+  private Gauge mCachedPageGauge;
+
+  @Rule
+  public TemporaryFolder mTempFolder = new TemporaryFolder();
+
+  /**
+   * Sets up the instances.
+   */
+  @Before
+  public void before() {
+    MetricsSystem.clearAllMetrics();
+    mPageStoreDir =
+        PageStoreDir.createPageStoreDir(
+            new CacheEvictorOptions().setEvictorClass(LRUCacheEvictor.class),
+            new PageStoreOptions().setRootDir(
+                Paths.get(mTempFolder.getRoot().getAbsolutePath())));
+    mPageInfo = new PageInfo(mPage, 1024, mPageStoreDir);
+    mMetaStore = new CompactPageMetaStore(ImmutableList.of(mPageStoreDir));
+    mCachedPageGauge =
+        MetricsSystem.METRIC_REGISTRY.getGauges().get(MetricKey.CLIENT_CACHE_PAGES.getName());
+  }
+
+  @Test
+  public void commitFile() throws Exception {
+    String newTempFile = "newTempFile";
+    long pageIndex = 2L;
+    PageId newTempPage = new PageId(newTempFile, pageIndex);
+    mMetaStore.addTempPage(mPage, mPageInfo);
+    mMetaStore.commitFile(mPage.getFileId(), newTempFile);
+    assertFalse(mMetaStore.hasPage(mPage));
+    assertEquals(mPageStoreDir, mMetaStore.getPageInfo(newTempPage).getLocalCacheDir());
+    assertEquals(newTempFile, mMetaStore.getPageInfo(newTempPage).getPageId().getFileId());
+    assertEquals(pageIndex, mMetaStore.getPageInfo(newTempPage).getPageId().getPageIndex());
+    assertEquals(1, mMetaStore.getAllPagesByFileId(newTempFile).size());
+    assertTrue(mMetaStore.getAllPagesByFileId(mPage.getFileId()).isEmpty());
+    assertEquals(mPageStoreDir, mMetaStore.getStoreDirOfFile(newTempFile));
+  }
+
+  @Test
+  public void commitFileOverExistingFile() throws Exception {
+    mMetaStore.addPage(new PageId("file", 0), new PageInfo(new PageId("file", 0), 100,
+        mPageStoreDir));
+    mMetaStore.addPage(new PageId("file", 1), new PageInfo(new PageId("file", 1), 100,
+        mPageStoreDir));
+    mMetaStore.addTempPage(new PageId("temp", 1), new PageInfo(new PageId("temp", 1), 200,
+        mPageStoreDir));
+    mMetaStore.commitFile("temp", "file");
+    assertEquals(2, mMetaStore.numPages());
+    assertEquals(300, mMetaStore.bytes());
+    assertEquals(200, mMetaStore.getPageInfo(new PageId("file", 1)).getPageSize());
+    assertEquals(2, mMetaStore.getAllPagesByFileId("file").size());
+  }
+
+  @Test
+  public void commitFileNotExist() {
+    assertThrows(PageNotFoundException.class,
+        () -> mMetaStore.commitFile(mPage.getFileId(), "newTempFile"));
+  }
+
+  @Test
+  public void getPagesCreatedBefore() throws Exception {
+    PageInfo oldPage = new PageInfo(new PageId("1L", 1L), 1024, CacheScope.GLOBAL,
+        mPageStoreDir, 1000L);
+    PageInfo newPage = new PageInfo(new PageId("2L", 1L), 1024, CacheScope.GLOBAL,
+        mPageStoreDir, 2000L);
+    mMetaStore.addPage(newPage.getPageId(), newPage);
+    mMetaStore.addPage(oldPage.getPageId(), oldPage);
+    assertEquals(ImmutableList.of(), mMetaStore.getPagesCreatedBefore(999L));
+    assertEquals(ImmutableList.of(oldPage), mMetaStore.getPagesCreatedBefore(1000L));
+    assertEquals(ImmutableList.of(oldPage, newPage), mMetaStore.getPagesCreatedBefore(3000L));
+    mMetaStore.removePage(oldPage.getPageId());
+    assertEquals(ImmutableList.of(newPage), mMetaStore.getPagesCreatedBefore(3000L));
+    mMetaStore.reset();
+    assertEquals(ImmutableList.of(), mMetaStore.getPagesCreatedBefore(3000L));
+  }
+
+  @Test
+  public void addExist() {
+    mMetaStore.addPage(mPage, mPageInfo);
+    mMetaStore.addPage(mPage, mPageInfo);
+    assertTrue(mMetaStore.hasPage(mPage));
+    assertEquals(1, mCachedPageGauge.getValue());
+    assertEquals(mPageInfo.getPageSize(), mMetaStore.bytes());
+  }
+
+  @Test
+  public void removeExist() throws Exception {
+    mMetaStore.addPage(mPage, mPageInfo);
+    assertEquals(mPageInfo, mMetaStore.removePage(mPage));
+    assertFalse(mMetaStore.hasPage(mPage));
+    assertEquals(0, mCachedPageGauge.getValue());
+    assertEquals(0, mMetaStore.bytes());
+    assertTrue(mMetaStore.getAllPagesByFileId(mPage.getFileId()).isEmpty());
+  }
+
+  @Test
+  public void removeNotExist() {
+    assertThrows(PageNotFoundException.class, () -> mMetaStore.removePage(mPage));
+    assertEquals(0, mCachedPageGauge.getValue());
+  }
+
+  @Test
+  public void getPageInfo() throws Exception {
+    CacheScope scope = CacheScope.create("schema.table");
+    PageInfo pageInfo = new PageInfo(mPage, 1024, scope, mPageStoreDir, 1000L);
+    mMetaStore.addPage(mPage, pageInfo);
+    PageInfo stored = mMetaStore.getPageInfo(mPage);
+    assertEquals(pageInfo, stored);
+    assertEquals(scope, stored.getScope());
+    assertEquals(1000L, stored.getCreatedTimestamp());
+    assertThrows(PageNotFoundException.class,
+        () -> mMetaStore.getPageInfo(new PageId("1L", 3L)));
+  }
+
+  @Test
+  public void evict() throws Exception {
+    mMetaStore.addPage(mPage, mPageInfo);
+    assertEquals(mPageInfo, mMetaStore.evict(mPageStoreDir));
+    mMetaStore.removePage(mPageInfo.getPageId());
+    assertNull(mMetaStore.evict(mPageStoreDir));
+    assertEquals(0, mCachedPageGauge.getValue());
+  }
+
+  @Test
+  public void reset() {
+    mMetaStore.addPage(mPage, mPageInfo);
+    mMetaStore.reset();
+    assertFalse(mMetaStore.hasPage(mPage));
+    assertEquals(0, mMetaStore.numPages());
+    assertEquals(0, mMetaStore.bytes());
+  }
+
+  @Test
+  public void fileCacheUsage() {
+    mMetaStore.addPage(new PageId("0", 0), new PageInfo(new PageId("0", 0), Constants.KB,
+        mPageStoreDir));
+    final int numPagesOfFile1 = 5;
+    for (int i = 0; i < numPagesOfFile1; i++) {
+      PageId page = new PageId("1", i);
+      mMetaStore.addPage(page, new PageInfo(page, Constants.KB, mPageStoreDir));
+    }
+    Optional<CacheUsage> globalUsage = mMetaStore.getUsage();
+    assertEquals(Optional.of((long) Constants.KB * (numPagesOfFile1 + 1)),
+        globalUsage.map(CacheUsage::used));
+    assertEquals(Optional.of((long) Constants.KB),
+        globalUsage.flatMap(usage -> usage.partitionedBy(file("0"))).map(CacheUsage::used));
+    assertEquals(Optional.of((long) (Constants.KB * numPagesOfFile1)),
+        globalUsage.flatMap(usage -> usage.partitionedBy(file("1"))).map(CacheUsage::used));
+  }
+
+  @Test
+  public void randomAddAndRemove() throws Exception {
+    Random random = new Random(42);
+    Map<PageId, Long> expected = new HashMap<>();
+    // enough pages to grow the index and the table several times
+    for (int i = 0; i < 100_000; i++) {
+      PageId pageId = new PageId(Integer.toString(random.nextInt(50)), random.nextInt(1000));
+      if (random.nextInt(3) == 0) {
+        if (expected.remove(pageId) != null) {
+          mMetaStore.removePage(pageId);
+        } else {
+          assertFalse(mMetaStore.hasPage(pageId));
+        }
+      } else {
+        long size = 1 + random.nextInt(Constants.KB);
+        expected.put(pageId, size);
+        mMetaStore.addPage(pageId, new PageInfo(pageId, size, mPageStoreDir));
+      }
+    }
+    assertEquals(expected.size(), mMetaStore.numPages());
+    assertEquals(expected.values().stream().mapToLong(Long::longValue).sum(),
+        mMetaStore.bytes());
+    for (Map.Entry<PageId, Long> entry : expected.entrySet()) {
+      assertEquals((long) entry.getValue(),
+          mMetaStore.getPageInfo(entry.getKey()).getPageSize());
+    }
+    HashSet<PageId> indexed = new HashSet<>();
+    for (int i = 0; i < 50; i++) {
+      mMetaStore.getAllPagesByFileId(Integer.toString(i))
+          .forEach(pageInfo -> assertTrue(indexed.add(pageInfo.getPageId())));
+    }
+    assertEquals(expected.keySet(), indexed);
+    assertEquals(expected.size(), mMetaStore.getPagesByDir().get(mPageStoreDir).size());
+  }
+}
@@ -17,12 +17,14 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
 
 import alluxio.Constants;
+import alluxio.client.file.cache.allocator.HashAllocator;
 import alluxio.client.file.cache.evictor.CacheEvictorOptions;
 import alluxio.client.file.cache.evictor.FIFOCacheEvictor;
 import alluxio.client.file.cache.store.MemoryPageStore;
 import alluxio.client.file.cache.store.MemoryPageStoreDir;
 import alluxio.client.file.cache.store.PageStoreDir;
 import alluxio.client.file.cache.store.PageStoreOptions;
+import alluxio.client.quota.CacheScope;
 import alluxio.conf.AlluxioConfiguration;
 import alluxio.conf.Configuration;
 import alluxio.exception.PageNotFoundException;
@@ -85,6 +87,34 @@ public class DefaultPageMetaStoreTest {
     assertEquals(pageIndex, mMetaStore.getPageInfo(newTempPage).getPageId().getPageIndex());
   }
 
+  @Test
+  public void getPagesCreatedBefore() throws Exception {
+    // the pages are scanned without the index
+    assertPagesCreatedBefore(mMetaStore);
+  }
+
+  @Test
+  public void getPagesCreatedBeforeIndexed() throws Exception {
+    assertPagesCreatedBefore(new DefaultPageMetaStore(ImmutableList.of(mPageStoreDir),
+        new HashAllocator(ImmutableList.of(mPageStoreDir)), true));
+  }
+
+  private void assertPagesCreatedBefore(DefaultPageMetaStore metaStore) throws Exception {
+    PageInfo oldPage = new PageInfo(new PageId("1L", 1L), 1024, CacheScope.GLOBAL,
+        mPageStoreDir, 1000L);
+    PageInfo newPage = new PageInfo(new PageId("2L", 1L), 1024, CacheScope.GLOBAL,
+        mPageStoreDir, 2000L);
+    metaStore.addPage(newPage.getPageId(), newPage);
+    metaStore.addPage(oldPage.getPageId(), oldPage);
+    assertEquals(ImmutableList.of(), metaStore.getPagesCreatedBefore(999L));
+    assertEquals(ImmutableList.of(oldPage), metaStore.getPagesCreatedBefore(1000L));
+    assertEquals(ImmutableList.of(oldPage, newPage), metaStore.getPagesCreatedBefore(3000L));
+    metaStore.removePage(oldPage.getPageId());
+    assertEquals(ImmutableList.of(newPage), metaStore.getPagesCreatedBefore(3000L));
+    metaStore.reset();
+    assertEquals(ImmutableList.of(), metaStore.getPagesCreatedBefore(3000L));
+  }
+
   @Test
   public void addNew() {
     mMetaStore.addPage(mPage, mPageInfo);
@@ -41,6 +41,7 @@ import alluxio.exception.status.ResourceExhaustedException;
 import alluxio.file.ByteArrayTargetBuffer;
 import alluxio.file.NettyBufTargetBuffer;
 import alluxio.file.ReadTargetBuffer;
+import alluxio.network.protocol.databuffer.DataBuffer;
 import alluxio.network.protocol.databuffer.DataFileChannel;
 import alluxio.util.CommonUtils;
 import alluxio.util.WaitForOptions;
@@ -64,6 +65,8 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -234,6 +237,19 @@ public final class LocalCacheManagerTest {
     assertArrayEquals(PAGE1, mBuf);
   }
 
+  @Test
+  public void invalidateExpiredPages() throws Exception {
+    assertTrue(mCacheManager.put(PAGE_ID1, PAGE1));
+    assertTrue(mCacheManager.put(PAGE_ID2, PAGE2));
+    mCacheManager.invalidateExpiredPages(Constants.HOUR_MS);
+    assertEquals(PAGE1.length, mCacheManager.get(PAGE_ID1, PAGE1.length, mBuf, 0));
+    assertEquals(PAGE2.length, mCacheManager.get(PAGE_ID2, PAGE2.length, mBuf, 0));
+    mCacheManager.invalidateExpiredPages(0);
+    assertEquals(0, mCacheManager.get(PAGE_ID1, PAGE1.length, mBuf, 0));
+    assertEquals(0, mCacheManager.get(PAGE_ID2, PAGE2.length, mBuf, 0));
+    assertEquals(0, mPageMetaStore.numPages());
+  }
+
   @Test
   public void putEvict() throws Exception {
     mConf.set(PropertyKey.USER_CLIENT_CACHE_SIZE, String.valueOf(PAGE_SIZE_BYTES));
@@ -245,6 +261,60 @@ public final class LocalCacheManagerTest {
     assertArrayEquals(PAGE2, mBuf);
   }
 
+  @Test
+  public void putAll() throws Exception {
+    int numPages = 8;
+    List<PageId> pageIds = new ArrayList<>();
+    List<ByteBuffer> pages = new ArrayList<>();
+    for (int i = 0; i < numPages; i++) {
+      pageIds.add(pageId(i, 0));
+      pages.add(ByteBuffer.wrap(page(i, PAGE_SIZE_BYTES)));
+    }
+    assertEquals(numPages, mCacheManager.putAll(pageIds, pages, CacheContext.defaults()));
+    for (int i = 0; i < numPages; i++) {
+      assertEquals(PAGE_SIZE_BYTES, mCacheManager.get(pageId(i, 0), PAGE_SIZE_BYTES, mBuf, 0));
+      assertArrayEquals(page(i, PAGE_SIZE_BYTES), mBuf);
+    }
+    assertEquals(numPages * PAGE_SIZE_BYTES, mCacheManager.getUsage().get().used());
+  }
+
+  @Test
+  public void putAllExist() throws Exception {
+    assertTrue(mCacheManager.put(PAGE_ID1, PAGE1));
+    assertEquals(2, mCacheManager.putAll(Arrays.asList(PAGE_ID1, PAGE_ID2),
+        Arrays.asList(ByteBuffer.wrap(PAGE2), ByteBuffer.wrap(PAGE2)), CacheContext.defaults()));
+    assertEquals(PAGE1.length, mCacheManager.get(PAGE_ID1, PAGE1.length, mBuf, 0));
+    assertArrayEquals(PAGE1, mBuf);
+    assertEquals(PAGE2.length, mCacheManager.get(PAGE_ID2, PAGE2.length, mBuf, 0));
+    assertArrayEquals(PAGE2, mBuf);
+  }
+
+  @Test
+  public void putAllEvict() throws Exception {
+    int cachedPages = 4;
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_SIZE, String.valueOf(cachedPages * PAGE_SIZE_BYTES));
+    mCacheManager = createLocalCacheManager();
+    for (int i = 0; i < cachedPages; i++) {
+      assertTrue(mCacheManager.put(pageId(i, 0), page(i, PAGE_SIZE_BYTES)));
+    }
+    List<PageId> pageIds = new ArrayList<>();
+    List<ByteBuffer> pages = new ArrayList<>();
+    for (int i = cachedPages; i < cachedPages + 3; i++) {
+      pageIds.add(pageId(i, 0));
+      pages.add(ByteBuffer.wrap(page(i, PAGE_SIZE_BYTES)));
+    }
+    assertEquals(3, mCacheManager.putAll(pageIds, pages, CacheContext.defaults()));
+    // the three oldest pages are evicted
+    for (int i = 0; i < 3; i++) {
+      assertEquals(0, mCacheManager.get(pageId(i, 0), PAGE_SIZE_BYTES, mBuf, 0));
+    }
+    for (int i = 3; i < cachedPages + 3; i++) {
+      assertEquals(PAGE_SIZE_BYTES, mCacheManager.get(pageId(i, 0), PAGE_SIZE_BYTES, mBuf, 0));
+      assertArrayEquals(page(i, PAGE_SIZE_BYTES), mBuf);
+    }
+    assertEquals(cachedPages * PAGE_SIZE_BYTES, mCacheManager.getUsage().get().used());
+  }
+
   @Test
   public void putSmallPages() throws Exception {
     // Cache size is only one full page, but should be able to store multiple small pages
@@ -640,6 +710,47 @@ public final class LocalCacheManagerTest {
     assertArrayEquals(PAGE2, mBuf);
   }
 
+  @Test
+  public void restoreFromMetaSnapshot() throws Exception {
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_METASTORE_SNAPSHOT_ENABLED, true);
+    mCacheManager.close();
+    mCacheManager = createLocalCacheManager();
+    assertTrue(mCacheManager.put(PAGE_ID1, PAGE1));
+    assertTrue(mCacheManager.put(PAGE_ID2, PAGE2));
+    assertTrue(mCacheManager.delete(PAGE_ID2));
+    mCacheManager.close();
+    // a page file missing from the snapshot is not restored, as the dir is not scanned
+    PageId pageUuid = new PageId(UUID.randomUUID().toString(), 0);
+    PageStore pageStore = PageStore.create(mPageStoreOptions);
+    pageStore.put(pageUuid, PAGE2);
+    pageStore.close();
+    mCacheManager = createLocalCacheManager();
+    assertTrue(mPageMetaStore.hasPage(PAGE_ID1));
+    assertFalse(mPageMetaStore.hasPage(PAGE_ID2));
+    assertFalse(mPageMetaStore.hasPage(pageUuid));
+    assertEquals(PAGE1.length, mCacheManager.get(PAGE_ID1, PAGE1.length, mBuf, 0));
+    assertArrayEquals(PAGE1, mBuf);
+  }
+
+  @Test
+  public void restoreFromInvalidMetaSnapshot() throws Exception {
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_METASTORE_SNAPSHOT_ENABLED, true);
+    mCacheManager.close();
+    mCacheManager = createLocalCacheManager();
+    assertTrue(mCacheManager.put(PAGE_ID1, PAGE1));
+    mCacheManager.close();
+    // the page files no longer match the snapshot, so the dir is scanned instead
+    FileUtils.deletePathRecursively(
+        Paths.get(mPageStoreOptions.getRootDir().toString(),
+            Long.toString(PAGE_SIZE_BYTES)).toString());
+    PageStore pageStore = PageStore.create(mPageStoreOptions);
+    pageStore.put(PAGE_ID2, PAGE2);
+    pageStore.close();
+    mCacheManager = createLocalCacheManager();
+    assertFalse(mPageMetaStore.hasPage(PAGE_ID1));
+    assertTrue(mPageMetaStore.hasPage(PAGE_ID2));
+  }
+
   @Test
   public void asyncRestoreReadOnly() throws Exception {
     mConf.set(PropertyKey.USER_CLIENT_CACHE_ASYNC_RESTORE_ENABLED, true);
@@ -1145,6 +1256,42 @@ public final class LocalCacheManagerTest {
     assertArrayEquals(PAGE1, bytes);
   }
 
+  @Test
+  public void getDataFileChannelOfDeletedPage() throws Exception {
+    mCacheManager = createLocalCacheManager();
+    mCacheManager.put(PAGE_ID1, PAGE1);
+    DataFileChannel dataFileChannel = mCacheManager.getDataFileChannel(PAGE_ID1,
+        0, PAGE1.length, CacheContext.defaults()).get();
+    assertTrue(mCacheManager.delete(PAGE_ID1));
+    DefaultFileRegion defaultFileRegion = (DefaultFileRegion) dataFileChannel.getNettyOutput();
+    ByteBuf buf = Unpooled.buffer(PAGE1.length);
+    long bytesTransferred =
+        defaultFileRegion.transferTo(new NettyBufTargetBuffer(buf).byteChannel(), 0);
+    defaultFileRegion.release();
+    assertEquals(PAGE1.length, bytesTransferred);
+    byte[] bytes = new byte[PAGE1.length];
+    buf.readBytes(bytes);
+    assertArrayEquals(PAGE1, bytes);
+  }
+
+  @Test
+  public void mapDataFileChannel() throws Exception {
+    mCacheManager = createLocalCacheManager();
+    mCacheManager.put(PAGE_ID1, PAGE1);
+    DataFileChannel dataFileChannel = mCacheManager.getDataFileChannel(PAGE_ID1,
+        1, PAGE1.length - 1, CacheContext.defaults()).get();
+    assertTrue(mCacheManager.delete(PAGE_ID1));
+    DataBuffer dataBuffer = dataFileChannel.map();
+    try {
+      assertEquals(PAGE1.length - 1, dataBuffer.readableBytes());
+      byte[] bytes = new byte[PAGE1.length - 1];
+      dataBuffer.readBytes(bytes, 0, bytes.length);
+      assertArrayEquals(Arrays.copyOfRange(PAGE1, 1, PAGE1.length), bytes);
+    } finally {
+      dataBuffer.release();
+    }
+  }
+
   /**
    * A PageStore where put can throw IOException on put or delete.
    */
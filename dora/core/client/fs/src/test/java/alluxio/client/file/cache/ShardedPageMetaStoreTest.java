@@ -0,0 +1,265 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import static alluxio.client.file.cache.CacheUsage.PartitionDescriptor.file;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.Constants;
+import alluxio.client.file.cache.allocator.HashAllocator;
+import alluxio.client.file.cache.evictor.CacheEvictorOptions;
+import alluxio.client.file.cache.evictor.FIFOCacheEvictor;
+import alluxio.client.file.cache.evictor.LRUCacheEvictor;
+import alluxio.client.file.cache.store.PageStoreDir;
+import alluxio.client.file.cache.store.PageStoreOptions;
+import alluxio.client.quota.CacheScope;
+import alluxio.exception.PageNotFoundException;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+
+import com.codahale.metrics.Gauge;
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Tests for the {@link ShardedPageMetaStore} class.
+ */
+public class ShardedPageMetaStoreTest {
+  private final PageId mPage = new PageId("1L", 2L);
+  private PageStoreDir mPageStoreDir;
+  private PageInfo mPageInfo;
+  private ShardedPageMetaStore mMetaStore;
+  private Gauge mCachedPageGauge;
+
+  @Rule
+  public TemporaryFolder mTempFolder = new TemporaryFolder();
+
+  /**
+   * Sets up the instances.
+   */
+  @Before
+  public void before() {
+    MetricsSystem.clearAllMetrics();
+    mPageStoreDir =
+        PageStoreDir.createPageStoreDir(
+            new CacheEvictorOptions().setEvictorClass(LRUCacheEvictor.class),
+            new PageStoreOptions().setRootDir(
+                Paths.get(mTempFolder.getRoot().getAbsolutePath())));
+    mPageInfo = new PageInfo(mPage, 1024, mPageStoreDir);
+    mMetaStore = new ShardedPageMetaStore(ImmutableList.of(mPageStoreDir));
+    mCachedPageGauge =
+        MetricsSystem.METRIC_REGISTRY.getGauges().get(MetricKey.CLIENT_CACHE_PAGES.getName());
+  }
+
+  @Test
+  public void commitFile() throws PageNotFoundException {
+    String newTempFile = "newTempFile";
+    long pageIndex = 2L;
+    PageId newTempPage = new PageId(newTempFile, pageIndex);
+    mMetaStore.addTempPage(mPage, mPageInfo);
+    mMetaStore.commitFile(mPage.getFileId(), newTempFile);
+    assertFalse(mMetaStore.hasPage(mPage));
+    assertEquals(mPageStoreDir, mMetaStore.getPageInfo(newTempPage).getLocalCacheDir());
+    assertEquals(newTempFile, mMetaStore.getPageInfo(newTempPage).getPageId().getFileId());
+    assertEquals(pageIndex, mMetaStore.getPageInfo(newTempPage).getPageId().getPageIndex());
+    assertEquals(1, mMetaStore.getAllPagesByFileId(newTempFile).size());
+    assertTrue(mMetaStore.getAllPagesByFileId(mPage.getFileId()).isEmpty());
+  }
+
+  @Test
+  public void commitFileNotExist() {
+    assertThrows(PageNotFoundException.class,
+        () -> mMetaStore.commitFile(mPage.getFileId(), "newTempFile"));
+  }
+
+  @Test
+  public void getPagesCreatedBefore() throws Exception {
+    // the pages are scanned without the index
+    assertPagesCreatedBefore(mMetaStore);
+  }
+
+  @Test
+  public void getPagesCreatedBeforeIndexed() throws Exception {
+    assertPagesCreatedBefore(new ShardedPageMetaStore(ImmutableList.of(mPageStoreDir),
+        new HashAllocator(ImmutableList.of(mPageStoreDir)),
+        ShardedPageMetaStore.DEFAULT_NUM_SHARDS, true));
+  }
+
+  private void assertPagesCreatedBefore(ShardedPageMetaStore metaStore) throws Exception {
+    PageInfo oldPage = new PageInfo(new PageId("1L", 1L), 1024, CacheScope.GLOBAL,
+        mPageStoreDir, 1000L);
+    PageInfo newPage = new PageInfo(new PageId("2L", 1L), 1024, CacheScope.GLOBAL,
+        mPageStoreDir, 2000L);
+    metaStore.addPage(newPage.getPageId(), newPage);
+    metaStore.addPage(oldPage.getPageId(), oldPage);
+    assertEquals(ImmutableList.of(), metaStore.getPagesCreatedBefore(999L));
+    assertEquals(ImmutableList.of(oldPage), metaStore.getPagesCreatedBefore(1000L));
+    assertEquals(ImmutableList.of(oldPage, newPage), metaStore.getPagesCreatedBefore(3000L));
+    metaStore.removePage(oldPage.getPageId());
+    assertEquals(ImmutableList.of(newPage), metaStore.getPagesCreatedBefore(3000L));
+    metaStore.reset();
+    assertEquals(ImmutableList.of(), metaStore.getPagesCreatedBefore(3000L));
+  }
+
+  @Test
+  public void addExist() {
+    mMetaStore.addPage(mPage, mPageInfo);
+    mMetaStore.addPage(mPage, mPageInfo);
+    assertTrue(mMetaStore.hasPage(mPage));
+    assertEquals(1, mCachedPageGauge.getValue());
+    assertEquals(mPageInfo.getPageSize(), mMetaStore.bytes());
+  }
+
+  @Test
+  public void removeExist() throws Exception {
+    mMetaStore.addPage(mPage, mPageInfo);
+    assertEquals(mPageInfo, mMetaStore.removePage(mPage));
+    assertFalse(mMetaStore.hasPage(mPage));
+    assertEquals(0, mCachedPageGauge.getValue());
+    assertEquals(0, mMetaStore.bytes());
+    assertTrue(mMetaStore.getAllPagesByFileId(mPage.getFileId()).isEmpty());
+  }
+
+  @Test
+  public void removeNotExist() {
+    assertThrows(PageNotFoundException.class, () -> mMetaStore.removePage(mPage));
+    assertEquals(0, mCachedPageGauge.getValue());
+  }
+
+  @Test
+  public void getPageInfo() throws Exception {
+    mMetaStore.addPage(mPage, mPageInfo);
+    assertEquals(mPageInfo, mMetaStore.getPageInfo(mPage));
+    assertThrows(PageNotFoundException.class,
+        () -> mMetaStore.getPageInfo(new PageId("1L", 3L)));
+  }
+
+  @Test
+  public void readLockSkippedWithConcurrentEvictors() throws Exception {
+    assertTrue(tryReadLockWhileWriteLocked(mMetaStore));
+  }
+
+  @Test
+  public void readLockKeptWithNonConcurrentEvictors() throws Exception {
+    PageStoreDir dir = PageStoreDir.createPageStoreDir(
+        new CacheEvictorOptions().setEvictorClass(FIFOCacheEvictor.class),
+        new PageStoreOptions().setRootDir(Paths.get(mTempFolder.newFolder().getAbsolutePath())));
+    assertFalse(tryReadLockWhileWriteLocked(new ShardedPageMetaStore(ImmutableList.of(dir))));
+  }
+
+  private static boolean tryReadLockWhileWriteLocked(PageMetaStore metaStore) throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    metaStore.getLock().writeLock().lock();
+    try {
+      return executor.submit(() -> {
+        Lock readLock = metaStore.getLock().readLock();
+        if (!readLock.tryLock()) {
+          return false;
+        }
+        readLock.unlock();
+        return true;
+      }).get();
+    } finally {
+      metaStore.getLock().writeLock().unlock();
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void evict() throws Exception {
+    mMetaStore.addPage(mPage, mPageInfo);
+    assertEquals(mPageInfo, mMetaStore.evict(mPageStoreDir));
+    mMetaStore.removePage(mPageInfo.getPageId());
+    assertNull(mMetaStore.evict(mPageStoreDir));
+    assertEquals(0, mCachedPageGauge.getValue());
+  }
+
+  @Test
+  public void reset() {
+    mMetaStore.addPage(mPage, mPageInfo);
+    mMetaStore.reset();
+    assertFalse(mMetaStore.hasPage(mPage));
+    assertEquals(0, mMetaStore.numPages());
+    assertEquals(0, mMetaStore.bytes());
+  }
+
+  @Test
+  public void fileCacheUsage() {
+    mMetaStore.addPage(new PageId("0", 0), new PageInfo(new PageId("0", 0), Constants.KB,
+        mPageStoreDir));
+    final int numPagesOfFile1 = 5;
+    for (int i = 0; i < numPagesOfFile1; i++) {
+      PageId page = new PageId("1", i);
+      mMetaStore.addPage(page, new PageInfo(page, Constants.KB, mPageStoreDir));
+    }
+    Optional<CacheUsage> globalUsage = mMetaStore.getUsage();
+    assertEquals(Optional.of((long) Constants.KB * (numPagesOfFile1 + 1)),
+        globalUsage.map(CacheUsage::used));
+    assertEquals(Optional.of((long) Constants.KB),
+        globalUsage.flatMap(usage -> usage.partitionedBy(file("0"))).map(CacheUsage::used));
+    assertEquals(Optional.of((long) (Constants.KB * numPagesOfFile1)),
+        globalUsage.flatMap(usage -> usage.partitionedBy(file("1"))).map(CacheUsage::used));
+  }
+
+  @Test
+  public void concurrentAddAndRemove() throws Exception {
+    final int numThreads = 8;
+    final int numPages = 1000;
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < numThreads; t++) {
+        final String fileId = Integer.toString(t % 3);
+        final int offset = t * numPages;
+        futures.add(executor.submit(() -> {
+          for (int i = offset; i < offset + numPages; i++) {
+            PageId pageId = new PageId(fileId, i);
+            mMetaStore.addPage(pageId, new PageInfo(pageId, Constants.KB, mPageStoreDir));
+            if (i % 2 == 0) {
+              mMetaStore.removePage(pageId);
+            }
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    long expectedPages = (long) numThreads * numPages / 2;
+    assertEquals(expectedPages, mMetaStore.numPages());
+    assertEquals(expectedPages * Constants.KB, mMetaStore.bytes());
+    long indexedPages = 0;
+    for (int i = 0; i < 3; i++) {
+      indexedPages += mMetaStore.getAllPagesByFileId(Integer.toString(i)).size();
+    }
+    assertEquals(expectedPages, indexedPages);
+  }
+}
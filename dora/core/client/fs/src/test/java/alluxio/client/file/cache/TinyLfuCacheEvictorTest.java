@@ -0,0 +1,152 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import alluxio.client.file.cache.evictor.CacheEvictor;
+import alluxio.client.file.cache.evictor.CacheEvictorOptions;
+import alluxio.client.file.cache.evictor.LRUCacheEvictor;
+import alluxio.client.file.cache.evictor.TinyLfuCacheEvictor;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tests for the {@link TinyLfuCacheEvictor} class.
+ */
+public final class TinyLfuCacheEvictorTest {
+  private static final int CACHE_PAGES = 100;
+
+  private TinyLfuCacheEvictor mEvictor;
+  private final PageId mFirst = new PageId("1L", 2L);
+  private final PageId mSecond = new PageId("3L", 4L);
+  private final PageId mThird = new PageId("5L", 6L);
+
+  /**
+   * Sets up the instances.
+   */
+  @Before
+  public void before() {
+    mEvictor = new TinyLfuCacheEvictor(new CacheEvictorOptions());
+  }
+
+  @Test
+  public void evictPutOrder() {
+    mEvictor.updateOnPut(mFirst);
+    mEvictor.updateOnPut(mSecond);
+    Assert.assertEquals(mFirst, mEvictor.evict());
+    mEvictor.updateOnDelete(mFirst);
+    Assert.assertEquals(mSecond, mEvictor.evict());
+    mEvictor.updateOnDelete(mSecond);
+    Assert.assertNull(mEvictor.evict());
+  }
+
+  @Test
+  public void rejectLessFrequentCandidate() {
+    mEvictor.updateOnPut(mFirst);
+    mEvictor.updateOnGet(mFirst);
+    mEvictor.updateOnGet(mFirst);
+    mEvictor.updateOnPut(mSecond);
+    mEvictor.updateOnPut(mThird);
+    // the oldest page is admitted to the main space as the cache filled up, the next one is
+    // accessed less often than it and is not admitted
+    Assert.assertEquals(mSecond, mEvictor.evict());
+    mEvictor.updateOnDelete(mSecond);
+    Assert.assertEquals(mFirst, mEvictor.evict());
+  }
+
+  @Test
+  public void admitMoreFrequentCandidate() {
+    mEvictor.updateOnPut(mFirst);
+    mEvictor.updateOnPut(mSecond);
+    mEvictor.updateOnGet(mSecond);
+    mEvictor.updateOnGet(mSecond);
+    mEvictor.updateOnPut(mThird);
+    // the second page is accessed more often than the page in the main space
+    Assert.assertEquals(mFirst, mEvictor.evict());
+    Assert.assertTrue(mEvictor.frequency(mSecond) > mEvictor.frequency(mFirst));
+    mEvictor.updateOnDelete(mFirst);
+    Assert.assertEquals(mSecond, mEvictor.evict());
+  }
+
+  @Test
+  public void evictMatching() {
+    mEvictor.updateOnPut(mFirst);
+    mEvictor.updateOnPut(mSecond);
+    mEvictor.updateOnPut(mThird);
+    Assert.assertEquals(mSecond, mEvictor.evictMatching(mSecond::equals));
+    Assert.assertNull(mEvictor.evictMatching(pageId -> false));
+  }
+
+  @Test
+  public void reset() {
+    mEvictor.updateOnPut(mFirst);
+    mEvictor.updateOnGet(mFirst);
+    mEvictor.reset();
+    Assert.assertNull(mEvictor.evict());
+    Assert.assertEquals(0, mEvictor.frequency(mFirst));
+  }
+
+  @Test
+  public void frequencyKeptWhileFilling() {
+    TinyLfuCacheEvictor evictor =
+        new TinyLfuCacheEvictor(new CacheEvictorOptions().setMaxPages(CACHE_PAGES * 10));
+    evictor.updateOnPut(mFirst);
+    evictor.updateOnGet(mFirst);
+    evictor.updateOnGet(mFirst);
+    int frequency = evictor.frequency(mFirst);
+    // the sketch is not resized, and does not drop the counts, as the tracked pages grow
+    for (int i = 0; i < CACHE_PAGES * 10; i++) {
+      evictor.updateOnPut(new PageId("fill", i));
+    }
+    Assert.assertEquals(frequency, evictor.frequency(mFirst));
+  }
+
+  @Test
+  public void scanResistant() {
+    Assert.assertTrue(hotPagesAfterScan(mEvictor) > CACHE_PAGES * 0.9);
+    Assert.assertEquals(0, hotPagesAfterScan(new LRUCacheEvictor(new CacheEvictorOptions())));
+  }
+
+  /**
+   * Fills a cache with hot pages that are read several times, scans ten times as many pages
+   * read only once, and returns how many of the hot pages are still cached.
+   */
+  private static int hotPagesAfterScan(CacheEvictor evictor) {
+    Set<PageId> cached = new HashSet<>();
+    for (int i = 0; i < CACHE_PAGES; i++) {
+      put(evictor, cached, new PageId("hot", i));
+    }
+    for (int round = 0; round < 5; round++) {
+      for (int i = 0; i < CACHE_PAGES; i++) {
+        evictor.updateOnGet(new PageId("hot", i));
+      }
+    }
+    for (int i = 0; i < CACHE_PAGES * 10; i++) {
+      put(evictor, cached, new PageId("scan", i));
+    }
+    return (int) cached.stream().filter(pageId -> pageId.getFileId().equals("hot")).count();
+  }
+
+  private static void put(CacheEvictor evictor, Set<PageId> cached, PageId pageId) {
+    if (cached.size() >= CACHE_PAGES) {
+      PageId victim = evictor.evict();
+      evictor.updateOnDelete(victim);
+      cached.remove(victim);
+    }
+    evictor.updateOnPut(pageId);
+    cached.add(pageId);
+  }
+}
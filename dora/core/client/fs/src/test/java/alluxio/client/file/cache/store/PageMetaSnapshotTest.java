@@ -0,0 +1,208 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.PageInfo;
+import alluxio.client.file.cache.evictor.CacheEvictorOptions;
+import alluxio.client.file.cache.evictor.LRUCacheEvictor;
+import alluxio.client.quota.CacheScope;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Tests for the {@link PageMetaSnapshot} class.
+ */
+public final class PageMetaSnapshotTest {
+  private static final long PAGE_SIZE = 1024;
+
+  @Rule
+  public TemporaryFolder mTemp = new TemporaryFolder();
+
+  private Path mMetaDir;
+  private Path mPagesDir;
+  private PageStoreDir mPageStoreDir;
+  private PageInfo mPage1;
+  private PageInfo mPage2;
+  private PageInfo mPage3;
+
+  @Before
+  public void before() throws Exception {
+    mMetaDir = mTemp.newFolder("meta").toPath();
+    mPagesDir = mTemp.newFolder("pages").toPath();
+    mPageStoreDir = PageStoreDir.createPageStoreDir(
+        new CacheEvictorOptions().setEvictorClass(LRUCacheEvictor.class),
+        new PageStoreOptions().setRootDir(mTemp.newFolder("store").toPath()));
+    mPage1 = createPage("1", 0, 100);
+    mPage2 = createPage("1", 1, 200);
+    mPage3 = createPage("2", 0, 300);
+  }
+
+  @Test
+  public void replayLogAfterCleanShutdown() throws Exception {
+    PageMetaSnapshot snapshot = createSnapshot();
+    checkpoint(snapshot, ImmutableList.of(mPage1, mPage2));
+    snapshot.logAdd(mPage3);
+    snapshot.logRemove(mPage1.getPageId());
+    snapshot.close();
+
+    assertEquals(ImmutableSet.of(mPage2, mPage3), restore(createSnapshot()));
+  }
+
+  @Test
+  public void ignoreAfterUncleanShutdown() throws Exception {
+    PageMetaSnapshot snapshot = createSnapshot();
+    checkpoint(snapshot, ImmutableList.of(mPage1));
+    snapshot.logAdd(mPage2);
+    // the process crashes without closing
+
+    assertNull(createSnapshot().restore());
+  }
+
+  @Test
+  public void ignoreAfterRestoreWithoutClose() throws Exception {
+    PageMetaSnapshot snapshot = createSnapshot();
+    checkpoint(snapshot, ImmutableList.of(mPage1));
+    snapshot.close();
+    assertEquals(ImmutableSet.of(mPage1), restore(createSnapshot()));
+    // the pages may change without being logged after the restore, until the next checkpoint
+    assertNull(createSnapshot().restore());
+  }
+
+  @Test
+  public void pageChangedAfterClose() throws Exception {
+    PageMetaSnapshot snapshot = createSnapshot();
+    checkpoint(snapshot, ImmutableList.of(mPage1));
+    snapshot.close();
+    snapshot.logAdd(mPage2);
+
+    assertNull(createSnapshot().restore());
+  }
+
+  @Test
+  public void truncatedLogTail() throws Exception {
+    PageMetaSnapshot snapshot = createSnapshot();
+    checkpoint(snapshot, ImmutableList.of(mPage1));
+    snapshot.logAdd(mPage2);
+    snapshot.logAdd(mPage3);
+    snapshot.close();
+    Path log = mMetaDir.resolve(PageMetaSnapshot.LOG_FILE_PREFIX + 1);
+    try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+      channel.truncate(channel.size() - 3);
+    }
+
+    // the last record, which was not fully written, is ignored
+    assertEquals(ImmutableSet.of(mPage1, mPage2), restore(createSnapshot()));
+  }
+
+  @Test
+  public void checkpointStoppedBeforeSnapshotMove() throws Exception {
+    PageMetaSnapshot snapshot = createSnapshot();
+    checkpoint(snapshot, ImmutableList.of(mPage1));
+    snapshot.logAdd(mPage2);
+    // the next checkpoint switches to a new log, but fails to write its snapshot
+    snapshot.startCheckpoint();
+    Files.write(mMetaDir.resolve(PageMetaSnapshot.SNAPSHOT_FILE + ".tmp"), new byte[] {1, 2});
+    snapshot.logAdd(mPage3);
+    snapshot.logRemove(mPage1.getPageId());
+    snapshot.close();
+
+    // the previous snapshot is replayed with both logs
+    PageMetaSnapshot restored = createSnapshot();
+    assertEquals(ImmutableSet.of(mPage2, mPage3), restore(restored));
+    checkpoint(restored, ImmutableList.of(mPage2, mPage3));
+    restored.close();
+    assertEquals(ImmutableSet.of(mPage2, mPage3), restore(createSnapshot()));
+  }
+
+  @Test
+  public void staleSnapshotSkipped() throws Exception {
+    PageMetaSnapshot snapshot = createSnapshot();
+    long stale = snapshot.startCheckpoint();
+    long latest = snapshot.startCheckpoint();
+    snapshot.logAdd(mPage2);
+    snapshot.writeSnapshot(latest, ImmutableList.of(mPage1));
+    snapshot.writeSnapshot(stale, ImmutableList.of(mPage3));
+    snapshot.close();
+
+    assertEquals(ImmutableSet.of(mPage1, mPage2), restore(createSnapshot()));
+  }
+
+  @Test
+  public void ignoreMismatchedPageFiles() throws Exception {
+    PageMetaSnapshot snapshot = createSnapshot();
+    checkpoint(snapshot, ImmutableList.of(mPage1));
+    snapshot.close();
+    Files.delete(getPagePath(mPage1.getPageId()));
+
+    assertNull(createSnapshot().restore());
+  }
+
+  @Test
+  public void metaFiles() throws Exception {
+    PageMetaSnapshot snapshot = createSnapshot();
+    checkpoint(snapshot, ImmutableList.of(mPage1));
+    snapshot.close();
+    try (Stream<Path> files = Files.list(mMetaDir)) {
+      files.forEach(file -> assertTrue(file.toString(), snapshot.isMetaFile(file)));
+    }
+    assertFalse(snapshot.isMetaFile(getPagePath(mPage1.getPageId())));
+    snapshot.clear();
+    try (Stream<Path> files = Files.list(mMetaDir)) {
+      assertEquals(0, files.count());
+    }
+  }
+
+  private PageMetaSnapshot createSnapshot() {
+    return new PageMetaSnapshot(mMetaDir, PAGE_SIZE, mPageStoreDir, this::getPagePath);
+  }
+
+  private static void checkpoint(PageMetaSnapshot snapshot, Collection<PageInfo> pages)
+      throws IOException {
+    snapshot.writeSnapshot(snapshot.startCheckpoint(), pages);
+  }
+
+  private static Set<PageInfo> restore(PageMetaSnapshot snapshot) {
+    Collection<PageInfo> pages = snapshot.restore();
+    return pages == null ? null : new HashSet<>(pages);
+  }
+
+  private PageInfo createPage(String fileId, long pageIndex, int size) throws IOException {
+    PageId pageId = new PageId(fileId, pageIndex);
+    Files.write(getPagePath(pageId), new byte[size]);
+    return new PageInfo(pageId, size, CacheScope.GLOBAL, mPageStoreDir, 0);
+  }
+
+  private Path getPagePath(PageId pageId) {
+    return mPagesDir.resolve(pageId.getFileId() + "_" + pageId.getPageIndex());
+  }
+}
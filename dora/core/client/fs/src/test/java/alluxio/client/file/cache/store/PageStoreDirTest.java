@@ -51,6 +51,7 @@ public class PageStoreDirTest {
   public static Collection<Object[]> data() {
     return Arrays.asList(new Object[][] {
         {PageStoreType.LOCAL},
+        {PageStoreType.SEGMENT},
         {PageStoreType.MEM}
     });
   }
@@ -42,6 +42,7 @@ public class PageStoreTest {
   public static Collection<Object[]> data() {
     return Arrays.asList(new Object[][] {
         {PageStoreType.LOCAL},
+        {PageStoreType.SEGMENT},
         {PageStoreType.MEM}
     });
   }
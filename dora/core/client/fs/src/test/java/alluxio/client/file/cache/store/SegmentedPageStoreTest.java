@@ -0,0 +1,243 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.store;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.PageInfo;
+import alluxio.conf.Configuration;
+import alluxio.conf.InstancedConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.exception.PageNotFoundException;
+import alluxio.file.ByteArrayTargetBuffer;
+import alluxio.util.CommonUtils;
+import alluxio.util.WaitForOptions;
+import alluxio.util.io.BufferUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class SegmentedPageStoreTest {
+  private static final int PAGE_SIZE = 1024;
+
+  @Rule
+  public TemporaryFolder mTemp = new TemporaryFolder();
+
+  private PageStoreOptions mOptions;
+  private SegmentedPageStore mPageStore;
+
+  @Before
+  public void before() {
+    mOptions = new PageStoreOptions()
+        .setStoreType(PageStoreType.SEGMENT)
+        .setPageSize(PAGE_SIZE)
+        .setCacheSize(1024 * 1024)
+        // small segments to exercise rolling over and compaction
+        .setSegmentSize(128 * 1024)
+        .setSegmentCompactionRatio(0.5)
+        .setRootDir(Paths.get(mTemp.getRoot().getAbsolutePath()));
+    mPageStore = new SegmentedPageStore(mOptions);
+  }
+
+  @After
+  public void after() {
+    mPageStore.close();
+  }
+
+  @Test
+  public void packPagesIntoSegments() throws Exception {
+    int numPages = 500;
+    for (int i = 0; i < numPages; i++) {
+      mPageStore.put(new PageId("file", i), BufferUtils.getIncreasingByteArray(i, PAGE_SIZE));
+    }
+    int numSegments = mPageStore.getNumSegments();
+    assertTrue(numSegments > 1);
+    assertTrue(numSegments < numPages);
+    try (Stream<?> files = Files.list(mPageStore.getSegmentDir())) {
+      assertEquals(numSegments, files.count());
+    }
+    for (int i = 0; i < numPages; i++) {
+      assertPage(mPageStore, new PageId("file", i), BufferUtils.getIncreasingByteArray(i,
+          PAGE_SIZE));
+    }
+  }
+
+  @Test
+  public void recoverAfterRestart() throws Exception {
+    int numPages = 300;
+    for (int i = 0; i < numPages; i++) {
+      mPageStore.put(new PageId("file", i), BufferUtils.getIncreasingByteArray(i, PAGE_SIZE));
+    }
+    mPageStore.delete(new PageId("file", 0));
+    // overwritten page should be recovered with its latest content
+    mPageStore.put(new PageId("file", 1), BufferUtils.getIncreasingByteArray(7, 100));
+    mPageStore.putTemporary(new PageId("temp", 0), BufferUtils.getIncreasingByteArray(10));
+    mPageStore.close();
+
+    mPageStore = new SegmentedPageStore(mOptions);
+    Set<PageId> restored = new HashSet<>();
+    mPageStore.scanPages(null, pageInfo -> restored.add(pageInfo.map(PageInfo::getPageId).get()));
+    assertEquals(numPages - 1, restored.size());
+    assertThrows(PageNotFoundException.class, () -> mPageStore.get(new PageId("file", 0),
+        new ByteArrayTargetBuffer(new byte[PAGE_SIZE], 0)));
+    assertThrows(PageNotFoundException.class, () -> mPageStore.get(new PageId("temp", 0), 0,
+        10, new ByteArrayTargetBuffer(new byte[PAGE_SIZE], 0), true));
+    assertPage(mPageStore, new PageId("file", 1), BufferUtils.getIncreasingByteArray(7, 100));
+    for (int i = 2; i < numPages; i++) {
+      assertPage(mPageStore, new PageId("file", i), BufferUtils.getIncreasingByteArray(i,
+          PAGE_SIZE));
+    }
+  }
+
+  @Test
+  public void recoverPastCorruptRecord() throws Exception {
+    int numPages = 10;
+    for (int i = 0; i < numPages; i++) {
+      mPageStore.put(new PageId("file", i), BufferUtils.getIncreasingByteArray(i, PAGE_SIZE));
+    }
+    assertEquals(1, mPageStore.getNumSegments());
+    mPageStore.close();
+    // segment header (16) followed by records of a 35 bytes header and the page
+    Path segmentPath = mPageStore.getSegmentDir().resolve("0.seg");
+    long recordLength = 35 + PAGE_SIZE;
+    try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.WRITE)) {
+      // corrupts the page index of the fourth record, failing its checksum
+      channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF}), 16 + 3 * recordLength + 20);
+    }
+
+    mPageStore = new SegmentedPageStore(mOptions);
+    assertThrows(PageNotFoundException.class, () -> mPageStore.get(new PageId("file", 3),
+        new ByteArrayTargetBuffer(new byte[PAGE_SIZE], 0)));
+    for (int i = 0; i < numPages; i++) {
+      if (i != 3) {
+        assertPage(mPageStore, new PageId("file", i), BufferUtils.getIncreasingByteArray(i,
+            PAGE_SIZE));
+      }
+    }
+    // the segment is still compacted past the corrupt record
+    for (int i = 0; i < 6; i++) {
+      if (i != 3) {
+        mPageStore.delete(new PageId("file", i));
+      }
+    }
+    CommonUtils.waitFor("segment to be compacted", () -> !Files.exists(segmentPath),
+        WaitForOptions.defaults().setTimeoutMs(10000));
+    for (int i = 6; i < numPages; i++) {
+      assertPage(mPageStore, new PageId("file", i), BufferUtils.getIncreasingByteArray(i,
+          PAGE_SIZE));
+    }
+  }
+
+  @Test
+  public void putAllAcrossSegments() throws Exception {
+    int numPages = 300;
+    List<PageId> pageIds = new ArrayList<>();
+    List<ByteBuffer> pages = new ArrayList<>();
+    for (int i = 0; i < numPages; i++) {
+      pageIds.add(new PageId("file", i));
+      pages.add(ByteBuffer.wrap(BufferUtils.getIncreasingByteArray(i, PAGE_SIZE - i)));
+    }
+    mPageStore.putAll(pageIds, pages, false);
+    assertTrue(mPageStore.getNumSegments() > 1);
+    for (int i = 0; i < numPages; i++) {
+      assertPage(mPageStore, new PageId("file", i),
+          BufferUtils.getIncreasingByteArray(i, PAGE_SIZE - i));
+    }
+    mPageStore.close();
+
+    mPageStore = new SegmentedPageStore(mOptions);
+    for (int i = 0; i < numPages; i++) {
+      assertPage(mPageStore, new PageId("file", i),
+          BufferUtils.getIncreasingByteArray(i, PAGE_SIZE - i));
+    }
+  }
+
+  @Test
+  public void compactSegments() throws Exception {
+    int numPages = 500;
+    for (int i = 0; i < numPages; i++) {
+      mPageStore.put(new PageId("file", i), BufferUtils.getIncreasingByteArray(i, PAGE_SIZE));
+    }
+    int numSegments = mPageStore.getNumSegments();
+    for (int i = 0; i < numPages; i++) {
+      if (i % 4 != 0) {
+        mPageStore.delete(new PageId("file", i));
+      }
+    }
+    CommonUtils.waitFor("segments to be compacted",
+        () -> mPageStore.getNumSegments() < numSegments,
+        WaitForOptions.defaults().setTimeoutMs(10000));
+    for (int i = 0; i < numPages; i += 4) {
+      assertPage(mPageStore, new PageId("file", i), BufferUtils.getIncreasingByteArray(i,
+          PAGE_SIZE));
+    }
+  }
+
+  @Test
+  public void commitTemporaryPages() throws Exception {
+    mPageStore.putTemporary(new PageId("temp", 0), BufferUtils.getIncreasingByteArray(10));
+    mPageStore.putTemporary(new PageId("temp", 1), BufferUtils.getIncreasingByteArray(20));
+    mPageStore.commit("temp", "file");
+    assertPage(mPageStore, new PageId("file", 0), BufferUtils.getIncreasingByteArray(10));
+    assertPage(mPageStore, new PageId("file", 1), BufferUtils.getIncreasingByteArray(20));
+    assertThrows(PageNotFoundException.class, () -> mPageStore.get(new PageId("temp", 0), 0,
+        10, new ByteArrayTargetBuffer(new byte[PAGE_SIZE], 0), true));
+    mPageStore.close();
+
+    mPageStore = new SegmentedPageStore(mOptions);
+    assertPage(mPageStore, new PageId("file", 0), BufferUtils.getIncreasingByteArray(10));
+    assertPage(mPageStore, new PageId("file", 1), BufferUtils.getIncreasingByteArray(20));
+  }
+
+  @Test
+  public void reserveRoomForDeletedPages() {
+    InstancedConfiguration conf = Configuration.copyGlobal();
+    conf.set(PropertyKey.WORKER_PAGE_STORE_TYPE, PageStoreType.SEGMENT);
+    conf.set(PropertyKey.WORKER_PAGE_STORE_DIRS, mTemp.getRoot().getAbsolutePath());
+    conf.set(PropertyKey.WORKER_PAGE_STORE_SIZES, "1GB");
+    conf.set(PropertyKey.WORKER_PAGE_STORE_SEGMENT_STORE_COMPACTION_RATIO, 0.5);
+    // the segments may hold as many bytes of deleted pages as of live pages
+    assertEquals(1.05,
+        PageStoreOptions.createForWorkerPageStore(conf).get(0).getOverheadRatio(), 1e-9);
+    conf.set(PropertyKey.WORKER_PAGE_STORE_OVERHEAD, 0.3);
+    assertEquals(0.3,
+        PageStoreOptions.createForWorkerPageStore(conf).get(0).getOverheadRatio(), 1e-9);
+  }
+
+  private static void assertPage(SegmentedPageStore pageStore, PageId pageId, byte[] expected)
+      throws Exception {
+    byte[] buf = new byte[PAGE_SIZE];
+    assertEquals(expected.length, pageStore.get(pageId, new ByteArrayTargetBuffer(buf, 0)));
+    byte[] actual = new byte[expected.length];
+    System.arraycopy(buf, 0, actual, 0, expected.length);
+    assertArrayEquals(expected, actual);
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.dora;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.Constants;
+import alluxio.client.block.BlockWorkerInfo;
+import alluxio.conf.Configuration;
+import alluxio.conf.InstancedConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.exception.status.ResourceExhaustedException;
+import alluxio.wire.WorkerIdentity;
+import alluxio.wire.WorkerIdentityTestUtils;
+import alluxio.wire.WorkerNetAddress;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Tests for {@link BoundedLoadConsistentHashPolicy}.
+ */
+public class BoundedLoadConsistentHashPolicyTest {
+  private static final int NUM_WORKERS = 5;
+
+  private InstancedConfiguration mConf;
+  private final List<BlockWorkerInfo> mWorkers = new ArrayList<>();
+  private final AtomicLong mTimeNs = new AtomicLong();
+  private final Ticker mTicker = new Ticker() {
+    @Override
+    public long read() {
+      return mTimeNs.get();
+    }
+  };
+
+  @Before
+  public void before() {
+    mConf = new InstancedConfiguration(Configuration.copyProperties());
+    mConf.set(PropertyKey.USER_WORKER_SELECTION_POLICY,
+        "alluxio.client.file.dora.BoundedLoadConsistentHashPolicy");
+    mConf.set(PropertyKey.USER_BOUNDED_LOAD_HASH_HOT_KEY_RATE, 1000.0);
+    mConf.set(PropertyKey.USER_BOUNDED_LOAD_HASH_LOAD_HALF_LIFE, "1s");
+    for (int i = 1; i <= NUM_WORKERS; i++) {
+      mWorkers.add(new BlockWorkerInfo(WorkerIdentityTestUtils.ofLegacyId(i),
+          new WorkerNetAddress().setHost("worker" + i).setRpcPort(29998).setDataPort(29999)
+              .setWebPort(30000), 1024, 0));
+    }
+  }
+
+  @Test
+  public void create() throws Exception {
+    WorkerLocationPolicy policy = WorkerLocationPolicy.Factory.create(mConf);
+    assertTrue(policy instanceof BoundedLoadConsistentHashPolicy);
+    assertEquals(2, policy.getPreferredWorkers(mWorkers, "/a/b/c", 2).size());
+    assertEquals(2, policy.getPreferredWorkersForRead(mWorkers, "/a/b/c", 2).size());
+    assertThrows(ResourceExhaustedException.class,
+        () -> policy.getPreferredWorkers(ImmutableList.of(), "/a/b/c", 1));
+    assertThrows(ResourceExhaustedException.class,
+        () -> policy.getPreferredWorkersForRead(ImmutableList.of(), "/a/b/c", 1));
+  }
+
+  @Test
+  public void lightLoadFollowsRing() throws Exception {
+    WorkerLocationPolicy policy = new BoundedLoadConsistentHashPolicy(mConf, mTicker);
+    ConsistentHashPolicy ring = new ConsistentHashPolicy(mConf);
+    for (int i = 0; i < 20; i++) {
+      String path = "/file" + i;
+      assertEquals(identities(ring.getPreferredWorkers(mWorkers, path, 2)),
+          identities(policy.getPreferredWorkersForRead(mWorkers, path, 2)));
+    }
+  }
+
+  @Test
+  public void boundLoads() throws Exception {
+    WorkerLocationPolicy policy = new BoundedLoadConsistentHashPolicy(mConf, mTicker);
+    ConsistentHashPolicy ring = new ConsistentHashPolicy(mConf);
+    WorkerIdentity home = ring.getPreferredWorkers(mWorkers, "/file0", 1).get(0).getIdentity();
+    // many files on the same worker of the ring, each too cold to be hot
+    List<String> paths = new ArrayList<>();
+    for (int i = 0; paths.size() < 100; i++) {
+      String path = "/file" + i;
+      if (ring.getPreferredWorkers(mWorkers, path, 1).get(0).getIdentity().equals(home)) {
+        paths.add(path);
+      }
+    }
+    Map<WorkerIdentity, Integer> requests = new HashMap<>();
+    int numRequests = 0;
+    for (int round = 0; round < 10; round++) {
+      for (String path : paths) {
+        requests.merge(policy.getPreferredWorkersForRead(mWorkers, path, 1).get(0).getIdentity(), 1,
+            Integer::sum);
+        numRequests++;
+      }
+    }
+    assertTrue(requests.size() > 1);
+    double bound = mConf.getDouble(PropertyKey.USER_BOUNDED_LOAD_HASH_LOAD_FACTOR)
+        * ((double) numRequests / NUM_WORKERS + 16);
+    for (int count : requests.values()) {
+      assertTrue(count <= bound + 1);
+    }
+  }
+
+  @Test
+  public void extendCandidatesWhenOverloaded() throws Exception {
+    mConf.set(PropertyKey.USER_BOUNDED_LOAD_HASH_HOT_KEY_REPLICAS, 1);
+    mConf.set(PropertyKey.USER_BOUNDED_LOAD_HASH_LOAD_FACTOR, 1.0);
+    WorkerLocationPolicy policy = new BoundedLoadConsistentHashPolicy(mConf, mTicker);
+    Set<WorkerIdentity> chosen = new HashSet<>();
+    // a path too cold to be hot, whose first workers on the ring all go over the bound
+    for (int i = 0; i < 200; i++) {
+      chosen.add(policy.getPreferredWorkersForRead(mWorkers, "/file", 1).get(0).getIdentity());
+    }
+    // more workers than the replica and the extra candidates of the path
+    assertTrue(chosen.size() > 3);
+  }
+
+  @Test
+  public void forgetWorkersThatLeft() throws Exception {
+    BoundedLoadConsistentHashPolicy policy = new BoundedLoadConsistentHashPolicy(mConf, mTicker);
+    WorkerIdentity left = policy.getPreferredWorkersForRead(mWorkers, "/file", 1).get(0)
+        .getIdentity();
+    assertTrue(policy.getTrackedWorkers().contains(left));
+    List<BlockWorkerInfo> remaining = mWorkers.stream()
+        .filter(worker -> !worker.getIdentity().equals(left)).collect(Collectors.toList());
+    // wait for the hash ring to accept a new worker list
+    Thread.sleep(Constants.SECOND_MS + 100);
+    policy.getPreferredWorkersForRead(remaining, "/file", 1);
+    assertFalse(policy.getTrackedWorkers().contains(left));
+  }
+
+  @Test
+  public void spreadHotKey() throws Exception {
+    mConf.set(PropertyKey.USER_BOUNDED_LOAD_HASH_HOT_KEY_RATE, 10.0);
+    WorkerLocationPolicy policy = new BoundedLoadConsistentHashPolicy(mConf, mTicker);
+    ConsistentHashPolicy ring = new ConsistentHashPolicy(mConf);
+    List<BlockWorkerInfo> replicas = ring.getPreferredWorkers(mWorkers, "/hot", 3);
+    Set<WorkerIdentity> chosen = new HashSet<>();
+    for (int i = 0; i < 30; i++) {
+      chosen.add(policy.getPreferredWorkersForRead(mWorkers, "/hot", 1).get(0).getIdentity());
+      mTimeNs.addAndGet(10_000_000L);
+    }
+    // the hot path is served by its first 3 workers on the ring
+    assertEquals(3, chosen.size());
+    for (BlockWorkerInfo replica : replicas) {
+      assertTrue(chosen.contains(replica.getIdentity()));
+    }
+
+    // the path cools down after a while
+    mTimeNs.addAndGet(60_000_000_000L);
+    assertEquals(replicas.get(0).getIdentity(),
+        policy.getPreferredWorkersForRead(mWorkers, "/hot", 1).get(0).getIdentity());
+    List<BlockWorkerInfo> two = policy.getPreferredWorkersForRead(mWorkers, "/hot", 2);
+    assertNotEquals(two.get(0).getIdentity(), two.get(1).getIdentity());
+  }
+
+  @Test
+  public void ownersFollowRing() throws Exception {
+    mConf.set(PropertyKey.USER_BOUNDED_LOAD_HASH_HOT_KEY_RATE, 10.0);
+    WorkerLocationPolicy policy = new BoundedLoadConsistentHashPolicy(mConf, mTicker);
+    ConsistentHashPolicy ring = new ConsistentHashPolicy(mConf);
+    List<WorkerIdentity> owners = identities(ring.getPreferredWorkers(mWorkers, "/hot", 2));
+    Set<WorkerIdentity> readers = new HashSet<>();
+    for (int i = 0; i < 30; i++) {
+      // the metadata requests always reach the owners, however hot the path is for reads
+      assertEquals(owners, identities(policy.getPreferredWorkers(mWorkers, "/hot", 2)));
+      readers.add(policy.getPreferredWorkersForRead(mWorkers, "/hot", 1).get(0).getIdentity());
+      mTimeNs.addAndGet(10_000_000L);
+    }
+    assertTrue(readers.size() > 1);
+
+    // the metadata requests are not counted as load
+    WorkerLocationPolicy other = new BoundedLoadConsistentHashPolicy(mConf, mTicker);
+    for (int i = 0; i < 30; i++) {
+      other.getPreferredWorkers(mWorkers, "/cold", 1);
+      mTimeNs.addAndGet(10_000_000L);
+    }
+    assertEquals(ring.getPreferredWorkers(mWorkers, "/cold", 1).get(0).getIdentity(),
+        other.getPreferredWorkersForRead(mWorkers, "/cold", 1).get(0).getIdentity());
+  }
+
+  private static List<WorkerIdentity> identities(List<BlockWorkerInfo> workers) {
+    return workers.stream().map(BlockWorkerInfo::getIdentity).collect(Collectors.toList());
+  }
+}
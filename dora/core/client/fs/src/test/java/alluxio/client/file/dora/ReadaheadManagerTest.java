@@ -0,0 +1,240 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.dora;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.ByteArrayPositionReader;
+import alluxio.Constants;
+import alluxio.client.file.URIStatus;
+import alluxio.file.ReadTargetBuffer;
+import alluxio.util.CommonUtils;
+import alluxio.util.io.BufferUtils;
+import alluxio.wire.FileInfo;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link ReadaheadManager}.
+ */
+public class ReadaheadManagerTest {
+  private static final int CHUNK_SIZE = 64 * Constants.KB;
+  private static final int FILE_LENGTH = 16 * CHUNK_SIZE + 100;
+  private static final byte[] DATA = BufferUtils.getIncreasingByteArray(FILE_LENGTH);
+  private static final URIStatus STATUS = new URIStatus(new FileInfo()
+      .setUfsPath("s3://bucket/file").setLength(FILE_LENGTH).setLastModificationTimeMs(1));
+
+  private ReadaheadManager mManager;
+
+  @After
+  public void after() {
+    if (mManager != null) {
+      mManager.close();
+    }
+  }
+
+  @Test
+  public void sequentialRead() throws Exception {
+    mManager = new ReadaheadManager(CHUNK_SIZE, 4, 8L * CHUNK_SIZE, 4);
+    CountingPositionReader reader = new CountingPositionReader(DATA);
+    ReadaheadManager.Stream stream = mManager.openStream(STATUS, reader);
+    int bytesFromReadahead = readFully(stream, reader, 0, 10 * Constants.KB);
+    assertEquals(4, stream.getWindowChunks());
+    // every read waits for the chunk in flight rather than reading from the worker itself
+    assertEquals(FILE_LENGTH, bytesFromReadahead);
+  }
+
+  @Test
+  public void shareChunksAcrossStreams() throws Exception {
+    mManager = new ReadaheadManager(CHUNK_SIZE, 4, 32L * CHUNK_SIZE, 4);
+    CountingPositionReader first = new CountingPositionReader(DATA);
+    readFully(mManager.openStream(STATUS, first), first, 0, 10 * Constants.KB);
+
+    CountingPositionReader second = new CountingPositionReader(DATA);
+    ReadaheadManager.Stream stream = mManager.openStream(STATUS, second);
+    ByteBuffer buf = ByteBuffer.allocate(3 * CHUNK_SIZE);
+    long position = 5L * CHUNK_SIZE + 7;
+    assertEquals(buf.capacity(), stream.read(position, buf));
+    assertTrue(BufferUtils.equalIncreasingByteBuffer((int) position, buf.capacity(),
+        (ByteBuffer) buf.flip()));
+    assertEquals(0, second.getNumReads());
+    // a random read does not read ahead
+    assertEquals(0, stream.getWindowChunks());
+  }
+
+  @Test
+  public void randomReadDoesNotReadAhead() throws Exception {
+    mManager = new ReadaheadManager(CHUNK_SIZE, 4, 8L * CHUNK_SIZE, 4);
+    CountingPositionReader reader = new CountingPositionReader(DATA);
+    ReadaheadManager.Stream stream = mManager.openStream(STATUS, reader);
+    ByteBuffer buf = ByteBuffer.allocate(Constants.KB);
+    for (long position : new long[] {3L * CHUNK_SIZE, CHUNK_SIZE + 5, 10L * CHUNK_SIZE}) {
+      buf.clear();
+      assertEquals(0, stream.read(position, buf));
+    }
+    assertEquals(0, reader.getNumReads());
+    assertEquals(0, mManager.getBytesReserved());
+  }
+
+  @Test
+  public void boundedMemory() throws Exception {
+    mManager = new ReadaheadManager(CHUNK_SIZE, 8, 3L * CHUNK_SIZE, 4);
+    CountingPositionReader reader = new CountingPositionReader(DATA);
+    ReadaheadManager.Stream stream = mManager.openStream(STATUS, reader);
+    ByteBuffer buf = ByteBuffer.allocate(10 * Constants.KB);
+    long position = 0;
+    while (position < FILE_LENGTH) {
+      buf.clear();
+      buf.limit((int) Math.min(buf.capacity(), FILE_LENGTH - position));
+      position += readOnce(stream, reader, position, buf);
+      assertTrue(mManager.getBytesReserved() <= 3L * CHUNK_SIZE);
+    }
+    URIStatus rewritten = new URIStatus(new FileInfo()
+        .setUfsPath("s3://bucket/file").setLength(FILE_LENGTH).setLastModificationTimeMs(2));
+    CountingPositionReader other = new CountingPositionReader(DATA);
+    ReadaheadManager.Stream otherStream = mManager.openStream(rewritten, other);
+    buf.clear();
+    readOnce(otherStream, other, 0, buf);
+    // the chunks of the previous version of the file are not reused
+    assertTrue(other.getNumReads() > 0);
+    assertTrue(mManager.getBytesReserved() <= 3L * CHUNK_SIZE);
+  }
+
+  @Test
+  public void closeStreamDropsPendingChunks() throws Exception {
+    mManager = new ReadaheadManager(CHUNK_SIZE, 4, 8L * CHUNK_SIZE, 1);
+    GatedPositionReader reader = new GatedPositionReader(DATA, CHUNK_SIZE);
+    ReadaheadManager.Stream stream = mManager.openStream(STATUS, reader);
+    ByteBuffer buf = ByteBuffer.allocate(Constants.KB);
+    // reads ahead the first two chunks, the second one blocks the only readahead thread
+    assertEquals(Constants.KB, stream.read(0, buf));
+    buf.clear();
+    // the third chunk is queued behind it
+    assertEquals(Constants.KB, stream.read(Constants.KB, buf));
+    CommonUtils.waitFor("second chunk is being read", () -> reader.getNumReads() == 2);
+    CompletableFuture<Void> closed = CompletableFuture.runAsync(stream::close);
+    // the stream waits for the chunk being read with its reader
+    Thread.sleep(100);
+    assertFalse(closed.isDone());
+    reader.open();
+    closed.get(10, TimeUnit.SECONDS);
+    // the queued chunk is dropped without being read
+    assertEquals(2, reader.getNumReads());
+    assertEquals(2L * CHUNK_SIZE, mManager.getBytesReserved());
+    buf.clear();
+    assertEquals(0, mManager.openStream(STATUS, reader).read(2L * CHUNK_SIZE + 5, buf));
+  }
+
+  /**
+   * Reads the file from the given position to its end like a stream does.
+   *
+   * @return the number of bytes served by the readahead
+   */
+  private static int readFully(ReadaheadManager.Stream stream, CountingPositionReader reader,
+      long start, int bufferSize) throws IOException {
+    ByteBuffer buf = ByteBuffer.allocate(bufferSize);
+    long position = start;
+    int bytesFromReadahead = 0;
+    while (position < FILE_LENGTH) {
+      buf.clear();
+      buf.limit((int) Math.min(bufferSize, FILE_LENGTH - position));
+      int copied = stream.read(position, buf);
+      bytesFromReadahead += copied;
+      if (buf.hasRemaining()) {
+        reader.read(position + copied, buf, buf.remaining());
+      }
+      buf.flip();
+      int length = buf.remaining();
+      assertTrue(BufferUtils.equalIncreasingByteBuffer((int) position, length, buf));
+      position += length;
+    }
+    return bytesFromReadahead;
+  }
+
+  private static int readOnce(ReadaheadManager.Stream stream, CountingPositionReader reader,
+      long position, ByteBuffer buf) throws IOException {
+    int copied = stream.read(position, buf);
+    if (buf.hasRemaining()) {
+      reader.read(position + copied, buf, buf.remaining());
+    }
+    buf.flip();
+    int length = buf.remaining();
+    assertTrue(BufferUtils.equalIncreasingByteBuffer((int) position, length, buf));
+    return length;
+  }
+
+  private static final class CountingPositionReader extends ByteArrayPositionReader {
+    private final AtomicInteger mNumReads = new AtomicInteger();
+
+    CountingPositionReader(byte[] data) {
+      super(data);
+    }
+
+    @Override
+    public int readInternal(long position, ReadTargetBuffer buffer, int length)
+        throws IOException {
+      mNumReads.incrementAndGet();
+      return super.readInternal(position, buffer, length);
+    }
+
+    int getNumReads() {
+      return mNumReads.get();
+    }
+  }
+
+  /**
+   * Blocks the reads from a given position until opened.
+   */
+  private static final class GatedPositionReader extends ByteArrayPositionReader {
+    private final long mGatedPosition;
+    private final CountDownLatch mGate = new CountDownLatch(1);
+    private final AtomicInteger mNumReads = new AtomicInteger();
+
+    GatedPositionReader(byte[] data, long gatedPosition) {
+      super(data);
+      mGatedPosition = gatedPosition;
+    }
+
+    @Override
+    public int readInternal(long position, ReadTargetBuffer buffer, int length)
+        throws IOException {
+      mNumReads.incrementAndGet();
+      if (position >= mGatedPosition) {
+        try {
+          mGate.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException(e);
+        }
+      }
+      return super.readInternal(position, buffer, length);
+    }
+
+    void open() {
+      mGate.countDown();
+    }
+
+    int getNumReads() {
+      return mNumReads.get();
+    }
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.dora;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.ByteArrayPositionReader;
+import alluxio.PositionReader;
+import alluxio.file.ByteArrayTargetBuffer;
+import alluxio.file.FileRange;
+import alluxio.file.ReadTargetBuffer;
+import alluxio.util.io.BufferUtils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for {@link VirtualBlockPositionReader}.
+ */
+public class VirtualBlockPositionReaderTest {
+  private static final int BLOCK_SIZE = 100;
+  private static final int FILE_LENGTH = 10 * BLOCK_SIZE + 50;
+  private static final byte[] DATA = BufferUtils.getIncreasingByteArray(FILE_LENGTH);
+
+  private final VirtualBlockPlacement mPlacement = new VirtualBlockPlacement(BLOCK_SIZE, 0);
+  private final Map<Long, BlockReader> mBlockReaders = new HashMap<>();
+  private int mMaxBlockReadLength = Integer.MAX_VALUE;
+
+  @Test
+  public void placement() {
+    VirtualBlockPlacement placement = new VirtualBlockPlacement(BLOCK_SIZE, 5 * BLOCK_SIZE);
+    assertFalse(placement.isSplit(5 * BLOCK_SIZE));
+    assertTrue(placement.isSplit(5 * BLOCK_SIZE + 1));
+    assertEquals("/file", placement.getShardKey("/file", 5 * BLOCK_SIZE, 3 * BLOCK_SIZE));
+    assertEquals("/file3", placement.getShardKey("/file", FILE_LENGTH, 3 * BLOCK_SIZE + 1));
+    assertFalse(new VirtualBlockPlacement(0, 0).isSplit(FILE_LENGTH));
+  }
+
+  @Test
+  public void readAcrossBlocks() throws IOException {
+    try (PositionReader reader = createReader()) {
+      byte[] buffer = new byte[300];
+      assertEquals(300, reader.read(50, new ByteArrayTargetBuffer(buffer, 0), 300));
+      assertArrayEquals(Arrays.copyOfRange(DATA, 50, 350), buffer);
+      assertEquals(4, mBlockReaders.size());
+
+      // cut at the end of the file
+      assertEquals(50, reader.read(FILE_LENGTH - 50, new ByteArrayTargetBuffer(buffer, 0), 300));
+      assertArrayEquals(Arrays.copyOfRange(DATA, FILE_LENGTH - 50, FILE_LENGTH),
+          Arrays.copyOf(buffer, 50));
+      assertEquals(-1, reader.read(FILE_LENGTH, new ByteArrayTargetBuffer(buffer, 0), 300));
+    }
+    assertTrue(mBlockReaders.values().stream().allMatch(r -> r.mClosed));
+  }
+
+  @Test
+  public void readVectored() throws IOException {
+    List<FileRange> ranges = Arrays.asList(new FileRange(110, 10), new FileRange(190, 20),
+        new FileRange(150, 20), new FileRange(500, 100));
+    byte[][] buffers = new byte[ranges.size()][];
+    ReadTargetBuffer[] targets = new ReadTargetBuffer[ranges.size()];
+    for (int i = 0; i < ranges.size(); i++) {
+      buffers[i] = new byte[ranges.get(i).getLength()];
+      targets[i] = new ByteArrayTargetBuffer(buffers[i], 0);
+    }
+    try (PositionReader reader = createReader()) {
+      int[] bytesRead = reader.readVectored(ranges, Arrays.asList(targets));
+      for (int i = 0; i < ranges.size(); i++) {
+        FileRange range = ranges.get(i);
+        assertEquals(range.getLength(), bytesRead[i]);
+        assertArrayEquals(Arrays.copyOfRange(DATA, (int) range.getOffset(),
+            (int) range.getOffset() + range.getLength()), buffers[i]);
+      }
+    }
+    // the two ranges in block 1 are read together
+    assertEquals(1, mBlockReaders.get(1L).mVectoredReads);
+    assertEquals(1, mBlockReaders.get(5L).mVectoredReads);
+    assertEquals(0, mBlockReaders.get(2L).mVectoredReads);
+  }
+
+  @Test
+  public void readVectoredAcrossBlocksWithShortReads() throws IOException {
+    mMaxBlockReadLength = 15;
+    List<FileRange> ranges = Arrays.asList(new FileRange(90, 30),
+        new FileRange(FILE_LENGTH - 10, 30), new FileRange(FILE_LENGTH, 10));
+    byte[][] buffers = new byte[ranges.size()][];
+    ReadTargetBuffer[] targets = new ReadTargetBuffer[ranges.size()];
+    for (int i = 0; i < ranges.size(); i++) {
+      buffers[i] = new byte[ranges.get(i).getLength()];
+      targets[i] = new ByteArrayTargetBuffer(buffers[i], 0);
+    }
+    try (PositionReader reader = createReader()) {
+      int[] bytesRead = reader.readVectored(ranges, Arrays.asList(targets));
+      // the range across the block boundary is filled in spite of the short reads
+      assertEquals(30, bytesRead[0]);
+      assertArrayEquals(Arrays.copyOfRange(DATA, 90, 120), buffers[0]);
+      // the ranges past the end of the file are cut, and never report -1
+      assertEquals(10, bytesRead[1]);
+      assertArrayEquals(Arrays.copyOfRange(DATA, FILE_LENGTH - 10, FILE_LENGTH),
+          Arrays.copyOf(buffers[1], 10));
+      assertEquals(0, bytesRead[2]);
+    }
+  }
+
+  @Test
+  public void failedBlock() throws IOException {
+    try (PositionReader reader = createReader()) {
+      reader.read(BLOCK_SIZE, new ByteArrayTargetBuffer(new byte[1], 0), 1);
+      mBlockReaders.get(1L).mFailing = true;
+      byte[] buffer = new byte[BLOCK_SIZE];
+      // the bytes read before the failed block are returned
+      assertEquals(50, reader.read(BLOCK_SIZE - 50, new ByteArrayTargetBuffer(buffer, 0),
+          BLOCK_SIZE));
+      assertArrayEquals(Arrays.copyOfRange(DATA, BLOCK_SIZE - 50, BLOCK_SIZE),
+          Arrays.copyOf(buffer, 50));
+    }
+  }
+
+  @Test
+  public void failedFirstBlock() throws IOException {
+    try (PositionReader reader = createReader()) {
+      reader.read(0, new ByteArrayTargetBuffer(new byte[1], 0), 1);
+      mBlockReaders.get(0L).mFailing = true;
+      assertThrows(IOException.class,
+          () -> reader.read(0, new ByteArrayTargetBuffer(new byte[10], 0), 10));
+    }
+  }
+
+  private PositionReader createReader() {
+    return new VirtualBlockPositionReader(mPlacement, FILE_LENGTH, blockIndex -> {
+      BlockReader reader = new BlockReader(blockIndex, mMaxBlockReadLength);
+      mBlockReaders.put(blockIndex, reader);
+      return reader;
+    });
+  }
+
+  /**
+   * Reader of a virtual block, which fails reading outside its block, and reads at most a given
+   * number of bytes at a time.
+   */
+  private static final class BlockReader extends ByteArrayPositionReader {
+    private final long mBlockIndex;
+    private final int mMaxReadLength;
+    private boolean mFailing;
+    private boolean mClosed;
+    private int mVectoredReads;
+
+    BlockReader(long blockIndex, int maxReadLength) {
+      super(DATA);
+      mBlockIndex = blockIndex;
+      mMaxReadLength = maxReadLength;
+    }
+
+    @Override
+    public int readInternal(long position, ReadTargetBuffer buffer, int length)
+        throws IOException {
+      if (mFailing) {
+        throw new IOException("failed to read block " + mBlockIndex);
+      }
+      assertEquals(mBlockIndex, position / BLOCK_SIZE);
+      assertEquals(mBlockIndex, (position + length - 1) / BLOCK_SIZE);
+      return super.readInternal(position, buffer, Math.min(length, mMaxReadLength));
+    }
+
+    @Override
+    public int[] readVectored(List<FileRange> ranges, List<ReadTargetBuffer> buffers)
+        throws IOException {
+      mVectoredReads++;
+      return super.readVectored(ranges, buffers);
+    }
+
+    @Override
+    public void close() {
+      mClosed = true;
+    }
+  }
+}
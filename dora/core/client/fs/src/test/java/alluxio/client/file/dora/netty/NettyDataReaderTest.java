@@ -11,6 +11,7 @@
 
 package alluxio.client.file.dora.netty;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
@@ -29,6 +30,8 @@ import alluxio.conf.PropertyKey;
 import alluxio.exception.status.AlluxioStatusException;
 import alluxio.exception.status.UnavailableException;
 import alluxio.exception.status.UnknownException;
+import alluxio.file.ByteArrayTargetBuffer;
+import alluxio.file.FileRange;
 import alluxio.network.protocol.RPCMessage;
 import alluxio.network.protocol.RPCProtoMessage;
 import alluxio.network.protocol.databuffer.NettyDataBuffer;
@@ -45,11 +48,14 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeoutException;
 import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
 
 public class NettyDataReaderTest {
   private final ExecutorService mExecutor = Executors.newSingleThreadExecutor();
@@ -114,6 +120,35 @@ public class NettyDataReaderTest {
     checkResult("helloworld".getBytes(), byteArray);
   }
 
+  @Test
+  public void readVectored() throws Exception {
+    Protocol.ReadRequest.Builder builder = mRequestBuilder.clone().setOpenUfsBlockOptions(
+        Protocol.OpenUfsBlockOptions.newBuilder().setBlockSize(20));
+    mReader = new NettyDataReader(mFsContext, mWorkerAddress, builder);
+    ServerState start = new WaitForRequestState(builder.clone()
+        .addRanges(Protocol.ReadRange.newBuilder().setOffset(10).setLength(5))
+        .addRanges(Protocol.ReadRange.newBuilder().setOffset(0).setLength(5))
+        // the last range is cut at the end of the file
+        .addRanges(Protocol.ReadRange.newBuilder().setOffset(18).setLength(2))
+        .setLength(12)
+        .build());
+    start.andThen(new SendDataState("hellowo".getBytes()))
+        .andThen(new SendDataState("rld!!".getBytes()))
+        .andThen(new EofState());
+    Future<Throwable> serverFault = mStateDriver.run(start);
+    List<byte[]> arrays = Arrays.asList(new byte[5], new byte[5], new byte[5]);
+    int[] bytesRead = mReader.readVectored(
+        Arrays.asList(new FileRange(10, 5), new FileRange(0, 5), new FileRange(18, 5)),
+        arrays.stream().map(array -> new ByteArrayTargetBuffer(array, 0))
+            .collect(Collectors.toList()));
+
+    assertNull(serverFault.get());
+    assertArrayEquals(new int[] {5, 5, 2}, bytesRead);
+    checkResult("hello".getBytes(), arrays.get(0));
+    checkResult("world".getBytes(), arrays.get(1));
+    checkResult("!!".getBytes(), arrays.get(2));
+  }
+
   @Test
   public void serverError() throws Exception {
     final long offset = 0;
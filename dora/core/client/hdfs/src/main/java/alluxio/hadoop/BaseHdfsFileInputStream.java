@@ -17,6 +17,7 @@ import alluxio.client.file.FileSystem;
 import alluxio.exception.AlluxioException;
 import alluxio.exception.ExceptionMessage;
 import alluxio.exception.FileDoesNotExistException;
+import alluxio.file.FileRange;
 
 import org.apache.hadoop.fs.ByteBufferReadable;
 import org.apache.hadoop.fs.FileSystem.Statistics;
@@ -30,6 +31,9 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
 import javax.annotation.concurrent.NotThreadSafe;
 
 /**
@@ -175,6 +179,38 @@ public class BaseHdfsFileInputStream extends InputStream implements Seekable, Po
     }
   }
 
+  /**
+   * Reads several ranges of the file at once, so that they are fetched from the worker in a
+   * single request. This mirrors {@code PositionedReadable#readVectored} which was added in
+   * Hadoop 3.3.5, except that the data is returned after all the ranges have been read.
+   *
+   * @param ranges the ranges to read
+   * @param allocate the function to allocate the buffer of a range given its length
+   * @return the buffers holding the data of the ranges, in the order of the ranges
+   * @throws EOFException if a range goes past the end of the file
+   */
+  public List<ByteBuffer> readVectored(List<FileRange> ranges, IntFunction<ByteBuffer> allocate)
+      throws IOException {
+    if (mClosed) {
+      throw new IOException(ExceptionMessage.READ_CLOSED_STREAM.getMessage());
+    }
+    List<ByteBuffer> buffers = ranges.stream()
+        .map(range -> allocate.apply(range.getLength())).collect(Collectors.toList());
+    int[] bytesRead = mInputStream.positionedReadVectored(ranges, buffers);
+    long totalBytesRead = 0;
+    for (int i = 0; i < ranges.size(); i++) {
+      if (bytesRead[i] < ranges.get(i).getLength()) {
+        throw new EOFException(String.format("%s goes past the end of the file", ranges.get(i)));
+      }
+      buffers.get(i).flip();
+      totalBytesRead += bytesRead[i];
+    }
+    if (mStatistics != null) {
+      mStatistics.incrementBytesRead(totalBytesRead);
+    }
+    return buffers;
+  }
+
   @Override
   public void seek(long pos) throws IOException {
     try {
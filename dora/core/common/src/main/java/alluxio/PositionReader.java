@@ -13,6 +13,7 @@ package alluxio;
 
 import alluxio.file.ByteArrayTargetBuffer;
 import alluxio.file.ByteBufferTargetBuffer;
+import alluxio.file.FileRange;
 import alluxio.file.NettyBufTargetBuffer;
 import alluxio.file.ReadTargetBuffer;
 
@@ -22,6 +23,7 @@ import io.netty.buffer.ByteBuf;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.List;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
@@ -99,6 +101,37 @@ public interface PositionReader extends Closeable {
   int readInternal(long position, ReadTargetBuffer buffer, int length)
       throws IOException;
 
+  /**
+   * Reads several ranges of the file, each into its own buffer. Readers fetching data over the
+   * network may read all the ranges in a single request, the default implementation reads them
+   * one by one.
+   *
+   * @param ranges the ranges to read
+   * @param buffers the buffers to read the ranges into, the i-th range into the i-th buffer,
+   *                each with enough space for the length of its range
+   * @return the number of bytes read into each buffer, which is less than the length of the
+   *         range only if the range goes past the end of the file
+   */
+  default int[] readVectored(List<FileRange> ranges, List<ReadTargetBuffer> buffers)
+      throws IOException {
+    Preconditions.checkArgument(ranges.size() == buffers.size(),
+        "number of ranges %s does not match number of buffers %s", ranges.size(), buffers.size());
+    int[] bytesRead = new int[ranges.size()];
+    for (int i = 0; i < ranges.size(); i++) {
+      FileRange range = ranges.get(i);
+      ReadTargetBuffer buffer = buffers.get(i);
+      while (bytesRead[i] < range.getLength()) {
+        int read = read(range.getOffset() + bytesRead[i], buffer,
+            range.getLength() - bytesRead[i]);
+        if (read <= 0) {
+          break;
+        }
+        bytesRead[i] += read;
+      }
+    }
+    return bytesRead;
+  }
+
   /**
    * Closes the positon reader and do cleanup job if any.
    */
@@ -19,6 +19,10 @@ public enum PageStoreType {
    * A simple store with pages on the local filesystem.
    */
   LOCAL(PageStoreType.LOCAL_OVERHEAD_RATIO),
+  /**
+   * A store packing pages into large pre-allocated segment files on the local filesystem.
+   */
+  SEGMENT(PageStoreType.SEGMENT_OVERHEAD_RATIO),
   /**
    * A simple store with pages on the memory (HeapByteBuffer).
    */
@@ -32,6 +36,10 @@ public enum PageStoreType {
   // i.e., with 1GB space allocated, we
   // expect no more than 1024MB / (1 + LOCAL_OVERHEAD_RATIO) logical data stored
   private static final double LOCAL_OVERHEAD_RATIO = 0.05;
+  // The room reserved for the segment and record headers, and the pre-allocated active segment.
+  // Segments also keep the bytes of deleted pages until they are compacted, the room for which
+  // depends on the compaction ratio, see getSegmentOverheadRatio
+  private static final double SEGMENT_OVERHEAD_RATIO = 0.05;
   private final double mOverheadRatio;
 
   /**
@@ -47,4 +55,20 @@ public enum PageStoreType {
   public double getOverheadRatio() {
     return mOverheadRatio;
   }
+
+  /**
+   * A sealed segment is only compacted once the fraction of its bytes belonging to deleted pages
+   * exceeds the compaction ratio, so the segments may take up to live / (1 - compaction ratio)
+   * bytes on disk.
+   *
+   * @param compactionRatio the compaction ratio of the segmented page store
+   * @return overhead ratio of the segmented page store
+   */
+  public static double getSegmentOverheadRatio(double compactionRatio) {
+    if (compactionRatio < 0 || compactionRatio >= 1) {
+      throw new IllegalArgumentException(
+          "segment compaction ratio must be in [0, 1): " + compactionRatio);
+    }
+    return SEGMENT_OVERHEAD_RATIO + compactionRatio / (1 - compactionRatio);
+  }
 }
@@ -1313,6 +1313,16 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.SERVER)
           .build();
+  public static final PropertyKey UNDERFS_OBJECT_STORE_LISTING_PARALLELISM =
+      intBuilder(Name.UNDERFS_OBJECT_STORE_LISTING_PARALLELISM)
+          .setDefaultValue(8)
+          .setDescription("The max number of subdirectories of a directory listed in parallel "
+              + "by a recursive listing of an object store UFS. The directory is listed first "
+              + "with a delimiter, and each of its subdirectories is then listed recursively "
+              + "ahead of the iteration of the listing. 1 lists the directory sequentially.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.ALL)
+          .build();
   public static final PropertyKey UNDERFS_OBJECT_STORE_SERVICE_THREADS =
       intBuilder(Name.UNDERFS_OBJECT_STORE_SERVICE_THREADS)
           .setDefaultValue(20)
@@ -2308,6 +2318,33 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.MASTER)
           .build();
+  public static final PropertyKey MASTER_SCHEDULER_SWEEP_INTERVAL =
+      durationBuilder(Name.MASTER_SCHEDULER_SWEEP_INTERVAL)
+          .setDefaultValue("2s")
+          .setDescription("The interval between the sweeps of the scheduler over all the running "
+              + "jobs. The jobs are processed when their tasks complete or workers change, and "
+              + "the sweeps only catch up with the events missed.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
+  public static final PropertyKey MASTER_SCHEDULER_WORKER_INFLIGHT_ADAPTIVE_ENABLED =
+      booleanBuilder(Name.MASTER_SCHEDULER_WORKER_INFLIGHT_ADAPTIVE_ENABLED)
+          .setDefaultValue(true)
+          .setDescription("If set to true, the scheduler adapts the number of tasks running "
+          + "concurrently on each worker to the latency and failures of the completed tasks, "
+          + "up to " + Name.MASTER_SCHEDULER_WORKER_INFLIGHT_TASKS_MAX + ". Otherwise every "
+          + "worker always runs up to that many tasks at a time.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
+  public static final PropertyKey MASTER_SCHEDULER_WORKER_INFLIGHT_TASKS_MAX =
+      intBuilder(Name.MASTER_SCHEDULER_WORKER_INFLIGHT_TASKS_MAX)
+          .setDefaultValue(4)
+          .setDescription("The maximum number of tasks the scheduler runs concurrently on a "
+          + "single worker. Set it to 1 to run the tasks of a worker one after another.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
   public static final PropertyKey MASTER_DORA_LOAD_JOB_TOTAL_FAILURE_COUNT_THRESHOLD =
       intBuilder(Name.MASTER_DORA_LOAD_JOB_TOTAL_FAILURE_COUNT_THRESHOLD)
           .setDefaultValue(-1)
@@ -4066,6 +4103,32 @@ public final class PropertyKey implements Comparable<PropertyKey> {
       .setScope(Scope.WORKER)
       .setValueValidationFunction(CHECK_FILE_EXISTS)
       .build();
+  public static final PropertyKey WORKER_LOAD_UFS_READ_SIZE =
+      dataSizeBuilder(Name.WORKER_LOAD_UFS_READ_SIZE)
+          .setDefaultValue("4MB")
+          .setDescription("The size of each read from the UFS when loading a file for a load "
+              + "job, rounded down to a multiple of the page size. The data read is put into "
+              + "the page store page by page without being copied.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_LOAD_UFS_READ_PARALLELISM =
+      intBuilder(Name.WORKER_LOAD_UFS_READ_PARALLELISM)
+          .setDefaultValue(4)
+          .setDescription("The max number of concurrent UFS reads when loading a range of a "
+              + "file for a load job. The range is split into this many parts which are loaded "
+              + "in parallel.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_LOAD_UFS_READ_THREADS =
+      intBuilder(Name.WORKER_LOAD_UFS_READ_THREADS)
+          .setDefaultValue(32)
+          .setDescription("The number of threads shared by all the load jobs to read the "
+              + "parts of files loaded in parallel.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_MASTER_CONNECT_RETRY_TIMEOUT =
       durationBuilder(Name.WORKER_MASTER_CONNECT_RETRY_TIMEOUT)
           .setDescription("Retry period before workers give up on connecting to master and exit.")
@@ -4103,6 +4166,23 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_NETWORK_GRPC_LIST_STATUS_QUEUE_SIZE =
+      intBuilder(Name.WORKER_NETWORK_GRPC_LIST_STATUS_QUEUE_SIZE)
+          .setDefaultValue(256)
+          .setDescription("The maximum number of directory listings waiting for a thread to "
+              + "stream their results to the clients. The listings beyond it are rejected "
+              + "with RESOURCE_EXHAUSTED, so that the clients back off.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_NETWORK_GRPC_LIST_STATUS_THREADS_MAX =
+      intBuilder(Name.WORKER_NETWORK_GRPC_LIST_STATUS_THREADS_MAX)
+          .setDefaultValue(64)
+          .setDescription("The maximum number of threads used to stream the results of "
+              + "directory listings to the clients, apart from the threads reading files.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_NETWORK_GRPC_READER_THREADS_MAX =
       intBuilder(Name.WORKER_NETWORK_GRPC_READER_THREADS_MAX)
           .setDefaultValue(2048)
@@ -4442,7 +4522,9 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setDescription("The strategy that worker uses to evict local cached pages when running "
               + "out of space. Currently valid options include "
               + "`alluxio.client.file.cache.evictor.LRUCacheEvictor`,"
-              + "`alluxio.client.file.cache.evictor.LFUCacheEvictor`.")
+              + "`alluxio.client.file.cache.evictor.LFUCacheEvictor`,"
+              + "`alluxio.client.file.cache.evictor.TinyLfuCacheEvictor`,"
+              + "`alluxio.client.file.cache.evictor.BufferedLRUCacheEvictor`.")
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
@@ -4453,6 +4535,15 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_PAGE_STORE_EVICTOR_TINYLFU_WINDOW_RATIO =
+      doubleBuilder(Name.WORKER_PAGE_STORE_EVICTOR_TINYLFU_WINDOW_RATIO)
+          .setDefaultValue(0.01)
+          .setDescription("The share of the worker cache used as the admission window of the "
+              + "TinyLFU evictor. New pages stay in the window until they are either admitted "
+              + "into the main space or evicted, based on their estimated access frequency.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_PAGE_STORE_EVICTOR_NONDETERMINISTIC_ENABLED =
       booleanBuilder(Name.WORKER_PAGE_STORE_EVICTOR_NONDETERMINISTIC_ENABLED)
           .setDefaultValue(false)
@@ -4476,7 +4567,9 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setDefaultValue(0.1)
           .setDescription("A fraction value representing the storage overhead writing to disk. "
               + "For example, with 1GB allocated cache space, and 10% storage overhead we expect "
-              + "no more than 1024MB / (1 + 10%) user data to store.")
+              + "no more than 1024MB / (1 + 10%) user data to store. Unless set explicitly, "
+              + "the `SEGMENT` page store derives it from its segment compaction ratio, as "
+              + "segments keep the bytes of deleted pages until they are compacted.")
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
@@ -4487,6 +4580,44 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_PAGE_STORE_METASTORE_COMPACT_ENABLED =
+      booleanBuilder(Name.WORKER_PAGE_STORE_METASTORE_COMPACT_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether to keep the page metadata in compact primitive arrays "
+              + "instead of an object per page, to cut the heap taken by the metadata of "
+              + "caches with many pages. Ignored when cache quota is enabled, and takes "
+              + "precedence over the sharded metastore.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_METASTORE_SHARDED_ENABLED =
+      booleanBuilder(Name.WORKER_PAGE_STORE_METASTORE_SHARDED_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether to keep the page metadata in a lock-striped concurrent "
+              + "store, so that page lookups do not contend on a global lock. "
+              + "Ignored when cache quota is enabled.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_METASTORE_SNAPSHOT_ENABLED =
+      booleanBuilder(Name.WORKER_PAGE_STORE_METASTORE_SNAPSHOT_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether to persist the metadata of the pages of each local page "
+              + "store directory, as a snapshot written periodically and a log of the pages "
+              + "added and removed since, so that a restart restores the pages from them "
+              + "instead of walking all the page files.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_METASTORE_SNAPSHOT_INTERVAL =
+      durationBuilder(Name.WORKER_PAGE_STORE_METASTORE_SNAPSHOT_INTERVAL)
+          .setDefaultValue("10min")
+          .setDescription("The interval between the snapshots of the metadata of the pages, "
+              + "when " + Name.WORKER_PAGE_STORE_METASTORE_SNAPSHOT_ENABLED + " is true. A longer "
+              + "interval lets the log of the pages added and removed grow longer.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_PAGE_STORE_QUOTA_ENABLED =
       booleanBuilder(Name.WORKER_PAGE_STORE_QUOTA_ENABLED)
           .setDefaultValue(false)
@@ -4501,6 +4632,23 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_PAGE_STORE_SEGMENT_STORE_SEGMENT_SIZE =
+      dataSizeBuilder(Name.WORKER_PAGE_STORE_SEGMENT_STORE_SEGMENT_SIZE)
+          .setDefaultValue("256MB")
+          .setDescription("Size of each pre-allocated segment file of the `SEGMENT` page store. "
+              + "Pages are appended into segments, so a larger value means fewer files on disk "
+              + "but more data rewritten when a segment is compacted.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_SEGMENT_STORE_COMPACTION_RATIO =
+      doubleBuilder(Name.WORKER_PAGE_STORE_SEGMENT_STORE_COMPACTION_RATIO)
+          .setDefaultValue(0.5)
+          .setDescription("A sealed segment of the `SEGMENT` page store is compacted once the "
+              + "fraction of its bytes belonging to deleted pages exceeds this value.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_PAGE_STORE_TIMEOUT_DURATION =
       durationBuilder(Name.WORKER_PAGE_STORE_TIMEOUT_DURATION)
           .setDefaultValue("-1")
@@ -4523,9 +4671,11 @@ public final class PropertyKey implements Comparable<PropertyKey> {
   public static final PropertyKey WORKER_PAGE_STORE_TYPE =
       enumBuilder(Name.WORKER_PAGE_STORE_TYPE, PageStoreType.class)
           .setDefaultValue(PageStoreType.LOCAL)
-          .setDescription("The type of page store to use for worker page store. Can be either "
-              + "`LOCAL` or `MEM`. The `LOCAL` page store stores all pages in a directory, "
-              + "the `MEM` page store stores all pages in memory.")
+          .setDescription("The type of page store to use for worker page store. Can be "
+              + "`LOCAL`, `SEGMENT` or `MEM`. The `LOCAL` page store stores all pages in a "
+              + "directory with one file per page, the `SEGMENT` page store packs pages into "
+              + "large pre-allocated segment files, the `MEM` page store stores all pages in "
+              + "memory.")
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
@@ -4702,6 +4852,17 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_UFS_READ_MAX_PAGES =
+      intBuilder(Name.WORKER_UFS_READ_MAX_PAGES)
+          .setDefaultValue(4)
+          .setDescription("The max number of pages read from the UFS in a single request "
+              + "when reading a file misses the page store. A miss also reads the following "
+              + "pages missing from the page store, up to the next multiple of this number of "
+              + "pages. Concurrent misses on any of these pages wait for this request instead "
+              + "of reading from the UFS themselves. Set to 1 to only read the requested page.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_RPC_EXECUTOR_TYPE =
       enumBuilder(Name.WORKER_RPC_EXECUTOR_TYPE, RpcExecutorType.class)
           .setDefaultValue(RpcExecutorType.TPE)
@@ -5409,7 +5570,9 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setDescription("The strategy that client uses to evict local cached pages when running "
               + "out of space. Currently valid options include "
               + "`alluxio.client.file.cache.evictor.LRUCacheEvictor`,"
-              + "`alluxio.client.file.cache.evictor.LFUCacheEvictor`.")
+              + "`alluxio.client.file.cache.evictor.LFUCacheEvictor`,"
+              + "`alluxio.client.file.cache.evictor.TinyLfuCacheEvictor`,"
+              + "`alluxio.client.file.cache.evictor.BufferedLRUCacheEvictor`.")
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.CLIENT)
           .build();
@@ -5420,6 +5583,15 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey USER_CLIENT_CACHE_EVICTOR_TINYLFU_WINDOW_RATIO =
+      doubleBuilder(Name.USER_CLIENT_CACHE_EVICTOR_TINYLFU_WINDOW_RATIO)
+          .setDefaultValue(0.01)
+          .setDescription("The share of the client cache used as the admission window of the "
+              + "TinyLFU evictor. New pages stay in the window until they are either admitted "
+              + "into the main space or evicted, based on their estimated access frequency.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_CLIENT_CACHE_EVICTOR_NONDETERMINISTIC_ENABLED =
       booleanBuilder(Name.USER_CLIENT_CACHE_EVICTOR_NONDETERMINISTIC_ENABLED)
           .setDefaultValue(false)
@@ -5550,7 +5722,9 @@ public final class PropertyKey implements Comparable<PropertyKey> {
       doubleBuilder(Name.USER_CLIENT_CACHE_STORE_OVERHEAD)
           .setDescription("A fraction value representing the storage overhead writing to disk. "
               + "For example, with 1GB allocated cache space, and 10% storage overhead we expect "
-              + "no more than 1024MB / (1 + 10%) user data to store.")
+              + "no more than 1024MB / (1 + 10%) user data to store. Unless set explicitly, "
+              + "the `SEGMENT` page store derives it from its segment compaction ratio, as "
+              + "segments keep the bytes of deleted pages until they are compacted.")
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.CLIENT)
           .build();
@@ -5572,6 +5746,62 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey USER_CLIENT_CACHE_SEGMENT_STORE_SEGMENT_SIZE =
+      dataSizeBuilder(Name.USER_CLIENT_CACHE_SEGMENT_STORE_SEGMENT_SIZE)
+          .setDefaultValue("256MB")
+          .setDescription("Size of each pre-allocated segment file of the `SEGMENT` page store "
+              + "of the client-side cache. Pages are appended into segments, so a larger value "
+              + "means fewer files on disk but more data rewritten when a segment is compacted.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_CLIENT_CACHE_SEGMENT_STORE_COMPACTION_RATIO =
+      doubleBuilder(Name.USER_CLIENT_CACHE_SEGMENT_STORE_COMPACTION_RATIO)
+          .setDefaultValue(0.5)
+          .setDescription("A sealed segment of the `SEGMENT` page store of the client-side "
+              + "cache is compacted once the fraction of its bytes belonging to deleted pages "
+              + "exceeds this value.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_CLIENT_CACHE_METASTORE_COMPACT_ENABLED =
+      booleanBuilder(Name.USER_CLIENT_CACHE_METASTORE_COMPACT_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether to keep the page metadata in compact primitive arrays "
+              + "instead of an object per page, to cut the heap taken by the metadata of "
+              + "caches with many pages. Ignored when cache quota is enabled, and takes "
+              + "precedence over the sharded metastore.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_CLIENT_CACHE_METASTORE_SHARDED_ENABLED =
+      booleanBuilder(Name.USER_CLIENT_CACHE_METASTORE_SHARDED_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether to keep the page metadata in a lock-striped concurrent "
+              + "store, so that page lookups do not contend on a global lock. "
+              + "Ignored when cache quota is enabled.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_CLIENT_CACHE_METASTORE_SNAPSHOT_ENABLED =
+      booleanBuilder(Name.USER_CLIENT_CACHE_METASTORE_SNAPSHOT_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether to persist the metadata of the pages of each local page "
+              + "store directory, as a snapshot written periodically and a log of the pages "
+              + "added and removed since, so that a restart restores the pages from them "
+              + "instead of walking all the page files.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_CLIENT_CACHE_METASTORE_SNAPSHOT_INTERVAL =
+      durationBuilder(Name.USER_CLIENT_CACHE_METASTORE_SNAPSHOT_INTERVAL)
+          .setDefaultValue("10min")
+          .setDescription("The interval between the snapshots of the metadata of the pages, "
+              + "when " + Name.USER_CLIENT_CACHE_METASTORE_SNAPSHOT_ENABLED + " is true. A longer "
+              + "interval lets the log of the pages added and removed grow longer.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_CLIENT_CACHE_QUOTA_ENABLED =
       booleanBuilder(Name.USER_CLIENT_CACHE_QUOTA_ENABLED)
           .setDefaultValue(false)
@@ -5629,6 +5859,44 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey USER_BOUNDED_LOAD_HASH_LOAD_FACTOR =
+      doubleBuilder(Name.USER_BOUNDED_LOAD_HASH_LOAD_FACTOR)
+          .setDefaultValue(1.25)
+          .setDescription("When using `alluxio.client.file.dora.BoundedLoadConsistentHashPolicy`, "
+              + "the max load of a worker relative to the average load of the workers. A file "
+              + "whose worker on the hash ring is above this bound is served by the next worker "
+              + "on the ring below it. The load of a worker is the recent rate of requests the "
+              + "client sent to it.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_BOUNDED_LOAD_HASH_LOAD_HALF_LIFE =
+      durationBuilder(Name.USER_BOUNDED_LOAD_HASH_LOAD_HALF_LIFE)
+          .setDefaultValue("10s")
+          .setDescription("When using `alluxio.client.file.dora.BoundedLoadConsistentHashPolicy`, "
+              + "the half life of the requests counted in the recent load of workers and files.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_BOUNDED_LOAD_HASH_HOT_KEY_RATE =
+      doubleBuilder(Name.USER_BOUNDED_LOAD_HASH_HOT_KEY_RATE)
+          .setDefaultValue(50.0)
+          .setDescription("When using `alluxio.client.file.dora.BoundedLoadConsistentHashPolicy`, "
+              + "the min rate of requests per second to a file for it to be hot. The requests "
+              + "to a hot file are spread over the least loaded of its first workers on the hash "
+              + "ring, see " + Name.USER_BOUNDED_LOAD_HASH_HOT_KEY_REPLICAS + ".")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_BOUNDED_LOAD_HASH_HOT_KEY_REPLICAS =
+      intBuilder(Name.USER_BOUNDED_LOAD_HASH_HOT_KEY_REPLICAS)
+          .setDefaultValue(3)
+          .setDescription("When using `alluxio.client.file.dora.BoundedLoadConsistentHashPolicy`, "
+              + "the number of workers on the hash ring the requests to a hot file are spread "
+              + "over.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_CONSISTENT_HASH_VIRTUAL_NODE_COUNT_PER_WORKER =
       intBuilder(Name.USER_CONSISTENT_HASH_VIRTUAL_NODE_COUNT_PER_WORKER)
           .setDefaultValue(2000)
@@ -5829,6 +6097,49 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setDescription("The preload data size to load on worker.")
           .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
           .build();
+  public static final PropertyKey USER_POSITION_READER_READAHEAD_ENABLED =
+      booleanBuilder(Name.USER_POSITION_READER_READAHEAD_ENABLED)
+          .setScope(Scope.CLIENT)
+          .setDefaultValue(false)
+          .setDescription("If enabled, sequential reads of a file are served by asynchronous "
+              + "readahead shared by all the streams of the client reading the same file, "
+              + "instead of by the synchronous prefetch of each stream.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .build();
+  public static final PropertyKey USER_POSITION_READER_READAHEAD_CHUNK_SIZE =
+      dataSizeBuilder(Name.USER_POSITION_READER_READAHEAD_CHUNK_SIZE)
+          .setScope(Scope.CLIENT)
+          .setDefaultValue("1MB")
+          .setDescription("The size of the chunks read ahead from the workers. Chunks are "
+              + "aligned to multiples of this size within a file.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .build();
+  public static final PropertyKey USER_POSITION_READER_READAHEAD_WINDOW_MAX_CHUNKS =
+      intBuilder(Name.USER_POSITION_READER_READAHEAD_WINDOW_MAX_CHUNKS)
+          .setScope(Scope.CLIENT)
+          .setDefaultValue(8)
+          .setDescription("The max number of chunks a sequential stream keeps in flight ahead "
+              + "of its position. The window starts at one chunk and doubles with each "
+              + "sequential read.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .build();
+  public static final PropertyKey USER_POSITION_READER_READAHEAD_BUFFER_SIZE =
+      dataSizeBuilder(Name.USER_POSITION_READER_READAHEAD_BUFFER_SIZE)
+          .setScope(Scope.CLIENT)
+          .setDefaultValue("64MB")
+          .setDescription("The max amount of off-heap memory used by the readahead chunks of "
+              + "a client. The least recently used chunks are released to make room for new "
+              + "ones, and no readahead is issued if all of them are still in flight.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .build();
+  public static final PropertyKey USER_POSITION_READER_READAHEAD_THREADS =
+      intBuilder(Name.USER_POSITION_READER_READAHEAD_THREADS)
+          .setScope(Scope.CLIENT)
+          .setDefaultValue(8)
+          .setDescription("The number of threads issuing readahead requests to the workers, "
+              + "i.e. the max number of readahead chunks in flight for a client.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .build();
   public static final PropertyKey USER_STREAMING_DATA_READ_TIMEOUT =
       durationBuilder(Name.USER_STREAMING_DATA_READ_TIMEOUT)
           .setAlias("alluxio.user.network.data.timeout.ms", Name.USER_NETWORK_DATA_TIMEOUT,
@@ -6229,7 +6540,9 @@ public final class PropertyKey implements Comparable<PropertyKey> {
       classBuilder(Name.USER_WORKER_SELECTION_POLICY)
           .setDefaultValue("alluxio.client.file.dora.ConsistentHashPolicy")
           .setDescription("The policy a client uses to map a file path to a worker address. "
-              + "The only option is `alluxio.client.file.dora.ConsistentHashPolicy`. "
+              + "The options are `alluxio.client.file.dora.ConsistentHashPolicy` and "
+              + "`alluxio.client.file.dora.BoundedLoadConsistentHashPolicy`, which also "
+              + "bounds the load of each worker and spreads the requests to hot files. "
               + "Other options are for internal tests only and not for real deployments.")
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.CLIENT)
@@ -6279,6 +6592,60 @@ public final class PropertyKey implements Comparable<PropertyKey> {
   //
   // FUSE integration related properties
   //
+  public static final PropertyKey FUSE_ATTR_CACHE_EXPIRATION_TIME =
+      durationBuilder(Name.FUSE_ATTR_CACHE_EXPIRATION_TIME)
+          .setDefaultValue("0s")
+          .setDescription(format("The FUSE attributes of a path, e.g. from the statuses "
+              + "of a directory listing, are cached for this time period, so the getattr "
+              + "calls following a readdir do not each fetch the status of a file. "
+              + "The cached attributes are dropped earlier when the path is changed through "
+              + "the FUSE mount, when the worker owning the path finds it changed in the UFS "
+              + "if %s is enabled, or when the cache size is over the limit of %s. "
+              + "The attribute cache is disabled by default, as the cached attributes may be "
+              + "stale for this time period when the path is changed by other clients. "
+              + "Set this property to a positive duration, e.g. 10s, to enable it.",
+              Name.FUSE_ATTR_CACHE_INVALIDATION_WATCH_ENABLED, Name.FUSE_ATTR_CACHE_MAX_SIZE))
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey FUSE_ATTR_CACHE_INVALIDATION_WATCH_ENABLED =
+      booleanBuilder(Name.FUSE_ATTR_CACHE_INVALIDATION_WATCH_ENABLED)
+          .setDefaultValue(true)
+          .setDescription("If true, the FUSE attribute cache watches the invalidations of the "
+              + "metadata by the workers, and drops the cached attributes of the paths found "
+              + "changed or removed in the UFS by the workers before they expire.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey FUSE_ATTR_CACHE_INVALIDATION_WATCH_INTERVAL =
+      durationBuilder(Name.FUSE_ATTR_CACHE_INVALIDATION_WATCH_INTERVAL)
+          .setDefaultValue("10s")
+          .setDescription("The interval to watch the metadata invalidations of the workers "
+              + "joining the cluster, and of the workers whose watch failed.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey FUSE_ATTR_CACHE_MAX_SIZE =
+      intBuilder(Name.FUSE_ATTR_CACHE_MAX_SIZE)
+          .setDefaultValue(100000)
+          .setDescription("Maximum number of paths with cached FUSE attributes. "
+              + "A value of 0 disables the attribute cache.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey FUSE_ATTR_CACHE_NEGATIVE_EXPIRATION_TIME =
+      durationBuilder(Name.FUSE_ATTR_CACHE_NEGATIVE_EXPIRATION_TIME)
+          .setDefaultValue("0s")
+          .setDescription(format("The paths found not existing are cached for this time "
+              + "period, so the repeated lookups of missing paths, e.g. of the files searched "
+              + "in several directories, do not each fetch the status of the path. "
+              + "A value of 0, the default, disables caching the missing paths, as a path "
+              + "created by other clients stays missing for this time period. Missing paths "
+              + "are only cached when the attribute cache is enabled by %s.",
+              Name.FUSE_ATTR_CACHE_EXPIRATION_TIME))
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey FUSE_AUTH_POLICY_CLASS =
       classBuilder(Name.FUSE_AUTH_POLICY_CLASS)
           .setDefaultValue("alluxio.fuse.auth.LaunchUserGroupAuthPolicy")
@@ -6391,6 +6758,50 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.ALL)
           .build();
+  public static final PropertyKey FUSE_READAHEAD_BUFFER_SIZE =
+      dataSizeBuilder(Name.FUSE_READAHEAD_BUFFER_SIZE)
+          .setDefaultValue("256MB")
+          .setDescription("The max amount of off-heap memory taken by the readahead chunks of "
+              + "all the files opened through FUSE. No chunk is read ahead while the limit is "
+              + "reached, the reads are then served directly from the workers.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey FUSE_READAHEAD_CHUNK_SIZE =
+      dataSizeBuilder(Name.FUSE_READAHEAD_CHUNK_SIZE)
+          .setDefaultValue("4MB")
+          .setDescription("The size of the chunks read ahead of a sequential FUSE reader. "
+              + "Chunks are aligned to multiples of this size within a file.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey FUSE_READAHEAD_ENABLED =
+      booleanBuilder(Name.FUSE_READAHEAD_ENABLED)
+          .setDefaultValue(false)
+          .setDescription(format("If true, the files opened for reading with %s enabled are "
+              + "read ahead of their sequential readers in chunks of %s, asynchronously, and "
+              + "the reads of the kernel are served from the chunks. Random reads are served "
+              + "directly from the workers.", Name.FUSE_POSITION_READ_ENABLED,
+              Name.FUSE_READAHEAD_CHUNK_SIZE))
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey FUSE_READAHEAD_MAX_CHUNKS =
+      intBuilder(Name.FUSE_READAHEAD_MAX_CHUNKS)
+          .setDefaultValue(4)
+          .setDescription("The max number of chunks kept read ahead of the position of a "
+              + "sequential reader of a file opened through FUSE.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey FUSE_READAHEAD_THREADS =
+      intBuilder(Name.FUSE_READAHEAD_THREADS)
+          .setDefaultValue(16)
+          .setDescription("The number of threads reading the chunks ahead of the FUSE readers, "
+              + "i.e. the max number of readahead chunks in flight from the workers.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey FUSE_STAT_CACHE_REFRESH_INTERVAL =
       durationBuilder(Name.FUSE_STAT_CACHE_REFRESH_INTERVAL)
           .setDefaultValue("5min")
@@ -7092,6 +7503,47 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setScope(Scope.WORKER)
           .build();
 
+  public static final PropertyKey DORA_WORKER_METASTORE_CACHE_SIZE =
+      dataSizeBuilder(Name.DORA_WORKER_METASTORE_CACHE_SIZE)
+          .setDefaultValue("64MB")
+          .setDescription("The max size of the on-heap cache of Dora metadata in front of "
+              + "RocksDB, measured by the serialized size of the cached file statuses. The cache "
+              + "is written through and follows the TTL of the metadata in RocksDB. "
+              + "0 disables the cache.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+
+  public static final PropertyKey DORA_WORKER_METASTORE_LISTING_ENABLED =
+      booleanBuilder(Name.DORA_WORKER_METASTORE_LISTING_ENABLED)
+          .setDefaultValue(true)
+          .setDescription("Whether to keep the UFS directory listings, including recursive "
+              + "ones, in an ordered index in RocksDB, so that listings and partial listings "
+              + "are served from the index within "
+              + Name.DORA_UFS_LIST_STATUS_CACHE_TTL + ", also after the worker restarts.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+
+  public static final PropertyKey DORA_WORKER_METASTORE_SWEEP_INTERVAL =
+      durationBuilder(Name.DORA_WORKER_METASTORE_SWEEP_INTERVAL)
+          .setDefaultValue("1h")
+          .setDescription("The interval between the background sweeps removing the expired "
+              + "metadata and directory listings from the metastore of the worker, so that "
+              + "entries which are never read again do not stay forever. "
+              + "0 disables the sweeps.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey DORA_WORKER_METASTORE_SWEEP_RATE =
+      intBuilder(Name.DORA_WORKER_METASTORE_SWEEP_RATE)
+          .setDefaultValue(10000)
+          .setDescription("The max number of metastore entries checked per second by the "
+              + "background sweep, to keep the sweep from competing with metadata lookups.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+
   public static final PropertyKey DORA_WORKER_METASTORE_ROCKSDB_TTL =
       durationBuilder(Name.DORA_WORKER_METASTORE_ROCKSDB_TTL)
           .setDefaultValue("-1s") // -1s means no expiry
@@ -7155,6 +7607,16 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.ENFORCE)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey DORA_UFS_LIST_STATUS_STREAM_CACHE_NR_FILES =
+      intBuilder(Name.DORA_UFS_LIST_STATUS_STREAM_CACHE_NR_FILES)
+          .setDefaultValue(100000)
+          .setDescription("The max number of files and directories of a UFS listing streamed "
+              + "to a client which is kept to be cached once the listing is done. Larger "
+              + "listings are streamed from the UFS without being cached, so that the worker "
+              + "never holds them in memory. 0 disables caching streamed listings.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey DORA_READ_VIRTUAL_BLOCK_SIZE =
       dataSizeBuilder(Name.DORA_READ_VIRTUAL_BLOCK_SIZE)
           .setDefaultValue("0MB")
@@ -7165,6 +7627,17 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.ENFORCE)
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey DORA_READ_VIRTUAL_BLOCK_THRESHOLD =
+      dataSizeBuilder(Name.DORA_READ_VIRTUAL_BLOCK_THRESHOLD)
+          .setDefaultValue("0MB")
+          .setDescription(format("The minimum size of the files split into virtual blocks when "
+              + "%s is positive. Each virtual block of such a file is placed on a worker on its "
+              + "own, by both reads and load jobs, so the file is served by many workers. Files "
+              + "no larger than this or than the virtual block size are placed as a whole.",
+              Name.DORA_READ_VIRTUAL_BLOCK_SIZE))
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.ENFORCE)
+          .setScope(Scope.CLIENT)
+          .build();
 
   public static final PropertyKey CLIENT_WRITE_TO_UFS_ENABLED =
       booleanBuilder(Name.CLIENT_WRITE_TO_UFS_ENABLED)
@@ -7341,6 +7814,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.underfs.object.store.multipart.upload.timeout";
     public static final String UNDERFS_OBJECT_STORE_BREADCRUMBS_ENABLED =
         "alluxio.underfs.object.store.breadcrumbs.enabled";
+    public static final String UNDERFS_OBJECT_STORE_LISTING_PARALLELISM =
+        "alluxio.underfs.object.store.listing.parallelism";
     public static final String UNDERFS_OBJECT_STORE_SERVICE_THREADS =
         "alluxio.underfs.object.store.service.threads";
     public static final String UNDERFS_OBJECT_STORE_SKIP_PARENT_DIRECTORY_CREATION =
@@ -7540,6 +8015,12 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.master.scheduler.initial.wait.time";
     public static final String MASTER_SCHEDULER_RESTORE_JOB_FROM_JOURNAL =
         "alluxio.master.scheduler.restore.job.from.journal";
+    public static final String MASTER_SCHEDULER_SWEEP_INTERVAL =
+        "alluxio.master.scheduler.sweep.interval";
+    public static final String MASTER_SCHEDULER_WORKER_INFLIGHT_ADAPTIVE_ENABLED =
+        "alluxio.master.scheduler.worker.inflight.adaptive.enabled";
+    public static final String MASTER_SCHEDULER_WORKER_INFLIGHT_TASKS_MAX =
+        "alluxio.master.scheduler.worker.inflight.tasks.max";
     public static final String MASTER_SHELL_BACKUP_STATE_LOCK_GRACE_MODE =
         "alluxio.master.shell.backup.state.lock.grace.mode";
     public static final String MASTER_SHELL_BACKUP_STATE_LOCK_TRY_DURATION =
@@ -7938,11 +8419,21 @@ public final class PropertyKey implements Comparable<PropertyKey> {
     public static final String WORKER_IDENTITY_UUID_FILE_PATH =
         "alluxio.worker.identity.uuid.file.path";
     public static final String WORKER_KEYTAB_FILE = "alluxio.worker.keytab.file";
+    public static final String WORKER_LOAD_UFS_READ_SIZE =
+        "alluxio.worker.load.ufs.read.size";
+    public static final String WORKER_LOAD_UFS_READ_PARALLELISM =
+        "alluxio.worker.load.ufs.read.parallelism";
+    public static final String WORKER_LOAD_UFS_READ_THREADS =
+        "alluxio.worker.load.ufs.read.threads";
     public static final String WORKER_MASTER_CONNECT_RETRY_TIMEOUT =
         "alluxio.worker.master.connect.retry.timeout";
     public static final String WORKER_MASTER_PERIODICAL_RPC_TIMEOUT =
         "alluxio.worker.master.periodical.rpc.timeout";
     public static final String WORKER_MEMORY_SIZE = "alluxio.worker.memory.size";
+    public static final String WORKER_NETWORK_GRPC_LIST_STATUS_QUEUE_SIZE =
+        "alluxio.worker.network.grpc.list.status.queue.size";
+    public static final String WORKER_NETWORK_GRPC_LIST_STATUS_THREADS_MAX =
+        "alluxio.worker.network.grpc.list.status.threads.max";
     public static final String WORKER_NETWORK_GRPC_READER_THREADS_MAX =
         "alluxio.worker.network.grpc.reader.threads.max";
     public static final String WORKER_NETWORK_GRPC_WRITER_THREADS_MAX =
@@ -8038,16 +8529,30 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.worker.page.store.evictor.class";
     public static final String WORKER_PAGE_STORE_EVICTOR_LFU_LOGBASE =
         "alluxio.worker.page.store.evictor.lfu.logbase";
+    public static final String WORKER_PAGE_STORE_EVICTOR_TINYLFU_WINDOW_RATIO =
+        "alluxio.worker.page.store.evictor.tinylfu.window.ratio";
     public static final String WORKER_PAGE_STORE_EVICTOR_NONDETERMINISTIC_ENABLED =
         "alluxio.worker.page.store.evictor.nondeterministic.enabled";
     public static final String WORKER_PAGE_STORE_LOCAL_STORE_FILE_BUCKETS =
         "alluxio.worker.page.store.local.store.file.buckets";
     public static final String WORKER_PAGE_STORE_OVERHEAD =
         "alluxio.worker.page.store.overhead";
+    public static final String WORKER_PAGE_STORE_METASTORE_COMPACT_ENABLED =
+        "alluxio.worker.page.store.metastore.compact.enabled";
+    public static final String WORKER_PAGE_STORE_METASTORE_SHARDED_ENABLED =
+        "alluxio.worker.page.store.metastore.sharded.enabled";
+    public static final String WORKER_PAGE_STORE_METASTORE_SNAPSHOT_ENABLED =
+        "alluxio.worker.page.store.metastore.snapshot.enabled";
+    public static final String WORKER_PAGE_STORE_METASTORE_SNAPSHOT_INTERVAL =
+        "alluxio.worker.page.store.metastore.snapshot.interval";
     public static final String WORKER_PAGE_STORE_PAGE_SIZE =
         "alluxio.worker.page.store.page.size";
     public static final String WORKER_PAGE_STORE_QUOTA_ENABLED =
         "alluxio.worker.page.store.quota.enabled";
+    public static final String WORKER_PAGE_STORE_SEGMENT_STORE_COMPACTION_RATIO =
+        "alluxio.worker.page.store.segment.store.compaction.ratio";
+    public static final String WORKER_PAGE_STORE_SEGMENT_STORE_SEGMENT_SIZE =
+        "alluxio.worker.page.store.segment.store.segment.size";
     public static final String WORKER_PAGE_STORE_SIZES =
         "alluxio.worker.page.store.sizes";
     public static final String WORKER_PAGE_STORE_TIMEOUT_DURATION =
@@ -8113,6 +8618,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.worker.ufs.instream.cache.enabled";
     public static final String WORKER_UFS_INSTREAM_CACHE_MAX_SIZE =
         "alluxio.worker.ufs.instream.cache.max.size";
+    public static final String WORKER_UFS_READ_MAX_PAGES =
+        "alluxio.worker.ufs.read.max.pages";
     public static final String WORKER_MEMBERSHIP_MANAGER_TYPE =
         "alluxio.worker.membership.manager.type";
     public static final String WORKER_STATIC_MEMBERSHIP_MANAGER_CONFIG_FILE =
@@ -8223,6 +8730,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.user.client.cache.evictor.class";
     public static final String USER_CLIENT_CACHE_EVICTOR_LFU_LOGBASE =
         "alluxio.user.client.cache.evictor.lfu.logbase";
+    public static final String USER_CLIENT_CACHE_EVICTOR_TINYLFU_WINDOW_RATIO =
+        "alluxio.user.client.cache.evictor.tinylfu.window.ratio";
     public static final String USER_CLIENT_CACHE_EVICTOR_NONDETERMINISTIC_ENABLED =
         "alluxio.user.client.cache.evictor.nondeterministic.enabled";
     public static final String USER_CLIENT_CACHE_SHADOW_ENABLED =
@@ -8253,6 +8762,14 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.user.client.cache.local.store.file.buckets";
     public static final String USER_CLIENT_CACHE_IN_STREAM_BUFFER_SIZE =
         "alluxio.user.client.cache.instream_buffer_size";
+    public static final String USER_CLIENT_CACHE_METASTORE_COMPACT_ENABLED =
+        "alluxio.user.client.cache.metastore.compact.enabled";
+    public static final String USER_CLIENT_CACHE_METASTORE_SHARDED_ENABLED =
+        "alluxio.user.client.cache.metastore.sharded.enabled";
+    public static final String USER_CLIENT_CACHE_METASTORE_SNAPSHOT_ENABLED =
+        "alluxio.user.client.cache.metastore.snapshot.enabled";
+    public static final String USER_CLIENT_CACHE_METASTORE_SNAPSHOT_INTERVAL =
+        "alluxio.user.client.cache.metastore.snapshot.interval";
     public static final String USER_CLIENT_CACHE_PAGE_SIZE =
         "alluxio.user.client.cache.page.size";
     public static final String USER_CLIENT_CACHE_QUOTA_ENABLED =
@@ -8263,6 +8780,10 @@ public final class PropertyKey implements Comparable<PropertyKey> {
             "alluxio.user.client.cache.ttl.check.interval.seconds";
     public static final String USER_CLIENT_CACHE_TTL_THRESHOLD_SECONDS =
             "alluxio.user.client.cache.ttl.threshold.seconds";
+    public static final String USER_CLIENT_CACHE_SEGMENT_STORE_COMPACTION_RATIO =
+        "alluxio.user.client.cache.segment.store.compaction.ratio";
+    public static final String USER_CLIENT_CACHE_SEGMENT_STORE_SEGMENT_SIZE =
+        "alluxio.user.client.cache.segment.store.segment.size";
     public static final String USER_CLIENT_CACHE_SIZE =
         "alluxio.user.client.cache.size";
     public static final String USER_CLIENT_CACHE_STORE_OVERHEAD =
@@ -8275,6 +8796,14 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.user.client.cache.timeout.threads";
     public static final String USER_CLIENT_REPORT_VERSION_ENABLED =
         "alluxio.user.client.report.version.enabled";
+    public static final String USER_BOUNDED_LOAD_HASH_LOAD_FACTOR =
+        "alluxio.user.bounded.load.hash.load.factor";
+    public static final String USER_BOUNDED_LOAD_HASH_LOAD_HALF_LIFE =
+        "alluxio.user.bounded.load.hash.load.half.life";
+    public static final String USER_BOUNDED_LOAD_HASH_HOT_KEY_RATE =
+        "alluxio.user.bounded.load.hash.hot.key.rate";
+    public static final String USER_BOUNDED_LOAD_HASH_HOT_KEY_REPLICAS =
+        "alluxio.user.bounded.load.hash.hot.key.replicas";
     public static final String USER_CONSISTENT_HASH_VIRTUAL_NODE_COUNT_PER_WORKER =
         "alluxio.user.consistent.hash.virtual.node.count.per.worker";
     public static final String USER_CONF_CLUSTER_DEFAULT_ENABLED =
@@ -8357,6 +8886,16 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.user.position.reader.preload.data.file.size.threshold";
     public static final String USER_POSITION_READER_PRELOAD_DATA_SIZE =
         "alluxio.user.position.reader.preload.data.size";
+    public static final String USER_POSITION_READER_READAHEAD_ENABLED =
+        "alluxio.user.position.reader.readahead.enabled";
+    public static final String USER_POSITION_READER_READAHEAD_CHUNK_SIZE =
+        "alluxio.user.position.reader.readahead.chunk.size";
+    public static final String USER_POSITION_READER_READAHEAD_WINDOW_MAX_CHUNKS =
+        "alluxio.user.position.reader.readahead.window.max.chunks";
+    public static final String USER_POSITION_READER_READAHEAD_BUFFER_SIZE =
+        "alluxio.user.position.reader.readahead.buffer.size";
+    public static final String USER_POSITION_READER_READAHEAD_THREADS =
+        "alluxio.user.position.reader.readahead.threads";
     public static final String USER_NETWORK_DATA_TIMEOUT =
         "alluxio.user.network.data.timeout";
     public static final String USER_NETWORK_READER_BUFFER_SIZE_MESSAGES =
@@ -8456,6 +8995,15 @@ public final class PropertyKey implements Comparable<PropertyKey> {
     //
     // FUSE integration related properties
     //
+    public static final String FUSE_ATTR_CACHE_EXPIRATION_TIME =
+        "alluxio.fuse.attr.cache.expiration.time";
+    public static final String FUSE_ATTR_CACHE_INVALIDATION_WATCH_ENABLED =
+        "alluxio.fuse.attr.cache.invalidation.watch.enabled";
+    public static final String FUSE_ATTR_CACHE_INVALIDATION_WATCH_INTERVAL =
+        "alluxio.fuse.attr.cache.invalidation.watch.interval";
+    public static final String FUSE_ATTR_CACHE_MAX_SIZE = "alluxio.fuse.attr.cache.max.size";
+    public static final String FUSE_ATTR_CACHE_NEGATIVE_EXPIRATION_TIME =
+        "alluxio.fuse.attr.cache.negative.expiration.time";
     public static final String FUSE_AUTH_POLICY_CLASS = "alluxio.fuse.auth.policy.class";
     public static final String FUSE_AUTH_POLICY_CUSTOM_USER =
         "alluxio.fuse.auth.policy.custom.user";
@@ -8475,6 +9023,16 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.fuse.mount.point";
     public static final String FUSE_POSITION_READ_ENABLED =
         "alluxio.fuse.position.read.enabled";
+    public static final String FUSE_READAHEAD_BUFFER_SIZE =
+        "alluxio.fuse.readahead.buffer.size";
+    public static final String FUSE_READAHEAD_CHUNK_SIZE =
+        "alluxio.fuse.readahead.chunk.size";
+    public static final String FUSE_READAHEAD_ENABLED =
+        "alluxio.fuse.readahead.enabled";
+    public static final String FUSE_READAHEAD_MAX_CHUNKS =
+        "alluxio.fuse.readahead.max.chunks";
+    public static final String FUSE_READAHEAD_THREADS =
+        "alluxio.fuse.readahead.threads";
     public static final String FUSE_STAT_CACHE_REFRESH_INTERVAL =
         "alluxio.fuse.stat.cache.refresh.interval";
     public static final String FUSE_UMOUNT_TIMEOUT =
@@ -8651,6 +9209,15 @@ public final class PropertyKey implements Comparable<PropertyKey> {
     public static final String DORA_WORKER_METASTORE_ROCKSDB_DIR =
         "alluxio.dora.worker.metastore.rocksdb.dir";
 
+    public static final String DORA_WORKER_METASTORE_CACHE_SIZE =
+        "alluxio.dora.worker.metastore.cache.size";
+
+    public static final String DORA_WORKER_METASTORE_LISTING_ENABLED =
+        "alluxio.dora.worker.metastore.listing.enabled";
+    public static final String DORA_WORKER_METASTORE_SWEEP_INTERVAL =
+        "alluxio.dora.worker.metastore.sweep.interval";
+    public static final String DORA_WORKER_METASTORE_SWEEP_RATE =
+        "alluxio.dora.worker.metastore.sweep.rate";
     public static final String DORA_WORKER_METASTORE_ROCKSDB_TTL =
         "alluxio.dora.worker.metastore.rocksdb.ttl";
     public static final String DORA_WORKER_METASTORE_ROCKSDB_BLOOM_FILTER =
@@ -8666,6 +9233,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.dora.ufs.list.status.cache.ttl";
     public static final String DORA_UFS_LIST_STATUS_CACHE_NR_FILES =
         "alluxio.dora.ufs.list.status.cache.nr.files";
+    public static final String DORA_UFS_LIST_STATUS_STREAM_CACHE_NR_FILES =
+        "alluxio.dora.ufs.list.status.stream.cache.nr.files";
 
     public static final String CLIENT_WRITE_TO_UFS_ENABLED =
         "alluxio.client.write.to.ufs.enabled";
@@ -8676,6 +9245,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
             "alluxio.extra.loaded.filesystem.classname";
     public static final String DORA_READ_VIRTUAL_BLOCK_SIZE =
         "alluxio.dora.file.read.virtual.block.size";
+    public static final String DORA_READ_VIRTUAL_BLOCK_THRESHOLD =
+        "alluxio.dora.file.read.virtual.block.threshold";
 
     private Name() {} // prevent instantiation
   }
@@ -98,6 +98,12 @@ public class NettyBufTargetBuffer implements ReadTargetBuffer {
     }
   }
 
+  @Override
+  public int readFromFileChannel(FileChannel channel, long position, int length)
+      throws IOException {
+    return mTarget.writeBytes(channel, position, Math.min(length, mTarget.writableBytes()));
+  }
+
   @Override
   public int readFromInputStream(InputStream is, int length) throws IOException {
     int bytesToRead = Math.min(length, mTarget.writableBytes());
@@ -17,6 +17,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.WritableByteChannel;
 
 /**
@@ -76,6 +77,17 @@ public interface ReadTargetBuffer {
    */
   int readFromFile(RandomAccessFile file, int length) throws IOException;
 
+  /**
+   * Reads from a file channel at the given position without changing the channel's position,
+   * so that a single channel can be shared by concurrent readers.
+   *
+   * @param channel the file channel
+   * @param position the position in the file to start reading from
+   * @param length the maximum number of bytes to read
+   * @return bytes read from the channel, or -1 if the position is at or beyond the end of file
+   */
+  int readFromFileChannel(FileChannel channel, long position, int length) throws IOException;
+
   /**
    * @param is
    * @param length
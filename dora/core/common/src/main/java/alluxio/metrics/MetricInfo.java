@@ -70,6 +70,7 @@ public final class MetricInfo {
   public static final String TAG_UFS = "UFS";
   public static final String TAG_UFS_TYPE = "UFS_TYPE";
   public static final String TAG_USER = "User";
+  public static final String TAG_JOB_ID = "JobId";
 
   // Metric name component
   public static final String TIER = "Tier";
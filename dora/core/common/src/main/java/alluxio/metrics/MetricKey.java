@@ -1887,6 +1887,30 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setMetricType(MetricType.METER)
           .setIsClusterAggregated(false)
           .build();
+  public static final MetricKey WORKER_BYTES_READ_TRANSFER_THROUGHPUT =
+      new Builder("Worker.BytesReadTransferThroughput")
+          .setDescription("Throughput of bytes read from this worker via network (RPC) that are "
+              + "sent straight from cached page files with file transfer, without being copied "
+              + "into network buffers")
+          .setMetricType(MetricType.METER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_BYTES_READ_MAPPED_THROUGHPUT =
+      new Builder("Worker.BytesReadMappedThroughput")
+          .setDescription("Throughput of bytes read from this worker via network (RPC) that are "
+              + "sent from memory-mapped cached page files, without being copied "
+              + "into network buffers")
+          .setMetricType(MetricType.METER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_BYTES_READ_COPIED_THROUGHPUT =
+      new Builder("Worker.BytesReadCopiedThroughput")
+          .setDescription("Throughput of bytes read from this worker via network (RPC) that are "
+              + "copied into network buffers before being sent, because they are not cached "
+              + "in page files or zero-copy transfer is not available")
+          .setMetricType(MetricType.METER)
+          .setIsClusterAggregated(false)
+          .build();
   public static final MetricKey WORKER_BYTES_READ_UFS =
       new Builder("Worker.BytesReadPerUfs")
           .setDescription("Total number of bytes read from a specific Alluxio UFS by this worker")
@@ -1899,6 +1923,75 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setMetricType(MetricType.METER)
           .setIsClusterAggregated(false)
           .build();
+  public static final MetricKey WORKER_UFS_PAGE_READS_ISSUED =
+      new Builder("Worker.UfsPageReadsIssued")
+          .setDescription("Total number of requests issued to the UFSes by this worker to "
+              + "read pages missing from the page store. A request may read several pages.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_UFS_PAGE_READS_COALESCED =
+      new Builder("Worker.UfsPageReadsCoalesced")
+          .setDescription("Total number of page reads missing the page store of this worker "
+              + "which waited for a UFS request already in flight instead of issuing one.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_BYTES_LOADED_UFS =
+      new Builder("Worker.BytesLoadedUfs")
+          .setDescription("Total number of bytes read from the UFS and put into the page "
+              + "store by load jobs on this worker")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_BYTES_LOADED_UFS_THROUGHPUT =
+      new Builder("Worker.BytesLoadedUfsThroughput")
+          .setDescription("Throughput of the bytes read from the UFS and put into the page "
+              + "store by load jobs on this worker")
+          .setMetricType(MetricType.METER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_METASTORE_CACHE_HITS =
+      new Builder("Worker.MetaStoreCacheHits")
+          .setDescription("Total number of lookups of Dora metadata served by the in-memory "
+              + "cache in front of the metastore of this worker")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_METASTORE_CACHE_MISSES =
+      new Builder("Worker.MetaStoreCacheMisses")
+          .setDescription("Total number of lookups of Dora metadata missing the in-memory "
+              + "cache in front of the metastore of this worker")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_METASTORE_CACHE_SIZE =
+      new Builder("Worker.MetaStoreCacheSize")
+          .setDescription("Number of file statuses in the in-memory cache in front of the "
+              + "metastore of this worker")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_METASTORE_ENTRIES =
+      new Builder("Worker.MetaStoreEntries")
+          .setDescription("Estimated number of file statuses in the metastore of this worker")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_METASTORE_SIZE =
+      new Builder("Worker.MetaStoreSize")
+          .setDescription("Estimated size in bytes of the metastore of this worker, "
+              + "on disk and in memory tables")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_METASTORE_EXPIRED_ENTRIES_REMOVED =
+      new Builder("Worker.MetaStoreExpiredEntriesRemoved")
+          .setDescription("Total number of expired file statuses and directory listing entries "
+              + "removed from the metastore of this worker by the background sweep")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
   public static final MetricKey WORKER_BYTES_WRITTEN_DIRECT =
       new Builder("Worker.BytesWrittenDirect")
           .setDescription("Total number of bytes written to this worker "
@@ -2216,6 +2309,27 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setMetricType(MetricType.COUNTER)
           .setIsClusterAggregated(true)
           .build();
+  public static final MetricKey CLIENT_READAHEAD_BYTES_PREFETCHED =
+      new Builder("Client.ReadaheadBytesPrefetched")
+          .setDescription("Total number of bytes read ahead from Alluxio workers by this "
+              + "client.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_READAHEAD_BYTES_HIT =
+      new Builder("Client.ReadaheadBytesHit")
+          .setDescription("Total number of bytes served to the streams of this client from "
+              + "readahead chunks, including chunks still in flight when requested.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_READAHEAD_BYTES_WASTED =
+      new Builder("Client.ReadaheadBytesWasted")
+          .setDescription("Total number of bytes read ahead by this client and released "
+              + "without being read by any stream.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
   public static final MetricKey CLIENT_BYTES_READ_FROM_UFS =
       new Builder("Client.BytesReadFromUfs")
           .setDescription("Total number of bytes read from UFS directly by this "
@@ -2307,6 +2421,13 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setMetricType(MetricType.METER)
           .setIsClusterAggregated(false)
           .build();
+  public static final MetricKey CLIENT_CACHE_PAGES_EXPIRY_LAG =
+      new Builder("Client.CachePagesExpiryLag")
+          .setDescription("The time in milliseconds between the expiry of pages in the client "
+              + "cache by TTL rules and their invalidation.")
+          .setMetricType(MetricType.HISTOGRAM)
+          .setIsClusterAggregated(false)
+          .build();
   public static final MetricKey CLIENT_CACHE_PAGES_INVALIDATED =
       new Builder("Client.CachePagesInvalidated")
           .setDescription("Total number of pages invalidated by TTL rules")
@@ -2320,6 +2441,21 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setMetricType(MetricType.METER)
           .setIsClusterAggregated(false)
           .build();
+  public static final MetricKey CLIENT_CACHE_ADMISSION_ACCEPTED =
+      new Builder("Client.CacheAdmissionAccepted")
+          .setDescription("Total number of pages admitted from the admission window into the "
+              + "main space of the TinyLFU evictor.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_CACHE_ADMISSION_REJECTED =
+      new Builder("Client.CacheAdmissionRejected")
+          .setDescription("Total number of pages evicted from the admission window of the "
+              + "TinyLFU evictor because they were accessed less often than the main space "
+              + "victim.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
   public static final MetricKey CLIENT_CACHE_BYTES_WRITTEN_CACHE =
       new Builder("Client.CacheBytesWrittenCache")
           .setDescription("Total number of bytes written to the client cache.")
@@ -2544,6 +2680,19 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setMetricType(MetricType.COUNTER)
           .setIsClusterAggregated(false)
           .build();
+  public static final MetricKey CLIENT_CACHE_SEGMENT_COMPACTIONS =
+      new Builder("Client.CacheSegmentCompactions")
+          .setDescription("Number of segments compacted by the segmented page store.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_CACHE_SEGMENT_BYTES_COMPACTED =
+      new Builder("Client.CacheSegmentBytesCompacted")
+          .setDescription("Total number of bytes of live pages rewritten by segment compaction "
+              + "in the segmented page store.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
   public static final MetricKey CLIENT_CACHE_STATE =
       new Builder("Client.CacheState")
           .setDescription("State of the cache: 0 (NOT_IN_USE), 1 (READ_ONLY) and 2 (READ_WRITE)")
@@ -2633,6 +2782,55 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setMetricType(MetricType.GAUGE)
           .setIsClusterAggregated(false)
           .build();
+  public static final MetricKey FUSE_ATTR_CACHE_HITS =
+      new Builder("Fuse.AttrCacheHits")
+          .setDescription("Total number of FUSE path lookups served by the attribute cache, "
+              + "including the lookups of the paths cached as missing.")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey FUSE_ATTR_CACHE_MISSES =
+      new Builder("Fuse.AttrCacheMisses")
+          .setDescription("Total number of FUSE path lookups not served by the attribute cache.")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey FUSE_ATTR_CACHE_NEGATIVE_HITS =
+      new Builder("Fuse.AttrCacheNegativeHits")
+          .setDescription("Total number of FUSE path lookups served by the attribute cache "
+              + "with the path cached as missing.")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey FUSE_ATTR_CACHE_SIZE =
+      new Builder("Fuse.AttrCacheSize")
+          .setDescription(String
+              .format("Total number of paths cached by the attribute cache, including the "
+                      + "paths cached as missing. The existing paths are at most %s",
+              PropertyKey.FUSE_ATTR_CACHE_MAX_SIZE.getName()))
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey FUSE_ATTR_CACHE_WORKER_INVALIDATIONS =
+      new Builder("Fuse.AttrCacheWorkerInvalidations")
+          .setDescription("Total number of paths invalidated in the attribute cache by the "
+              + "workers finding them changed or removed in the UFS.")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey FUSE_READAHEAD_BYTES_PREFETCHED =
+      new Builder("Fuse.ReadaheadBytesPrefetched")
+          .setDescription("Total number of bytes read ahead of the sequential FUSE readers.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey FUSE_READAHEAD_BYTES_HIT =
+      new Builder("Fuse.ReadaheadBytesHit")
+          .setDescription("Total number of bytes read through FUSE served from the readahead "
+              + "chunks, including chunks still in flight when requested.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
   public static final MetricKey FUSE_CACHED_PATH_COUNT =
       new Builder("Fuse.CachedPathCount")
           .setDescription(String
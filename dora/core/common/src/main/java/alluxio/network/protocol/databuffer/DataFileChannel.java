@@ -13,18 +13,32 @@ package alluxio.network.protocol.databuffer;
 
 import com.google.common.base.Preconditions;
 import io.netty.channel.DefaultFileRegion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import javax.annotation.Nullable;
 
 /**
  * A DataBuffer with the underlying data being a {@link FileChannel}.
+ *
+ * The data file channel either refers to a file which is opened when the data is sent, or holds
+ * a channel which is already open. An open channel pins the data: it stays readable even if the
+ * file is deleted in the meantime, e.g. when a cached page is evicted. The channel is owned by
+ * this buffer until it is handed over to Netty by {@link #getNettyOutput()} or {@link #map()},
+ * and closed by {@link #release()} otherwise.
  */
 public final class DataFileChannel implements DataBuffer {
+  private static final Logger LOG = LoggerFactory.getLogger(DataFileChannel.class);
+
   private final File mFile;
+  @Nullable
+  private FileChannel mChannel;
   private final long mOffset;
   private final long mLength;
 
@@ -40,9 +54,60 @@ public final class DataFileChannel implements DataBuffer {
     mLength = length;
   }
 
+  /**
+   * Creates a data file channel pinning a region of a file which is already open.
+   *
+   * @param file The file, only used for logging
+   * @param channel The open channel of the file, owned by the created buffer
+   * @param offset The offset into the FileChannel
+   * @param length The length of the data to read
+   */
+  public DataFileChannel(File file, FileChannel channel, long offset, long length) {
+    this(file, offset, length);
+    mChannel = Preconditions.checkNotNull(channel, "channel");
+  }
+
+  /**
+   * Opens a file and pins a region of it.
+   *
+   * @param file The file
+   * @param offset The offset into the file
+   * @param length The length of the data to read
+   * @return the data file channel holding the open file
+   * @throws IOException if the file cannot be opened
+   */
+  public static DataFileChannel open(File file, long offset, long length) throws IOException {
+    return new DataFileChannel(file, new RandomAccessFile(file, "r").getChannel(),
+        offset, length);
+  }
+
   @Override
   public Object getNettyOutput() {
-    return new DefaultFileRegion(mFile, mOffset, mLength);
+    if (mChannel == null) {
+      return new DefaultFileRegion(mFile, mOffset, mLength);
+    }
+    // the file region closes the channel once it has been transferred
+    FileChannel channel = mChannel;
+    mChannel = null;
+    return new DefaultFileRegion(channel, mOffset, mLength);
+  }
+
+  /**
+   * Maps the region of the file into memory and closes the channel. The mapping stays valid
+   * until the returned buffer is released, even if the file is deleted in the meantime.
+   *
+   * @return a buffer backed by the mapped region
+   * @throws IOException if the file cannot be mapped
+   */
+  public DataBuffer map() throws IOException {
+    FileChannel channel = mChannel == null
+        ? new RandomAccessFile(mFile, "r").getChannel() : mChannel;
+    mChannel = null;
+    try {
+      return new NettyDataBuffer(MappedNioByteBuf.map(channel, mOffset, readableBytes()));
+    } finally {
+      channel.close();
+    }
   }
 
   @Override
@@ -81,6 +146,15 @@ public final class DataFileChannel implements DataBuffer {
 
   @Override
   public void release() {
-    // Nothing we need to release explicitly, let GC take care of all objects.
+    if (mChannel == null) {
+      // Nothing we need to release explicitly, let GC take care of all objects.
+      return;
+    }
+    try {
+      mChannel.close();
+    } catch (IOException e) {
+      LOG.warn("Failed to close channel of file {}", mFile, e);
+    }
+    mChannel = null;
   }
 }
@@ -0,0 +1,53 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.network.protocol.databuffer;
+
+import alluxio.util.io.BufferUtils;
+
+import io.netty.buffer.ByteBuf;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Read-only memory-mapped file region wrapped in Netty ByteBuf. The region is unmapped as soon
+ * as the reference count goes down to zero, instead of when the mapping is garbage collected.
+ */
+final class MappedNioByteBuf extends RefCountedNioByteBuf {
+  private MappedNioByteBuf(MappedByteBuffer buffer, int length) {
+    super(buffer, length, length);
+    writerIndex(length);
+  }
+
+  @Override
+  protected void deallocate() {
+    // an empty mapping has no cleaner
+    if (mDelegate.capacity() > 0) {
+      BufferUtils.cleanDirectBuffer(mDelegate);
+    }
+  }
+
+  /**
+   * Maps a region of a file. The mapping stays valid after the channel is closed or the file
+   * is deleted. The returned buffer's reader index is 0 and writer index is the length.
+   *
+   * @param channel the file channel
+   * @param offset the offset of the region in the file
+   * @param length the length of the region
+   * @return the mapped buffer
+   */
+  static ByteBuf map(FileChannel channel, long offset, int length) throws IOException {
+    return new MappedNioByteBuf(channel.map(FileChannel.MapMode.READ_ONLY, offset, length),
+        length);
+  }
+}
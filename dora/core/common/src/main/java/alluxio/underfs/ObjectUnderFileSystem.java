@@ -46,16 +46,19 @@ import java.io.OutputStream;
 import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.text.MessageFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
+import java.util.NoSuchElementException;
 import java.util.TreeMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -93,6 +96,9 @@ public abstract class ObjectUnderFileSystem extends BaseUnderFileSystem {
 
   private final boolean mBreadcrumbsEnabled;
 
+  /** The max number of subdirectories listed in parallel by a recursive listing. */
+  private final int mListingParallelism;
+
   /**
    * Constructs an {@link ObjectUnderFileSystem}.
    *
@@ -105,6 +111,7 @@ public abstract class ObjectUnderFileSystem extends BaseUnderFileSystem {
     mExecutorService = ExecutorServiceFactories.fixedThreadPool(
         "alluxio-underfs-object-service-worker", numThreads).create();
     mBreadcrumbsEnabled = mUfsConf.getBoolean(PropertyKey.UNDERFS_OBJECT_STORE_BREADCRUMBS_ENABLED);
+    mListingParallelism = mUfsConf.getInt(PropertyKey.UNDERFS_OBJECT_STORE_LISTING_PARALLELISM);
   }
 
   /**
@@ -656,8 +663,11 @@ public abstract class ObjectUnderFileSystem extends BaseUnderFileSystem {
   @Override
   public Iterator<UfsStatus> listStatusIterable(
       String path, ListOptions options, String startAfter, int batchSize) throws IOException {
-    final ObjectListingChunk chunk =
-        getObjectListingChunkForPath(path, options.isRecursive(), startAfter, batchSize);
+    // A parallel listing lists the top level of the directory first, and then its
+    // subdirectories recursively
+    boolean isParallel = options.isRecursive() && startAfter == null && mListingParallelism > 1;
+    final ObjectListingChunk chunk = getObjectListingChunkForPath(
+        path, options.isRecursive() && !isParallel, startAfter, batchSize);
     if (chunk == null) {
       String keyAsFolder = convertToFolderName(stripPrefixIfPresent(path));
       if (getObjectStatus(keyAsFolder) != null) {
@@ -666,6 +676,9 @@ public abstract class ObjectUnderFileSystem extends BaseUnderFileSystem {
       }
       return null;
     }
+    if (isParallel) {
+      return new ParallelUfsStatusIterator(path, batchSize, chunk);
+    }
     return new UfsStatusIterator(path, options.isRecursive(), chunk);
   }
 
@@ -1214,13 +1227,22 @@ public abstract class ObjectUnderFileSystem extends BaseUnderFileSystem {
     }
 
     private void updateIterator() throws IOException {
-      NavigableMap<String, UfsStatus> ufsStatusMap = new TreeMap<>();
+      Map<String, UfsStatus> ufsStatusMap = new HashMap<>();
       populateUfsStatus(mKeyPrefix, mChunk, mIsRecursive, ufsStatusMap);
+      // Order the statuses like the object store orders the keys, where the directories end
+      // with a separator, so that the directories inferred again from a later chunk are skipped
+      NavigableMap<String, UfsStatus> orderedStatuses = new TreeMap<>();
+      for (UfsStatus status : ufsStatusMap.values()) {
+        orderedStatuses.put(status.isDirectory()
+            ? status.getName() + PATH_SEPARATOR : status.getName(), status);
+      }
       if (mLastKey != null) {
-        ufsStatusMap = ufsStatusMap.tailMap(mLastKey, false);
+        orderedStatuses = orderedStatuses.tailMap(mLastKey, false);
+      }
+      mIterator = orderedStatuses.values().iterator();
+      if (!orderedStatuses.isEmpty()) {
+        mLastKey = orderedStatuses.lastKey();
       }
-      mIterator = Iterators.transform(ufsStatusMap.entrySet().iterator(), Map.Entry::getValue);
-      mLastKey = ufsStatusMap.isEmpty() ? null : ufsStatusMap.lastKey();
     }
 
     @Override
@@ -1249,6 +1271,181 @@ public abstract class ObjectUnderFileSystem extends BaseUnderFileSystem {
     }
   }
 
+  /**
+   * The UFS status iterator of a recursive listing which partitions the key space by the
+   * subdirectories of the listed directory. The top level of the directory is listed with a
+   * delimiter, and the subdirectories are listed recursively and concurrently on the executor
+   * service of the UFS, ahead of the iteration. Like the object store orders the keys, each
+   * subdirectory is followed by its descendants.
+   */
+  private class ParallelUfsStatusIterator implements Iterator<UfsStatus> {
+    private final String mPath;
+    private final String mKeyPrefix;
+    private final int mBatchSize;
+    /** The max number of top level statuses listed ahead of the iteration. */
+    private final int mMaxListedAhead;
+    private final Iterator<UfsStatus> mTopLevel;
+    /** The top level statuses listed ahead, with the listings of the subdirectories. */
+    private final Deque<Partition> mListedAhead = new ArrayDeque<>();
+    /** The descendants of the subdirectory being iterated, or null. */
+    @Nullable
+    private Iterator<UfsStatus> mDescendants;
+    /** The number of subdirectories listed ahead, or whose descendants are being iterated. */
+    private int mListingCount = 0;
+
+    /**
+     * @param path the path of the listed directory
+     * @param batchSize the batch size of each chunk
+     * @param topLevelChunk the first chunk of the delimited listing of the directory
+     */
+    ParallelUfsStatusIterator(String path, int batchSize, ObjectListingChunk topLevelChunk)
+        throws IOException {
+      mPath = path;
+      String keyPrefix = PathUtils.normalizePath(stripPrefixIfPresent(path), PATH_SEPARATOR);
+      mKeyPrefix = keyPrefix.equals(PATH_SEPARATOR) ? "" : keyPrefix;
+      mBatchSize = batchSize;
+      mMaxListedAhead = mListingParallelism
+          * (batchSize > 0 ? batchSize : getListingChunkLength(mUfsConf));
+      mTopLevel = new UfsStatusIterator(path, false, new PrefetchedChunk(topLevelChunk));
+      listAhead();
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (mDescendants != null && !mDescendants.hasNext()) {
+        mDescendants = null;
+        mListingCount--;
+        listAhead();
+      }
+      return mDescendants != null || !mListedAhead.isEmpty();
+    }
+
+    @Override
+    public UfsStatus next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      if (mDescendants != null) {
+        return mDescendants.next();
+      }
+      Partition top = mListedAhead.poll();
+      if (top.mFirstChunk != null) {
+        mDescendants = top.getDescendants();
+      }
+      listAhead();
+      return top.mStatus;
+    }
+
+    /**
+     * Lists the next top level statuses, and starts listing the subdirectories among them.
+     */
+    private void listAhead() {
+      while (mListingCount < mListingParallelism && mListedAhead.size() < mMaxListedAhead
+          && mTopLevel.hasNext()) {
+        UfsStatus status = mTopLevel.next();
+        Future<ObjectListingChunk> firstChunk = null;
+        if (status.isDirectory()) {
+          String key = mKeyPrefix + status.getName();
+          firstChunk = mExecutorService.submit(
+              () -> getObjectListingChunk(key, true, null, mBatchSize));
+          mListingCount++;
+        }
+        mListedAhead.add(new Partition(status, firstChunk));
+      }
+    }
+
+    /**
+     * A top level status, with the listing of its descendants if it is a directory.
+     */
+    private final class Partition {
+      private final UfsStatus mStatus;
+      @Nullable
+      private final Future<ObjectListingChunk> mFirstChunk;
+
+      private Partition(UfsStatus status, @Nullable Future<ObjectListingChunk> firstChunk) {
+        mStatus = status;
+        mFirstChunk = firstChunk;
+      }
+
+      /**
+       * @return the descendants of the directory, named by their paths relative to the listed
+       *         directory
+       */
+      private Iterator<UfsStatus> getDescendants() {
+        ObjectListingChunk chunk = getChunk(mFirstChunk);
+        if (chunk == null) {
+          return Collections.emptyIterator();
+        }
+        try {
+          String name = mStatus.getName();
+          // the directory itself is also listed, as the prefix of its descendants
+          return Iterators.filter(new UfsStatusIterator(mPath, true, new PrefetchedChunk(chunk)),
+              status -> !status.getName().equals(name));
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    }
+  }
+
+  /**
+   * An object listing chunk which starts getting the next chunk on the executor service of the
+   * UFS once it is created.
+   */
+  private class PrefetchedChunk implements ObjectListingChunk {
+    private final ObjectListingChunk mChunk;
+    @Nullable
+    private final Future<ObjectListingChunk> mNextChunk;
+
+    PrefetchedChunk(ObjectListingChunk chunk) {
+      mChunk = chunk;
+      mNextChunk = Boolean.FALSE.equals(chunk.hasNextChunk())
+          ? null : mExecutorService.submit(chunk::getNextChunk);
+    }
+
+    @Override
+    public ObjectStatus[] getObjectStatuses() {
+      return mChunk.getObjectStatuses();
+    }
+
+    @Override
+    public String[] getCommonPrefixes() {
+      return mChunk.getCommonPrefixes();
+    }
+
+    @Nullable
+    @Override
+    public ObjectListingChunk getNextChunk() {
+      ObjectListingChunk next = getChunk(mNextChunk);
+      return next == null ? null : new PrefetchedChunk(next);
+    }
+
+    @Nullable
+    @Override
+    public Boolean hasNextChunk() {
+      return mNextChunk == null ? Boolean.FALSE : mChunk.hasNextChunk();
+    }
+  }
+
+  /**
+   * @param chunk the future of a listing chunk, or null if there is no chunk
+   * @return the listing chunk, or null if there is no chunk
+   */
+  @Nullable
+  private static ObjectListingChunk getChunk(@Nullable Future<ObjectListingChunk> chunk) {
+    if (chunk == null) {
+      return null;
+    }
+    try {
+      return chunk.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
   /**
    * Creates a directory flagged file with the key and folder suffix.
    *
@@ -243,8 +243,12 @@ public abstract class UfsStatus {
     if (mLastModifiedTimeMs != null) {
       builder.setLastModifiedTimeMs(mLastModifiedTimeMs);
     }
-    builder.setOwner(mOwner);
-    builder.setGroup(mGroup);
+    if (mOwner != null) {
+      builder.setOwner(mOwner);
+    }
+    if (mGroup != null) {
+      builder.setGroup(mGroup);
+    }
     builder.setMode(mMode);
     if (mXAttr != null) {
       builder.putAllXattr(CommonUtils.convertToByteString(mXAttr));
@@ -253,13 +257,13 @@ public abstract class UfsStatus {
       builder.setUfsFullPath(mUfsFullPath.toString());
     }
     if (this instanceof UfsFileStatus) {
-      builder.setUfsFileStatus(
-          alluxio.grpc.UfsFileStatus.newBuilder()
-              .setBlockSize(((UfsFileStatus) this).getBlockSize())
-              .setContentHash(((UfsFileStatus) this).getContentHash())
-              .setContentLength(((UfsFileStatus) this).getContentLength())
-              .build()
-      );
+      alluxio.grpc.UfsFileStatus.Builder fileStatus = alluxio.grpc.UfsFileStatus.newBuilder()
+          .setBlockSize(((UfsFileStatus) this).getBlockSize())
+          .setContentLength(((UfsFileStatus) this).getContentLength());
+      if (((UfsFileStatus) this).getContentHash() != null) {
+        fileStatus.setContentHash(((UfsFileStatus) this).getContentHash());
+      }
+      builder.setUfsFileStatus(fileStatus.build());
     }
     return builder.build();
   }
@@ -19,6 +19,7 @@ import alluxio.grpc.DeletePOptions;
 import alluxio.grpc.ExistsPOptions;
 import alluxio.grpc.GetStatusPOptions;
 import alluxio.grpc.ListStatusPOptions;
+import alluxio.grpc.ListStatusPartialPOptions;
 import alluxio.grpc.LoadFileResponse;
 import alluxio.grpc.LoadSubTask;
 import alluxio.grpc.RenamePOptions;
@@ -38,8 +39,11 @@ import alluxio.worker.block.io.BlockWriter;
 
 import com.google.common.util.concurrent.ListenableFuture;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 import javax.annotation.Nullable;
 
 /**
@@ -72,6 +76,39 @@ public interface DoraWorker extends DataWorker, SessionCleanable {
   UfsStatus[] listStatus(String path, ListStatusPOptions options)
       throws IOException, AccessControlException;
 
+  /**
+   * Lists a directory from Under File System as an iterator. Unlike
+   * {@link #listStatus(String, ListStatusPOptions)}, a listing which is not cached is fetched
+   * from the UFS while it is iterated if the UFS supports it, so that the whole listing is
+   * never held in memory.
+   *
+   * @param path the path of a dir or file
+   * @param options the option for listStatus()
+   * @return An iterator of the statuses of the files and directories in the directory denoted by
+   *         this abstract pathname. Returns {@code null} if this abstract pathname does not
+   *         denote a directory.
+   * @throws IOException
+   */
+  @Nullable
+  Iterator<UfsStatus> iterateStatus(String path, ListStatusPOptions options)
+      throws IOException, AccessControlException;
+
+  /**
+   * Lists a part of a directory from Under File System, in the order of the paths relative to
+   * the directory, starting after the offset in the options.
+   *
+   * @param path the path of a dir or file
+   * @param options the option for the partial listing, whose batch size is the max number of
+   *        statuses to list
+   * @return An array with at most the batch size of statuses, named by their paths relative to
+   *         the directory. Returns {@code null} if this abstract pathname does not denote a
+   *         directory.
+   * @throws IOException
+   */
+  @Nullable
+  UfsStatus[] listStatusPartial(String path, ListStatusPartialPOptions options)
+      throws IOException, AccessControlException;
+
   /**
    * Creates the file reader to read from Alluxio dora.
    * Owner of this block reader must close it or lock will leak.
@@ -204,4 +241,14 @@ public interface DoraWorker extends DataWorker, SessionCleanable {
    * @return worker address
    */
   WorkerNetAddress getAddress();
+
+  /**
+   * Adds a listener of the paths whose metadata is invalidated by the worker, i.e. the paths
+   * found changed in the UFS or removed. The listener is called on the thread invalidating the
+   * metadata, so it must not block.
+   *
+   * @param listener the listener of the full UFS paths
+   * @return a closeable removing the listener
+   */
+  Closeable addMetadataInvalidationListener(Consumer<String> listener);
 }
@@ -15,6 +15,7 @@ import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
 import alluxio.client.block.stream.BlockWorkerClient;
+import alluxio.client.file.dora.VirtualBlockPlacement;
 import alluxio.conf.Configuration;
 import alluxio.conf.PropertyKey;
 import alluxio.exception.runtime.AlluxioRuntimeException;
@@ -102,6 +103,7 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
   private final AtomicLong mSkippedBlocksCount = new AtomicLong();
   private final AtomicLong mProcessedInodesCount = new AtomicLong();
   private final AtomicLong mLoadedByteCount = new AtomicLong();
+  private final AtomicLong mUfsLoadedByteCount = new AtomicLong();
   private final AtomicLong mTotalByteCount = new AtomicLong();
   private final AtomicLong mSkippedByteCount = new AtomicLong();
   private final AtomicLong mProcessingFileCount = new AtomicLong();
@@ -122,8 +124,8 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
   private final boolean mSkipIfExists;
 
   private final Optional<String> mFileFilterRegx;
-  private final long mVirtualBlockSize = Configuration.getBytes(
-      PropertyKey.DORA_READ_VIRTUAL_BLOCK_SIZE);
+  private final VirtualBlockPlacement mVirtualBlockPlacement =
+      new VirtualBlockPlacement(Configuration.global());
   private Iterator<LoadSubTask> mCurrentSubTaskIterator;
 
   /**
@@ -261,23 +263,21 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
   private List<LoadSubTask> createSubTasks(UfsStatus ufsStatus) {
     List<LoadSubTask> subTasks = new ArrayList<>();
         // add load metadata task
-    subTasks.add(new LoadMetadataSubTask(ufsStatus, mVirtualBlockSize));
+    subTasks.add(new LoadMetadataSubTask(ufsStatus));
     if (mLoadMetadataOnly || ufsStatus.isDirectory()
         || ufsStatus.asUfsFileStatus().getContentLength() == 0) {
       return subTasks;
     }
     long contentLength = ufsStatus.asUfsFileStatus().getContentLength();
-    if (mVirtualBlockSize > 0) {
-      int numBlocks = (int) (contentLength / mVirtualBlockSize) + 1;
-      for (int i = 0; i < numBlocks; i++) {
-        long offset = mVirtualBlockSize * i;
-        long leftover = contentLength - offset;
-        subTasks.add(new LoadDataSubTask(ufsStatus, mVirtualBlockSize, offset,
-            Math.min(leftover, mVirtualBlockSize)));
+    if (mVirtualBlockPlacement.isSplit(contentLength)) {
+      long blockSize = mVirtualBlockPlacement.getBlockSize();
+      for (long offset = 0; offset < contentLength; offset += blockSize) {
+        subTasks.add(new LoadDataSubTask(ufsStatus, mVirtualBlockPlacement, offset,
+            Math.min(contentLength - offset, blockSize)));
       }
     }
     else {
-      subTasks.add(new LoadDataSubTask(ufsStatus, mVirtualBlockSize, 0, contentLength));
+      subTasks.add(new LoadDataSubTask(ufsStatus, mVirtualBlockPlacement, 0, contentLength));
     }
     return subTasks;
   }
@@ -458,6 +458,7 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
         .add("SkippedFileCount", mSkippedBlocksCount)
         .add("ProcessedInodesCount", mProcessedInodesCount)
         .add("LoadedByteCount", mLoadedByteCount)
+        .add("UfsLoadedByteCount", mUfsLoadedByteCount)
         .add("TotalFailureCount", mTotalFailureCount)
         .add("SkippedByteCount", mSkippedByteCount)
         .add("State", mState)
@@ -514,7 +515,7 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
             totalLoadedBytes -= failure.getSubtask().getLoadDataSubtask().getLength();
           }
           String status = Status.fromCodeValue(failure.getCode()).toString();
-          LoadSubTask subTask = LoadSubTask.from(failure, mVirtualBlockSize);
+          LoadSubTask subTask = LoadSubTask.from(failure, mVirtualBlockPlacement);
           if (!isHealthy() || !failure.getRetryable() || !addSubTaskToRetry(subTask, status,
               failure.getMessage())) {
             addFileFailure(
@@ -528,6 +529,7 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
                     .collect(Collectors.toList()).size();
       if (!mLoadMetadataOnly) {
         addLoadedBytes(totalLoadedBytes - response.getBytesSkipped());
+        mUfsLoadedByteCount.addAndGet(response.getBytesLoadedUfs());
         LOAD_FILE_SIZE.inc(totalLoadedBytes);
         LOAD_RATE.mark(totalLoadedBytes);
         LOAD_RATE.mark(totalLoadedBytes);
@@ -649,9 +651,11 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
     private final boolean mVerificationEnabled;
     private final long mSkippedByteCount;
     private final long mLoadedByteCount;
+    private final long mUfsLoadedByteCount;
     private final long mProcessedInodesCount;
     private final Long mTotalByteCount;
     private final Long mThroughput;
+    private final Long mUfsThroughput;
     private final double mFailurePercentage;
     private final AlluxioRuntimeException mFailureReason;
     private final long mFailedFileCount;
@@ -672,6 +676,7 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
       mVerificationEnabled = job.mVerificationEnabled;
       mProcessedInodesCount = job.mProcessedInodesCount.get();
       mLoadedByteCount = job.mLoadedByteCount.get();
+      mUfsLoadedByteCount = job.mUfsLoadedByteCount.get();
       if (!job.mUsePartialListing) {
         mTotalByteCount = job.mTotalByteCount.get();
       }
@@ -681,9 +686,11 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
       long duration = job.getDurationInSec();
       if (duration > 0) {
         mThroughput = job.mLoadedByteCount.get() / duration;
+        mUfsThroughput = mUfsLoadedByteCount / duration;
       }
       else {
         mThroughput = null;
+        mUfsThroughput = null;
       }
       mFailurePercentage =
           ((double) (job.mTotalFailureCount.get())
@@ -740,6 +747,10 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
           progress.append(format("\tThroughput: %s/s%n",
               FormatUtils.getSizeFromBytes(mThroughput)));
         }
+        progress.append(format("\tBytes Read From UFS: %s%s%n",
+            FormatUtils.getSizeFromBytes(mUfsLoadedByteCount),
+            mUfsThroughput == null
+                ? "" : format(" (%s/s)", FormatUtils.getSizeFromBytes(mUfsThroughput))));
         progress.append(format("\tFailure rate: %.2f%%%n", mFailurePercentage));
       }
       if (mSkipIfExists) {
@@ -11,6 +11,7 @@
 
 package alluxio.master.job;
 
+import alluxio.client.file.dora.VirtualBlockPlacement;
 import alluxio.underfs.UfsStatus;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -19,20 +20,19 @@ import com.google.common.annotations.VisibleForTesting;
  * Load data subtask.
  */
 public class LoadDataSubTask extends LoadSubTask {
-  private final long mVirtualBlockSize;
   private final long mOffset;
   private final long mLength;
 
-  LoadDataSubTask(UfsStatus ufsStatus, long virtualBlockSize, long offset, long length) {
+  LoadDataSubTask(UfsStatus ufsStatus, VirtualBlockPlacement placement, long offset,
+      long length) {
     super(ufsStatus);
-    mVirtualBlockSize = virtualBlockSize;
     mOffset = offset;
-    int index = mVirtualBlockSize == 0 ? 0 : (int) (offset / virtualBlockSize);
-    if (virtualBlockSize == 0) {
-      mHashKey = new ConsistentHashShardKey(ufsStatus.getUfsFullPath().toString());
+    if (placement.isSplit(ufsStatus.asUfsFileStatus().getContentLength())) {
+      mHashKey = new VirtualBlockShardKey(ufsStatus.getUfsFullPath().toString(),
+          (int) placement.getBlockIndex(offset));
     }
     else {
-      mHashKey = new VirtualBlockShardKey(ufsStatus.getUfsFullPath().toString(), index);
+      mHashKey = new ConsistentHashShardKey(ufsStatus.getUfsFullPath().toString());
     }
     mLength = length;
   }
@@ -18,14 +18,10 @@ import alluxio.underfs.UfsStatus;
  */
 public class LoadMetadataSubTask extends LoadSubTask {
 
-  LoadMetadataSubTask(UfsStatus ufsStatus, long virtualBlockSize) {
+  LoadMetadataSubTask(UfsStatus ufsStatus) {
     super(ufsStatus);
-    if (virtualBlockSize == 0) {
-      mHashKey = new ConsistentHashShardKey(ufsStatus.getUfsFullPath().toString());
-    }
-    else {
-      mHashKey = new VirtualBlockShardKey(ufsStatus.getUfsFullPath().toString(), 0);
-    }
+    // metadata is served by the worker of the whole file, even if the file is split
+    mHashKey = new ConsistentHashShardKey(ufsStatus.getUfsFullPath().toString());
   }
 
   @Override
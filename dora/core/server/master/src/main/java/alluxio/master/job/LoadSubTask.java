@@ -11,6 +11,7 @@
 
 package alluxio.master.job;
 
+import alluxio.client.file.dora.VirtualBlockPlacement;
 import alluxio.common.ShardKey;
 import alluxio.grpc.LoadFailure;
 import alluxio.underfs.UfsStatus;
@@ -47,18 +48,18 @@ public abstract class LoadSubTask implements ShardKey {
 
   /**
    * @param loadFailure      the subtask failure from worker
-   * @param virtualBlockSize the virtual block size
+   * @param placement        the placement of the data of files on the workers
    * @return the subtask
    */
-  public static LoadSubTask from(LoadFailure loadFailure, long virtualBlockSize) {
+  public static LoadSubTask from(LoadFailure loadFailure, VirtualBlockPlacement placement) {
     alluxio.grpc.LoadSubTask failure = loadFailure.getSubtask();
     if (failure.hasLoadMetadataSubtask()) {
       return new LoadMetadataSubTask(
-          UfsStatus.fromProto(failure.getLoadMetadataSubtask().getUfsStatus()), virtualBlockSize);
+          UfsStatus.fromProto(failure.getLoadMetadataSubtask().getUfsStatus()));
     }
     else {
       UfsStatus status = UfsStatus.fromProto(failure.getLoadDataSubtask().getUfsStatus());
-      return new LoadDataSubTask(status, virtualBlockSize,
+      return new LoadDataSubTask(status, placement,
           failure.getLoadDataSubtask().getOffsetInFile(), failure.getLoadDataSubtask().getLength());
     }
   }
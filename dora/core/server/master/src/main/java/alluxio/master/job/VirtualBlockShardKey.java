@@ -11,15 +11,13 @@
 
 package alluxio.master.job;
 
-import static java.lang.String.format;
-
+import alluxio.client.file.dora.VirtualBlockPlacement;
 import alluxio.common.ShardKey;
 
 /**
  * The key for accessing the hash ring.
- * There's two types of usage for this key:
- * 1. metadata operation: the partition index is 0
- * 2. data operation: the partition index is offset / virtual block size
+ * It is used for the data operations on the files split into virtual blocks, the partition
+ * index being offset / virtual block size.
  *
  */
 public final class VirtualBlockShardKey implements ShardKey {
@@ -39,8 +37,7 @@ public final class VirtualBlockShardKey implements ShardKey {
 
   @Override
   public String asString() {
-    // use the same format as ConsistentHashProvider,
-    // we can't distinguish the two index, but it's fine
-    return format("%s%d", mUFSPath, mVirtualBlockIndex);
+    // use the same key as the clients reading the virtual block
+    return VirtualBlockPlacement.getBlockShardKey(mUFSPath, mVirtualBlockIndex);
   }
 }
@@ -48,14 +48,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
@@ -70,7 +75,13 @@ import javax.annotation.concurrent.ThreadSafe;
  *  2. The scheduler will pull the task from the job and assign the task to a worker.
  *  3. The worker will execute the task and report the result to the job.
  *  4. The job will update the progress. And schedule the next task if the job is not done.
- *  5. One worker would have one task running for one job description at a time.
+ *  5. Each worker runs up to a window of tasks at a time, see {@link WorkerTaskWindow}.
+ * Scheduling is driven by events rather than by a fixed tick. Submitting or stopping a job,
+ * completing one of its tasks, and a change in the active workers each signal the jobs to
+ * process. The signalled jobs are queued once each, and processed in rounds on the scheduler
+ * thread, so a job generating many tasks cannot starve the others. A job whose tasks are
+ * rejected by the full queues of the workers is held back until a task completes and frees a
+ * slot. A slow periodic sweep signals all the running jobs as a safety net.
  */
 @ThreadSafe
 @SuppressFBWarnings({"SE_NO_SERIALVERSIONID"})
@@ -79,20 +90,39 @@ public final class Scheduler {
   private static final Logger LOG = LoggerFactory.getLogger(Scheduler.class);
   private static final int CAPACITY = 100;
   private static final int MAX_TASK_PER_WORKER = 10;
+  private static final int MAX_INFLIGHT_TASK_PER_WORKER = Configuration.getInt(
+      PropertyKey.MASTER_SCHEDULER_WORKER_INFLIGHT_TASKS_MAX);
+  private static final boolean ADAPTIVE_INFLIGHT_TASKS = Configuration.getBoolean(
+      PropertyKey.MASTER_SCHEDULER_WORKER_INFLIGHT_ADAPTIVE_ENABLED);
+  // keep tasks queued behind the running ones so a worker never waits for the next round
+  private static final int TASK_Q_CAPACITY =
+      Math.max(MAX_TASK_PER_WORKER, 2 * MAX_INFLIGHT_TASK_PER_WORKER);
   private static final long WORKER_UPDATE_INTERVAL = Configuration.getMs(
       PropertyKey.MASTER_WORKER_INFO_CACHE_REFRESH_TIME);
   private final long mSchedulerInitialDelay = Configuration.getMs(
       PropertyKey.MASTER_SCHEDULER_INITIAL_DELAY
   );
+  // the jobs are processed on events, the sweep only catches up with missed ones
+  private final long mSweepIntervalMs = Configuration.getMs(
+      PropertyKey.MASTER_SCHEDULER_SWEEP_INTERVAL);
   private static final int EXECUTOR_SHUTDOWN_MS = 10 * Constants.SECOND_MS;
   private static AtomicReference<Scheduler> sInstance = new AtomicReference<>();
   private final Map<JobDescription, Job<?>> mExistingJobs = new ConcurrentHashMap<>();
   private final Map<Job<?>, ConcurrentHashSet<Task<?>>> mJobToRunningTasks =
       new ConcurrentHashMap<>();
   private final JobMetaStore mJobMetaStore;
+  /** The jobs signalled to be processed, each queued at most once, in order. */
+  private final Queue<Job<?>> mJobQueue = new ConcurrentLinkedQueue<>();
+  private final Set<Job<?>> mQueuedJobs = ConcurrentHashMap.newKeySet();
+  /** The jobs whose tasks were rejected by the full queues of the workers. */
+  private final Set<Job<?>> mBlockedJobs = ConcurrentHashMap.newKeySet();
+  /** Whether a round of processing the queued jobs is scheduled on the scheduler thread. */
+  private final AtomicBoolean mProcessingScheduled = new AtomicBoolean(false);
   // initial thread in start method since we would stop and start thread when gainPrimacy
   private ScheduledExecutorService mSchedulerExecutor;
   private volatile boolean mRunning = false;
+  /** Whether the initial delay has passed, and the signalled jobs are processed. */
+  private volatile boolean mProcessing = false;
   private final FileSystemContext mFileSystemContext;
   private final WorkerInfoHub mWorkerInfoHub;
 
@@ -133,8 +163,12 @@ public final class Scheduler {
           ThreadFactoryUtils.build("scheduler", false));
       mSchedulerExecutor.scheduleAtFixedRate(mWorkerInfoHub::updateWorkers, 0,
           WORKER_UPDATE_INTERVAL, TimeUnit.MILLISECONDS);
-      mSchedulerExecutor.scheduleWithFixedDelay(this::processJobs, mSchedulerInitialDelay, 2000,
-          TimeUnit.MILLISECONDS);
+      mSchedulerExecutor.schedule(() -> {
+        mProcessing = true;
+        signalAllJobs();
+      }, mSchedulerInitialDelay, TimeUnit.MILLISECONDS);
+      mSchedulerExecutor.scheduleWithFixedDelay(this::signalAllJobs,
+          mSchedulerInitialDelay + mSweepIntervalMs, mSweepIntervalMs, TimeUnit.MILLISECONDS);
       mSchedulerExecutor.scheduleWithFixedDelay(this::cleanupStaleJob, 1, 1, TimeUnit.HOURS);
       mRunning = true;
     }
@@ -172,10 +206,16 @@ public final class Scheduler {
     if (mRunning) {
       mWorkerInfoHub.mActiveWorkers.values().forEach(CloseableResource::close);
       mWorkerInfoHub.mActiveWorkers = ImmutableMap.of();
+      mProcessing = false;
       ThreadUtils.shutdownAndAwaitTermination(mSchedulerExecutor, EXECUTOR_SHUTDOWN_MS);
       mExistingJobs.clear();
       mJobToRunningTasks.clear();
+      mJobQueue.clear();
+      mQueuedJobs.clear();
+      mBlockedJobs.clear();
+      mProcessingScheduled.set(false);
       mWorkerInfoHub.mWorkerToTaskQ.clear();
+      mWorkerInfoHub.mWorkerToTaskWindow.clear();
       mRunning = false;
     }
   }
@@ -200,6 +240,7 @@ public final class Scheduler {
         }
         return v;
       });
+      signalJob(existingJob);
       return false;
     }
 
@@ -217,6 +258,7 @@ public final class Scheduler {
     mExistingJobs.put(job.getDescription(), job);
     job.initializeJob();
     LOG.info(format("start job: %s", job));
+    signalJob(job);
     return true;
   }
 
@@ -230,6 +272,7 @@ public final class Scheduler {
     if (existingJob != null && existingJob.isRunning()) {
       existingJob.setJobState(JobState.STOPPED, true);
       // leftover tasks in mJobToRunningTasks would be removed by scheduling thread.
+      signalJob(existingJob);
       return true;
     }
     return false;
@@ -303,13 +346,66 @@ public final class Scheduler {
     return mExistingJobs;
   }
 
+  /**
+   * Signals a job to be processed on the scheduler thread, unless it is already queued.
+   *
+   * @param job the job
+   */
+  private void signalJob(Job<?> job) {
+    if (mQueuedJobs.add(job)) {
+      mJobQueue.add(job);
+    }
+    scheduleProcessing();
+  }
+
+  private void signalAllJobs() {
+    mJobToRunningTasks.keySet().forEach(this::signalJob);
+  }
+
+  /**
+   * Signals the jobs held back by the full queues of the workers, once a slot is freed.
+   */
+  private void signalBlockedJobs() {
+    for (Iterator<Job<?>> it = mBlockedJobs.iterator(); it.hasNext(); ) {
+      Job<?> job = it.next();
+      it.remove();
+      signalJob(job);
+    }
+  }
+
+  private void scheduleProcessing() {
+    if (!mProcessing || mJobQueue.isEmpty()
+        || !mProcessingScheduled.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      mSchedulerExecutor.execute(this::processJobs);
+    } catch (RejectedExecutionException e) {
+      // the scheduler is stopping
+      mProcessingScheduled.set(false);
+    }
+  }
+
   private void processJobs() {
+    mProcessingScheduled.set(false);
     if (Thread.currentThread().isInterrupted()) {
       return;
     }
-    mJobToRunningTasks.forEach((k, v) -> processJob(k));
-    // kickstart the head task from each q of the worker if it's not running
+    // process each job queued so far once, the jobs signalled again meanwhile are queued behind
+    // and wait for the next round
+    for (int count = mQueuedJobs.size(); count > 0; count--) {
+      Job<?> job = mJobQueue.poll();
+      if (job == null) {
+        break;
+      }
+      mQueuedJobs.remove(job);
+      if (mJobToRunningTasks.containsKey(job)) {
+        processJob(job);
+      }
+    }
+    // kickstart pending tasks from each q of the worker up to its in-flight window
     mWorkerInfoHub.kickStartTasks();
+    scheduleProcessing();
   }
 
   private void processJob(Job<?> job) {
@@ -343,13 +439,22 @@ public final class Scheduler {
         return;
       }
       // enqueue the worker task q
+      boolean blocked = false;
       for (Task task : tasks) {
         boolean taskEnqueued = getWorkerInfoHub().enqueueTaskForWorker(
             task.getMyRunningWorker(), task);
         if (!taskEnqueued) {
           job.onTaskSubmitFailure(task);
+          blocked = true;
         }
       }
+      if (blocked) {
+        // wait for a task to complete before generating more tasks
+        mBlockedJobs.add(job);
+      } else if (!tasks.isEmpty()) {
+        // the job may have more tasks, after the other queued jobs had their turn
+        signalJob(job);
+      }
       mJobToRunningTasks.compute(job, (k, v) -> {
         if ((v == null || v.isEmpty()) && k.isCurrentPassDone()) {
           checkAndSetJobStatus(k);
@@ -516,37 +621,52 @@ public final class Scheduler {
     private final Map<WorkerInfoIdentity, BoundedPriorityBlockingQueue<Task>> mWorkerToTaskQ
         = new ConcurrentHashMap<>();
 
+    private final Map<WorkerInfoIdentity, WorkerTaskWindow> mWorkerToTaskWindow
+        = new ConcurrentHashMap<>();
+
     /**
      * Kick stark tasks for each worker task q.
      */
     public void kickStartTasks() {
-      // Kick off one task for each worker
-      mWorkerToTaskQ.forEach((workerInfo, tasksQ) -> {
-        LOG.debug("Kick start task for worker:{}, taskQ size:{}",
-            workerInfo.mWorkerInfo.getAddress().getHost(),
-            tasksQ.size());
-        CloseableResource<BlockWorkerClient> blkWorkerClientResource
-            = mActiveWorkers.get(workerInfo);
-        if (blkWorkerClientResource == null) {
-          LOG.warn("Didn't find corresponding BlockWorkerClient for workerInfo:{}",
-              workerInfo);
-          return;
-        }
-        Task task = tasksQ.peek();
-        // only make sure 1 task is running at the time
-        if (task == null || task.getResponseFuture() != null) {
-          LOG.debug("head task is {}", (task == null) ? "NULL" : "already running");
-          return;
-        }
+      mWorkerToTaskQ.forEach(this::kickStartTasks);
+    }
+
+    /**
+     * Starts the pending tasks of a worker, highest priority first, until the worker runs as
+     * many tasks as its window allows.
+     */
+    private void kickStartTasks(WorkerInfoIdentity workerInfo,
+        BoundedPriorityBlockingQueue<Task> tasksQ) {
+      CloseableResource<BlockWorkerClient> blkWorkerClientResource
+          = mActiveWorkers.get(workerInfo);
+      if (blkWorkerClientResource == null) {
+        LOG.warn("Didn't find corresponding BlockWorkerClient for workerInfo:{}",
+            workerInfo);
+        return;
+      }
+      // only looked up for active workers, so the windows of lost workers are not recreated
+      WorkerTaskWindow window = getTaskWindow(workerInfo);
+      LOG.debug("Kick start task for worker:{}, taskQ size:{}, window:{}",
+          workerInfo.mWorkerInfo.getAddress().getHost(),
+          tasksQ.size(), window);
+      int slots = window.availableSlots();
+      if (slots == 0) {
+        return;
+      }
+      List<Task> pendingTasks = tasksQ.stream()
+          .filter(task -> task.getResponseFuture() == null)
+          .sorted()
+          .limit(slots)
+          .collect(Collectors.toList());
+      for (Task task : pendingTasks) {
+        long startTimeMs = System.currentTimeMillis();
         task.execute(blkWorkerClientResource.get(), workerInfo.mWorkerInfo);
+        window.onTaskStarted();
         task.getResponseFuture().addListener(() -> {
           Job job = task.getJob();
+          boolean success = false;
           try {
-            job.processResponse(task); // retry on failure logic inside
-            // TODO(lucy) currently processJob is only called in the single
-            // threaded scheduler thread context, in future once tasks are
-            // completed, they should be able to call processJob to resume
-            // their own job to schedule next set of tasks to run.
+            success = job.processResponse(task); // retry on failure logic inside
           } catch (Exception e) {
             // Unknown exception. This should not happen, but if it happens we don't
             // want to lose the worker thread, thus catching it here. Any exception
@@ -554,6 +674,7 @@ public final class Scheduler {
             LOG.error("Unexpected exception thrown in response future listener.", e);
             job.failJob(new InternalRuntimeException(e));
           } finally {
+            window.onTaskCompleted(System.currentTimeMillis() - startTimeMs, success);
             tasksQ.remove(task);
             mJobToRunningTasks.compute(job, (k, v) -> {
               if (v == null) {
@@ -563,8 +684,18 @@ public final class Scheduler {
               return v;
             });
           }
+          // the listener runs in the scheduler thread, so the worker can be given its next
+          // task right away, while the job is resumed to refill the queues
+          kickStartTasks(workerInfo, tasksQ);
+          signalJob(job);
+          signalBlockedJobs();
         }, mSchedulerExecutor);
-      });
+      }
+    }
+
+    private WorkerTaskWindow getTaskWindow(WorkerInfoIdentity workerInfo) {
+      return mWorkerToTaskWindow.computeIfAbsent(workerInfo,
+          k -> new WorkerTaskWindow(MAX_INFLIGHT_TASK_PER_WORKER, ADAPTIVE_INFLIGHT_TASKS));
     }
 
     /**
@@ -579,10 +710,10 @@ public final class Scheduler {
       }
       BoundedPriorityBlockingQueue workerTaskQ = mWorkerToTaskQ
           .computeIfAbsent(new WorkerInfoIdentity(workerInfo),
-              k -> new BoundedPriorityBlockingQueue<>(MAX_TASK_PER_WORKER));
+              k -> new BoundedPriorityBlockingQueue<>(TASK_Q_CAPACITY));
       if (!workerTaskQ.offer(task)) {
         LOG.debug("Exceeded maximum task per q[{}] for worker:{}",
-            MAX_TASK_PER_WORKER, new WorkerInfoIdentity(workerInfo));
+            TASK_Q_CAPACITY, new WorkerInfoIdentity(workerInfo));
         return false;
       }
       ConcurrentHashSet<Task<?>> tasks = mJobToRunningTasks.computeIfAbsent(task.getJob(),
@@ -598,6 +729,14 @@ public final class Scheduler {
       return mWorkerToTaskQ;
     }
 
+    /**
+     * @return the in-flight task window of each active worker
+     */
+    @VisibleForTesting
+    public Map<WorkerInfoIdentity, WorkerTaskWindow> getWorkerToTaskWindow() {
+      return mWorkerToTaskWindow;
+    }
+
     /**
      * Refresh active workers.
      */
@@ -651,6 +790,10 @@ public final class Scheduler {
         }
         // Build the clients to the current active worker list
         mActiveWorkers = updatedWorkers.build();
+        // drop the in-flight windows of the workers that left
+        mWorkerToTaskWindow.keySet().retainAll(mActiveWorkers.keySet());
+        // the jobs can assign their tasks to the new workers
+        signalAllJobs();
       } catch (Exception e) {
         // Unknown exception. This should not happen, but if it happens we don't want to lose the
         // scheduler thread, thus catching it here. Any exception surfaced here should be properly
@@ -0,0 +1,123 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.scheduler;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Limits the number of tasks the scheduler runs concurrently on a single worker.
+ *
+ * In adaptive mode the window follows an additive-increase/multiplicative-decrease policy: it
+ * starts at one task, grows by one task per window of tasks completing successfully in time, and
+ * is halved when a task fails or takes much longer than the fastest tasks seen recently, which
+ * indicates the worker or its UFS is saturated. The window is decreased at most once per window
+ * of completed tasks, so a burst of slow tasks started under the same load only counts once.
+ * Otherwise the window always allows the configured maximum number of tasks.
+ */
+@ThreadSafe
+public final class WorkerTaskWindow {
+  /** A task slower than this multiple of the baseline latency signals congestion. */
+  private static final double LATENCY_TOLERANCE = 2.0;
+  /** How fast the baseline latency follows tasks slower than the baseline. */
+  private static final double BASELINE_DRIFT = 1.0 / 64;
+  private static final double DECREASE_FACTOR = 0.5;
+  private static final double MIN_SIZE = 1.0;
+
+  private final int mMaxSize;
+  private final boolean mAdaptive;
+  private double mSize;
+  private int mInflight = 0;
+  private int mCompletedSinceDecrease = 0;
+  /** Decaying minimum of the task latencies in milliseconds, negative if unknown. */
+  private double mBaselineLatencyMs = -1;
+
+  /**
+   * @param maxSize the maximum number of concurrent tasks
+   * @param adaptive whether to adapt the window to the task latencies and failures
+   */
+  public WorkerTaskWindow(int maxSize, boolean adaptive) {
+    Preconditions.checkArgument(maxSize >= 1,
+        "max number of concurrent tasks must be positive: %s", maxSize);
+    mMaxSize = maxSize;
+    mAdaptive = adaptive;
+    mSize = adaptive ? MIN_SIZE : maxSize;
+  }
+
+  /**
+   * @return the number of tasks that can be started now
+   */
+  public synchronized int availableSlots() {
+    return Math.max(0, getSize() - mInflight);
+  }
+
+  /**
+   * Records that a task has been started on the worker.
+   */
+  public synchronized void onTaskStarted() {
+    mInflight++;
+  }
+
+  /**
+   * Records that a task running on the worker has completed, and adapts the window.
+   *
+   * @param latencyMs the time the task took to complete in milliseconds
+   * @param success whether the task succeeded
+   */
+  public synchronized void onTaskCompleted(long latencyMs, boolean success) {
+    mInflight = Math.max(0, mInflight - 1);
+    if (!mAdaptive) {
+      return;
+    }
+    mCompletedSinceDecrease++;
+    boolean slow = mBaselineLatencyMs >= 0 && latencyMs > mBaselineLatencyMs * LATENCY_TOLERANCE;
+    if (mBaselineLatencyMs < 0 || latencyMs < mBaselineLatencyMs) {
+      mBaselineLatencyMs = latencyMs;
+    } else {
+      mBaselineLatencyMs += (latencyMs - mBaselineLatencyMs) * BASELINE_DRIFT;
+    }
+    if (!success || slow) {
+      if (mCompletedSinceDecrease >= getSize()) {
+        mSize = Math.max(MIN_SIZE, mSize * DECREASE_FACTOR);
+        mCompletedSinceDecrease = 0;
+      }
+      return;
+    }
+    mSize = Math.min(mMaxSize, mSize + 1.0 / mSize);
+  }
+
+  /**
+   * @return the current number of tasks allowed to run concurrently
+   */
+  public synchronized int getSize() {
+    return (int) mSize;
+  }
+
+  /**
+   * @return the number of tasks currently running
+   */
+  public synchronized int getInflight() {
+    return mInflight;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("size", getSize())
+        .add("maxSize", mMaxSize)
+        .add("inflight", mInflight)
+        .add("baselineLatencyMs", mBaselineLatencyMs)
+        .toString();
+  }
+}
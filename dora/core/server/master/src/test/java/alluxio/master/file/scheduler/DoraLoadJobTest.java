@@ -12,10 +12,18 @@
 package alluxio.master.file.scheduler;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import alluxio.Constants;
+import alluxio.client.block.stream.BlockWorkerClient;
 import alluxio.conf.Configuration;
 import alluxio.conf.PropertyKey;
+import alluxio.grpc.JobProgressReportFormat;
+import alluxio.grpc.LoadFileResponse;
+import alluxio.grpc.TaskStatus;
 import alluxio.master.job.DoraLoadJob;
 import alluxio.master.job.LoadDataSubTask;
 import alluxio.master.job.LoadMetadataSubTask;
@@ -30,6 +38,7 @@ import alluxio.wire.WorkerNetAddress;
 
 import com.google.common.base.Predicates;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -79,7 +88,7 @@ public class DoraLoadJobTest {
     for (LoadSubTask subTask : subTasks) {
       if (subTask instanceof LoadMetadataSubTask) {
         assertEquals(subTask.getUfsPath(), testPath);
-        assertEquals(subTask.asString(), testPath + "0");
+        assertEquals(subTask.asString(), testPath);
       }
       else {
         LoadDataSubTask loadDataSubTask = (LoadDataSubTask) subTask;
@@ -96,6 +105,54 @@ public class DoraLoadJobTest {
     }
   }
 
+  @Test
+  public void testGetNextTaskWithSmallFile() throws IOException {
+    int testLength = Constants.MB;
+    String testPath = createByteFileInUfs("testFileSmall", testLength);
+    // files no larger than a virtual block are placed as a whole
+    Iterator<UfsStatus> iterator = new UfsStatusIterable(mLocalUfs, mLocalUfsRoot, Optional.empty(),
+        Predicates.alwaysTrue()).iterator();
+    DoraLoadJob loadJob =
+        new DoraLoadJob(mLocalUfsRoot, Optional.of("user"), "1", OptionalLong.empty(), false, true,
+            false, false, Optional.empty(), iterator, mLocalUfs);
+    Collection<WorkerInfo> workers = ImmutableList.of(
+        new WorkerInfo().setId(1).setAddress(
+            new WorkerNetAddress().setHost("worker1").setRpcPort(1234)));
+    List<LoadSubTask> subTasks = loadJob.getNextTasks(workers).get(0).getSubTasks();
+    assertEquals(2, subTasks.size());
+    for (LoadSubTask subTask : subTasks) {
+      assertEquals(testPath, subTask.asString());
+      if (subTask instanceof LoadDataSubTask) {
+        assertEquals(testLength, ((LoadDataSubTask) subTask).getLength());
+      }
+    }
+  }
+
+  @Test
+  public void testUfsBytesLoadedReported() throws IOException {
+    String testPath = createByteFileInUfs("testFileUfsBytes", Constants.MB);
+    Iterator<UfsStatus> iterator = new UfsStatusIterable(mLocalUfs, mLocalUfsRoot, Optional.empty(),
+        Predicates.alwaysTrue()).iterator();
+    DoraLoadJob loadJob =
+        new DoraLoadJob(mLocalUfsRoot, Optional.of("user"), "1", OptionalLong.empty(), false, true,
+            false, false, Optional.empty(), iterator, mLocalUfs);
+    WorkerInfo worker = new WorkerInfo().setId(1).setAddress(
+        new WorkerNetAddress().setHost("worker1").setRpcPort(1234));
+    DoraLoadJob.DoraLoadTask task = loadJob.getNextTasks(ImmutableList.of(worker)).get(0);
+    BlockWorkerClient client = mock(BlockWorkerClient.class);
+    // part of the file was cached already, so only the rest is read from the UFS
+    when(client.loadFile(any())).thenReturn(Futures.immediateFuture(
+        LoadFileResponse.newBuilder().setStatus(TaskStatus.SUCCESS)
+            .setBytesLoadedUfs(Constants.MB / 4).build()));
+    task.execute(client, worker);
+    assertTrue(loadJob.processResponse(task));
+    String report = loadJob.getProgress(JobProgressReportFormat.TEXT, false);
+    assertTrue(report, report.contains("\tBytes Loaded: 1024.00KB"));
+    assertTrue(report, report.contains("\tBytes Read From UFS: 256.00KB"));
+    assertTrue(loadJob.getProgress(JobProgressReportFormat.JSON, false)
+        .contains("\"mUfsLoadedByteCount\":" + Constants.MB / 4));
+  }
+
   protected String createByteFileInUfs(String fileName, int length) throws IOException {
     if (fileName.startsWith("/")) {
       fileName = fileName.substring(1);
@@ -21,6 +21,7 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -49,12 +50,15 @@ import alluxio.master.journal.JournalContext;
 import alluxio.master.scheduler.DefaultWorkerProvider;
 import alluxio.master.scheduler.JournaledJobMetaStore;
 import alluxio.master.scheduler.Scheduler;
+import alluxio.master.scheduler.WorkerTaskWindow;
 import alluxio.proto.journal.Job;
 import alluxio.resource.CloseableResource;
 import alluxio.scheduler.job.JobMetaStore;
 import alluxio.scheduler.job.JobState;
+import alluxio.scheduler.job.Task;
 import alluxio.security.authentication.AuthenticatedClientUser;
 import alluxio.underfs.UnderFileSystem;
+import alluxio.util.CommonUtils;
 import alluxio.wire.FileInfo;
 import alluxio.wire.WorkerInfo;
 import alluxio.wire.WorkerNetAddress;
@@ -70,6 +74,7 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -79,6 +84,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -533,6 +539,99 @@ public final class SchedulerTest {
     Configuration.modifiableGlobal().unset(PropertyKey.JOB_RETENTION_TIME);
   }
 
+  @Test
+  public void testProcessSubmittedJobWithoutWaiting() {
+    DefaultFileSystemMaster fsMaster = mock(DefaultFileSystemMaster.class);
+    FileSystemContext fileSystemContext = mock(FileSystemContext.class);
+    DefaultWorkerProvider workerProvider =
+        new DefaultWorkerProvider(fsMaster, fileSystemContext);
+    Scheduler scheduler =
+        new Scheduler(fileSystemContext, workerProvider, new InMemoryJobMetaStore());
+    alluxio.scheduler.job.Job<?> job = mockDoneJob("/load/1");
+    scheduler.submitJob(job);
+    scheduler.start();
+    // the jobs submitted before the initial delay are processed once it passes
+    verify(job, timeout(5000)).setJobSuccess();
+    // the jobs submitted afterwards are processed right away instead of on the periodic sweep
+    alluxio.scheduler.job.Job<?> job2 = mockDoneJob("/load/2");
+    scheduler.submitJob(job2);
+    verify(job2, timeout(1000)).setJobSuccess();
+    scheduler.stop();
+  }
+
+  private alluxio.scheduler.job.Job<?> mockDoneJob(String path) {
+    alluxio.scheduler.job.Job job = mock(alluxio.scheduler.job.Job.class);
+    when(job.getJobId()).thenReturn(path);
+    when(job.getDescription())
+        .thenReturn(JobDescription.newBuilder().setPath(path).setType("load").build());
+    when(job.isRunning()).thenReturn(true);
+    when(job.isHealthy()).thenReturn(true);
+    when(job.isCurrentPassDone()).thenReturn(true);
+    when(job.getNextTasks(any())).thenReturn(Collections.emptyList());
+    return job;
+  }
+
+  @Test
+  public void testInflightTasksPerWorker() throws Exception {
+    DefaultFileSystemMaster fsMaster = mock(DefaultFileSystemMaster.class);
+    FileSystemContext fileSystemContext = mock(FileSystemContext.class);
+    CloseableResource<BlockWorkerClient> blockWorkerClientResource = mock(CloseableResource.class);
+    when(blockWorkerClientResource.get()).thenReturn(mock(BlockWorkerClient.class));
+    when(fileSystemContext.acquireBlockWorkerClient(any())).thenReturn(blockWorkerClientResource);
+    WorkerInfo worker1 = new WorkerInfo().setId(1).setAddress(
+        new WorkerNetAddress().setHost("worker1").setRpcPort(1234));
+    WorkerInfo worker2 = new WorkerInfo().setId(2).setAddress(
+        new WorkerNetAddress().setHost("worker2").setRpcPort(1234));
+    AtomicReference<List<WorkerInfo>> workers =
+        new AtomicReference<>(ImmutableList.of(worker1, worker2));
+    when(fsMaster.getWorkerInfoList()).thenAnswer(invocation -> workers.get());
+    alluxio.scheduler.job.Job job = mock(alluxio.scheduler.job.Job.class);
+    when(job.getJobId()).thenReturn("/load/inflight");
+    when(job.getDescription()).thenReturn(
+        JobDescription.newBuilder().setPath("/load/inflight").setType("load").build());
+    when(job.isRunning()).thenReturn(true);
+    when(job.isHealthy()).thenReturn(true);
+    when(job.processResponse(any())).thenReturn(true);
+    List<BlockingTask> tasks1 = new ArrayList<>();
+    List<BlockingTask> tasks2 = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      tasks1.add(new BlockingTask(job, i, worker1));
+      tasks2.add(new BlockingTask(job, 4 + i, worker2));
+    }
+    List<BlockingTask> tasks = new ArrayList<>(tasks1);
+    tasks.addAll(tasks2);
+    when(job.getNextTasks(any())).thenReturn(tasks).thenReturn(Collections.emptyList());
+    Scheduler scheduler = new Scheduler(fileSystemContext,
+        new DefaultWorkerProvider(fsMaster, fileSystemContext), new InMemoryJobMetaStore());
+    scheduler.start();
+    CommonUtils.waitFor("workers are found", () -> scheduler.getActiveWorkers().size() == 2);
+    scheduler.submitJob(job);
+    Map<Scheduler.WorkerInfoIdentity, WorkerTaskWindow> windows =
+        scheduler.getWorkerInfoHub().getWorkerToTaskWindow();
+    Scheduler.WorkerInfoIdentity worker1Id = new Scheduler.WorkerInfoIdentity(worker1);
+    Scheduler.WorkerInfoIdentity worker2Id = new Scheduler.WorkerInfoIdentity(worker2);
+    CommonUtils.waitFor("tasks are started",
+        () -> tasks1.stream().anyMatch(BlockingTask::isStarted)
+            && tasks2.stream().anyMatch(BlockingTask::isStarted));
+    // a task completing in time lets the worker run more tasks at once
+    tasks1.stream().filter(BlockingTask::isStarted).findFirst().get().complete();
+    CommonUtils.waitFor("several tasks are in flight on the worker",
+        () -> windows.get(worker1Id).getInflight() > 1);
+    WorkerTaskWindow window1 = windows.get(worker1Id);
+
+    // the window is dropped once the worker leaves, and not recreated by its running tasks
+    workers.set(ImmutableList.of(worker2));
+    scheduler.updateWorkers();
+    assertFalse(windows.containsKey(worker1Id));
+    assertTrue(windows.containsKey(worker2Id));
+    tasks1.stream().filter(BlockingTask::isStarted).forEach(BlockingTask::complete);
+    CommonUtils.waitFor("tasks of the lost worker are completed",
+        () -> window1.getInflight() == 0);
+    assertFalse(windows.containsKey(worker1Id));
+    assertEquals(1, windows.size());
+    scheduler.stop();
+  }
+
   // test scheduler start and stop and start again with job meta store change
   @Test
   public void testStopScheduler() {
@@ -563,6 +662,33 @@ public final class SchedulerTest {
     assertEquals(2, scheduler.getJobs().size());
   }
 
+  /**
+   * A task whose response is completed by the test.
+   */
+  private static final class BlockingTask extends Task<Object> {
+    private final SettableFuture<Object> mResponse = SettableFuture.create();
+    private volatile boolean mStarted = false;
+
+    BlockingTask(alluxio.scheduler.job.Job<?> job, int taskId, WorkerInfo worker) {
+      super(job, taskId);
+      setMyRunningWorker(worker);
+    }
+
+    @Override
+    protected ListenableFuture<Object> run(BlockWorkerClient client) {
+      mStarted = true;
+      return mResponse;
+    }
+
+    boolean isStarted() {
+      return mStarted;
+    }
+
+    void complete() {
+      mResponse.set(new Object());
+    }
+  }
+
   private class InMemoryJobMetaStore implements JobMetaStore {
     private final Map<String, alluxio.scheduler.job.Job<?>> mExistingJobs = new ConcurrentHashMap();
 
@@ -0,0 +1,87 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.file.scheduler;
+
+import static org.junit.Assert.assertEquals;
+
+import alluxio.master.scheduler.WorkerTaskWindow;
+
+import org.junit.Test;
+
+public class WorkerTaskWindowTest {
+
+  @Test
+  public void fixedWindow() {
+    WorkerTaskWindow window = new WorkerTaskWindow(4, false);
+    assertEquals(4, window.availableSlots());
+    runTask(window, 10, false);
+    runTask(window, 1000, true);
+    assertEquals(4, window.getSize());
+    window.onTaskStarted();
+    window.onTaskStarted();
+    assertEquals(2, window.availableSlots());
+    assertEquals(2, window.getInflight());
+  }
+
+  @Test
+  public void additiveIncrease() {
+    WorkerTaskWindow window = new WorkerTaskWindow(4, true);
+    assertEquals(1, window.getSize());
+    runTask(window, 10, true);
+    assertEquals(2, window.getSize());
+    for (int i = 0; i < 20; i++) {
+      runTask(window, 10, true);
+    }
+    assertEquals(4, window.getSize());
+    assertEquals(4, window.availableSlots());
+  }
+
+  @Test
+  public void decreaseOnFailure() {
+    WorkerTaskWindow window = grownWindow(8);
+    runTask(window, 10, false);
+    assertEquals(4, window.getSize());
+    // failures of tasks started before the decrease are not counted again
+    runTask(window, 10, false);
+    assertEquals(4, window.getSize());
+  }
+
+  @Test
+  public void decreaseOnSlowTask() {
+    WorkerTaskWindow window = grownWindow(8);
+    runTask(window, 100, true);
+    assertEquals(4, window.getSize());
+  }
+
+  @Test
+  public void neverBelowOne() {
+    WorkerTaskWindow window = new WorkerTaskWindow(8, true);
+    for (int i = 0; i < 10; i++) {
+      runTask(window, 10, false);
+    }
+    assertEquals(1, window.getSize());
+    assertEquals(1, window.availableSlots());
+  }
+
+  private static WorkerTaskWindow grownWindow(int maxSize) {
+    WorkerTaskWindow window = new WorkerTaskWindow(maxSize, true);
+    while (window.getSize() < maxSize) {
+      runTask(window, 10, true);
+    }
+    return window;
+  }
+
+  private static void runTask(WorkerTaskWindow window, long latencyMs, boolean success) {
+    window.onTaskStarted();
+    window.onTaskCompleted(latencyMs, success);
+  }
+}
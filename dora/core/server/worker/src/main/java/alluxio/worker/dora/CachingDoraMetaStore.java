@@ -0,0 +1,167 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import alluxio.Constants;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.proto.meta.DoraMeta.FileStatus;
+import alluxio.resource.CloseableIterator;
+import alluxio.underfs.UfsStatus;
+
+import com.codahale.metrics.Counter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.RateLimiter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link DoraMetaStore} caching the parsed metadata of another meta store in memory.
+ *
+ * The cache is bounded by the serialized size of the file statuses, and written through: the
+ * metadata is put into and removed from the underlying store before the cache, so a lookup
+ * loading the cache concurrently cannot leave a stale entry behind. The metadata in the cache
+ * expires with the same TTL as in the underlying store. Missing metadata is not cached.
+ * The directory listings are not cached, they are read from the underlying store.
+ */
+@ThreadSafe
+public class CachingDoraMetaStore implements DoraMetaStore {
+  /** The estimated overhead of a cache entry on top of the serialized file status. */
+  private static final int ENTRY_OVERHEAD_BYTES = 64;
+
+  private final DoraMetaStore mMetaStore;
+  /** The TTL in seconds of the metadata, or -1 if the metadata never expires. */
+  private final long mMetaTTL;
+  private final Cache<String, FileStatus> mCache;
+
+  /**
+   * @param metaStore the meta store to cache
+   * @param maxSizeBytes the max size of the cache
+   * @param metaTTL the TTL in seconds of the metadata, or -1 if the metadata never expires
+   */
+  public CachingDoraMetaStore(DoraMetaStore metaStore, long maxSizeBytes, long metaTTL) {
+    mMetaStore = metaStore;
+    mMetaTTL = metaTTL;
+    Caffeine<String, FileStatus> builder = Caffeine.newBuilder()
+        .maximumWeight(maxSizeBytes)
+        .weigher((String path, FileStatus status) ->
+            path.length() * 2 + status.getSerializedSize() + ENTRY_OVERHEAD_BYTES);
+    if (metaTTL != -1) {
+      builder.expireAfterWrite(Duration.ofSeconds(metaTTL));
+    }
+    mCache = builder.build();
+    MetricsSystem.registerGaugeIfAbsent(MetricKey.WORKER_METASTORE_CACHE_SIZE.getName(),
+        mCache::estimatedSize);
+  }
+
+  @Override
+  public Optional<FileStatus> getDoraMeta(String path) {
+    FileStatus status = mCache.getIfPresent(path);
+    if (status != null) {
+      if (!isExpired(status)) {
+        Metrics.CACHE_HITS.inc();
+        return Optional.of(status);
+      }
+      // let the underlying store remove the expired metadata
+      mCache.invalidate(path);
+    }
+    Metrics.CACHE_MISSES.inc();
+    // the loading blocks the puts and removes of the path to the cache until it is done
+    return Optional.ofNullable(
+        mCache.get(path, p -> mMetaStore.getDoraMeta(p).orElse(null)));
+  }
+
+  @Override
+  public void putDoraMeta(String path, FileStatus meta) {
+    mMetaStore.putDoraMeta(path, meta);
+    mCache.put(path, meta);
+  }
+
+  @Override
+  public void removeDoraMeta(String path) {
+    mMetaStore.removeDoraMeta(path);
+    mCache.invalidate(path);
+  }
+
+  @Override
+  public void putListing(String path, List<UfsStatus> children, long listTimeMs) {
+    mMetaStore.putListing(path, children, listTimeMs);
+  }
+
+  @Override
+  public Optional<Long> getListingTime(String path) {
+    return mMetaStore.getListingTime(path);
+  }
+
+  @Override
+  public CloseableIterator<UfsStatus> iterateListing(String path, @Nullable String fromName) {
+    return mMetaStore.iterateListing(path, fromName);
+  }
+
+  @Override
+  public void removeListing(String path) {
+    mMetaStore.removeListing(path);
+  }
+
+  @Override
+  public long removeExpired(RateLimiter rateLimiter) {
+    // the cached metadata expires by itself
+    return mMetaStore.removeExpired(rateLimiter);
+  }
+
+  @Override
+  public void clear() {
+    mMetaStore.clear();
+    mCache.invalidateAll();
+  }
+
+  @Override
+  public void close() {
+    mCache.invalidateAll();
+    mMetaStore.close();
+  }
+
+  @Override
+  public Optional<Long> size() {
+    return mMetaStore.size();
+  }
+
+  @Override
+  public Optional<Long> sizeInBytes() {
+    return mMetaStore.sizeInBytes();
+  }
+
+  @VisibleForTesting
+  long getCachedCount() {
+    mCache.cleanUp();
+    return mCache.estimatedSize();
+  }
+
+  private boolean isExpired(FileStatus status) {
+    return mMetaTTL != -1 && DoraMetaStore.isOutdated(status, mMetaTTL * Constants.SECOND_MS);
+  }
+
+  private static final class Metrics {
+    private static final Counter CACHE_HITS =
+        MetricsSystem.counter(MetricKey.WORKER_METASTORE_CACHE_HITS.getName());
+    private static final Counter CACHE_MISSES =
+        MetricsSystem.counter(MetricKey.WORKER_METASTORE_CACHE_MISSES.getName());
+
+    private Metrics() {} // prevent instantiation
+  }
+}
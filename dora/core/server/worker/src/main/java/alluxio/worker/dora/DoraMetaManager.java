@@ -19,20 +19,27 @@ import alluxio.conf.Configuration;
 import alluxio.conf.PropertyKey;
 import alluxio.file.FileId;
 import alluxio.grpc.FileInfo;
+import alluxio.heartbeat.HeartbeatExecutor;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
 import alluxio.proto.meta.DoraMeta;
 import alluxio.proto.meta.DoraMeta.FileStatus;
+import alluxio.resource.CloseableIterator;
 import alluxio.underfs.Fingerprint;
 import alluxio.underfs.UfsStatus;
 import alluxio.underfs.UnderFileSystem;
 import alluxio.underfs.UnderFileSystemConfiguration;
 import alluxio.underfs.options.GetStatusOptions;
 import alluxio.underfs.options.ListOptions;
+import alluxio.util.CommonUtils;
+import alluxio.util.io.PathUtils;
 import alluxio.util.logging.SamplingLogger;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.collect.Iterators;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,12 +47,31 @@ import java.io.Closeable;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
 
 /**
  * The Dora metadata manager that orchestrates the metadata operations.
  *
+ * The directory listings from the UFS are kept in an in-memory listing cache and, if enabled,
+ * in the listing index of the metastore. The index keeps recursive listings as the listings of
+ * all the directories in them, and serves listings in the order of the paths relative to the
+ * listed directory, so that a listing can be continued after a given path.
+ *
+ * The listeners of the metadata invalidation, e.g. the clients caching the metadata, are
+ * notified of the files whose metadata is found changed in the UFS or removed.
+ *
  * TODO(elega) Invalidating page cache synchronously causes performance issue and currently it
  *  also lacks concurrency control. Address this problem in the future.
  */
@@ -65,6 +91,12 @@ public class DoraMetaManager implements Closeable {
       = Configuration.getBoolean(PropertyKey.USER_FILE_METADATA_LOAD_REAL_CONTENT_HASH);
   private final boolean mXAttrWriteToUFSEnabled =
       Configuration.getBoolean(PropertyKey.UNDERFS_XATTR_CHANGE_ENABLED);
+  private final boolean mListingIndexEnabled =
+      Configuration.getBoolean(PropertyKey.DORA_WORKER_METASTORE_LISTING_ENABLED);
+  private final long mListingTtlMs =
+      Configuration.getMs(PropertyKey.DORA_UFS_LIST_STATUS_CACHE_TTL);
+  private final int mStreamedListingCacheMaxFiles =
+      Configuration.getInt(PropertyKey.DORA_UFS_LIST_STATUS_STREAM_CACHE_NR_FILES);
   private final Cache<String, ListStatusResult> mListStatusCache = mListingCacheCapacity == 0
       ? null
       : Caffeine.newBuilder()
@@ -73,6 +105,7 @@ public class DoraMetaManager implements Closeable {
           v.mUfsStatuses == null ? 0 : v.mUfsStatuses.length)
       .expireAfterWrite(Configuration.getDuration(PropertyKey.DORA_UFS_LIST_STATUS_CACHE_TTL))
       .build();
+  private final Set<Consumer<String>> mInvalidationListeners = ConcurrentHashMap.newKeySet();
 
   /**
    * Creates a dora meta manager.
@@ -88,10 +121,25 @@ public class DoraMetaManager implements Closeable {
     String dbDir = mConf.getString(PropertyKey.DORA_WORKER_METASTORE_ROCKSDB_DIR);
     Duration duration = mConf.getDuration(PropertyKey.DORA_WORKER_METASTORE_ROCKSDB_TTL);
     long ttl = (duration.isNegative() || duration.isZero()) ? -1 : duration.getSeconds();
-    mMetaStore = new RocksDBDoraMetaStore(dbDir, ttl);
+    DoraMetaStore metaStore = new RocksDBDoraMetaStore(dbDir, ttl,
+        mListingIndexEnabled && mListingTtlMs > 0 ? mListingTtlMs : -1);
+    long cacheSize = mConf.getBytes(PropertyKey.DORA_WORKER_METASTORE_CACHE_SIZE);
+    mMetaStore = cacheSize > 0 ? new CachingDoraMetaStore(metaStore, cacheSize, ttl) : metaStore;
     mCacheManager = cacheManger;
     mDoraWorker = doraWorker;
     mUfsManager = ufsManager;
+    MetricsSystem.registerGaugeIfAbsent(MetricKey.WORKER_METASTORE_ENTRIES.getName(),
+        () -> mMetaStore.size().orElse(-1L));
+    MetricsSystem.registerGaugeIfAbsent(MetricKey.WORKER_METASTORE_SIZE.getName(),
+        () -> mMetaStore.sizeInBytes().orElse(-1L));
+  }
+
+  /**
+   * @return a heartbeat executor removing the expired entries from the metastore
+   */
+  public HeartbeatExecutor createMetaStoreSweeper() {
+    return new DoraMetaStoreSweeper(mMetaStore,
+        mConf.getInt(PropertyKey.DORA_WORKER_METASTORE_SWEEP_RATE));
   }
 
   protected UnderFileSystem getUfsInstance(String ufsUriStr) {
@@ -161,6 +209,10 @@ public class DoraMetaManager implements Closeable {
    */
   public void put(String path, FileStatus status) {
     Optional<FileStatus> existingStatus = mMetaStore.getDoraMeta(path);
+    if (existingStatus.isPresent()
+        && isMetadataChanged(existingStatus.get().getFileInfo(), status.getFileInfo())) {
+      notifyInvalidation(path);
+    }
     if (!existingStatus.isPresent()
         || existingStatus.get().getFileInfo().getFolder()
         || existingStatus.get().getFileInfo().getLength() == 0) {
@@ -183,11 +235,24 @@ public class DoraMetaManager implements Closeable {
     Optional<FileStatus> status = mMetaStore.getDoraMeta(path);
     if (status.isPresent()) {
       mMetaStore.removeDoraMeta(path);
+      notifyInvalidation(path);
     }
     invalidateCachedFile(path);
     return status;
   }
 
+  /**
+   * Adds a listener of the paths whose metadata is invalidated. The listener is called on the
+   * thread updating the metadata, so it must not block.
+   *
+   * @param listener the listener of the full ufs paths
+   * @return a closeable removing the listener
+   */
+  public Closeable addInvalidationListener(Consumer<String> listener) {
+    mInvalidationListeners.add(listener);
+    return () -> mInvalidationListeners.remove(listener);
+  }
+
   /**
    * Invalidates the listing cache of a given path.
    * @param path the full ufs path
@@ -196,6 +261,9 @@ public class DoraMetaManager implements Closeable {
     if (mListStatusCache != null) {
       mListStatusCache.invalidate(path);
     }
+    if (mListingIndexEnabled) {
+      mMetaStore.removeListing(getListingPath(path));
+    }
   }
 
   /**
@@ -204,9 +272,7 @@ public class DoraMetaManager implements Closeable {
    * @param path the full ufs path
    */
   public void invalidateListingCacheOfParent(String path) {
-    if (mListStatusCache != null) {
-      mListStatusCache.invalidate(getPathParent(path));
-    }
+    invalidateListingCache(getPathParent(path));
   }
 
   /**
@@ -217,16 +283,115 @@ public class DoraMetaManager implements Closeable {
    * is empty, it means that the directory does not exist.
    */
   public Optional<ListStatusResult> listCached(String path, boolean isRecursive) {
-    if (mListStatusCache == null) {
+    // We don't cache recursive listing result in memory as usually the number of files are too
+    // large to cache.
+    if (mListStatusCache != null && !isRecursive) {
+      ListStatusResult result = mListStatusCache.getIfPresent(path);
+      if (result != null) {
+        return Optional.of(result);
+      }
+    }
+    Optional<ListStatusResult> result =
+        listFromMetaStore(path, isRecursive, null, Integer.MAX_VALUE);
+    if (result.isPresent() && mListStatusCache != null && !isRecursive) {
+      mListStatusCache.put(path, result.get());
+    }
+    return result;
+  }
+
+  /**
+   * Lists a directory from the listing index of the metastore, in the order of the paths
+   * relative to the directory.
+   *
+   * @param path the full ufs path of the directory
+   * @param isRecursive if the listing is recursive
+   * @param startAfter if not null, only the files and directories whose paths relative to the
+   *        directory come after it are listed
+   * @param limit the max number of files and directories to list
+   * @return the listing result, or an empty optional if the listing of the directory, or of any
+   * of its listed subdirectories when listing recursively, is not in the index or has expired
+   */
+  public Optional<ListStatusResult> listFromMetaStore(String path, boolean isRecursive,
+      @Nullable String startAfter, int limit) {
+    if (!mListingIndexEnabled) {
       return Optional.empty();
     }
-    // We don't cache recursive listing result as usually the number of files are too
-    // large to cache.
-    if (isRecursive) {
+    List<String> startAfterNames = Strings.isNullOrEmpty(startAfter)
+        ? Collections.emptyList() : Arrays.asList(startAfter.split(AlluxioURI.SEPARATOR));
+    List<UfsStatus> statuses = new ArrayList<>();
+    long listTimeMs = listFromMetaStore(getListingPath(path), "", isRecursive, startAfterNames,
+        limit, statuses);
+    if (listTimeMs == -1) {
       return Optional.empty();
     }
-    ListStatusResult result = mListStatusCache.getIfPresent(path);
-    return Optional.ofNullable(result);
+    long ageNs = (System.currentTimeMillis() - listTimeMs) * Constants.MS_NANO;
+    return Optional.of(new ListStatusResult(System.nanoTime() - ageNs,
+        statuses.toArray(new UfsStatus[0]), false));
+  }
+
+  /**
+   * Lists a directory from the listing index in the depth-first order of the sorted children.
+   *
+   * @param dir the listing path of the directory
+   * @param relativeDir the path of the directory relative to the listed one
+   * @param isRecursive if the listing is recursive
+   * @param startAfterNames the names in the path to start after, relative to the directory
+   * @param limit the max number of statuses in the result
+   * @param statuses the statuses listed so far, where to add the statuses
+   * @return the time the oldest of the listings used was listed, or -1 if a listing is missing
+   */
+  private long listFromMetaStore(String dir, String relativeDir, boolean isRecursive,
+      List<String> startAfterNames, int limit, List<UfsStatus> statuses) {
+    Optional<Long> listTimeMs = mMetaStore.getListingTime(dir);
+    if (!listTimeMs.isPresent() || System.currentTimeMillis() - listTimeMs.get() > mListingTtlMs) {
+      return -1;
+    }
+    long oldestListTimeMs = listTimeMs.get();
+    String fromName = startAfterNames.isEmpty() ? null : startAfterNames.get(0);
+    try (CloseableIterator<UfsStatus> children = mMetaStore.iterateListing(dir, fromName)) {
+      while (children.hasNext() && statuses.size() < limit) {
+        UfsStatus child = children.next();
+        String name = child.getName();
+        // the path to start after is either this child or one of its descendants
+        boolean isStart = name.equals(fromName);
+        if (!isStart) {
+          child.setName(relativeDir + name);
+          statuses.add(child);
+        }
+        if (isRecursive && child.isDirectory()) {
+          long childListTimeMs = listFromMetaStore(
+              dir + name + AlluxioURI.SEPARATOR,
+              relativeDir + name + AlluxioURI.SEPARATOR, true,
+              isStart ? startAfterNames.subList(1, startAfterNames.size())
+                  : Collections.emptyList(), limit, statuses);
+          if (childListTimeMs == -1) {
+            return -1;
+          }
+          oldestListTimeMs = Math.min(oldestListTimeMs, childListTimeMs);
+        }
+      }
+    }
+    return oldestListTimeMs;
+  }
+
+  /**
+   * Gets a part of a listing, in the same order as the listing from the listing index.
+   *
+   * @param statuses the statuses of the listing, named by their paths relative to the directory
+   * @param startAfter if not null, only the statuses whose paths come after it are returned
+   * @param limit the max number of statuses to return
+   * @return the part of the listing
+   */
+  public static UfsStatus[] getListingPart(UfsStatus[] statuses, @Nullable String startAfter,
+      int limit) {
+    Comparator<String> order = Comparator.comparing(
+        name -> name.replace(AlluxioURI.SEPARATOR.charAt(0), '\0'));
+    return Arrays.stream(statuses)
+        .filter(status -> Strings.isNullOrEmpty(startAfter)
+            || order.compare(status.getName(), startAfter) > 0)
+        .sorted(Comparator.comparing(UfsStatus::getName, order))
+        .limit(limit)
+        .toArray(UfsStatus[]::new);
   }
 
   /**
@@ -240,14 +405,17 @@ public class DoraMetaManager implements Closeable {
    */
   public Optional<UfsStatus[]> listFromUfsThenCache(String path, boolean isRecursive)
       throws IOException {
-    // Recursive listing results are not cached.
+    // Recursive listing results are not cached in memory.
     if (mListStatusCache == null || isRecursive) {
-      return listFromUfs(path, isRecursive);
+      Optional<UfsStatus[]> listResults = listFromUfs(path, isRecursive);
+      listResults.ifPresent(statuses -> putListing(path, statuses, isRecursive));
+      return listResults;
     }
     try {
       ListStatusResult cached = mListStatusCache.get(path, (k) -> {
         try {
           Optional<UfsStatus[]> listResults = listFromUfs(path, false);
+          listResults.ifPresent(statuses -> putListing(path, statuses, false));
           return listResults.map(
                   ufsStatuses -> new ListStatusResult(
                       System.nanoTime(), ufsStatuses,
@@ -274,6 +442,36 @@ public class DoraMetaManager implements Closeable {
     }
   }
 
+  /**
+   * Lists a directory from UFS as an iterator, which gets the listing from UFS chunk by chunk
+   * while it is iterated if the UFS supports it. Once the iterator is exhausted, the listing is
+   * cached like by {@link #listFromUfsThenCache(String, boolean)}, unless it has more files and
+   * directories than {@link PropertyKey#DORA_UFS_LIST_STATUS_STREAM_CACHE_NR_FILES}.
+   * @param path the ufs path
+   * @param isRecursive if the listing is recursive
+   * @return an empty option if the directory does not exist or
+   * the path does not denote a directory,
+   * otherwise an option contains an iterator of the ufs statuses.
+   * @throws IOException if the UFS call failed
+   */
+  public Optional<Iterator<UfsStatus>> iterateFromUfsThenCache(String path, boolean isRecursive)
+      throws IOException {
+    UnderFileSystem ufs = getUfsInstance(path);
+    Iterator<UfsStatus> statuses = null;
+    try {
+      statuses = ufs.listStatusIterable(
+          path, ListOptions.defaults().setRecursive(isRecursive), null, 0);
+    } catch (FileNotFoundException e) {
+      // the path might denote a file
+    }
+    if (statuses == null) {
+      Optional<UfsStatus[]> status = getStatusAsListing(ufs, path);
+      cacheListing(path, status.orElse(null), isRecursive);
+      return status.map(Iterators::forArray);
+    }
+    return Optional.of(new CachingListingIterator(path, isRecursive, statuses));
+  }
+
   /**
    * Lists a directory from UFS.
    * @param path the ufs path
@@ -301,6 +499,18 @@ public class DoraMetaManager implements Closeable {
     // If list does not give a result,
     // the request path might either be a regular file/object or not exist.
     // Try getStatus() instead.
+    return getStatusAsListing(ufs, path);
+  }
+
+  /**
+   * Gets the status of a path which cannot be listed, as the listing of a file.
+   * @param ufs the ufs of the path
+   * @param path the ufs path
+   * @return an empty option if the path does not exist,
+   * otherwise an option contains an array with only the status of the file
+   */
+  private Optional<UfsStatus[]> getStatusAsListing(UnderFileSystem ufs, String path)
+      throws IOException {
     try {
       UfsStatus status = ufs.getStatus(path);
       if (status == null) {
@@ -314,6 +524,111 @@ public class DoraMetaManager implements Closeable {
     }
   }
 
+  /**
+   * Puts a listing from the UFS into the listing index, as the listings of all the directories
+   * in it.
+   *
+   * @param path the ufs path of the listed directory
+   * @param statuses the statuses of the listing, named by their paths relative to the directory
+   * @param isRecursive if the listing is recursive
+   */
+  private void putListing(String path, UfsStatus[] statuses, boolean isRecursive) {
+    if (!mListingIndexEnabled
+        || (statuses.length == 1 && statuses[0].isFile() && statuses[0].getName().isEmpty())) {
+      // the path denotes a file
+      return;
+    }
+    String dir = getListingPath(path);
+    Map<String, List<UfsStatus>> listings = new HashMap<>();
+    listings.put(dir, new ArrayList<>());
+    for (UfsStatus status : statuses) {
+      String name = CommonUtils.stripSuffixIfPresent(status.getName(), AlluxioURI.SEPARATOR);
+      int nameIndex = name.lastIndexOf(AlluxioURI.SEPARATOR) + 1;
+      UfsStatus child = status.copy();
+      child.setName(name.substring(nameIndex));
+      listings.computeIfAbsent(dir + name.substring(0, nameIndex), k -> new ArrayList<>())
+          .add(child);
+      if (isRecursive && status.isDirectory()) {
+        listings.computeIfAbsent(dir + name + AlluxioURI.SEPARATOR, k -> new ArrayList<>());
+      }
+    }
+    long listTimeMs = System.currentTimeMillis();
+    for (Map.Entry<String, List<UfsStatus>> listing : listings.entrySet()) {
+      mMetaStore.putListing(listing.getKey(), listing.getValue(), listTimeMs);
+    }
+  }
+
+  /**
+   * Caches a listing from the UFS like {@link #listFromUfsThenCache(String, boolean)} does.
+   *
+   * @param path the ufs path of the listed directory
+   * @param statuses the statuses of the listing, or null if the path does not exist
+   * @param isRecursive if the listing is recursive
+   */
+  private void cacheListing(String path, @Nullable UfsStatus[] statuses, boolean isRecursive) {
+    if (statuses != null) {
+      putListing(path, statuses, isRecursive);
+    }
+    if (mListStatusCache != null && !isRecursive) {
+      mListStatusCache.put(path, new ListStatusResult(System.nanoTime(), statuses,
+          statuses != null && statuses.length == 1 && statuses[0].isFile()));
+    }
+  }
+
+  /**
+   * An iterator of a listing from the UFS, which caches the listing once it is exhausted if it
+   * is small enough.
+   */
+  private final class CachingListingIterator implements Iterator<UfsStatus> {
+    private final String mPath;
+    private final boolean mIsRecursive;
+    private final Iterator<UfsStatus> mStatuses;
+    /** The statuses iterated so far, or null if the listing is not to be cached. */
+    @Nullable
+    private List<UfsStatus> mIterated;
+
+    private CachingListingIterator(String path, boolean isRecursive,
+        Iterator<UfsStatus> statuses) {
+      mPath = path;
+      mIsRecursive = isRecursive;
+      mStatuses = statuses;
+      mIterated = mStreamedListingCacheMaxFiles > 0 ? new ArrayList<>() : null;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (mStatuses.hasNext()) {
+        return true;
+      }
+      if (mIterated != null) {
+        cacheListing(mPath, mIterated.toArray(new UfsStatus[0]), mIsRecursive);
+        mIterated = null;
+      }
+      return false;
+    }
+
+    @Override
+    public UfsStatus next() {
+      UfsStatus status = mStatuses.next();
+      if (mIterated != null) {
+        if (mIterated.size() < mStreamedListingCacheMaxFiles) {
+          mIterated.add(status);
+        } else {
+          // too large to cache, stop holding the listing
+          mIterated = null;
+        }
+      }
+      return status;
+    }
+  }
+
+  /**
+   * @return the path of a directory in the listing index, which ends with a separator
+   */
+  private static String getListingPath(String path) {
+    return PathUtils.normalizePath(path, AlluxioURI.SEPARATOR);
+  }
+
   /**
    * Decides if the page cache should be invalidated if the file metadata is updated.
    * Similar to {@link alluxio.underfs.Fingerprint#matchContent(Fingerprint)},
@@ -341,6 +656,26 @@ public class DoraMetaManager implements Closeable {
         || !origin.getContentHash().equals(updated.getContentHash());
   }
 
+  /**
+   * @return whether the metadata cached by the clients is outdated by the update
+   */
+  private static boolean isMetadataChanged(FileInfo origin, FileInfo updated) {
+    return origin.getFolder() != updated.getFolder()
+        || origin.getLength() != updated.getLength()
+        || origin.getLastModificationTimeMs() != updated.getLastModificationTimeMs()
+        || !origin.getContentHash().equals(updated.getContentHash());
+  }
+
+  private void notifyInvalidation(String path) {
+    for (Consumer<String> listener : mInvalidationListeners) {
+      try {
+        listener.accept(path);
+      } catch (RuntimeException e) {
+        LOG.warn("Failed to notify the invalidation of the metadata of {}", path, e);
+      }
+    }
+  }
+
   private void invalidateCachedFile(String path) {
     SAMPLING_LOG.info("Invalidating cached file {}", path);
     FileId fileId = FileId.of(AlluxioURI.hash(path));
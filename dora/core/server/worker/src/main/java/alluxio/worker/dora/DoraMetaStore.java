@@ -12,13 +12,33 @@
 package alluxio.worker.dora;
 
 import alluxio.proto.meta.DoraMeta.FileStatus;
+import alluxio.resource.CloseableIterator;
+import alluxio.underfs.UfsStatus;
 
+import com.google.common.util.concurrent.RateLimiter;
+
+import java.util.List;
 import java.util.Optional;
+import javax.annotation.Nullable;
 
 /**
  * The Dora metadata Store.
  */
 public interface DoraMetaStore {
+  /**
+   * Checks if the metadata was refreshed longer ago than the given age. The metadata refreshed
+   * at a time in the future, like the metadata stored in nanoseconds by the previous versions,
+   * is always outdated.
+   *
+   * @param status the metadata of a file
+   * @param maxAgeMs the max age in milliseconds
+   * @return true if the metadata is outdated
+   */
+  static boolean isOutdated(FileStatus status, long maxAgeMs) {
+    long ageMs = System.currentTimeMillis() - status.getTs();
+    return ageMs < 0 || ageMs > maxAgeMs;
+  }
+
   /**
    * queries dora metadata from the dora meta store.
    *
@@ -43,6 +63,49 @@ public interface DoraMetaStore {
    */
   void removeDoraMeta(String path);
 
+  /**
+   * Puts the listing of a directory into the dora meta store. If the listing already exists,
+   * it will be replaced with the given listing.
+   *
+   * @param path the full path of the directory
+   * @param children the statuses of the children of the directory, named by their names in it
+   * @param listTimeMs the time the directory was listed, in milliseconds since the epoch
+   */
+  void putListing(String path, List<UfsStatus> children, long listTimeMs);
+
+  /**
+   * Queries the time a directory was listed.
+   *
+   * @param path the full path of the directory
+   * @return the time the directory was listed if its listing is found
+   */
+  Optional<Long> getListingTime(String path);
+
+  /**
+   * Iterates over the listing of a directory, in the order of the names of the children.
+   *
+   * @param path the full path of the directory
+   * @param fromName if not null, the iteration starts from the first child whose name is not
+   *        less than it
+   * @return an iterator over the statuses of the children, which must be closed after use
+   */
+  CloseableIterator<UfsStatus> iterateListing(String path, @Nullable String fromName);
+
+  /**
+   * Removes the listing of a directory, or does nothing if the listing does not exist.
+   *
+   * @param path the full path of the directory
+   */
+  void removeListing(String path);
+
+  /**
+   * Removes the expired metadata and directory listings from the dora meta store.
+   *
+   * @param rateLimiter the limiter of the rate at which the entries are checked
+   * @return the number of removed entries
+   */
+  long removeExpired(RateLimiter rateLimiter);
+
   /**
    * Removes all metadata from the dora meta store.
    */
@@ -57,4 +120,9 @@ public interface DoraMetaStore {
    * @return number of metadata records currently stored in this store
    */
   Optional<Long> size();
+
+  /**
+   * @return the estimated size in bytes of the dora meta store
+   */
+  Optional<Long> sizeInBytes();
 }
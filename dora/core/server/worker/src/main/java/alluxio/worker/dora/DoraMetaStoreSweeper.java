@@ -0,0 +1,68 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import alluxio.heartbeat.HeartbeatExecutor;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+
+import com.codahale.metrics.Counter;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.RateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A heartbeat executor removing the expired metadata and directory listings from a
+ * {@link DoraMetaStore}, at a limited rate of checked entries.
+ */
+@NotThreadSafe
+public class DoraMetaStoreSweeper implements HeartbeatExecutor {
+  private static final Logger LOG = LoggerFactory.getLogger(DoraMetaStoreSweeper.class);
+
+  private final DoraMetaStore mMetaStore;
+  private final RateLimiter mRateLimiter;
+
+  /**
+   * @param metaStore the meta store to sweep
+   * @param entriesPerSecond the max number of entries checked per second
+   */
+  public DoraMetaStoreSweeper(DoraMetaStore metaStore, int entriesPerSecond) {
+    Preconditions.checkArgument(entriesPerSecond > 0,
+        "entries per second should be positive, but is %s", entriesPerSecond);
+    mMetaStore = metaStore;
+    mRateLimiter = RateLimiter.create(entriesPerSecond);
+  }
+
+  @Override
+  public void heartbeat(long timeLimitMs) {
+    long startMs = System.currentTimeMillis();
+    long removed = mMetaStore.removeExpired(mRateLimiter);
+    Metrics.EXPIRED_ENTRIES_REMOVED.inc(removed);
+    LOG.debug("Removed {} expired entries from the metastore in {}ms", removed,
+        System.currentTimeMillis() - startMs);
+  }
+
+  @Override
+  public void close() {
+    // Nothing to clean up
+  }
+
+  private static final class Metrics {
+    private static final Counter EXPIRED_ENTRIES_REMOVED =
+        MetricsSystem.counter(MetricKey.WORKER_METASTORE_EXPIRED_ENTRIES_REMOVED.getName());
+
+    private Metrics() {} // prevent instantiation
+  }
+}
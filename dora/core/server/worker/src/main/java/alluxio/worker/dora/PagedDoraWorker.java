@@ -14,11 +14,13 @@ package alluxio.worker.dora;
 import static alluxio.client.file.cache.CacheUsage.PartitionDescriptor.file;
 
 import alluxio.AlluxioURI;
+import alluxio.CloseableSupplier;
 import alluxio.Constants;
 import alluxio.DefaultStorageTierAssoc;
 import alluxio.PositionReader;
 import alluxio.Server;
 import alluxio.StorageTierAssoc;
+import alluxio.client.file.CacheContext;
 import alluxio.client.file.FileSystem;
 import alluxio.client.file.FileSystemContext;
 import alluxio.client.file.cache.CacheManager;
@@ -36,6 +38,7 @@ import alluxio.exception.FileAlreadyExistsException;
 import alluxio.exception.runtime.AlluxioRuntimeException;
 import alluxio.exception.runtime.FailedPreconditionRuntimeException;
 import alluxio.exception.runtime.UnavailableRuntimeException;
+import alluxio.exception.runtime.UnimplementedRuntimeException;
 import alluxio.exception.status.FailedPreconditionException;
 import alluxio.grpc.Command;
 import alluxio.grpc.CommandType;
@@ -48,6 +51,7 @@ import alluxio.grpc.GetStatusPOptions;
 import alluxio.grpc.GrpcService;
 import alluxio.grpc.GrpcUtils;
 import alluxio.grpc.ListStatusPOptions;
+import alluxio.grpc.ListStatusPartialPOptions;
 import alluxio.grpc.LoadDataSubTask;
 import alluxio.grpc.LoadFailure;
 import alluxio.grpc.LoadFileResponse;
@@ -107,36 +111,41 @@ import alluxio.worker.task.ValidateHandler;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
 import com.google.common.io.Closer;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.inject.Inject;
 import com.google.protobuf.ByteString;
 import io.grpc.Status;
-import io.netty.buffer.ByteBuf;
-import io.netty.buffer.PooledByteBufAllocator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import javax.annotation.Nullable;
 import javax.inject.Named;
 
@@ -149,6 +158,8 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
   // for now Dora Worker does not support Alluxio <-> UFS mapping,
   // and assumes all UFS paths belong to the same UFS.
   private static final int MOUNT_POINT = 1;
+  /** The max number of pages loaded from a remote worker before being cached as a batch. */
+  private static final int LOAD_BATCH_PAGES = 8;
   private final Closer mResourceCloser = Closer.create();
   // TODO(lucy) change to string typed once membership manager got enabled by default
   private final AtomicReference<WorkerIdentity> mWorkerId;
@@ -170,6 +181,14 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
   private final boolean mClientWriteToUFSEnabled;
   private final boolean mXAttrWriteToUFSEnabled;
   private final ConcurrentHashSet<PageId> mLoadingPages = new ConcurrentHashSet<>();
+  /** Coalesces the UFS reads of the pages missed by concurrent readers. */
+  private final UfsPageLoader mUfsPageLoader;
+  /** Reads the parts of the ranges loaded from the UFS for load jobs. */
+  private final ExecutorService mLoadExecutor;
+  /** The number of pages read from the UFS in a single request by load jobs. */
+  private final int mLoadReadPages;
+  /** The number of parts a range is split into by load jobs. */
+  private final int mLoadReadParallelism;
   private final ExecutorService mCacheDataExecutor = Executors.newFixedThreadPool(
       Configuration.getInt(PropertyKey.WORKER_PRELOAD_DATA_THREAD_POOL_SIZE));
 
@@ -213,6 +232,15 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
     mPageSize = mConf.getBytes(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE);
     mBlockMasterClientPool = blockMasterClientPool;
     mCacheManager = cacheManager;
+    mUfsPageLoader = new UfsPageLoader(mCacheManager, mPageSize,
+        mConf.getInt(PropertyKey.WORKER_UFS_READ_MAX_PAGES));
+    mLoadReadPages = (int) Math.max(1,
+        mConf.getBytes(PropertyKey.WORKER_LOAD_UFS_READ_SIZE) / mPageSize);
+    mLoadReadParallelism = Math.max(1, mConf.getInt(PropertyKey.WORKER_LOAD_UFS_READ_PARALLELISM));
+    ExecutorService loadExecutor = ExecutorServiceFactories.fixedThreadPool(
+        "dora-load-ufs-read", mConf.getInt(PropertyKey.WORKER_LOAD_UFS_READ_THREADS)).create();
+    mLoadExecutor = loadExecutor;
+    mResourceCloser.register(loadExecutor::shutdownNow);
     mMetaManager = mResourceCloser.register(
         new DoraMetaManager(mConf, this, mCacheManager, mUfsManager));
     mMembershipManager = membershipManager;
@@ -279,6 +307,14 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
                   PropertyKey.WORKER_BLOCK_HEARTBEAT_INTERVAL_MS)),
               mConf, ServerUserState.global()));
     }
+    long sweepIntervalMs = mConf.getMs(PropertyKey.DORA_WORKER_METASTORE_SWEEP_INTERVAL);
+    if (sweepIntervalMs > 0) {
+      getExecutorService()
+          .submit(new HeartbeatThread(HeartbeatContext.WORKER_METASTORE_SWEEP,
+              mResourceCloser.register(mMetaManager.createMetaStoreSweeper()),
+              () -> new FixedIntervalSupplier(sweepIntervalMs),
+              mConf, ServerUserState.global()));
+    }
   }
 
   /**
@@ -373,17 +409,9 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
   @Nullable
   public UfsStatus[] listStatus(String path, ListStatusPOptions options)
       throws IOException, AccessControlException {
-    final long syncIntervalMs = options.hasCommonOptions()
-        ? (options.getCommonOptions().hasSyncIntervalMs()
-        ? options.getCommonOptions().getSyncIntervalMs() : -1) :
-        -1;
     boolean isRecursive = options.getRecursive();
     final Optional<ListStatusResult> resultFromCache = mMetaManager.listCached(path, isRecursive);
-    if (resultFromCache.isPresent()
-        && options.getLoadMetadataType() != LoadMetadataPType.ALWAYS
-        && (syncIntervalMs < 0
-        || System.nanoTime() - resultFromCache.get().mTimeStamp
-        <= syncIntervalMs * Constants.MS_NANO)) {
+    if (resultFromCache.isPresent() && isListingFresh(resultFromCache.get(), options)) {
       MetricsSystem.counter(MetricKey.WORKER_LIST_STATUS_HIT_REQUESTS.getName()).inc();
       return resultFromCache.get().mUfsStatuses;
     }
@@ -394,6 +422,71 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
     return ufsStatuses.orElse(null);
   }
 
+  @Override
+  @Nullable
+  public Iterator<UfsStatus> iterateStatus(String path, ListStatusPOptions options)
+      throws IOException, AccessControlException {
+    boolean isRecursive = options.getRecursive();
+    final Optional<ListStatusResult> resultFromCache = mMetaManager.listCached(path, isRecursive);
+    if (resultFromCache.isPresent() && isListingFresh(resultFromCache.get(), options)) {
+      MetricsSystem.counter(MetricKey.WORKER_LIST_STATUS_HIT_REQUESTS.getName()).inc();
+      UfsStatus[] statuses = resultFromCache.get().mUfsStatuses;
+      return statuses == null ? null : Iterators.forArray(statuses);
+    }
+    mMetaManager.invalidateListingCache(path);
+    Optional<Iterator<UfsStatus>> ufsStatuses =
+        mMetaManager.iterateFromUfsThenCache(path, isRecursive);
+    MetricsSystem.counter(MetricKey.WORKER_LIST_STATUS_EXTERNAL_REQUESTS.getName()).inc();
+    return ufsStatuses.orElse(null);
+  }
+
+  @Override
+  @Nullable
+  public UfsStatus[] listStatusPartial(String path, ListStatusPartialPOptions options)
+      throws IOException, AccessControlException {
+    if (options.hasOffsetId() || options.hasPrefix()) {
+      throw new UnimplementedRuntimeException(
+          "Partial listing by file ID or prefix is not supported by workers");
+    }
+    Preconditions.checkArgument(options.getBatchSize() > 0, "batch size should be positive");
+    ListStatusPOptions listOptions = options.getOptions();
+    boolean isRecursive = listOptions.getRecursive();
+    String startAfter = options.hasStartAfter()
+        ? CommonUtils.stripPrefixIfPresent(options.getStartAfter(), AlluxioURI.SEPARATOR) : null;
+    int offsetCount = options.hasOffsetCount() ? Math.max(0, options.getOffsetCount()) : 0;
+    int limit = (int) Math.min(Integer.MAX_VALUE, (long) offsetCount + options.getBatchSize());
+    Optional<ListStatusResult> resultFromIndex =
+        mMetaManager.listFromMetaStore(path, isRecursive, startAfter, limit);
+    UfsStatus[] statuses;
+    // A listing continued from an offset keeps being served from the index while it is there,
+    // so that the parts of the listing do not skip or repeat entries.
+    boolean isContinued = !Strings.isNullOrEmpty(startAfter) || offsetCount > 0;
+    if (resultFromIndex.isPresent()
+        && (isContinued || isListingFresh(resultFromIndex.get(), listOptions))) {
+      MetricsSystem.counter(MetricKey.WORKER_LIST_STATUS_HIT_REQUESTS.getName()).inc();
+      statuses = resultFromIndex.get().mUfsStatuses;
+    } else {
+      mMetaManager.invalidateListingCache(path);
+      Optional<UfsStatus[]> ufsStatuses = mMetaManager.listFromUfsThenCache(path, isRecursive);
+      MetricsSystem.counter(MetricKey.WORKER_LIST_STATUS_EXTERNAL_REQUESTS.getName()).inc();
+      if (!ufsStatuses.isPresent()) {
+        return null;
+      }
+      statuses = DoraMetaManager.getListingPart(ufsStatuses.get(), startAfter, limit);
+    }
+    return Arrays.copyOfRange(statuses, Math.min(offsetCount, statuses.length), statuses.length);
+  }
+
+  private static boolean isListingFresh(ListStatusResult result, ListStatusPOptions options) {
+    final long syncIntervalMs = options.hasCommonOptions()
+        ? (options.getCommonOptions().hasSyncIntervalMs()
+        ? options.getCommonOptions().getSyncIntervalMs() : -1) :
+        -1;
+    return options.getLoadMetadataType() != LoadMetadataPType.ALWAYS
+        && (syncIntervalMs < 0
+        || System.nanoTime() - result.mTimeStamp <= syncIntervalMs * Constants.MS_NANO);
+  }
+
   @Override
   public FileInfo getFileInfo(String ufsFullPath, GetStatusPOptions options)
       throws IOException, AccessControlException {
@@ -415,7 +508,7 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
     boolean shouldLoad = !status.isPresent();
     if (syncIntervalMs >= 0 && status.isPresent()) {
       // Check if the metadata is still valid.
-      if (System.nanoTime() - status.get().getTs() > syncIntervalMs * Constants.MS_NANO) {
+      if (DoraMetaStore.isOutdated(status.get(), syncIntervalMs)) {
         shouldLoad = true;
       }
     }
@@ -531,7 +624,7 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
       throws IOException {
     return DoraMeta.FileStatus.newBuilder()
         .setFileInfo(buildFileInfoFromUfsStatus(status, ufsFullPath, xattrMap))
-        .setTs(System.nanoTime())
+        .setTs(System.currentTimeMillis())
         .build();
   }
 
@@ -539,8 +632,8 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
   public BlockReader createFileReader(String fileId, long offset, boolean positionShort,
       Protocol.OpenUfsBlockOptions options) throws IOException, AccessControlException {
     UnderFileSystem ufs = getUfsInstance(options.getUfsPath());
-    return PagedFileReader.create(mConf, mCacheManager, ufs, fileId,
-        options.getUfsPath(), options.getBlockSize(), offset);
+    return PagedFileReader.create(mConf, mCacheManager, mUfsPageLoader, ufs, fileId,
+        options.getUfsPath(), options.getBlockSize(), offset, options.getBlockSize());
   }
 
   @Override
@@ -571,6 +664,7 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
     List<LoadFailure> errors = Collections.synchronizedList(new ArrayList<>());
     AtomicInteger numSkipped = new AtomicInteger();
     AtomicLong skippedLength = new AtomicLong();
+    AtomicLong ufsBytesLoaded = new AtomicLong();
     for (LoadSubTask task : subTasks) {
       if (task.hasLoadMetadataSubtask()) {
         UfsStatus status = UfsStatus.fromProto(task.getLoadMetadataSubtask().getUfsStatus());
@@ -589,7 +683,8 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
           continue;
         }
         try {
-          ListenableFuture<Void> loadFuture = submitLoadDataSubTask(subtask, options, errors);
+          ListenableFuture<Void> loadFuture =
+              submitLoadDataSubTask(subtask, options, errors, ufsBytesLoaded);
           futures.add(loadFuture);
         } catch (RejectedExecutionException ex) {
           LOG.warn("Load task overloaded.");
@@ -603,6 +698,7 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
     return Futures.whenAllComplete(futures).call(
         () -> LoadFileResponse.newBuilder().addAllFailures(errors)
             .setBytesSkipped(skippedLength.get()).setNumSkipped(numSkipped.get())
+            .setBytesLoadedUfs(ufsBytesLoaded.get())
             // Status is a required field, put it as a placeholder
             .setStatus(TaskStatus.SUCCESS).build(),
         GrpcExecutors.READER_EXECUTOR);
@@ -622,7 +718,7 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
       // TODO(yimin) As an optimization, data does not need to load on a page basis.
       // Can implement a bulk load mechanism and load a couple of pages at the same time,
       // to improve the performance.
-      if (mLoadingPages.contains(pageId)) {
+      if (mLoadingPages.contains(pageId) || mUfsPageLoader.isLoading(pageId)) {
         continue;
       }
       if (mCacheManager.hasPageUnsafe(pageId)) {
@@ -640,7 +736,7 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
             return;
           }
           LOG.debug("Preloading {} pos: {} length: {}", ufsPath, loadPos, loadLength);
-          loadData(ufsPath, 0, loadPos, loadLength, fi.getLength());
+          loadData(ufsPath, loadPos, loadLength, fi.getLength());
         } catch (Exception e) {
           LOG.debug("Preloading failed for {} page: {}", ufsPath, pageId, e);
         } finally {
@@ -658,7 +754,8 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
   }
 
   private ListenableFuture<Void> submitLoadDataSubTask(
-      LoadDataSubTask subTask, UfsReadOptions options, List<LoadFailure> errors) {
+      LoadDataSubTask subTask, UfsReadOptions options, List<LoadFailure> errors,
+      AtomicLong ufsBytesLoaded) {
     ListenableFuture<Void> future =
         Futures.submit(() -> {
           try {
@@ -686,8 +783,12 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
               }
             }
             else {
-              loadData(subTask.getUfsPath(), 0, subTask.getOffsetInFile(), subTask.getLength(),
-                  fileLength);
+              long bytesLoaded = loadData(subTask.getUfsPath(), subTask.getOffsetInFile(),
+                  subTask.getLength(), fileLength);
+              MetricsSystem.meter(MetricKey.WORKER_BYTES_LOADED_UFS_THROUGHPUT.getName())
+                  .mark(bytesLoaded);
+              // reported to the job, which keeps the throughput of its own loads
+              ufsBytesLoaded.addAndGet(bytesLoaded);
             }
           } catch (Throwable e) {
             LOG.error("Loading {} failed", subTask, e);
@@ -741,30 +842,52 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
     }
   }
 
-  protected void loadData(String ufsPath, long mountId, long offset, long lengthToLoad,
-      long fileLength) throws AccessControlException, IOException {
-    Protocol.OpenUfsBlockOptions options =
-        Protocol.OpenUfsBlockOptions.newBuilder().setUfsPath(ufsPath).setMountId(mountId)
-                                    .setNoCache(false).setOffsetInFile(offset)
-                                    .setBlockSize(fileLength).build();
+  /**
+   * Loads a range of a file from the UFS straight into the page store. The range is split into
+   * parts made of whole UFS reads, which are loaded in parallel.
+   *
+   * @param ufsPath the UFS path of the file
+   * @param offset the offset of the range to load
+   * @param lengthToLoad the length of the range to load
+   * @param fileLength the file length
+   * @return the number of bytes read from the UFS, not counting the pages already cached
+   */
+  protected long loadData(String ufsPath, long offset, long lengthToLoad, long fileLength) {
     String fileId = new AlluxioURI(ufsPath).hash();
-    int bufferSize = (int) Math.min(4 * mPageSize, lengthToLoad);
-    ByteBuf buf =
-        PooledByteBufAllocator.DEFAULT.directBuffer(bufferSize);
-    try (BlockReader fileReader = createFileReader(fileId, offset, false, options)) {
-      //Transfers data from this reader to the buffer until we reach lengthToLoad.
-      int bytesRead;
-      while (lengthToLoad > 0 && (bytesRead = fileReader.transferTo(buf)) != -1) {
-        lengthToLoad -= bytesRead;
-        buf.clear();
-        if (lengthToLoad < bufferSize) {
-          buf.capacity((int) Math.min(lengthToLoad, bufferSize));
-        }
+    long start = offset / mPageSize * mPageSize;
+    long end = Math.min(fileLength, offset + lengthToLoad);
+    if (start >= end) {
+      return 0;
+    }
+    long readSize = mLoadReadPages * mPageSize;
+    long firstRead = start / readSize;
+    long numReads = (end + readSize - 1) / readSize - firstRead;
+    long readsPerPart = (numReads + mLoadReadParallelism - 1) / mLoadReadParallelism;
+    UnderFileSystem ufs = getUfsInstance(ufsPath);
+    // the parts share a single reader, which is only opened if any page is missing
+    try (CloseableSupplier<PositionReader> reader =
+             new CloseableSupplier<>(() -> ufs.openPositionRead(ufsPath, fileLength))) {
+      List<CompletableFuture<Long>> parts = new ArrayList<>();
+      for (long read = firstRead; read * readSize < end; read += readsPerPart) {
+        long partStart = Math.max(start, read * readSize);
+        long partEnd = Math.min(end, (read + readsPerPart) * readSize);
+        parts.add(CompletableFuture.supplyAsync(() -> {
+          try {
+            long bytesLoaded = mUfsPageLoader.loadRange(fileId, fileLength, partStart,
+                partEnd - partStart, mLoadReadPages, reader);
+            MetricsSystem.counter(MetricKey.WORKER_BYTES_LOADED_UFS.getName()).inc(bytesLoaded);
+            return bytesLoaded;
+          } catch (IOException e) {
+            throw AlluxioRuntimeException.from(e);
+          }
+        }, mLoadExecutor));
       }
-    } catch (IOException | AccessControlException e) {
+      CompletableFuture.allOf(parts.toArray(new CompletableFuture[0])).join();
+      return parts.stream().mapToLong(CompletableFuture::join).sum();
+    } catch (CompletionException e) {
+      throw AlluxioRuntimeException.from(e.getCause());
+    } catch (IOException e) {
       throw AlluxioRuntimeException.from(e);
-    } finally {
-      buf.release();
     }
   }
 
@@ -781,23 +904,39 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
   @VisibleForTesting
   public void loadDataFromRemote(String filePath, long offset, long lengthToLoad,
       PositionReader reader, int chunkSize) throws IOException {
-    ByteBuffer buf = ByteBuffer.allocateDirect(chunkSize);
     String fileId = new AlluxioURI(filePath).hash();
+    int batchSize = (int) Math.max(1,
+        Math.min(LOAD_BATCH_PAGES, (lengthToLoad + chunkSize - 1) / chunkSize));
+    ByteBuffer[] bufs = new ByteBuffer[batchSize];
+    List<PageId> pageIds = new ArrayList<>(batchSize);
+    List<ByteBuffer> pages = new ArrayList<>(batchSize);
 
     while (lengthToLoad > 0) {
       long currentPageIndex = offset / mPageSize;
-      PageId pageId = new PageId(fileId.toString(), currentPageIndex);
+      PageId pageId = new PageId(fileId, currentPageIndex);
       int lengthToRead = (int) Math.min(chunkSize, lengthToLoad);
+      int slot = pageIds.size();
+      if (bufs[slot] == null) {
+        bufs[slot] = ByteBuffer.allocateDirect(chunkSize);
+      }
+      ByteBuffer buf = bufs[slot];
+      buf.clear();
       int lengthRead = reader.read(offset, buf, lengthToRead);
       if (lengthRead != lengthToRead) {
         throw new FailedPreconditionRuntimeException(
             "Read " + lengthRead + " bytes, expected to read " + lengthToRead + " bytes");
       }
       buf.flip();
-      mCacheManager.put(pageId, buf);
+      pageIds.add(pageId);
+      pages.add(buf);
       offset += lengthRead;
       lengthToLoad -= lengthRead;
-      buf.clear();
+      if (pageIds.size() == batchSize || lengthToLoad <= 0) {
+        // cache the pages read so far in one go
+        mCacheManager.putAll(pageIds, pages, CacheContext.defaults());
+        pageIds.clear();
+        pages.clear();
+      }
     }
   }
 
@@ -1219,4 +1358,9 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
   public WorkerNetAddress getAddress() {
     return mAddress;
   }
+
+  @Override
+  public Closeable addMetadataInvalidationListener(Consumer<String> listener) {
+    return mMetaManager.addInvalidationListener(listener);
+  }
 }
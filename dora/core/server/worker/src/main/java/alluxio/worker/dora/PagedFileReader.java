@@ -21,6 +21,9 @@ import alluxio.conf.PropertyKey;
 import alluxio.file.FileId;
 import alluxio.file.NettyBufTargetBuffer;
 import alluxio.file.ReadTargetBuffer;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.network.netty.FileTransferType;
 import alluxio.network.protocol.databuffer.CompositeDataBuffer;
 import alluxio.network.protocol.databuffer.DataBuffer;
 import alluxio.network.protocol.databuffer.DataFileChannel;
@@ -29,6 +32,7 @@ import alluxio.underfs.UnderFileSystem;
 import alluxio.worker.block.io.BlockReadableChannel;
 import alluxio.worker.block.io.BlockReader;
 
+import com.codahale.metrics.Meter;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import io.netty.buffer.ByteBuf;
@@ -75,6 +79,32 @@ public class PagedFileReader extends BlockReader implements PositionReader {
         CacheContext.defaults()), fileSize, startPosition);
   }
 
+  /**
+   * Creates a new {@link PagedFileReader} loading the pages missing from the cache through a
+   * {@link UfsPageLoader}, so concurrent readers missing the same pages share UFS reads.
+   *
+   * @param conf
+   * @param cacheManager
+   * @param pageLoader
+   * @param ufs
+   * @param fileId
+   * @param ufsPath
+   * @param fileSize
+   * @param startPosition
+   * @param endPosition the position the reader is not expected to read past
+   * @return a new {@link PagedFileReader}
+   */
+  public static PagedFileReader create(AlluxioConfiguration conf, CacheManager cacheManager,
+                                       UfsPageLoader pageLoader, UnderFileSystem ufs,
+                                       String fileId, String ufsPath, long fileSize,
+                                       long startPosition, long endPosition) {
+    return new PagedFileReader(LocalCachePositionReader.create(cacheManager,
+        new CloseableSupplier<>(() -> pageLoader.createReader(fileId, fileSize, endPosition,
+            new CloseableSupplier<>(() -> ufs.openPositionRead(ufsPath, fileSize)))),
+        FileId.of(fileId), fileSize, conf.getBytes(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE),
+        CacheContext.defaults()), fileSize, startPosition);
+  }
+
   /**
    * Constructor.
    *
@@ -89,8 +119,13 @@ public class PagedFileReader extends BlockReader implements PositionReader {
     mPos = startPosition;
   }
 
-  @VisibleForTesting
-  void setPosition(int pos) {
+  /**
+   * Moves the reader to the given position in the file, from which the following calls to
+   * {@link #getMultipleDataFileChannel} and {@link #transferTo} read.
+   *
+   * @param pos the position in the file
+   */
+  public void setPosition(long pos) {
     mPos = pos;
   }
 
@@ -108,6 +143,24 @@ public class PagedFileReader extends BlockReader implements PositionReader {
    */
   public CompositeDataBuffer getMultipleDataFileChannel(Channel channel, long length)
       throws IOException {
+    return getMultipleDataFileChannel(channel, length, FileTransferType.TRANSFER);
+  }
+
+  /**
+   * Get a {@link CompositeDataBuffer} holding the next bytes of the file. The parts cached in
+   * page files are sent without copying them into network buffers, either with file transfer
+   * or from memory-mapped regions of the page files depending on the transfer type. The page
+   * files are opened before this method returns, so the data remains readable until it has been
+   * sent, even if the pages are evicted in the meantime. The parts that are not cached are
+   * copied.
+   *
+   * @param channel the Channel object which is used for allocating ByteBuf
+   * @param length the bytes to read
+   * @param transferType how to send the cached parts
+   * @return {@link CompositeDataBuffer}
+   */
+  public CompositeDataBuffer getMultipleDataFileChannel(Channel channel, long length,
+      FileTransferType transferType) throws IOException {
     if (mFileSize <= mPos) {
       // TODO(JiamingMai): consider throwing exception directly
       return new CompositeDataBuffer(Collections.emptyList());
@@ -115,27 +168,35 @@ public class PagedFileReader extends BlockReader implements PositionReader {
     List<DataBuffer> dataBufferList = new ArrayList<>();
     long bytesToTransfer = Math.min(length, mFileSize - mPos);
     long bytesToTransferLeft = bytesToTransfer;
-    while (bytesToTransferLeft > 0) {
-      long lengthPerOp = Math.min(bytesToTransferLeft, mPositionReader.getPageSize());
-      DataBuffer dataBuffer;
-      Optional<DataFileChannel> dataFileChannel =
-          mPositionReader.getDataFileChannel(mPos, (int) lengthPerOp);
-      if (!dataFileChannel.isPresent()) {
-        dataBuffer = getDataBufferByCopying(channel, (int) lengthPerOp);
-      } else {
-        // update mPos
-        // TODO(JiamingMai): need to lock page files since the openFile op is called in netty latter
-        dataBuffer = dataFileChannel.get();
-        if (dataBuffer.getLength() > 0) {
+    try {
+      while (bytesToTransferLeft > 0) {
+        long lengthPerOp = Math.min(bytesToTransferLeft, mPositionReader.getPageSize());
+        DataBuffer dataBuffer;
+        Optional<DataFileChannel> dataFileChannel =
+            mPositionReader.getDataFileChannel(mPos, (int) lengthPerOp);
+        if (!dataFileChannel.isPresent()) {
+          dataBuffer = getDataBufferByCopying(channel, (int) lengthPerOp);
+          Metrics.BYTES_READ_COPIED.mark(dataBuffer.getLength());
+        } else if (transferType == FileTransferType.MAPPED) {
+          dataBuffer = dataFileChannel.get().map();
+          Metrics.BYTES_READ_MAPPED.mark(dataBuffer.getLength());
+        } else {
+          dataBuffer = dataFileChannel.get();
+          Metrics.BYTES_READ_TRANSFER.mark(dataBuffer.getLength());
+        }
+        if (dataFileChannel.isPresent() && dataBuffer.getLength() > 0) {
           mPos += dataBuffer.getLength();
         }
+        // update bytesToTransferLeft
+        bytesToTransferLeft -= dataBuffer.getLength();
+        dataBufferList.add(dataBuffer);
       }
-      // update bytesToTransferLeft
-      bytesToTransferLeft -= dataBuffer.getLength();
-      dataBufferList.add(dataBuffer);
+    } catch (Throwable e) {
+      // the page files opened so far would never be closed otherwise
+      dataBufferList.forEach(DataBuffer::release);
+      throw e;
     }
-    CompositeDataBuffer compositeDataBuffer = new CompositeDataBuffer(dataBufferList);
-    return compositeDataBuffer;
+    return new CompositeDataBuffer(dataBufferList);
   }
 
   private DataBuffer getDataBufferByCopying(Channel channel, int len) throws IOException {
@@ -238,4 +299,13 @@ public class PagedFileReader extends BlockReader implements PositionReader {
   public String getLocation() {
     return null;
   }
+
+  private static final class Metrics {
+    private static final Meter BYTES_READ_TRANSFER =
+        MetricsSystem.meter(MetricKey.WORKER_BYTES_READ_TRANSFER_THROUGHPUT.getName());
+    private static final Meter BYTES_READ_MAPPED =
+        MetricsSystem.meter(MetricKey.WORKER_BYTES_READ_MAPPED_THROUGHPUT.getName());
+    private static final Meter BYTES_READ_COPIED =
+        MetricsSystem.meter(MetricKey.WORKER_BYTES_READ_COPIED_THROUGHPUT.getName());
+  }
 }
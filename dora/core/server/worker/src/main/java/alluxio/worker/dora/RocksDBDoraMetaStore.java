@@ -16,10 +16,14 @@ import alluxio.conf.PropertyKey;
 import alluxio.master.metastore.rocks.RocksExclusiveLockHandle;
 import alluxio.master.metastore.rocks.RocksSharedLockHandle;
 import alluxio.proto.meta.DoraMeta;
+import alluxio.resource.CloseableIterator;
 import alluxio.rocks.RocksStore;
+import alluxio.underfs.UfsStatus;
 import alluxio.util.io.PathUtils;
 
 import com.google.common.base.Preconditions;
+import com.google.common.primitives.Longs;
+import com.google.common.util.concurrent.RateLimiter;
 import org.rocksdb.BlockBasedTableConfig;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
@@ -30,29 +34,54 @@ import org.rocksdb.HashLinkedListMemTableConfig;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
 import org.rocksdb.RocksObject;
+import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * Dora Meta Store in RocksDB.
+ *
+ * The file statuses are stored by full path in a column with hash mem tables. The directory
+ * listings are stored in an ordered column, keyed by the full path of the directory and the name
+ * of the child separated by a zero byte, so that the children of a directory are stored next to
+ * each other in the order of their names. The key of the directory itself, with an empty name,
+ * marks that the directory has been listed and keeps the time it was listed.
+ *
+ * Expired metadata is removed when it is read, and by {@link #removeExpired(RateLimiter)},
+ * which walks through the store at a limited rate so that entries nobody reads again do not
+ * stay forever. The walk goes in batches of keys, each holding the lock and an iterator only
+ * while it checks its keys, so that the walk neither blocks closing the store nor pins the
+ * data files and mem tables of RocksDB for long.
  */
 @ThreadSafe
 public class RocksDBDoraMetaStore implements DoraMetaStore {
   private static final Logger LOG = LoggerFactory.getLogger(RocksDBDoraMetaStore.class);
   private static final String DORA_META_DB_NAME = "DoraMeta";
   private static final String DORA_META_FILE_STATUS_COLUMN = "FileStatusCF";
+  private static final String DORA_META_LISTING_COLUMN = "ListingCF";
+  private static final char LISTING_KEY_SEPARATOR = '\0';
   private static final String DORA_META_STORE_NAME = "DoraMetaStore";
+  /**
+   * The max number of keys checked by the sweep of the expired entries while holding the lock and
+   * an iterator, after which the sweep releases them and seeks from the next key again.
+   */
+  private static final int SWEEP_BATCH_SIZE = 1000;
 
   // These are fields instead of constants because they depend on the call to RocksDB.loadLibrary().
   private final WriteOptions mWriteOption;
@@ -62,10 +91,13 @@ public class RocksDBDoraMetaStore implements DoraMetaStore {
   // The TTL (in seconds) for metadata. It must be greater than 0, or -1.
   // -1 means never expiring.
   private final long mMetaTTL;
+  // The TTL (in milliseconds) for directory listings, or -1 if listings never expire.
+  private final long mListingTtlMs;
 
   private final List<RocksObject> mToClose = new ArrayList<>();
 
   private final AtomicReference<ColumnFamilyHandle> mFileStatusColumn = new AtomicReference<>();
+  private final AtomicReference<ColumnFamilyHandle> mListingColumn = new AtomicReference<>();
 
   /**
    * Creates and initializes a rocks block store.
@@ -74,9 +106,22 @@ public class RocksDBDoraMetaStore implements DoraMetaStore {
    * @param metaTTL The TTL for this metastore
    */
   public RocksDBDoraMetaStore(String baseDir, long metaTTL) {
+    this(baseDir, metaTTL, -1);
+  }
+
+  /**
+   * Creates and initializes a rocks block store.
+   *
+   * @param baseDir the base directory in which to store inode metadata
+   * @param metaTTL The TTL for this metastore
+   * @param listingTtlMs the TTL in milliseconds of the directory listings, or -1 if the listings
+   *        never expire
+   */
+  public RocksDBDoraMetaStore(String baseDir, long metaTTL, long listingTtlMs) {
     RocksDB.loadLibrary();
 
     Preconditions.checkState(metaTTL > 0 || metaTTL == -1);
+    Preconditions.checkState(listingTtlMs > 0 || listingTtlMs == -1);
 
     // the rocksDB objects must be initialized after RocksDB.loadLibrary() is called
     mWriteOption = new WriteOptions().setDisableWAL(false);
@@ -97,6 +142,10 @@ public class RocksDBDoraMetaStore implements DoraMetaStore {
             new ColumnFamilyOptions()
                     .setMemTableConfig(new HashLinkedListMemTableConfig())
                     .setCompressionType(CompressionType.NO_COMPRESSION)));
+    // the listings are iterated in order, so they use the default skip list mem tables
+    columns.add(new ColumnFamilyDescriptor(DORA_META_LISTING_COLUMN.getBytes(),
+            new ColumnFamilyOptions()
+                    .setCompressionType(CompressionType.NO_COMPRESSION)));
     mToClose.addAll(columns.stream().map(
             ColumnFamilyDescriptor::getOptions).collect(Collectors.toList()));
 
@@ -109,8 +158,9 @@ public class RocksDBDoraMetaStore implements DoraMetaStore {
         .setTableFormatConfig(blockBasedTableConfig));
 
     mRocksStore = new RocksStore(DORA_META_STORE_NAME, dbPath, backupPath, opts, columns,
-            Arrays.asList(mFileStatusColumn), false);
+            Arrays.asList(mFileStatusColumn, mListingColumn), false);
     mMetaTTL = metaTTL;
+    mListingTtlMs = listingTtlMs;
   }
 
   /**
@@ -132,12 +182,10 @@ public class RocksDBDoraMetaStore implements DoraMetaStore {
     }
     try {
       DoraMeta.FileStatus fs = DoraMeta.FileStatus.parseFrom(status);
-      if (mMetaTTL != -1) {
-        if (System.nanoTime() - fs.getTs() > mMetaTTL * Constants.SECOND_NANO) {
-          // The Metadata is out of date.
-          removeDoraMeta(path);
-          return Optional.empty();
-        }
+      if (isExpired(fs)) {
+        // The Metadata is out of date.
+        removeDoraMeta(path);
+        return Optional.empty();
       }
       return Optional.of(fs);
     } catch (Exception e) {
@@ -178,6 +226,223 @@ public class RocksDBDoraMetaStore implements DoraMetaStore {
     }
   }
 
+  @Override
+  public void putListing(String path, List<UfsStatus> children, long listTimeMs) {
+    try (RocksSharedLockHandle lock = mRocksStore.checkAndAcquireSharedLock();
+         WriteBatch batch = new WriteBatch()) {
+      byte[] listingKey = getListingKey(path, "");
+      batch.deleteRange(mListingColumn.get(), listingKey, getListingEndKey(path));
+      batch.put(mListingColumn.get(), listingKey, Longs.toByteArray(listTimeMs));
+      for (UfsStatus child : children) {
+        batch.put(mListingColumn.get(), getListingKey(path, child.getName()),
+            child.toProto().toByteArray());
+      }
+      db().write(mWriteOption, batch);
+    } catch (RocksDBException e) {
+      LOG.error("Cannot put listing of {} : {}", path, e);
+    }
+  }
+
+  @Override
+  public Optional<Long> getListingTime(String path) {
+    byte[] listTime;
+    try (RocksSharedLockHandle lock = mRocksStore.checkAndAcquireSharedLock()) {
+      listTime = db().get(mListingColumn.get(), getListingKey(path, ""));
+    } catch (RocksDBException e) {
+      throw new RuntimeException(e);
+    }
+    return listTime == null ? Optional.empty() : Optional.of(Longs.fromByteArray(listTime));
+  }
+
+  @Override
+  public CloseableIterator<UfsStatus> iterateListing(String path, @Nullable String fromName) {
+    try (RocksSharedLockHandle lock = mRocksStore.checkAndAcquireSharedLock()) {
+      RocksIterator iter = db().newIterator(mListingColumn.get(), mReadOption);
+      byte[] prefix = getListingKey(path, "");
+      iter.seek(getListingKey(path, fromName == null ? "" : fromName));
+      /*
+       * Acquire a second lock for iteration, instead of using the same lock for initialization.
+       * This is fine because the shared lock is reentrant.
+       */
+      RocksSharedLockHandle readLock = mRocksStore.checkAndAcquireSharedLock();
+      Iterator<UfsStatus> children = new Iterator<UfsStatus>() {
+        @Override
+        public boolean hasNext() {
+          if (!iter.isValid()) {
+            return false;
+          }
+          byte[] key = iter.key();
+          if (key.length == prefix.length && Arrays.equals(key, prefix)) {
+            // skip the mark of the listing itself
+            iter.next();
+            return hasNext();
+          }
+          return startsWith(key, prefix);
+        }
+
+        @Override
+        public UfsStatus next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          // Abort the operation if RocksDB stops serving
+          mRocksStore.shouldAbort(readLock.getLockVersion());
+          byte[] key = iter.key();
+          UfsStatus child;
+          try {
+            child = UfsStatus.fromProto(alluxio.grpc.UfsStatus.parseFrom(iter.value()));
+          } catch (Exception e) {
+            throw new RuntimeException(e);
+          }
+          child.setName(new String(key, prefix.length, key.length - prefix.length,
+              StandardCharsets.UTF_8));
+          iter.next();
+          return child;
+        }
+      };
+      return CloseableIterator.create(children, (any) -> {
+        try {
+          iter.close();
+        } finally {
+          readLock.close();
+        }
+      });
+    }
+  }
+
+  @Override
+  public void removeListing(String path) {
+    try (RocksSharedLockHandle lock = mRocksStore.checkAndAcquireSharedLock()) {
+      byte[] listingKey = getListingKey(path, "");
+      // every mutation of a directory invalidates its listing, which is rarely stored, and a
+      // point lookup of the key marking it is much cheaper than a range deletion
+      if (db().get(mListingColumn.get(), listingKey) == null) {
+        return;
+      }
+      db().deleteRange(mListingColumn.get(), mWriteOption, listingKey, getListingEndKey(path));
+    } catch (RocksDBException e) {
+      LOG.error("Cannot remove listing of {} : {}", path, e);
+    }
+  }
+
+  @Override
+  public long removeExpired(RateLimiter rateLimiter) {
+    long removed = 0;
+    try {
+      if (mMetaTTL != -1) {
+        byte[] nextKey = null;
+        do {
+          rateLimiter.acquire(SWEEP_BATCH_SIZE);
+          BatchResult result = removeExpiredStatuses(nextKey);
+          removed += result.mRemoved;
+          nextKey = result.mNextKey;
+        } while (nextKey != null);
+      }
+      if (mListingTtlMs != -1) {
+        byte[] nextKey = null;
+        do {
+          rateLimiter.acquire(SWEEP_BATCH_SIZE);
+          BatchResult result = removeExpiredListings(nextKey);
+          removed += result.mRemoved;
+          nextKey = result.mNextKey;
+        } while (nextKey != null);
+      }
+    } catch (RocksDBException e) {
+      LOG.error("Cannot remove expired metadata: {}", e);
+    }
+    return removed;
+  }
+
+  /**
+   * Removes the expired file statuses in a batch of at most {@link #SWEEP_BATCH_SIZE} entries.
+   *
+   * @param startKey the key to start from, or null to start from the first key
+   * @return the number of removed entries, and the key to start the next batch from
+   */
+  private BatchResult removeExpiredStatuses(@Nullable byte[] startKey) throws RocksDBException {
+    long removed = 0;
+    try (RocksSharedLockHandle lock = mRocksStore.checkAndAcquireSharedLock();
+         // the file statuses are in hash mem tables, which are iterated in order only this way
+         ReadOptions readOptions = new ReadOptions().setTotalOrderSeek(true);
+         RocksIterator iter = db().newIterator(mFileStatusColumn.get(), readOptions)) {
+      seek(iter, startKey);
+      for (int i = 0; i < SWEEP_BATCH_SIZE && iter.isValid(); i++, iter.next()) {
+        // Abort the sweep if RocksDB stops serving
+        mRocksStore.shouldAbort(lock.getLockVersion());
+        boolean expired;
+        try {
+          expired = isExpired(DoraMeta.FileStatus.parseFrom(iter.value()));
+        } catch (Exception e) {
+          // remove the metadata which cannot be parsed, like getDoraMeta does
+          expired = true;
+        }
+        if (expired) {
+          db().delete(mFileStatusColumn.get(), mWriteOption, iter.key());
+          removed++;
+        }
+      }
+      return new BatchResult(removed, iter.isValid() ? iter.key() : null);
+    }
+  }
+
+  /**
+   * Removes the expired directory listings in a batch of at most {@link #SWEEP_BATCH_SIZE}
+   * checked keys.
+   *
+   * @param startKey the key to start from, or null to start from the first key
+   * @return the number of removed listings, and the key to start the next batch from
+   */
+  private BatchResult removeExpiredListings(@Nullable byte[] startKey) throws RocksDBException {
+    long removed = 0;
+    long now = System.currentTimeMillis();
+    try (RocksSharedLockHandle lock = mRocksStore.checkAndAcquireSharedLock();
+         RocksIterator iter = db().newIterator(mListingColumn.get())) {
+      seek(iter, startKey);
+      for (int i = 0; i < SWEEP_BATCH_SIZE && iter.isValid(); i++) {
+        mRocksStore.shouldAbort(lock.getLockVersion());
+        byte[] key = iter.key();
+        // the listing of a directory starts with the key marking it, which ends with the
+        // separator and keeps the time the directory was listed
+        if (key[key.length - 1] != LISTING_KEY_SEPARATOR) {
+          iter.next();
+          continue;
+        }
+        byte[] endKey =
+            getListingEndKey(new String(key, 0, key.length - 1, StandardCharsets.UTF_8));
+        if (now - Longs.fromByteArray(iter.value()) > mListingTtlMs) {
+          db().deleteRange(mListingColumn.get(), mWriteOption, key, endKey);
+          removed++;
+        }
+        // skip the children of the directory
+        iter.seek(endKey);
+      }
+      return new BatchResult(removed, iter.isValid() ? iter.key() : null);
+    }
+  }
+
+  private static void seek(RocksIterator iter, @Nullable byte[] key) {
+    if (key == null) {
+      iter.seekToFirst();
+    } else {
+      iter.seek(key);
+    }
+  }
+
+  /**
+   * The result of a batch of the sweep of the expired entries.
+   */
+  private static final class BatchResult {
+    private final long mRemoved;
+    /** The key to start the next batch from, or null if the sweep is done. */
+    @Nullable
+    private final byte[] mNextKey;
+
+    BatchResult(long removed, @Nullable byte[] nextKey) {
+      mRemoved = removed;
+      mNextKey = nextKey;
+    }
+  }
+
   /**
    * Clears all the metadata in this RocksDB.
    */
@@ -218,6 +483,54 @@ public class RocksDBDoraMetaStore implements DoraMetaStore {
     }
   }
 
+  /**
+   * Queries the estimated size of this RocksDB, including the SST files and the mem tables.
+   *
+   * @return the estimated size in bytes
+   */
+  @Override
+  public Optional<Long> sizeInBytes() {
+    try (RocksSharedLockHandle lock = mRocksStore.checkAndAcquireSharedLock()) {
+      long size = 0;
+      for (ColumnFamilyHandle column
+          : Arrays.asList(mFileStatusColumn.get(), mListingColumn.get())) {
+        size += Long.parseLong(db().getProperty(column, "rocksdb.total-sst-files-size"));
+        size += Long.parseLong(db().getProperty(column, "rocksdb.cur-size-all-mem-tables"));
+      }
+      return Optional.of(size);
+    } catch (RocksDBException e) {
+      LOG.error("Cannot getProperty for the size of {}:", DORA_META_DB_NAME, e);
+      return Optional.empty();
+    }
+  }
+
+  private boolean isExpired(DoraMeta.FileStatus status) {
+    return mMetaTTL != -1 && DoraMetaStore.isOutdated(status, mMetaTTL * Constants.SECOND_MS);
+  }
+
+  private static byte[] getListingKey(String path, String name) {
+    return (path + LISTING_KEY_SEPARATOR + name).getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * @return the key right after all the keys of the listing of the directory
+   */
+  private static byte[] getListingEndKey(String path) {
+    return (path + (char) (LISTING_KEY_SEPARATOR + 1)).getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static boolean startsWith(byte[] key, byte[] prefix) {
+    if (key.length < prefix.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if (key[i] != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private RocksDB db() {
     return mRocksStore.getDb();
   }
@@ -0,0 +1,317 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import alluxio.CloseableSupplier;
+import alluxio.PositionReader;
+import alluxio.client.file.CacheContext;
+import alluxio.client.file.cache.CacheManager;
+import alluxio.client.file.cache.PageId;
+import alluxio.file.ReadTargetBuffer;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+
+import com.codahale.metrics.Counter;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Loads pages missing from the page store from the UFS, so that concurrent misses on the same
+ * page issue a single UFS request.
+ *
+ * The first miss on a page reads the page from the UFS, together with the following pages
+ * which are neither cached nor being loaded, up to the next multiple of the configured number
+ * of pages, in a single request. The pages are put into the page store before the readers
+ * waiting for any of them are released, so readers missing the page store afterwards find them
+ * there. A reader waiting for a request which fails reads the page from the UFS itself.
+ *
+ * Load jobs load whole ranges of files through {@link #loadRange}, which shares the pages in
+ * flight with the readers in the same way.
+ */
+@ThreadSafe
+public final class UfsPageLoader {
+  private final CacheManager mCacheManager;
+  private final long mPageSize;
+  private final int mMaxPagesPerRead;
+  /** The pages being read from the UFS. */
+  private final ConcurrentHashMap<PageId, CompletableFuture<ByteBuffer>> mLoadingPages =
+      new ConcurrentHashMap<>();
+
+  /**
+   * @param cacheManager the cache manager to put the pages into
+   * @param pageSize the page size
+   * @param maxPagesPerRead the max number of pages read from the UFS in a single request
+   */
+  public UfsPageLoader(CacheManager cacheManager, long pageSize, int maxPagesPerRead) {
+    Preconditions.checkArgument(maxPagesPerRead > 0,
+        "max number of pages per UFS read must be positive: %s", maxPagesPerRead);
+    mCacheManager = cacheManager;
+    mPageSize = pageSize;
+    mMaxPagesPerRead = maxPagesPerRead;
+  }
+
+  /**
+   * Creates a reader of a UFS file which loads full pages through this loader, and reads any
+   * other range from the UFS directly. It is meant to be the fallback reader of a
+   * {@link alluxio.client.file.cache.LocalCachePositionReader} reading the same pages.
+   *
+   * @param fileId the file id of the pages of the file
+   * @param fileSize the file size
+   * @param endPosition the position in the file the reader is not expected to read past, no
+   *                    page starting at or after it is read along with the pages missed
+   * @param ufsReader the reader of the file in the UFS, only opened when the UFS is read
+   * @return the reader
+   */
+  public PositionReader createReader(String fileId, long fileSize, long endPosition,
+      CloseableSupplier<PositionReader> ufsReader) {
+    return new CoalescingReader(fileId, fileSize, Math.min(fileSize, endPosition), ufsReader);
+  }
+
+  /**
+   * @param pageId the page id
+   * @return whether the page is being loaded from the UFS
+   */
+  public boolean isLoading(PageId pageId) {
+    return mLoadingPages.containsKey(pageId);
+  }
+
+  /**
+   * Loads the pages of a range of a file which are not cached into the page store. Runs of such
+   * pages are read from the UFS in single requests of at most the given number of pages, aligned
+   * to multiples of it, and the data read is put into the page store without being copied.
+   * Readers missing any of these pages wait for their request rather than reading from the UFS
+   * themselves, and the pages already being loaded by another request are waited for in the
+   * same way, being loaded again if that request fails.
+   *
+   * @param fileId the file id of the pages of the file
+   * @param fileSize the file size
+   * @param offset the offset of the range to load
+   * @param length the length of the range to load
+   * @param pagesPerRead the max number of pages read in a single request
+   * @param ufsReader the reader of the file in the UFS
+   * @return the number of bytes read from the UFS, not counting the pages loaded by others
+   */
+  public long loadRange(String fileId, long fileSize, long offset, long length, int pagesPerRead,
+      Supplier<PositionReader> ufsReader) throws IOException {
+    Preconditions.checkArgument(pagesPerRead > 0,
+        "number of pages per read must be positive: %s", pagesPerRead);
+    long endPageIndex = getEndPageIndex(Math.min(fileSize, offset + length));
+    long bytesRead = 0;
+    long pageIndex = offset / mPageSize;
+    while (pageIndex < endPageIndex) {
+      List<PageId> pageIds = new ArrayList<>(pagesPerRead);
+      List<CompletableFuture<ByteBuffer>> futures = new ArrayList<>(pagesPerRead);
+      claimPages(fileId, pageIndex,
+          Math.min(endPageIndex, (pageIndex / pagesPerRead + 1) * pagesPerRead),
+          pageIds, futures);
+      if (pageIds.isEmpty()) {
+        // the page is cached, or loaded by another request which is waited for
+        if (awaitLoading(new PageId(fileId, pageIndex))) {
+          pageIndex++;
+        }
+        continue;
+      }
+      readPages(pageIds, futures, fileSize, ufsReader);
+      bytesRead += Math.min(fileSize, (pageIndex + pageIds.size()) * mPageSize)
+          - pageIndex * mPageSize;
+      pageIndex += pageIds.size();
+    }
+    return bytesRead;
+  }
+
+  @VisibleForTesting
+  ByteBuffer load(String fileId, long pageIndex, long fileSize, long endPosition,
+      Supplier<PositionReader> ufsReader) throws IOException {
+    PageId pageId = new PageId(fileId, pageIndex);
+    CompletableFuture<ByteBuffer> future = new CompletableFuture<>();
+    CompletableFuture<ByteBuffer> loading = mLoadingPages.putIfAbsent(pageId, future);
+    if (loading != null) {
+      Metrics.PAGE_READS_COALESCED.inc();
+      try {
+        return loading.get().duplicate();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted waiting for page " + pageId);
+      } catch (ExecutionException e) {
+        // the request in flight failed, try again on our own
+        return ByteBuffer.wrap(readFully(ufsReader.get(), pageIndex * mPageSize,
+            getPageLength(pageIndex, fileSize)));
+      }
+    }
+    List<PageId> pageIds = new ArrayList<>(mMaxPagesPerRead);
+    List<CompletableFuture<ByteBuffer>> futures = new ArrayList<>(mMaxPagesPerRead);
+    pageIds.add(pageId);
+    futures.add(future);
+    claimPages(fileId, pageIndex + 1, Math.min(getEndPageIndex(endPosition),
+        (pageIndex / mMaxPagesPerRead + 1) * mMaxPagesPerRead), pageIds, futures);
+    return readPages(pageIds, futures, fileSize, ufsReader).duplicate();
+  }
+
+  /**
+   * Waits for a page which was either cached or being loaded when claimed.
+   *
+   * @return whether the page is loaded, false if it is to be claimed again
+   */
+  private boolean awaitLoading(PageId pageId) throws IOException {
+    CompletableFuture<ByteBuffer> loading = mLoadingPages.get(pageId);
+    if (loading == null) {
+      // the request of the page may have completed since, successfully or not
+      return mCacheManager.hasPageUnsafe(pageId);
+    }
+    Metrics.PAGE_READS_COALESCED.inc();
+    try {
+      loading.get();
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted waiting for page " + pageId);
+    } catch (ExecutionException e) {
+      // the request failed, the page is claimed again without waiting for its cleanup
+      mLoadingPages.remove(pageId, loading);
+      return false;
+    }
+  }
+
+  /**
+   * Claims the pages from the start index which are neither cached nor being loaded, until
+   * the first page which is, or the end index.
+   */
+  private void claimPages(String fileId, long startPageIndex, long endPageIndex,
+      List<PageId> pageIds, List<CompletableFuture<ByteBuffer>> futures) {
+    for (long index = startPageIndex; index < endPageIndex; index++) {
+      PageId pageId = new PageId(fileId, index);
+      if (mCacheManager.hasPageUnsafe(pageId)) {
+        return;
+      }
+      CompletableFuture<ByteBuffer> future = new CompletableFuture<>();
+      if (mLoadingPages.putIfAbsent(pageId, future) != null) {
+        return;
+      }
+      pageIds.add(pageId);
+      futures.add(future);
+    }
+  }
+
+  /**
+   * Reads the claimed consecutive pages from the UFS in a single request, puts them into the
+   * page store, and releases the readers waiting for them.
+   *
+   * @return the first page
+   */
+  private ByteBuffer readPages(List<PageId> pageIds, List<CompletableFuture<ByteBuffer>> futures,
+      long fileSize, Supplier<PositionReader> ufsReader) throws IOException {
+    try {
+      long start = pageIds.get(0).getPageIndex() * mPageSize;
+      int length = (int) (Math.min(fileSize, start + pageIds.size() * mPageSize) - start);
+      byte[] data = readFully(ufsReader.get(), start, length);
+      Metrics.PAGE_READS_ISSUED.inc();
+      List<ByteBuffer> pages = new ArrayList<>(pageIds.size());
+      for (int i = 0; i < pageIds.size(); i++) {
+        int pageOffset = (int) (i * mPageSize);
+        pages.add(ByteBuffer.wrap(data, pageOffset,
+            (int) Math.min(mPageSize, length - pageOffset)).slice());
+      }
+      mCacheManager.putAll(pageIds,
+          pages.stream().map(ByteBuffer::duplicate).collect(Collectors.toList()),
+          CacheContext.defaults());
+      for (int i = 0; i < pageIds.size(); i++) {
+        futures.get(i).complete(pages.get(i));
+      }
+      return pages.get(0);
+    } catch (Throwable t) {
+      futures.forEach(f -> f.completeExceptionally(t));
+      throw t;
+    } finally {
+      for (int i = 0; i < pageIds.size(); i++) {
+        mLoadingPages.remove(pageIds.get(i), futures.get(i));
+      }
+    }
+  }
+
+  private long getEndPageIndex(long endPosition) {
+    return (endPosition + mPageSize - 1) / mPageSize;
+  }
+
+  private int getPageLength(long pageIndex, long fileSize) {
+    return (int) Math.min(mPageSize, fileSize - pageIndex * mPageSize);
+  }
+
+  private static byte[] readFully(PositionReader reader, long position, int length)
+      throws IOException {
+    byte[] data = new byte[length];
+    int totalBytesRead = 0;
+    while (totalBytesRead < length) {
+      int bytesRead = reader.read(position + totalBytesRead, data, totalBytesRead,
+          length - totalBytesRead);
+      if (bytesRead <= 0) {
+        throw new IOException(String.format(
+            "Unexpected end of file at position %d, %d bytes expected",
+            position + totalBytesRead, length - totalBytesRead));
+      }
+      totalBytesRead += bytesRead;
+    }
+    return data;
+  }
+
+  private final class CoalescingReader implements PositionReader {
+    private final String mFileId;
+    private final long mFileSize;
+    private final long mEndPosition;
+    private final CloseableSupplier<PositionReader> mUfsReader;
+
+    CoalescingReader(String fileId, long fileSize, long endPosition,
+        CloseableSupplier<PositionReader> ufsReader) {
+      mFileId = fileId;
+      mFileSize = fileSize;
+      mEndPosition = endPosition;
+      mUfsReader = ufsReader;
+    }
+
+    @Override
+    public int readInternal(long position, ReadTargetBuffer buffer, int length)
+        throws IOException {
+      long pageIndex = position / mPageSize;
+      if (position != pageIndex * mPageSize || length != getPageLength(pageIndex, mFileSize)) {
+        return mUfsReader.get().read(position, buffer, length);
+      }
+      ByteBuffer page = load(mFileId, pageIndex, mFileSize, mEndPosition, mUfsReader);
+      buffer.writeBytes(page.array(), page.arrayOffset() + page.position(), page.remaining());
+      return page.remaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+      mUfsReader.close();
+    }
+  }
+
+  private static final class Metrics {
+    private static final Counter PAGE_READS_ISSUED =
+        MetricsSystem.counter(MetricKey.WORKER_UFS_PAGE_READS_ISSUED.getName());
+    private static final Counter PAGE_READS_COALESCED =
+        MetricsSystem.counter(MetricKey.WORKER_UFS_PAGE_READS_COALESCED.getName());
+
+    private Metrics() {} // prevent instantiation
+  }
+}
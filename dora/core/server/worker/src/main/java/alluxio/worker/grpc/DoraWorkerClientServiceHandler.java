@@ -40,6 +40,9 @@ import alluxio.grpc.GetStatusPResponse;
 import alluxio.grpc.GrpcUtils;
 import alluxio.grpc.ListStatusPRequest;
 import alluxio.grpc.ListStatusPResponse;
+import alluxio.grpc.ListStatusPartialPOptions;
+import alluxio.grpc.ListStatusPartialPRequest;
+import alluxio.grpc.ListStatusPartialPResponse;
 import alluxio.grpc.LoadFileRequest;
 import alluxio.grpc.LoadFileResponse;
 import alluxio.grpc.MoveRequest;
@@ -53,6 +56,8 @@ import alluxio.grpc.RouteFailure;
 import alluxio.grpc.SetAttributePRequest;
 import alluxio.grpc.SetAttributePResponse;
 import alluxio.grpc.TaskStatus;
+import alluxio.grpc.WatchMetadataInvalidationRequest;
+import alluxio.grpc.WatchMetadataInvalidationResponse;
 import alluxio.underfs.UfsStatus;
 import alluxio.util.io.PathUtils;
 import alluxio.worker.dora.DoraWorker;
@@ -64,15 +69,22 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.inject.Inject;
 import io.grpc.MethodDescriptor;
+import io.grpc.StatusRuntimeException;
 import io.grpc.stub.CallStreamObserver;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
 
 /**
  * Server side implementation of the gRPC dora worker interface.
@@ -216,40 +228,55 @@ public class DoraWorkerClientServiceHandler extends BlockWorkerGrpc.BlockWorkerI
     LOG.debug("listStatus is called for {}", request.getPath());
 
     try {
-      UfsStatus[] statuses = mWorker.listStatus(request.getPath(), request.getOptions());
+      Iterator<UfsStatus> statuses =
+          mWorker.iterateStatus(request.getPath(), request.getOptions());
       if (statuses == null) {
         responseObserver.onError(
             new NotFoundRuntimeException(String.format("%s Not Found", request.getPath()))
                 .toGrpcStatusRuntimeException());
         return;
       }
+      new ListStatusStreamer(request.getPath(), statuses, (PagedDoraWorker) mWorker,
+          (ServerCallStreamObserver<ListStatusPResponse>) responseObserver,
+          LIST_STATUS_BATCH_SIZE, GrpcExecutors.LIST_STATUS_EXECUTOR).start();
+    } catch (Exception e) {
+      LOG.error(String.format("Failed to list status of %s: ", request.getPath()), e);
+      responseObserver.onError(AlluxioRuntimeException.from(e).toGrpcStatusRuntimeException());
+    }
+  }
+
+  @Override
+  public void listStatusPartial(ListStatusPartialPRequest request,
+      StreamObserver<ListStatusPartialPResponse> responseObserver) {
+    LOG.debug("listStatusPartial is called for {}", request.getPath());
 
-      ListStatusPResponse.Builder builder = ListStatusPResponse.newBuilder();
+    try {
+      ListStatusPartialPOptions options = request.getOptions();
+      int batchSize = options.getBatchSize() > 0 ? options.getBatchSize() : LIST_STATUS_BATCH_SIZE;
+      // list one more than the batch size to tell if the listing is truncated
+      UfsStatus[] statuses = mWorker.listStatusPartial(request.getPath(),
+          options.toBuilder().setBatchSize(batchSize + 1).build());
+      if (statuses == null) {
+        responseObserver.onError(
+            new NotFoundRuntimeException(String.format("%s Not Found", request.getPath()))
+                .toGrpcStatusRuntimeException());
+        return;
+      }
 
-      for (int i = 0; i < statuses.length; i++) {
+      // the number of files in the directory is not known without listing all of them
+      ListStatusPartialPResponse.Builder builder = ListStatusPartialPResponse.newBuilder()
+          .setIsTruncated(statuses.length > batchSize)
+          .setFileCount(-1);
+      for (int i = 0; i < Math.min(batchSize, statuses.length); i++) {
         UfsStatus status = statuses[i];
         String ufsFullPath = PathUtils.concatPath(request.getPath(), status.getName());
-
-        // the list status do not include xattr now. GetAttr will cause some additional overhead.
-        // And not every request requires the Xattr. Now only get file xattr in GetStatus.
-        alluxio.grpc.FileInfo fi =
-            ((PagedDoraWorker) mWorker).buildFileInfoFromUfsStatus(status, ufsFullPath, null);
-
-        builder.addFileInfos(fi);
-        if (builder.getFileInfosCount() == LIST_STATUS_BATCH_SIZE) {
-          // Reached the batch size of the reply message. Send it out and create a new one.
-          responseObserver.onNext(builder.build());
-          builder = ListStatusPResponse.newBuilder();
-        }
-      }
-      if (builder.getFileInfosCount() != 0) {
-        // Send out the remaining items if there is any.
-        responseObserver.onNext(builder.build());
+        builder.addFileInfos(
+            ((PagedDoraWorker) mWorker).buildFileInfoFromUfsStatus(status, ufsFullPath, null));
       }
-
+      responseObserver.onNext(builder.build());
       responseObserver.onCompleted();
     } catch (Exception e) {
-      LOG.error(String.format("Failed to list status of %s: ", request.getPath()), e);
+      LOG.error(String.format("Failed to list status partially of %s: ", request.getPath()), e);
       responseObserver.onError(AlluxioRuntimeException.from(e).toGrpcStatusRuntimeException());
     }
   }
@@ -391,4 +418,48 @@ public class DoraWorkerClientServiceHandler extends BlockWorkerGrpc.BlockWorkerI
       responseObserver.onError(AlluxioRuntimeException.from(e).toGrpcStatusRuntimeException());
     }
   }
+
+  @Override
+  public void watchMetadataInvalidation(WatchMetadataInvalidationRequest request,
+      StreamObserver<WatchMetadataInvalidationResponse> responseObserver) {
+    ServerCallStreamObserver<WatchMetadataInvalidationResponse> observer =
+        (ServerCallStreamObserver<WatchMetadataInvalidationResponse>) responseObserver;
+    AtomicReference<Closeable> listener = new AtomicReference<>();
+    AtomicBoolean cancelled = new AtomicBoolean(false);
+    // the cancel handler is set before the listener is added, so that a call cancelled while
+    // the listener is added still removes it
+    observer.setOnCancelHandler(() -> {
+      cancelled.set(true);
+      removeInvalidationListener(listener.getAndSet(null));
+    });
+    listener.set(mWorker.addMetadataInvalidationListener(path -> {
+      synchronized (observer) {
+        // the invalidation is dropped rather than buffered if the client does not keep up,
+        // the metadata cached by the client expires anyway
+        if (cancelled.get() || observer.isCancelled() || !observer.isReady()) {
+          return;
+        }
+        try {
+          observer.onNext(
+              WatchMetadataInvalidationResponse.newBuilder().addUfsPaths(path).build());
+        } catch (StatusRuntimeException e) {
+          LOG.debug("Failed to send the invalidation of the metadata of {}", path, e);
+        }
+      }
+    }));
+    if (cancelled.get()) {
+      removeInvalidationListener(listener.getAndSet(null));
+    }
+  }
+
+  private static void removeInvalidationListener(@Nullable Closeable listener) {
+    if (listener == null) {
+      return;
+    }
+    try {
+      listener.close();
+    } catch (IOException e) {
+      LOG.warn("Failed to remove the listener of the metadata invalidation", e);
+    }
+  }
 }
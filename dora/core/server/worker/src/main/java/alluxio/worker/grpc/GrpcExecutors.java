@@ -67,6 +67,22 @@ public final class GrpcExecutors {
   public static final ExecutorService READER_SERIALIZED_RUNNER_EXECUTOR =
       new ImpersonateThreadPoolExecutor(SERIALIZED_THREAD_POOL_EXECUTOR, true);
 
+  // Used for streaming the results of listings to the client in ListStatusStreamer.
+  // The thread pool has a bounded queue, and rejects the listings beyond it instead of running
+  // them on the gRPC threads, so that the listings never hold back the reads of files.
+  // The threads are all core threads, which time out when idle, because a thread pool with a
+  // bounded queue only starts the threads beyond the core ones when the queue is full.
+  private static final ThreadPoolExecutor LIST_STATUS_THREAD_POOL_EXECUTOR =
+      new ThreadPoolExecutor(
+          Configuration.getInt(PropertyKey.WORKER_NETWORK_GRPC_LIST_STATUS_THREADS_MAX),
+          Configuration.getInt(PropertyKey.WORKER_NETWORK_GRPC_LIST_STATUS_THREADS_MAX),
+          THREAD_STOP_MS, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(
+              Configuration.getInt(PropertyKey.WORKER_NETWORK_GRPC_LIST_STATUS_QUEUE_SIZE)),
+          ThreadFactoryUtils.build("GrpcListStatusExecutor-%d", true),
+          new ThreadPoolExecutor.AbortPolicy());
+  public static final ExecutorService LIST_STATUS_EXECUTOR =
+      new ImpersonateThreadPoolExecutor(LIST_STATUS_THREAD_POOL_EXECUTOR, true);
+
   // Mainly used by distributed mv/cp and obsolete clients.
   // The queue is always empty.
   private static final ThreadPoolExecutor WRITE_THREAD_POOL_EXECUTOR =
@@ -78,6 +94,8 @@ public final class GrpcExecutors {
           new ImpersonateThreadPoolExecutor(WRITE_THREAD_POOL_EXECUTOR, true);
 
   static {
+    LIST_STATUS_THREAD_POOL_EXECUTOR.allowCoreThreadTimeOut(true);
+
     MetricsSystem.registerGaugeIfAbsent(MetricsSystem.getMetricName(
         MetricKey.WORKER_BLOCK_READER_THREAD_ACTIVE_COUNT.getName()),
         READER_THREAD_POOL_EXECUTOR::getActiveCount);
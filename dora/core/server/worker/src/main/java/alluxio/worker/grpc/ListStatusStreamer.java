@@ -0,0 +1,134 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.grpc;
+
+import alluxio.exception.runtime.AlluxioRuntimeException;
+import alluxio.exception.runtime.ResourceExhaustedRuntimeException;
+import alluxio.grpc.ListStatusPResponse;
+import alluxio.underfs.UfsStatus;
+import alluxio.util.io.PathUtils;
+import alluxio.worker.dora.PagedDoraWorker;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Streams a listing to a client in batches, as fast as the client takes them.
+ *
+ * The batches are built and sent from an executor only while the call is ready, so a slow
+ * client holds back the listing from the UFS through the gRPC flow control, instead of the
+ * batches piling up in the memory of the worker. The listing fails with RESOURCE_EXHAUSTED when
+ * the executor rejects sending the batches, so that the client backs off.
+ */
+@ThreadSafe
+final class ListStatusStreamer {
+  private static final Logger LOG = LoggerFactory.getLogger(ListStatusStreamer.class);
+
+  private final String mPath;
+  private final Iterator<UfsStatus> mStatuses;
+  private final PagedDoraWorker mWorker;
+  private final ServerCallStreamObserver<ListStatusPResponse> mResponseObserver;
+  private final int mBatchSize;
+  private final ExecutorService mExecutor;
+  /** Whether a task is sending the batches, only one task sends them at a time. */
+  private final AtomicBoolean mSending = new AtomicBoolean(false);
+  /** Whether the call is completed or cancelled. */
+  private volatile boolean mDone = false;
+
+  /**
+   * @param path the path of the listed directory
+   * @param statuses the statuses of the listing
+   * @param worker the worker building the file infos to send from the statuses
+   * @param responseObserver the response observer of the call
+   * @param batchSize the max number of file infos in a response
+   * @param executor the executor to send the batches from
+   */
+  ListStatusStreamer(String path, Iterator<UfsStatus> statuses,
+      PagedDoraWorker worker,
+      ServerCallStreamObserver<ListStatusPResponse> responseObserver, int batchSize,
+      ExecutorService executor) {
+    mPath = path;
+    mStatuses = statuses;
+    mWorker = worker;
+    mResponseObserver = responseObserver;
+    mBatchSize = batchSize;
+    mExecutor = executor;
+  }
+
+  /**
+   * Starts streaming the listing. This must be called from the gRPC handler of the call.
+   */
+  void start() {
+    mResponseObserver.setOnCancelHandler(() -> {
+      LOG.debug("Listing of {} is cancelled", mPath);
+      mDone = true;
+    });
+    mResponseObserver.setOnReadyHandler(this::onReady);
+    onReady();
+  }
+
+  private void onReady() {
+    if (!mDone && mSending.compareAndSet(false, true)) {
+      try {
+        mExecutor.submit(this::sendBatches);
+      } catch (RejectedExecutionException e) {
+        LOG.warn("Failed to list status of {}: too many listings in progress", mPath);
+        mDone = true;
+        mSending.set(false);
+        mResponseObserver.onError(new ResourceExhaustedRuntimeException(String.format(
+            "Too many listings in progress on the worker to list %s", mPath), e, true)
+            .toGrpcStatusRuntimeException());
+      }
+    }
+  }
+
+  private void sendBatches() {
+    try {
+      while (!mDone && mResponseObserver.isReady()) {
+        ListStatusPResponse.Builder builder = ListStatusPResponse.newBuilder();
+        while (builder.getFileInfosCount() < mBatchSize && mStatuses.hasNext()) {
+          UfsStatus status = mStatuses.next();
+          // the list status do not include xattr now. GetAttr will cause some additional
+          // overhead. And not every request requires the Xattr.
+          builder.addFileInfos(mWorker.buildFileInfoFromUfsStatus(status,
+              PathUtils.concatPath(mPath, status.getName()), null));
+        }
+        boolean isLast = !mStatuses.hasNext();
+        if (builder.getFileInfosCount() != 0) {
+          mResponseObserver.onNext(builder.build());
+        }
+        if (isLast) {
+          mDone = true;
+          mResponseObserver.onCompleted();
+        }
+      }
+    } catch (Exception e) {
+      LOG.error(String.format("Failed to list status of %s: ", mPath), e);
+      mDone = true;
+      mResponseObserver.onError(AlluxioRuntimeException.from(e).toGrpcStatusRuntimeException());
+    } finally {
+      mSending.set(false);
+    }
+    // The call may have become ready after it was last checked, but before the sending was
+    // over, when the onReady handler could not start sending again.
+    if (!mDone && mResponseObserver.isReady()) {
+      onReady();
+    }
+  }
+}
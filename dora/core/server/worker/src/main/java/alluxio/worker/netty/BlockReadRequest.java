@@ -15,6 +15,9 @@ import alluxio.proto.dataserver.Protocol;
 
 import com.google.common.base.Preconditions;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
@@ -26,15 +29,28 @@ import javax.annotation.concurrent.ThreadSafe;
 public final class BlockReadRequest extends ReadRequest {
   private final Protocol.OpenUfsBlockOptions mOpenUfsBlockOptions;
   private final boolean mPromote;
+  private final boolean mVectored;
+  private final List<Protocol.ReadRange> mRanges;
 
   /**
    * Creates an instance of {@link BlockReadRequest}.
    *
+   * A request with ranges is read as if the data of its ranges were a single stream of bytes,
+   * starting at 0 and as long as the ranges altogether.
+   *
    * @param request the block read request
    */
   public BlockReadRequest(Protocol.ReadRequest request) {
-    super(request.getBlockId(), request.getOffset(), request.getOffset() + request.getLength(),
+    this(request, mergeRanges(request));
+  }
+
+  private BlockReadRequest(Protocol.ReadRequest request, List<Protocol.ReadRange> ranges) {
+    super(request.getBlockId(), request.getRangesCount() == 0 ? request.getOffset() : 0,
+        request.getRangesCount() == 0
+            ? request.getOffset() + request.getLength() : getTotalLength(ranges),
         downcastChunkSize(request));
+    mVectored = request.getRangesCount() > 0;
+    mRanges = ranges;
 
     if (request.hasOpenUfsBlockOptions()) {
       mOpenUfsBlockOptions = request.getOpenUfsBlockOptions();
@@ -45,6 +61,46 @@ public final class BlockReadRequest extends ReadRequest {
     // Note that we do not need to seek to offset since the block worker is created at the offset.
   }
 
+  /**
+   * Clamps the ranges of the request to the file, and merges each range with the ranges
+   * following it right after it in the file, so they are read together.
+   */
+  private static List<Protocol.ReadRange> mergeRanges(Protocol.ReadRequest request) {
+    if (request.getRangesCount() == 0) {
+      return Collections.emptyList();
+    }
+    long fileLength = request.getOpenUfsBlockOptions().hasBlockSize()
+        ? request.getOpenUfsBlockOptions().getBlockSize() : Long.MAX_VALUE;
+    List<Protocol.ReadRange> ranges = new ArrayList<>(request.getRangesCount());
+    long offset = 0;
+    long length = 0;
+    for (Protocol.ReadRange range : request.getRangesList()) {
+      Preconditions.checkArgument(range.getOffset() >= 0 && range.getLength() >= 0,
+          "invalid range: offset %s, length %s", range.getOffset(), range.getLength());
+      long rangeLength = Math.max(0, Math.min(range.getLength(), fileLength - range.getOffset()));
+      if (rangeLength == 0) {
+        continue;
+      }
+      if (length > 0 && offset + length == range.getOffset()) {
+        length += rangeLength;
+        continue;
+      }
+      if (length > 0) {
+        ranges.add(Protocol.ReadRange.newBuilder().setOffset(offset).setLength(length).build());
+      }
+      offset = range.getOffset();
+      length = rangeLength;
+    }
+    if (length > 0) {
+      ranges.add(Protocol.ReadRange.newBuilder().setOffset(offset).setLength(length).build());
+    }
+    return ranges;
+  }
+
+  private static long getTotalLength(List<Protocol.ReadRange> ranges) {
+    return ranges.stream().mapToLong(Protocol.ReadRange::getLength).sum();
+  }
+
   private static int downcastChunkSize(Protocol.ReadRequest request) {
     int chunkSizeInt = (int) request.getChunkSize();
     Preconditions.checkArgument(request.getChunkSize() == (long) chunkSizeInt,
@@ -52,6 +108,32 @@ public final class BlockReadRequest extends ReadRequest {
     return chunkSizeInt;
   }
 
+  /**
+   * @return whether the request reads a list of ranges rather than a single range given by its
+   *         start and end
+   */
+  public boolean isVectored() {
+    return mVectored;
+  }
+
+  /**
+   * @return the ranges of the file to read with adjacent ranges merged, empty if the request is
+   *         not vectored
+   */
+  public List<Protocol.ReadRange> getRanges() {
+    return mRanges;
+  }
+
+  /**
+   * @return the offset in the file the request starts reading at
+   */
+  public long getStartInFile() {
+    if (!mVectored) {
+      return getStart();
+    }
+    return mRanges.isEmpty() ? 0 : mRanges.get(0).getOffset();
+  }
+
   /**
    * @return if the block read type indicate promote in tier storage
    */
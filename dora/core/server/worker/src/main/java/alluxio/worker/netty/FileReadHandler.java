@@ -26,12 +26,14 @@ import alluxio.worker.dora.DoraWorker;
 import alluxio.worker.dora.PagedFileReader;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.channels.FileChannel;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -98,10 +100,10 @@ public class FileReadHandler extends AbstractReadHandler<BlockReadRequest> {
         final String fileId =
             new AlluxioURI(readRequest.getOpenUfsBlockOptions().getUfsPath()).hash();
         BlockReader reader =
-            mWorker.createFileReader(fileId, readRequest.getStart(),
+            mWorker.createFileReader(fileId, readRequest.getStartInFile(),
                 /* positionShort */ false, readRequest.getOpenUfsBlockOptions());
         if (reader.getChannel() instanceof FileChannel) {
-          ((FileChannel) reader.getChannel()).position(readRequest.getStart());
+          ((FileChannel) reader.getChannel()).position(readRequest.getStartInFile());
         }
         return new FilePacketReader(reader, readRequest, mTransferType);
       } catch (AccessControlException e) {
@@ -133,6 +135,10 @@ public class FileReadHandler extends AbstractReadHandler<BlockReadRequest> {
     private final BlockReader mReader;
     private final BlockReadRequest mReadRequest;
     private final FileTransferType mTransferType;
+    /** The index of the range of a vectored request being read. */
+    private int mRangeIndex;
+    /** The offset of the range being read in the data of all the ranges. */
+    private long mRangeStart;
 
     FilePacketReader(BlockReader reader, BlockReadRequest request, FileTransferType transferType) {
       mReader = reader;
@@ -143,20 +149,49 @@ public class FileReadHandler extends AbstractReadHandler<BlockReadRequest> {
     @Override
     public DataBuffer createDataBuffer(Channel channel, long offset, int len)
         throws Exception {
+      if (mReadRequest.isVectored()) {
+        return createRangeDataBuffer(channel, offset, len);
+      }
+      if (mReader instanceof PagedFileReader) {
+        // cached pages are sent without copying in both transfer modes
+        PagedFileReader pagedFileReader = (PagedFileReader) mReader;
+        CompositeDataBuffer compositeDataBuffer =
+            pagedFileReader.getMultipleDataFileChannel(channel, len, mTransferType);
+        return compositeDataBuffer;
+      }
       if (mTransferType == FileTransferType.TRANSFER) {
-        if (mReader instanceof PagedFileReader) {
-          PagedFileReader pagedFileReader = (PagedFileReader) mReader;
-          CompositeDataBuffer compositeDataBuffer =
-              pagedFileReader.getMultipleDataFileChannel(channel, len);
-          return compositeDataBuffer;
-        } else {
-          throw new UnsupportedOperationException(mReader.getClass().getCanonicalName()
-              + "is no longer supported in Alluxio 3.x");
-        }
+        throw new UnsupportedOperationException(mReader.getClass().getCanonicalName()
+            + "is no longer supported in Alluxio 3.x");
       }
       return createDataBufferByCopying(channel, len);
     }
 
+    /**
+     * Reads the next bytes of the range holding the given offset in the data of all the ranges.
+     * The packets are read in order, and a packet never spans two ranges.
+     */
+    private DataBuffer createRangeDataBuffer(Channel channel, long offset, int len)
+        throws IOException {
+      List<Protocol.ReadRange> ranges = mReadRequest.getRanges();
+      while (mRangeIndex < ranges.size()
+          && offset >= mRangeStart + ranges.get(mRangeIndex).getLength()) {
+        mRangeStart += ranges.get(mRangeIndex).getLength();
+        mRangeIndex++;
+      }
+      if (mRangeIndex == ranges.size()) {
+        return new NettyDataBuffer(Unpooled.EMPTY_BUFFER);
+      }
+      Protocol.ReadRange range = ranges.get(mRangeIndex);
+      long position = range.getOffset() + offset - mRangeStart;
+      int length = (int) Math.min(len, mRangeStart + range.getLength() - offset);
+      if (mReader instanceof PagedFileReader) {
+        PagedFileReader pagedFileReader = (PagedFileReader) mReader;
+        pagedFileReader.setPosition(position);
+        return pagedFileReader.getMultipleDataFileChannel(channel, length, mTransferType);
+      }
+      return new NettyDataBuffer(Unpooled.wrappedBuffer(mReader.read(position, length)));
+    }
+
     private DataBuffer createDataBufferByCopying(Channel channel, int len)
         throws IOException {
       ByteBuf buf = channel.alloc().buffer(len, len);
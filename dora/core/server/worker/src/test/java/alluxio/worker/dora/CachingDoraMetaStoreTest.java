@@ -0,0 +1,180 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.Constants;
+import alluxio.grpc.FileInfo;
+import alluxio.proto.meta.DoraMeta.FileStatus;
+import alluxio.resource.CloseableIterator;
+import alluxio.underfs.UfsStatus;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link CachingDoraMetaStore}.
+ */
+public class CachingDoraMetaStoreTest {
+  private CountingMetaStore mBackingStore;
+  private CachingDoraMetaStore mMetaStore;
+
+  @Before
+  public void before() {
+    mBackingStore = new CountingMetaStore();
+    mMetaStore = new CachingDoraMetaStore(mBackingStore, Constants.MB, -1);
+  }
+
+  @Test
+  public void writeThrough() {
+    FileStatus status = createStatus(1, System.currentTimeMillis());
+    mMetaStore.putDoraMeta("/a", status);
+    assertEquals(status, mBackingStore.mMetas.get("/a"));
+    assertEquals(Optional.of(status), mMetaStore.getDoraMeta("/a"));
+    assertEquals(0, mBackingStore.mGets.get());
+
+    mMetaStore.removeDoraMeta("/a");
+    assertFalse(mBackingStore.mMetas.containsKey("/a"));
+    assertFalse(mMetaStore.getDoraMeta("/a").isPresent());
+  }
+
+  @Test
+  public void loadOnMiss() {
+    FileStatus status = createStatus(1, System.currentTimeMillis());
+    mBackingStore.putDoraMeta("/a", status);
+    assertEquals(Optional.of(status), mMetaStore.getDoraMeta("/a"));
+    assertEquals(Optional.of(status), mMetaStore.getDoraMeta("/a"));
+    assertEquals(1, mBackingStore.mGets.get());
+
+    // missing metadata is not cached
+    assertFalse(mMetaStore.getDoraMeta("/b").isPresent());
+    assertFalse(mMetaStore.getDoraMeta("/b").isPresent());
+    assertEquals(3, mBackingStore.mGets.get());
+    assertEquals(1, mMetaStore.getCachedCount());
+  }
+
+  @Test
+  public void expiredMeta() {
+    mMetaStore = new CachingDoraMetaStore(mBackingStore, Constants.MB, 60);
+    FileStatus expired = createStatus(1, System.currentTimeMillis() - 120 * Constants.SECOND_MS);
+    mMetaStore.putDoraMeta("/a", expired);
+    mBackingStore.removeDoraMeta("/a");
+    assertFalse(mMetaStore.getDoraMeta("/a").isPresent());
+    assertEquals(1, mBackingStore.mGets.get());
+  }
+
+  @Test
+  public void boundedSize() {
+    mMetaStore = new CachingDoraMetaStore(mBackingStore, 10 * Constants.KB, -1);
+    for (int i = 0; i < 1000; i++) {
+      mMetaStore.putDoraMeta("/file" + i, createStatus(i, System.currentTimeMillis()));
+    }
+    assertTrue(mMetaStore.getCachedCount() < 1000);
+    assertEquals(1000, mBackingStore.mMetas.size());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i, mMetaStore.getDoraMeta("/file" + i).get().getFileInfo().getFileId());
+    }
+  }
+
+  @Test
+  public void clear() {
+    mMetaStore.putDoraMeta("/a", createStatus(1, System.currentTimeMillis()));
+    mMetaStore.clear();
+    assertFalse(mMetaStore.getDoraMeta("/a").isPresent());
+    assertEquals(Optional.of(0L), mMetaStore.size());
+  }
+
+  private static FileStatus createStatus(long fileId, long ts) {
+    return FileStatus.newBuilder()
+        .setFileInfo(FileInfo.newBuilder().setFileId(fileId).setLength(1000).build())
+        .setTs(ts)
+        .build();
+  }
+
+  /**
+   * An in-memory meta store counting the lookups.
+   */
+  private static final class CountingMetaStore implements DoraMetaStore {
+    private final Map<String, FileStatus> mMetas = new ConcurrentHashMap<>();
+    private final AtomicInteger mGets = new AtomicInteger();
+
+    @Override
+    public Optional<FileStatus> getDoraMeta(String path) {
+      mGets.incrementAndGet();
+      return Optional.ofNullable(mMetas.get(path));
+    }
+
+    @Override
+    public void putDoraMeta(String path, FileStatus meta) {
+      mMetas.put(path, meta);
+    }
+
+    @Override
+    public void removeDoraMeta(String path) {
+      mMetas.remove(path);
+    }
+
+    @Override
+    public void putListing(String path, List<UfsStatus> children, long listTimeMs) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Optional<Long> getListingTime(String path) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public CloseableIterator<UfsStatus> iterateListing(String path, String fromName) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void removeListing(String path) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long removeExpired(RateLimiter rateLimiter) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+      mMetas.clear();
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public Optional<Long> size() {
+      return Optional.of((long) mMetas.size());
+    }
+
+    @Override
+    public Optional<Long> sizeInBytes() {
+      return Optional.empty();
+    }
+  }
+}
@@ -11,9 +11,13 @@
 
 package alluxio.worker.dora;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
@@ -25,6 +29,10 @@ import alluxio.conf.AlluxioConfiguration;
 import alluxio.conf.AlluxioProperties;
 import alluxio.conf.InstancedConfiguration;
 import alluxio.conf.PropertyKey;
+import alluxio.grpc.FileInfo;
+import alluxio.proto.meta.DoraMeta.FileStatus;
+import alluxio.underfs.UfsDirectoryStatus;
+import alluxio.underfs.UfsFileStatus;
 import alluxio.underfs.UfsStatus;
 import alluxio.underfs.UnderFileSystem;
 
@@ -34,14 +42,20 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import java.io.Closeable;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 
 public class DoraMetaManagerTest {
   private DoraMetaManager mManager;
   private DoraUfsManager mDoraUfsManager;
+  private AlluxioConfiguration mConf;
   @Rule
   public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
   String mTestMetaStorePath;
@@ -53,11 +67,15 @@ public class DoraMetaManagerTest {
         "testFile").toString();
     prop.set(PropertyKey.DORA_WORKER_METASTORE_ROCKSDB_DIR, String.format("%s/metastore",
         mTestMetaStorePath));
-    AlluxioConfiguration conf = new InstancedConfiguration(prop);
+    mConf = new InstancedConfiguration(prop);
+    mDoraUfsManager = mock(DoraUfsManager.class);
+    mManager = createManager();
+  }
+
+  private DoraMetaManager createManager() {
     PagedDoraWorker worker = mock(PagedDoraWorker.class);
     CacheManager cacheManager = mock(CacheManager.class);
-    mDoraUfsManager = mock(DoraUfsManager.class);
-    mManager = new DoraMetaManager(conf, worker, cacheManager, mDoraUfsManager);
+    return new DoraMetaManager(mConf, worker, cacheManager, mDoraUfsManager);
   }
 
   @After
@@ -135,4 +153,134 @@ public class DoraMetaManagerTest {
     Optional<UfsStatus[]> status = mManager.listFromUfsThenCache("/test", false);
     assertEquals(status, Optional.empty());
   }
+
+  @Test
+  public void listRecursiveFromMetaStore() throws IOException {
+    mockRecursiveListing();
+    mManager.listFromUfsThenCache("/test", true);
+
+    assertArrayEquals(new String[] {"a", "a/d", "a/x", "a/y", "b", "c"},
+        getNames(mManager.listFromMetaStore("/test", true, null, Integer.MAX_VALUE)));
+    assertArrayEquals(new String[] {"a/y", "b"},
+        getNames(mManager.listFromMetaStore("/test", true, "a/x", 2)));
+    assertArrayEquals(new String[] {"a/d", "a/x"},
+        getNames(mManager.listFromMetaStore("/test/", true, "a", 2)));
+    assertArrayEquals(new String[] {"d", "x", "y"},
+        getNames(mManager.listFromMetaStore("/test/a", false, null, Integer.MAX_VALUE)));
+    assertArrayEquals(new String[] {"a", "b", "c"},
+        getNames(mManager.listCached("/test", false)));
+    // the listing from the UFS is paged in the same order
+    UfsStatus[] ufsStatuses = mManager.listFromUfs("/test", true).get();
+    assertArrayEquals(new String[] {"a/y", "b"}, Arrays.stream(
+        DoraMetaManager.getListingPart(ufsStatuses, "a/x", 2)).map(UfsStatus::getName).toArray());
+    assertEquals(1000, ((UfsFileStatus) mManager.listFromMetaStore("/test", false, "a", 1)
+        .get().mUfsStatuses[0]).getContentLength());
+  }
+
+  @Test
+  public void listFromMetaStoreAfterRestart() throws IOException {
+    mockRecursiveListing();
+    mManager.listFromUfsThenCache("/test", true);
+    mManager.close();
+    mManager = createManager();
+
+    assertArrayEquals(new String[] {"a", "a/d", "a/x", "a/y", "b", "c"},
+        getNames(mManager.listCached("/test", true)));
+    assertArrayEquals(new String[] {"a", "b", "c"},
+        getNames(mManager.listCached("/test", false)));
+  }
+
+  @Test
+  public void invalidateListingInMetaStore() throws IOException {
+    mockRecursiveListing();
+    mManager.listFromUfsThenCache("/test", true);
+    mManager.invalidateListingCacheOfParent("/test/a/x");
+
+    // the recursive listing misses the listing of a subdirectory
+    assertFalse(mManager.listFromMetaStore("/test", true, null, Integer.MAX_VALUE).isPresent());
+    assertTrue(mManager.listFromMetaStore("/test", false, null, Integer.MAX_VALUE).isPresent());
+    assertFalse(mManager.listFromMetaStore("/test/a", false, null, Integer.MAX_VALUE)
+        .isPresent());
+    assertTrue(mManager.listFromMetaStore("/test/a/d", false, null, Integer.MAX_VALUE)
+        .isPresent());
+  }
+
+  @Test
+  public void iterateFromUfsThenCache() throws IOException {
+    UnderFileSystem system = mock(UnderFileSystem.class);
+    UfsStatus[] statuses = new UfsStatus[] {
+        new UfsDirectoryStatus("a", "owner", "group", (short) 0755),
+        new UfsFileStatus("b", "hash", 1000, 0L, "owner", "group", (short) 0644, 64),
+    };
+    when(system.listStatusIterable(anyString(), any(), any(), anyInt()))
+        .thenReturn(Arrays.asList(statuses).iterator());
+    doReturn(system).when(mDoraUfsManager).getOrAdd(any(), any());
+
+    Optional<Iterator<UfsStatus>> iterator = mManager.iterateFromUfsThenCache("/test", false);
+    assertTrue(iterator.isPresent());
+    assertEquals("a", iterator.get().next().getName());
+    // the listing is only cached once it is fully iterated
+    assertFalse(mManager.listCached("/test", false).isPresent());
+    assertEquals("b", iterator.get().next().getName());
+    assertFalse(iterator.get().hasNext());
+    assertArrayEquals(new String[] {"a", "b"}, getNames(mManager.listCached("/test", false)));
+  }
+
+  @Test
+  public void iterateFromUfsWhenGetNull() throws IOException {
+    UnderFileSystem system = mock(UnderFileSystem.class);
+    when(system.listStatusIterable(anyString(), any(), any(), anyInt())).thenReturn(null);
+    when(system.getStatus(anyString())).thenReturn(null);
+    doReturn(system).when(mDoraUfsManager).getOrAdd(any(), any());
+    assertFalse(mManager.iterateFromUfsThenCache("/test", false).isPresent());
+  }
+
+  @Test
+  public void notifyMetadataInvalidation() throws IOException {
+    UnderFileSystem system = mock(UnderFileSystem.class);
+    when(system.getUnderFSType()).thenReturn("local");
+    doReturn(system).when(mDoraUfsManager).getOrAdd(any(), any());
+    List<String> invalidated = new ArrayList<>();
+    Closeable listener = mManager.addInvalidationListener(invalidated::add);
+
+    mManager.put("/test/a", getFileStatus("/test/a", 10, "hash"));
+    mManager.put("/test/a", getFileStatus("/test/a", 10, "hash"));
+    // the metadata is not changed
+    assertTrue(invalidated.isEmpty());
+    mManager.put("/test/a", getFileStatus("/test/a", 20, "hash2"));
+    assertEquals(Arrays.asList("/test/a"), invalidated);
+    mManager.removeFromMetaStore("/test/a");
+    mManager.removeFromMetaStore("/test/b");
+    assertEquals(Arrays.asList("/test/a", "/test/a"), invalidated);
+
+    listener.close();
+    mManager.put("/test/b", getFileStatus("/test/b", 10, "hash"));
+    mManager.removeFromMetaStore("/test/b");
+    assertEquals(2, invalidated.size());
+  }
+
+  private static FileStatus getFileStatus(String path, long length, String contentHash) {
+    return FileStatus.newBuilder().setFileInfo(FileInfo.newBuilder().setUfsPath(path)
+        .setUfsType("local").setLength(length).setContentHash(contentHash)).build();
+  }
+
+  private void mockRecursiveListing() throws IOException {
+    UnderFileSystem system = mock(UnderFileSystem.class);
+    UfsStatus[] statuses = new UfsStatus[] {
+        new UfsDirectoryStatus("a", "owner", "group", (short) 0755),
+        new UfsFileStatus("a/x", "hash", 10, 0L, "owner", "group", (short) 0644, 64),
+        new UfsFileStatus("c", null, 10, 0L, "owner", "group", (short) 0644, 64),
+        new UfsFileStatus("b", "hash", 1000, 0L, "owner", "group", (short) 0644, 64),
+        new UfsFileStatus("a/y", "hash", 10, 0L, "owner", "group", (short) 0644, 64),
+        new UfsDirectoryStatus("a/d", "owner", "group", (short) 0755),
+    };
+    when(system.listStatus(anyString(), any())).thenReturn(statuses);
+    doReturn(system).when(mDoraUfsManager).getOrAdd(any(), any());
+  }
+
+  private static String[] getNames(Optional<ListStatusResult> result) {
+    assertTrue(result.isPresent());
+    return Arrays.stream(result.get().mUfsStatuses).map(UfsStatus::getName)
+        .toArray(String[]::new);
+  }
 }
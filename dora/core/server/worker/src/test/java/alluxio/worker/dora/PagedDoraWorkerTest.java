@@ -11,6 +11,7 @@
 
 package alluxio.worker.dora;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -37,6 +38,7 @@ import alluxio.grpc.FileInfo;
 import alluxio.grpc.FileSystemMasterCommonPOptions;
 import alluxio.grpc.GetStatusPOptions;
 import alluxio.grpc.ListStatusPOptions;
+import alluxio.grpc.ListStatusPartialPOptions;
 import alluxio.grpc.LoadDataSubTask;
 import alluxio.grpc.LoadFileResponse;
 import alluxio.grpc.LoadMetadataSubTask;
@@ -156,6 +158,7 @@ public class PagedDoraWorkerTest {
         UfsReadOptions.newBuilder().setUser("test").setTag("1").setPositionShort(false).build());
     LoadFileResponse response = load.get(30, TimeUnit.SECONDS);
     assertEquals(0, response.getFailuresCount());
+    assertEquals(mPageSize * numCachedPages, response.getBytesLoadedUfs());
     List<PageId> cachedPages =
         mCacheManager.getCachedPageIdsByFileId(new AlluxioURI(ufsPath).hash(), length);
     assertEquals(numCachedPages, cachedPages.size());
@@ -822,10 +825,21 @@ public class PagedDoraWorkerTest {
     UfsStatus[] listResult =
         mWorker.listStatus(rootPath, ListStatusPOptions.newBuilder().setRecursive(true).build());
     assertEquals(3, listResult.length);
-    assertFalse(mWorker.getMetaManager().listCached(rootPath, true).isPresent());
+    // recursive listings are kept in the listing index of the metastore
+    assertEquals(3, mWorker.getMetaManager().listCached(rootPath, true).get().mUfsStatuses.length);
     listResult =
         mWorker.listStatus(rootPath, ListStatusPOptions.newBuilder().setRecursive(false).build());
     assertEquals(2, listResult.length);
+
+    ListStatusPartialPOptions partialOptions = ListStatusPartialPOptions.newBuilder()
+        .setOptions(ListStatusPOptions.newBuilder().setRecursive(true)).setBatchSize(2).build();
+    listResult = mWorker.listStatusPartial(rootPath, partialOptions);
+    assertArrayEquals(new String[] {"d1", "d1/d1"},
+        Arrays.stream(listResult).map(UfsStatus::getName).toArray());
+    listResult = mWorker.listStatusPartial(rootPath,
+        partialOptions.toBuilder().setStartAfter("d1/d1").build());
+    assertArrayEquals(new String[] {"d2"},
+        Arrays.stream(listResult).map(UfsStatus::getName).toArray());
   }
 
   @Test
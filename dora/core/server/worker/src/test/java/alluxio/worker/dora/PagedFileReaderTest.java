@@ -33,6 +33,7 @@ import alluxio.client.file.cache.store.PageStoreType;
 import alluxio.conf.Configuration;
 import alluxio.conf.InstancedConfiguration;
 import alluxio.conf.PropertyKey;
+import alluxio.network.netty.FileTransferType;
 import alluxio.network.protocol.databuffer.CompositeDataBuffer;
 import alluxio.network.protocol.databuffer.DataBuffer;
 import alluxio.underfs.UnderFileSystem;
@@ -132,8 +133,11 @@ public class PagedFileReaderTest {
     String fileId = new AlluxioURI(mTestFileName).hash();
     CacheManager cacheManager = CacheManager.Factory.create(
         mConf, cacheManagerOptions, pageMetaStore);
-    mPagedFileReader = PagedFileReader.create(
-        mConf, cacheManager, mLocalUfs, fileId, mTestFileName, mFileLen, 0);
+    UfsPageLoader pageLoader = new UfsPageLoader(cacheManager,
+        mConf.getBytes(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE),
+        mConf.getInt(PropertyKey.WORKER_UFS_READ_MAX_PAGES));
+    mPagedFileReader = PagedFileReader.create(mConf, cacheManager, pageLoader, mLocalUfs,
+        fileId, mTestFileName, mFileLen, 0, mFileLen);
     mPositionReaderTest = new PositionReaderTest(mPagedFileReader, mFileLen);
   }
 
@@ -200,6 +204,17 @@ public class PagedFileReaderTest {
   public void getMultipleDataFileChannel() throws IOException {
     CompositeDataBuffer compositeDataBuffer =
         mPagedFileReader.getMultipleDataFileChannel(mEmbeddedChannel, mFileLen);
+    assertCompositeDataBuffer(compositeDataBuffer);
+  }
+
+  @Test
+  public void getMultipleDataFileChannelMapped() throws IOException {
+    CompositeDataBuffer compositeDataBuffer = mPagedFileReader.getMultipleDataFileChannel(
+        mEmbeddedChannel, mFileLen, FileTransferType.MAPPED);
+    assertCompositeDataBuffer(compositeDataBuffer);
+  }
+
+  private void assertCompositeDataBuffer(CompositeDataBuffer compositeDataBuffer) {
     Assert.assertEquals(mFileLen, compositeDataBuffer.getLength());
 
     byte[] bArray = new byte[mFileLen];
@@ -11,12 +11,21 @@
 
 package alluxio.worker.dora;
 
+import alluxio.Constants;
 import alluxio.grpc.FileInfo;
 import alluxio.proto.meta.DoraMeta;
+import alluxio.resource.CloseableIterator;
+import alluxio.underfs.UfsFileStatus;
+import alluxio.underfs.UfsStatus;
 import alluxio.util.CommonUtils;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.RateLimiter;
 import junit.framework.TestCase;
+import org.apache.commons.io.FileUtils;
 
+import java.io.File;
+import java.nio.file.Files;
 import java.util.Optional;
 
 public class RocksDBDoraMetaStoreTest extends TestCase {
@@ -44,7 +53,7 @@ public class RocksDBDoraMetaStoreTest extends TestCase {
         .build();
     DoraMeta.FileStatus fs = DoraMeta.FileStatus.newBuilder()
         .setFileInfo(fi)
-        .setTs(System.nanoTime())
+        .setTs(System.currentTimeMillis())
         .build();
     mTestMetastore.putDoraMeta(path, fs);
     Optional<DoraMeta.FileStatus> res = mTestMetastore.getDoraMeta(path);
@@ -70,7 +79,7 @@ public class RocksDBDoraMetaStoreTest extends TestCase {
         .build();
     DoraMeta.FileStatus fs = DoraMeta.FileStatus.newBuilder()
         .setFileInfo(fi)
-        .setTs(System.nanoTime())
+        .setTs(System.currentTimeMillis())
         .build();
     mTestMetastore.putDoraMeta(path, fs);
     String pathNotExist = new String("/NOT_EXIST");
@@ -101,7 +110,7 @@ public class RocksDBDoraMetaStoreTest extends TestCase {
         .build();
     DoraMeta.FileStatus fs = DoraMeta.FileStatus.newBuilder()
         .setFileInfo(fi)
-        .setTs(System.nanoTime())
+        .setTs(System.currentTimeMillis())
         .build();
     mTestMetastore.putDoraMeta(path, fs);
 
@@ -118,6 +127,88 @@ public class RocksDBDoraMetaStoreTest extends TestCase {
     System.out.println("End testGetExpire");
   }
 
+  public void testRemoveExpired() throws Exception {
+    File dir = Files.createTempDirectory("metastore").toFile();
+    RocksDBDoraMetaStore metaStore =
+        new RocksDBDoraMetaStore(dir.getPath(), 3 /* seconds */, 3 * Constants.SECOND_MS);
+    try {
+      FileInfo fi = FileInfo.newBuilder().setFileId(1234).setMode(0567).setLength(1000).build();
+      metaStore.putDoraMeta("/expired", DoraMeta.FileStatus.newBuilder()
+          .setFileInfo(fi).setTs(System.currentTimeMillis() - 5 * Constants.SECOND_MS).build());
+      metaStore.putDoraMeta("/fresh", DoraMeta.FileStatus.newBuilder()
+          .setFileInfo(fi).setTs(System.currentTimeMillis()).build());
+      UfsStatus child = new UfsFileStatus("f", "", 10, null, "", "", (short) 0644, -1);
+      long now = System.currentTimeMillis();
+      metaStore.putListing("/expired/", ImmutableList.of(child), now - 5 * Constants.SECOND_MS);
+      metaStore.putListing("/fresh/", ImmutableList.of(child), now);
+
+      assertEquals(2, metaStore.removeExpired(RateLimiter.create(1000)));
+      assertFalse(metaStore.getDoraMeta("/expired").isPresent());
+      assertTrue(metaStore.getDoraMeta("/fresh").isPresent());
+      assertFalse(metaStore.getListingTime("/expired/").isPresent());
+      try (CloseableIterator<UfsStatus> iter = metaStore.iterateListing("/expired/", null)) {
+        assertFalse(iter.hasNext());
+      }
+      assertEquals(Optional.of(now), metaStore.getListingTime("/fresh/"));
+      try (CloseableIterator<UfsStatus> iter = metaStore.iterateListing("/fresh/", null)) {
+        assertEquals("f", iter.next().getName());
+        assertFalse(iter.hasNext());
+      }
+      assertEquals(0, metaStore.removeExpired(RateLimiter.create(1000)));
+    } finally {
+      metaStore.close();
+      FileUtils.deleteDirectory(dir);
+    }
+  }
+
+  public void testRemoveExpiredInBatches() throws Exception {
+    File dir = Files.createTempDirectory("metastore").toFile();
+    RocksDBDoraMetaStore metaStore =
+        new RocksDBDoraMetaStore(dir.getPath(), 3 /* seconds */, 3 * Constants.SECOND_MS);
+    try {
+      FileInfo fi = FileInfo.newBuilder().setFileId(1234).setMode(0567).setLength(1000).build();
+      // more entries than a batch of the sweep, every other one expired
+      final int n = 2500;
+      long now = System.currentTimeMillis();
+      for (int i = 0; i < n; i++) {
+        metaStore.putDoraMeta("/file" + i, DoraMeta.FileStatus.newBuilder().setFileInfo(fi)
+            .setTs(i % 2 == 0 ? now - 5 * Constants.SECOND_MS : now).build());
+      }
+      // the metadata refreshed in the future, like that stored in nanoseconds, is outdated
+      metaStore.putDoraMeta("/nanos", DoraMeta.FileStatus.newBuilder().setFileInfo(fi)
+          .setTs(now * Constants.MS_NANO).build());
+
+      assertEquals(n / 2 + 1, metaStore.removeExpired(RateLimiter.create(1_000_000)));
+      for (int i = 0; i < n; i++) {
+        assertEquals(i % 2 != 0, metaStore.getDoraMeta("/file" + i).isPresent());
+      }
+      assertFalse(metaStore.getDoraMeta("/nanos").isPresent());
+    } finally {
+      metaStore.close();
+      FileUtils.deleteDirectory(dir);
+    }
+  }
+
+  public void testRemoveListing() throws Exception {
+    File dir = Files.createTempDirectory("metastore").toFile();
+    RocksDBDoraMetaStore metaStore = new RocksDBDoraMetaStore(dir.getPath(), 3 /* seconds */);
+    try {
+      UfsStatus child = new UfsFileStatus("f", "", 10, null, "", "", (short) 0644, -1);
+      metaStore.putListing("/dir/", ImmutableList.of(child), System.currentTimeMillis());
+      // removing a listing which is not stored leaves the others alone
+      metaStore.removeListing("/other/");
+      assertTrue(metaStore.getListingTime("/dir/").isPresent());
+      metaStore.removeListing("/dir/");
+      assertFalse(metaStore.getListingTime("/dir/").isPresent());
+      try (CloseableIterator<UfsStatus> iter = metaStore.iterateListing("/dir/", null)) {
+        assertFalse(iter.hasNext());
+      }
+    } finally {
+      metaStore.close();
+      FileUtils.deleteDirectory(dir);
+    }
+  }
+
   /**
    * Performance Testing.
    */
@@ -129,7 +220,7 @@ public class RocksDBDoraMetaStoreTest extends TestCase {
     for (int i = 0; i < N; i++) {
       String path = new String("/HELLO" + i);
 
-      long ts = System.nanoTime();
+      long ts = System.currentTimeMillis();
 
       FileInfo fi = FileInfo.newBuilder()
           .setFileId(10000000 + i)
@@ -0,0 +1,269 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import alluxio.ByteArrayPositionReader;
+import alluxio.PositionReader;
+import alluxio.client.file.cache.CacheManager;
+import alluxio.client.file.cache.PageId;
+import alluxio.file.ReadTargetBuffer;
+import alluxio.util.io.BufferUtils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link UfsPageLoader}.
+ */
+public class UfsPageLoaderTest {
+  private static final int PAGE_SIZE = 1024;
+  private static final String FILE_ID = "file";
+  private static final int FILE_LENGTH = 10 * PAGE_SIZE + 100;
+  private static final byte[] DATA = BufferUtils.getIncreasingByteArray(FILE_LENGTH);
+
+  private CacheManager mCacheManager;
+  private final List<List<PageId>> mPutPages = new ArrayList<>();
+
+  @Before
+  public void before() {
+    mCacheManager = mock(CacheManager.class);
+    when(mCacheManager.putAll(anyList(), anyList(), any())).thenAnswer(invocation -> {
+      List<PageId> pageIds = invocation.getArgument(0);
+      mPutPages.add(new ArrayList<>(pageIds));
+      return pageIds.size();
+    });
+  }
+
+  @Test
+  public void concurrentMissesShareRead() throws Exception {
+    UfsPageLoader loader = new UfsPageLoader(mCacheManager, PAGE_SIZE, 1);
+    CountDownLatch readStarted = new CountDownLatch(1);
+    CountDownLatch releaseRead = new CountDownLatch(1);
+    BlockingReader reader = new BlockingReader(readStarted, releaseRead);
+    int numReaders = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(numReaders);
+    try {
+      List<Future<ByteBuffer>> results = new ArrayList<>();
+      results.add(executor.submit(
+          () -> loader.load(FILE_ID, 2, FILE_LENGTH, FILE_LENGTH, () -> reader)));
+      assertTrue(readStarted.await(10, TimeUnit.SECONDS));
+      assertTrue(loader.isLoading(new PageId(FILE_ID, 2)));
+      for (int i = 1; i < numReaders; i++) {
+        results.add(executor.submit(
+            () -> loader.load(FILE_ID, 2, FILE_LENGTH, FILE_LENGTH, () -> reader)));
+      }
+      // give the other readers time to find the page in flight
+      Thread.sleep(200);
+      releaseRead.countDown();
+      for (Future<ByteBuffer> result : results) {
+        assertArrayEquals(Arrays.copyOfRange(DATA, 2 * PAGE_SIZE, 3 * PAGE_SIZE),
+            toArray(result.get(10, TimeUnit.SECONDS)));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(1, reader.getNumReads());
+    assertFalse(loader.isLoading(new PageId(FILE_ID, 2)));
+  }
+
+  @Test
+  public void mergeFollowingPages() throws Exception {
+    UfsPageLoader loader = new UfsPageLoader(mCacheManager, PAGE_SIZE, 4);
+    CountingReader reader = new CountingReader();
+    assertArrayEquals(Arrays.copyOfRange(DATA, PAGE_SIZE, 2 * PAGE_SIZE),
+        toArray(loader.load(FILE_ID, 1, FILE_LENGTH, FILE_LENGTH, () -> reader)));
+    assertEquals(1, reader.getNumReads());
+    // pages are read up to the next multiple of 4 pages
+    assertEquals(Arrays.asList(Arrays.asList(
+        new PageId(FILE_ID, 1), new PageId(FILE_ID, 2), new PageId(FILE_ID, 3))), mPutPages);
+
+    // the last pages of the file are not aligned
+    mPutPages.clear();
+    assertArrayEquals(Arrays.copyOfRange(DATA, 9 * PAGE_SIZE, 10 * PAGE_SIZE),
+        toArray(loader.load(FILE_ID, 9, FILE_LENGTH, FILE_LENGTH, () -> reader)));
+    assertEquals(Arrays.asList(Arrays.asList(new PageId(FILE_ID, 9), new PageId(FILE_ID, 10))),
+        mPutPages);
+  }
+
+  @Test
+  public void stopMergingAtEndPosition() throws Exception {
+    UfsPageLoader loader = new UfsPageLoader(mCacheManager, PAGE_SIZE, 4);
+    loader.load(FILE_ID, 0, FILE_LENGTH, 2 * PAGE_SIZE + 1, CountingReader::new);
+    assertEquals(Arrays.asList(Arrays.asList(
+        new PageId(FILE_ID, 0), new PageId(FILE_ID, 1), new PageId(FILE_ID, 2))), mPutPages);
+  }
+
+  @Test
+  public void stopMergingAtCachedPage() throws Exception {
+    when(mCacheManager.hasPageUnsafe(new PageId(FILE_ID, 6))).thenReturn(true);
+    UfsPageLoader loader = new UfsPageLoader(mCacheManager, PAGE_SIZE, 4);
+    loader.load(FILE_ID, 4, FILE_LENGTH, FILE_LENGTH, CountingReader::new);
+    assertEquals(Arrays.asList(Arrays.asList(new PageId(FILE_ID, 4), new PageId(FILE_ID, 5))),
+        mPutPages);
+  }
+
+  @Test
+  public void failedRead() throws Exception {
+    UfsPageLoader loader = new UfsPageLoader(mCacheManager, PAGE_SIZE, 4);
+    PositionReader truncated = new PositionReader() {
+      @Override
+      public int readInternal(long position, ReadTargetBuffer buffer, int length) {
+        return -1;
+      }
+
+      @Override
+      public void close() {}
+    };
+    assertThrows(IOException.class,
+        () -> loader.load(FILE_ID, 0, FILE_LENGTH, FILE_LENGTH, () -> truncated));
+    for (int i = 0; i < 4; i++) {
+      assertFalse(loader.isLoading(new PageId(FILE_ID, i)));
+    }
+    assertTrue(mPutPages.isEmpty());
+  }
+
+  @Test
+  public void loadRange() throws Exception {
+    when(mCacheManager.hasPageUnsafe(new PageId(FILE_ID, 5))).thenReturn(true);
+    UfsPageLoader loader = new UfsPageLoader(mCacheManager, PAGE_SIZE, 1);
+    CountingReader reader = new CountingReader();
+    // reads are aligned to 4 pages, cached pages are skipped
+    assertEquals(7 * PAGE_SIZE + 100,
+        loader.loadRange(FILE_ID, FILE_LENGTH, 2 * PAGE_SIZE + 10, FILE_LENGTH, 4, () -> reader));
+    assertEquals(4, reader.getNumReads());
+    assertEquals(Arrays.asList(
+        Arrays.asList(new PageId(FILE_ID, 2), new PageId(FILE_ID, 3)),
+        Arrays.asList(new PageId(FILE_ID, 4)),
+        Arrays.asList(new PageId(FILE_ID, 6), new PageId(FILE_ID, 7)),
+        Arrays.asList(new PageId(FILE_ID, 8), new PageId(FILE_ID, 9), new PageId(FILE_ID, 10))),
+        mPutPages);
+    for (int i = 0; i <= 10; i++) {
+      assertFalse(loader.isLoading(new PageId(FILE_ID, i)));
+    }
+  }
+
+  @Test
+  public void loadRangeWaitsForPageInFlight() throws Exception {
+    UfsPageLoader loader = new UfsPageLoader(mCacheManager, PAGE_SIZE, 1);
+    CountDownLatch readStarted = new CountDownLatch(1);
+    CountDownLatch releaseRead = new CountDownLatch(1);
+    PositionReader failing = new PositionReader() {
+      @Override
+      public int readInternal(long position, ReadTargetBuffer buffer, int length)
+          throws IOException {
+        readStarted.countDown();
+        try {
+          releaseRead.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException(e);
+        }
+        return -1;
+      }
+
+      @Override
+      public void close() {}
+    };
+    CountingReader reader = new CountingReader();
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<ByteBuffer> miss = executor.submit(
+          () -> loader.load(FILE_ID, 2, FILE_LENGTH, FILE_LENGTH, () -> failing));
+      assertTrue(readStarted.await(10, TimeUnit.SECONDS));
+      Future<Long> load = executor.submit(() -> loader.loadRange(FILE_ID, FILE_LENGTH, 0,
+          4 * PAGE_SIZE, 4, () -> reader));
+      // the range is not loaded while one of its pages is in flight
+      Thread.sleep(200);
+      assertFalse(load.isDone());
+      releaseRead.countDown();
+      assertThrows(ExecutionException.class, () -> miss.get(10, TimeUnit.SECONDS));
+      // the page failed to load by the other request is loaded again
+      assertEquals(4 * PAGE_SIZE, (long) load.get(10, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(Arrays.asList(
+        Arrays.asList(new PageId(FILE_ID, 0), new PageId(FILE_ID, 1)),
+        Arrays.asList(new PageId(FILE_ID, 2), new PageId(FILE_ID, 3))), mPutPages);
+  }
+
+  private static byte[] toArray(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return bytes;
+  }
+
+  private static class CountingReader extends ByteArrayPositionReader {
+    private final AtomicInteger mNumReads = new AtomicInteger();
+
+    CountingReader() {
+      super(DATA);
+    }
+
+    @Override
+    public int readInternal(long position, ReadTargetBuffer buffer, int length)
+        throws IOException {
+      mNumReads.incrementAndGet();
+      return super.readInternal(position, buffer, length);
+    }
+
+    int getNumReads() {
+      return mNumReads.get();
+    }
+  }
+
+  private static final class BlockingReader extends CountingReader {
+    private final CountDownLatch mReadStarted;
+    private final CountDownLatch mReleaseRead;
+
+    BlockingReader(CountDownLatch readStarted, CountDownLatch releaseRead) {
+      mReadStarted = readStarted;
+      mReleaseRead = releaseRead;
+    }
+
+    @Override
+    public int readInternal(long position, ReadTargetBuffer buffer, int length)
+        throws IOException {
+      mReadStarted.countDown();
+      try {
+        mReleaseRead.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      }
+      return super.readInternal(position, buffer, length);
+    }
+  }
+}
@@ -12,35 +12,54 @@
 package alluxio.worker.grpc;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import alluxio.client.file.cache.CacheManager;
 import alluxio.client.file.cache.CacheManagerOptions;
 import alluxio.client.file.cache.PageMetaStore;
 import alluxio.conf.Configuration;
 import alluxio.conf.PropertyKey;
+import alluxio.grpc.ListStatusPOptions;
 import alluxio.grpc.ListStatusPRequest;
 import alluxio.grpc.ListStatusPResponse;
+import alluxio.grpc.WatchMetadataInvalidationRequest;
+import alluxio.grpc.WatchMetadataInvalidationResponse;
 import alluxio.membership.MembershipManager;
+import alluxio.util.CommonUtils;
+import alluxio.util.WaitForOptions;
 import alluxio.util.io.PathUtils;
 import alluxio.wire.WorkerIdentity;
 import alluxio.worker.block.BlockMasterClientPool;
+import alluxio.worker.dora.DoraWorker;
 import alluxio.worker.dora.PagedDoraWorker;
 
-import io.grpc.stub.StreamObserver;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 public class DoraWorkerClientServiceHandlerTest {
 
@@ -79,7 +98,7 @@ public class DoraWorkerClientServiceHandlerTest {
   }
 
   @Test
-  public void testRecursiveListStatus() throws IOException {
+  public void testRecursiveListStatus() throws Exception {
     // Setup
     String rootPath = setupTestDirectoryAndFile();
 
@@ -93,7 +112,7 @@ public class DoraWorkerClientServiceHandlerTest {
   }
 
   @Test
-  public void testNonRecursiveListStatus() throws IOException {
+  public void testNonRecursiveListStatus() throws Exception {
     // Setup
     String rootPath = setupTestDirectoryAndFile();
 
@@ -121,7 +140,7 @@ public class DoraWorkerClientServiceHandlerTest {
   }
 
   @Test
-  public void testListStatusOnFile() throws IOException {
+  public void testListStatusOnFile() throws Exception {
     // Setup
     String rootPath = setupTestDirectoryAndFile();
     String filePath = PathUtils.concatPath(rootPath, "f");
@@ -130,6 +149,86 @@ public class DoraWorkerClientServiceHandlerTest {
     executeAndAssertListStatus(filePath, true, new String[] {filePath}, new Boolean[] {false});
   }
 
+  @Test
+  public void testListStatusFlowControl() throws Exception {
+    // Setup
+    String rootPath = setupTestDirectoryAndFile();
+    mRequest = ListStatusPRequest.newBuilder().setOptions(
+            alluxio.grpc.ListStatusPOptions.newBuilder().setRecursive(true).build())
+        .setPath(rootPath).build();
+    TestStreamObserver responseObserver = new TestStreamObserver();
+    responseObserver.mReady = false;
+
+    // Execute and Assert
+    mServiceHandler.listStatus(mRequest, responseObserver);
+    // nothing is sent until the call is ready
+    CommonUtils.sleepMs(100);
+    assertTrue(responseObserver.mResponses.isEmpty());
+    responseObserver.mReady = true;
+    responseObserver.mOnReadyHandler.run();
+    waitForCompletion(responseObserver);
+    assertEquals(4, responseObserver.mResponses.size());
+  }
+
+  @Test
+  public void testListStatusRejected() throws Exception {
+    // Setup
+    String rootPath = setupTestDirectoryAndFile();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    executor.shutdown();
+    TestStreamObserver responseObserver = new TestStreamObserver();
+    ListStatusStreamer streamer = new ListStatusStreamer(rootPath,
+        mWorker.iterateStatus(rootPath, ListStatusPOptions.getDefaultInstance()), mWorker,
+        responseObserver, 10, executor);
+
+    // Execute and Assert
+    assertThrows(RuntimeException.class, streamer::start);
+    assertEquals(Status.Code.RESOURCE_EXHAUSTED, Status.fromThrowable(responseObserver.mError)
+        .getCode());
+    assertTrue(responseObserver.mResponses.isEmpty());
+  }
+
+  @Test
+  public void testWatchMetadataInvalidation() throws Exception {
+    // Setup
+    DoraWorker worker = mock(DoraWorker.class);
+    AtomicReference<Consumer<String>> registered = new AtomicReference<>();
+    AtomicBoolean removed = new AtomicBoolean(false);
+    when(worker.addMetadataInvalidationListener(any())).thenAnswer(invocation -> {
+      registered.set(invocation.getArgument(0));
+      return (Closeable) () -> removed.set(true);
+    });
+    InvalidationStreamObserver responseObserver = new InvalidationStreamObserver();
+
+    // Execute and Assert
+    new DoraWorkerClientServiceHandler(worker).watchMetadataInvalidation(
+        WatchMetadataInvalidationRequest.getDefaultInstance(), responseObserver);
+    registered.get().accept("/a");
+    assertEquals(Arrays.asList("/a"), responseObserver.mPaths);
+    responseObserver.cancel();
+    assertTrue(removed.get());
+    registered.get().accept("/b");
+    assertEquals(Arrays.asList("/a"), responseObserver.mPaths);
+  }
+
+  @Test
+  public void testWatchMetadataInvalidationCancelledWhileRegistering() throws Exception {
+    // Setup
+    DoraWorker worker = mock(DoraWorker.class);
+    AtomicBoolean removed = new AtomicBoolean(false);
+    InvalidationStreamObserver responseObserver = new InvalidationStreamObserver();
+    when(worker.addMetadataInvalidationListener(any())).thenAnswer(invocation -> {
+      // the call is cancelled before the listener is returned
+      responseObserver.cancel();
+      return (Closeable) () -> removed.set(true);
+    });
+
+    // Execute and Assert
+    new DoraWorkerClientServiceHandler(worker).watchMetadataInvalidation(
+        WatchMetadataInvalidationRequest.getDefaultInstance(), responseObserver);
+    assertTrue(removed.get());
+  }
+
   private String setupTestDirectoryAndFile() throws IOException {
     File rootFolder = mTestFolder.newFolder("root");
     String rootPath = rootFolder.getAbsolutePath();
@@ -144,12 +243,13 @@ public class DoraWorkerClientServiceHandlerTest {
   }
 
   private void executeAndAssertListStatus(String path, boolean recursive, String[] expectedPaths,
-                                          Boolean[] expectedIsDirectories) {
+                                          Boolean[] expectedIsDirectories) throws Exception {
     mRequest = ListStatusPRequest.newBuilder().setOptions(
             alluxio.grpc.ListStatusPOptions.newBuilder().setRecursive(recursive).build())
         .setPath(path).build();
     TestStreamObserver responseObserver = new TestStreamObserver();
     mServiceHandler.listStatus(mRequest, responseObserver);
+    waitForCompletion(responseObserver);
 
     List<MyStruct> responses = responseObserver.mResponses;
     assertEquals(expectedPaths.length, responses.size());
@@ -160,8 +260,18 @@ public class DoraWorkerClientServiceHandlerTest {
     }
   }
 
-  private static class TestStreamObserver implements StreamObserver<ListStatusPResponse> {
+  private static void waitForCompletion(TestStreamObserver responseObserver)
+      throws InterruptedException, TimeoutException {
+    CommonUtils.waitFor("listing to complete", () -> responseObserver.mCompleted,
+        WaitForOptions.defaults().setTimeoutMs(10000));
+  }
+
+  private static class TestStreamObserver extends ServerCallStreamObserver<ListStatusPResponse> {
     private final List<MyStruct> mResponses = new ArrayList<>();
+    private volatile boolean mReady = true;
+    private volatile boolean mCompleted = false;
+    private volatile Throwable mError;
+    private volatile Runnable mOnReadyHandler;
 
     @Override
     public void onNext(ListStatusPResponse value) {
@@ -175,12 +285,111 @@ public class DoraWorkerClientServiceHandlerTest {
 
     @Override
     public void onError(Throwable t) {
+      mError = t;
       throw new RuntimeException(t);
     }
 
     @Override
     public void onCompleted() {
       mResponses.sort(Comparator.comparing(MyStruct::getPath));
+      mCompleted = true;
+    }
+
+    @Override
+    public boolean isReady() {
+      return mReady;
+    }
+
+    @Override
+    public void setOnReadyHandler(Runnable onReadyHandler) {
+      mOnReadyHandler = onReadyHandler;
+    }
+
+    @Override
+    public boolean isCancelled() {
+      return false;
+    }
+
+    @Override
+    public void setOnCancelHandler(Runnable onCancelHandler) {
+    }
+
+    @Override
+    public void setCompression(String compression) {
+    }
+
+    @Override
+    public void disableAutoInboundFlowControl() {
+    }
+
+    @Override
+    public void request(int count) {
+    }
+
+    @Override
+    public void setMessageCompression(boolean enable) {
+    }
+  }
+
+  private static class InvalidationStreamObserver
+      extends ServerCallStreamObserver<WatchMetadataInvalidationResponse> {
+    private final List<String> mPaths = new ArrayList<>();
+    private volatile boolean mCancelled = false;
+    private volatile Runnable mOnCancelHandler;
+
+    void cancel() {
+      mCancelled = true;
+      assertNotNull(mOnCancelHandler);
+      mOnCancelHandler.run();
+    }
+
+    @Override
+    public void onNext(WatchMetadataInvalidationResponse value) {
+      mPaths.addAll(value.getUfsPathsList());
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      throw new RuntimeException(t);
+    }
+
+    @Override
+    public void onCompleted() {
+    }
+
+    @Override
+    public boolean isReady() {
+      return true;
+    }
+
+    @Override
+    public void setOnReadyHandler(Runnable onReadyHandler) {
+    }
+
+    @Override
+    public boolean isCancelled() {
+      return mCancelled;
+    }
+
+    @Override
+    public void setOnCancelHandler(Runnable onCancelHandler) {
+      mOnCancelHandler = onCancelHandler;
+    }
+
+    @Override
+    public void setCompression(String compression) {
+    }
+
+    @Override
+    public void disableAutoInboundFlowControl() {
+    }
+
+    @Override
+    public void request(int count) {
+    }
+
+    @Override
+    public void setMessageCompression(boolean enable) {
     }
   }
 
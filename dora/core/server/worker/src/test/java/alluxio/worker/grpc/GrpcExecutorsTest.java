@@ -59,4 +59,9 @@ public class GrpcExecutorsTest {
   public void impersonationPassedToBlockWriter() {
     validateAuthenticatedClientUser(GrpcExecutors.WRITER_EXECUTOR);
   }
+
+  @Test
+  public void impersonationPassedToListStatus() {
+    validateAuthenticatedClientUser(GrpcExecutors.LIST_STATUS_EXECUTOR);
+  }
 }
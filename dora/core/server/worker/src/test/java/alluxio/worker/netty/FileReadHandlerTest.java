@@ -0,0 +1,101 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.netty;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import alluxio.network.netty.FileTransferType;
+import alluxio.network.protocol.databuffer.DataBuffer;
+import alluxio.proto.dataserver.Protocol;
+import alluxio.util.io.BufferUtils;
+import alluxio.worker.block.io.BlockReader;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Tests for {@link FileReadHandler}.
+ */
+public class FileReadHandlerTest {
+  private static final int FILE_LENGTH = 100;
+  private static final byte[] DATA = BufferUtils.getIncreasingByteArray(FILE_LENGTH);
+
+  @Test
+  public void mergeAdjacentRanges() {
+    BlockReadRequest request = new BlockReadRequest(createVectoredRequest());
+    assertTrue(request.isVectored());
+    assertEquals(Arrays.asList(range(10, 10), range(0, 4), range(95, 5)), request.getRanges());
+    assertEquals(0, request.getStart());
+    assertEquals(19, request.getEnd());
+    assertEquals(10, request.getStartInFile());
+  }
+
+  @Test
+  public void readRanges() throws Exception {
+    BlockReader reader = mock(BlockReader.class);
+    when(reader.read(anyLong(), anyLong())).thenAnswer(invocation -> {
+      long offset = invocation.getArgument(0);
+      long length = invocation.getArgument(1);
+      return ByteBuffer.wrap(DATA, (int) offset, (int) length).slice();
+    });
+    BlockReadRequest request = new BlockReadRequest(createVectoredRequest());
+    FileReadHandler.FilePacketReader packetReader =
+        new FileReadHandler.FilePacketReader(reader, request, FileTransferType.MAPPED);
+    EmbeddedChannel channel = new EmbeddedChannel();
+    ByteArrayOutputStream received = new ByteArrayOutputStream();
+    long position = request.getStart();
+    while (position < request.getEnd()) {
+      DataBuffer packet = packetReader.createDataBuffer(channel, position,
+          (int) Math.min(request.getPacketSize(), request.getEnd() - position));
+      byte[] bytes = new byte[packet.readableBytes()];
+      packet.readBytes(bytes, 0, bytes.length);
+      packet.release();
+      received.write(bytes);
+      position += bytes.length;
+    }
+    assertEquals(0, packetReader.createDataBuffer(channel, position, 8).readableBytes());
+
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    expected.write(DATA, 10, 10);
+    expected.write(DATA, 0, 4);
+    expected.write(DATA, 95, 5);
+    assertArrayEquals(expected.toByteArray(), received.toByteArray());
+  }
+
+  private static Protocol.ReadRequest createVectoredRequest() {
+    return Protocol.ReadRequest.newBuilder()
+        .setChunkSize(8)
+        .setOpenUfsBlockOptions(Protocol.OpenUfsBlockOptions.newBuilder()
+            .setUfsPath("/file").setBlockSize(FILE_LENGTH))
+        .addRanges(range(10, 5))
+        // read together with the previous range
+        .addRanges(range(15, 5))
+        .addRanges(range(0, 4))
+        .addRanges(range(0, 0))
+        // cut at the end of the file
+        .addRanges(range(95, 10))
+        .build();
+  }
+
+  private static Protocol.ReadRange range(long offset, long length) {
+    return Protocol.ReadRange.newBuilder().setOffset(offset).setLength(length).build();
+  }
+}
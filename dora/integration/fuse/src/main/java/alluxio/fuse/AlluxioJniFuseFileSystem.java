@@ -15,6 +15,7 @@ import alluxio.AlluxioURI;
 import alluxio.Constants;
 import alluxio.cli.FuseShell;
 import alluxio.client.block.BlockMasterClient;
+import alluxio.client.file.DoraCacheFileSystem;
 import alluxio.client.file.FileSystem;
 import alluxio.client.file.FileSystemContext;
 import alluxio.client.file.URIStatus;
@@ -39,6 +40,8 @@ import alluxio.fuse.file.FuseFileEntry;
 import alluxio.fuse.file.FuseFileStream;
 import alluxio.fuse.file.FuseStreamFactory;
 import alluxio.fuse.file.SimpleFuseStreamFactory;
+import alluxio.fuse.meta.FuseAttributeCache;
+import alluxio.fuse.meta.MetadataInvalidationWatcher;
 import alluxio.fuse.options.FuseOptions;
 import alluxio.grpc.CreateDirectoryPOptions;
 import alluxio.grpc.ErrorType;
@@ -56,6 +59,8 @@ import alluxio.security.authorization.Mode;
 import alluxio.util.CommonUtils;
 import alluxio.util.LogUtils;
 import alluxio.util.WaitForOptions;
+import alluxio.util.io.BufferUtils;
+import alluxio.util.io.PathUtils;
 import alluxio.wire.BlockMasterInfo;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -97,6 +102,10 @@ public class AlluxioJniFuseFileSystem extends AbstractFuseFileSystem {
   private final Supplier<BlockMasterInfo> mFsStatCache;
   // Keeps a cache of the most recently translated paths from String to Alluxio URI
   protected final LoadingCache<String, AlluxioURI> mPathResolverCache;
+  // Caches the statuses of the paths, mostly from the directory listings, for getattr
+  private final FuseAttributeCache mAttributeCache;
+  @Nullable
+  private final MetadataInvalidationWatcher mInvalidationWatcher;
   private final AtomicLong mNextOpenFileId = new AtomicLong(0);
   private final FuseShell mFuseShell;
   public static final IndexDefinition<FuseFileEntry<FuseFileStream>, Long>
@@ -119,6 +128,9 @@ public class AlluxioJniFuseFileSystem extends AbstractFuseFileSystem {
   @VisibleForTesting
   public static final int UNKNOWN_INODES = -1;
 
+  /** The size of the buffer of a stat struct, larger than the struct on supported platforms. */
+  private static final int FILE_STAT_SIZE = 256;
+
   /**
    * Creates a new instance of {@link AlluxioJniFuseFileSystem}.
    *
@@ -139,8 +151,18 @@ public class AlluxioJniFuseFileSystem extends AbstractFuseFileSystem {
         this::acquireBlockMasterInfo, statCacheTimeout, TimeUnit.MILLISECONDS)
         : this::acquireBlockMasterInfo;
     mPathResolverCache = AlluxioFuseUtils.getPathResolverCache(mConf, fuseOptions);
+    mAttributeCache = FuseAttributeCache.create(mConf);
+    mAttributeCache.registerMetrics();
+    DoraCacheFileSystem doraCacheFileSystem = mFileSystem.getDoraCacheFileSystem();
+    if (doraCacheFileSystem != null && FuseAttributeCache.isEnabled(mConf)
+        && mConf.getBoolean(PropertyKey.FUSE_ATTR_CACHE_INVALIDATION_WATCH_ENABLED)) {
+      mInvalidationWatcher = new MetadataInvalidationWatcher(fsContext, doraCacheFileSystem,
+          mAttributeCache, mConf.getMs(PropertyKey.FUSE_ATTR_CACHE_INVALIDATION_WATCH_INTERVAL));
+    } else {
+      mInvalidationWatcher = null;
+    }
     mAuthPolicy = AuthPolicyFactory.create(mFileSystem, mConf, this);
-    mFuseStreamFactory = new SimpleFuseStreamFactory(mFileSystem, mAuthPolicy);
+    mFuseStreamFactory = new SimpleFuseStreamFactory(mFileSystem, mAuthPolicy, mAttributeCache);
     mUfsEnabled = fuseOptions.getFileSystemOptions().getUfsFileSystemOptions().isPresent();
     if (mConf.getBoolean(PropertyKey.FUSE_DEBUG_ENABLED)) {
       try {
@@ -178,6 +200,10 @@ public class AlluxioJniFuseFileSystem extends AbstractFuseFileSystem {
     if (res != 0) {
       return res;
     }
+    if (AlluxioFuseOpenUtils.getOpenAction(fi.flags.get())
+        != AlluxioFuseOpenUtils.OpenAction.READ_ONLY) {
+      mAttributeCache.invalidate(uri.getPath());
+    }
     try {
       FuseFileStream stream = mFuseStreamFactory.create(uri, fi.flags.get(), mode);
       long fd = mNextOpenFileId.getAndIncrement();
@@ -223,7 +249,8 @@ public class AlluxioJniFuseFileSystem extends AbstractFuseFileSystem {
         return 0;
       }
 
-      Optional<URIStatus> status = AlluxioFuseUtils.getPathStatus(mFileSystem, uri);
+      Optional<URIStatus> status = mAttributeCache.get(uri.getPath(),
+          () -> AlluxioFuseUtils.getPathStatus(mFileSystem, uri));
       status.ifPresent(uriStatus -> AlluxioFuseUtils.fillStat(mAuthPolicy, stat, uriStatus));
 
       boolean hasWriteStream = false;
@@ -280,17 +307,32 @@ public class AlluxioJniFuseFileSystem extends AbstractFuseFileSystem {
     if (res != 0) {
       return res;
     }
+    // the stat is copied by the filler, so the same buffer is filled for each entry
+    FileStat stat = FileStat.of(ByteBuffer.allocateDirect(FILE_STAT_SIZE));
     try {
       // standard . and .. entries
       FuseFillDir.apply(filter, buff, ".", null, 0);
       FuseFillDir.apply(filter, buff, "..", null, 0);
 
       mFileSystem.iterateStatus(uri, file -> {
-        FuseFillDir.apply(filter, buff, file.getName(), null, 0);
+        // fill the attributes along with the entries, and keep them for the getattr calls
+        // following the listing, instead of fetching the status of each entry again
+        mAttributeCache.put(PathUtils.concatPath(uri.getPath(), file.getName()), file);
+        String filePath = PathUtils.concatPath(path, file.getName());
+        if (file.isFolder() || (file.isCompleted()
+            && mFileEntries.getFirstByField(PATH_INDEX, filePath) == null)) {
+          AlluxioFuseUtils.fillStat(mAuthPolicy, stat, file);
+          FuseFillDir.apply(filter, buff, file.getName(), stat, 0);
+        } else {
+          // the length of a file being written is only known by getattr
+          FuseFillDir.apply(filter, buff, file.getName(), null, 0);
+        }
       });
     } catch (IOException | AlluxioException e) {
       LOG.error("Failed to readdir {}", path, e);
       return -ErrorCodes.EIO();
+    } finally {
+      BufferUtils.cleanDirectBuffer(stat.getBuffer());
     }
 
     return 0;
@@ -386,6 +428,7 @@ public class AlluxioJniFuseFileSystem extends AbstractFuseFileSystem {
       entry.getFileStream().close();
     } finally {
       mFileEntries.remove(entry);
+      mAttributeCache.invalidate(mPathResolverCache.getUnchecked(path).getPath());
     }
     return 0;
   }
@@ -412,19 +455,21 @@ public class AlluxioJniFuseFileSystem extends AbstractFuseFileSystem {
     } catch (IOException | AlluxioException e) {
       LOG.error("Failed to mkdir {}", path, e);
       return -ErrorCodes.EIO();
+    } finally {
+      mAttributeCache.invalidate(uri.getPath());
     }
     return 0;
   }
 
   @Override
   public int unlink(String path) {
-    return AlluxioFuseUtils.call(LOG, () -> rmInternal(path),
+    return AlluxioFuseUtils.call(LOG, () -> rmInternal(path, false),
         FuseConstants.FUSE_UNLINK, "path=%s", path);
   }
 
   @Override
   public int rmdir(String path) {
-    return AlluxioFuseUtils.call(LOG, () -> rmInternal(path),
+    return AlluxioFuseUtils.call(LOG, () -> rmInternal(path, true),
         FuseConstants.FUSE_RMDIR, "path=%s", path);
   }
 
@@ -432,9 +477,10 @@ public class AlluxioJniFuseFileSystem extends AbstractFuseFileSystem {
    * Convenience internal method to remove files or non-empty directories.
    *
    * @param path The path to remove
+   * @param isDirectory whether the path is removed as a directory
    * @return 0 on success, a negative value on error
    */
-  private int rmInternal(String path) {
+  private int rmInternal(String path, boolean isDirectory) {
     final AlluxioURI uri = mPathResolverCache.getUnchecked(path);
     int res = AlluxioFuseUtils.checkNameLength(uri);
     if (res != 0) {
@@ -451,6 +497,13 @@ public class AlluxioJniFuseFileSystem extends AbstractFuseFileSystem {
     } catch (IOException | AlluxioException e) {
       LOG.error("Failed to remove {}: ", path, e);
       return -ErrorCodes.EIO();
+    } finally {
+      if (isDirectory) {
+        // a failed deletion may still have removed a part of a directory
+        mAttributeCache.invalidateTree(uri.getPath());
+      } else {
+        mAttributeCache.invalidate(uri.getPath());
+      }
     }
     return 0;
   }
@@ -510,6 +563,16 @@ public class AlluxioJniFuseFileSystem extends AbstractFuseFileSystem {
     } catch (IOException | AlluxioException e) {
       LOG.error("Failed to rename {} to {}", sourcePath, destPath, e);
       return -ErrorCodes.EIO();
+    } finally {
+      // only a directory renamed, or replaced, has cached paths under it to drop
+      if (sourceStatus.get().isFolder()
+          || destStatus.map(URIStatus::isFolder).orElse(false)) {
+        mAttributeCache.invalidateTree(sourceUri.getPath());
+        mAttributeCache.invalidateTree(destUri.getPath());
+      } else {
+        mAttributeCache.invalidate(sourceUri.getPath());
+        mAttributeCache.invalidate(destUri.getPath());
+      }
     }
     return 0;
   }
@@ -529,6 +592,7 @@ public class AlluxioJniFuseFileSystem extends AbstractFuseFileSystem {
     AlluxioFuseUtils.setAttribute(mFileSystem, mPathResolverCache.getUnchecked(path),
         SetAttributePOptions.newBuilder()
             .setMode(new Mode((short) mode).toProto()).build());
+    mAttributeCache.invalidate(uri.getPath());
     return 0;
   }
 
@@ -545,6 +609,7 @@ public class AlluxioJniFuseFileSystem extends AbstractFuseFileSystem {
       return res;
     }
     mAuthPolicy.setUserGroup(uri, uid, gid);
+    mAttributeCache.invalidate(uri.getPath());
     return 0;
   }
 
@@ -570,6 +635,7 @@ public class AlluxioJniFuseFileSystem extends AbstractFuseFileSystem {
     if (res != 0) {
       return res;
     }
+    mAttributeCache.invalidate(uri.getPath());
     try {
       FuseFileEntry<FuseFileStream> entry = mFileEntries.getFirstByField(PATH_INDEX, path);
       if (entry != null) {
@@ -734,6 +800,9 @@ public class AlluxioJniFuseFileSystem extends AbstractFuseFileSystem {
       }
     }
     super.umount(force);
+    if (mInvalidationWatcher != null) {
+      mInvalidationWatcher.close();
+    }
   }
 
   @VisibleForTesting
@@ -741,6 +810,13 @@ public class AlluxioJniFuseFileSystem extends AbstractFuseFileSystem {
     return mPathResolverCache;
   }
 
+  /**
+   * @return the cache of the statuses of the paths
+   */
+  public FuseAttributeCache getAttributeCache() {
+    return mAttributeCache;
+  }
+
   /**
    * Get the {@link FuseStreamFactory} instance member that is for creating {@link FuseFileStream}.
    * @return the {@link FuseStreamFactory} instance member
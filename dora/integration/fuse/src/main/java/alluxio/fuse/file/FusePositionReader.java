@@ -22,6 +22,7 @@ import alluxio.exception.runtime.NotFoundRuntimeException;
 import alluxio.exception.runtime.UnimplementedRuntimeException;
 import alluxio.fuse.AlluxioFuseUtils;
 import alluxio.fuse.lock.FuseReadWriteLockManager;
+import alluxio.fuse.meta.FuseAttributeCache;
 import alluxio.grpc.OpenFilePOptions;
 import alluxio.resource.CloseableResource;
 
@@ -31,6 +32,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Optional;
 import java.util.concurrent.locks.Lock;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
@@ -47,6 +49,40 @@ public class FusePositionReader implements FuseFileStream {
   public static FusePositionReader create(
       FileSystem fileSystem, FuseReadWriteLockManager lockManager,
       AlluxioURI uri) {
+    return create(fileSystem, lockManager, uri, null);
+  }
+
+  /**
+   * Creates a position reader, getting the status of the file from the attribute cache if
+   * cached, e.g. when the file is opened right after being listed or stat.
+   *
+   * @param fileSystem the file system
+   * @param lockManager the lock manager
+   * @param uri the Alluxio URI
+   * @param attributeCache the attribute cache, or null to always fetch the status of the file
+   * @return Fuse position reader
+   */
+  public static FusePositionReader create(
+      FileSystem fileSystem, FuseReadWriteLockManager lockManager,
+      AlluxioURI uri, @Nullable FuseAttributeCache attributeCache) {
+    return create(fileSystem, lockManager, uri, attributeCache, null);
+  }
+
+  /**
+   * Creates a position reader, reading the file ahead of its sequential reads if a readahead
+   * factory is given.
+   *
+   * @param fileSystem the file system
+   * @param lockManager the lock manager
+   * @param uri the Alluxio URI
+   * @param attributeCache the attribute cache, or null to always fetch the status of the file
+   * @param readaheadFactory the readahead factory, or null to not read ahead
+   * @return Fuse position reader
+   */
+  public static FusePositionReader create(
+      FileSystem fileSystem, FuseReadWriteLockManager lockManager,
+      AlluxioURI uri, @Nullable FuseAttributeCache attributeCache,
+      @Nullable FuseReadahead.Factory readaheadFactory) {
     Preconditions.checkNotNull(fileSystem);
     Preconditions.checkNotNull(uri);
     // Make sure file is not being written by current FUSE
@@ -54,8 +90,12 @@ public class FusePositionReader implements FuseFileStream {
     CloseableResource<Lock> lockResource = lockManager.tryLock(uri.toString(), LockMode.READ);
 
     try {
-      // Make sure file is not being written by other clients outside current FUSE
-      Optional<URIStatus> status = AlluxioFuseUtils.getPathStatus(fileSystem, uri);
+      // Make sure file is not being written by other clients outside current FUSE,
+      // only completed files are cached
+      Optional<URIStatus> status = attributeCache == null
+          ? AlluxioFuseUtils.getPathStatus(fileSystem, uri)
+          : attributeCache.get(uri.getPath(),
+              () -> AlluxioFuseUtils.getPathStatus(fileSystem, uri));
 
       if (!status.isPresent()) {
         throw new NotFoundRuntimeException(String.format(
@@ -64,7 +104,8 @@ public class FusePositionReader implements FuseFileStream {
 
       PositionReader reader = fileSystem.openPositionRead(status.get(),
           OpenFilePOptions.getDefaultInstance());
-      return new FusePositionReader(reader, lockResource,
+      return new FusePositionReader(reader, readaheadFactory == null ? null
+          : readaheadFactory.create(reader, status.get().getLength()), lockResource,
           new FileStatus(status.get().getLength()), uri);
     } catch (Throwable t) {
       lockResource.close();
@@ -73,15 +114,18 @@ public class FusePositionReader implements FuseFileStream {
   }
 
   private final PositionReader mPositionReader;
+  @Nullable
+  private final FuseReadahead mReadahead;
   private final FileStatus mFileStatus;
   private final AlluxioURI mURI;
   private final CloseableResource<Lock> mLockResource;
   private volatile boolean mClosed = false;
 
-  private FusePositionReader(PositionReader reader,
+  private FusePositionReader(PositionReader reader, @Nullable FuseReadahead readahead,
       CloseableResource<Lock> lockResource,
       FileStatus fileStatus, AlluxioURI uri) {
     mPositionReader = Preconditions.checkNotNull(reader);
+    mReadahead = readahead;
     mLockResource = Preconditions.checkNotNull(lockResource);
     mFileStatus = Preconditions.checkNotNull(fileStatus);
     mURI = Preconditions.checkNotNull(uri);
@@ -96,6 +140,9 @@ public class FusePositionReader implements FuseFileStream {
       return 0;
     }
     try {
+      if (mReadahead != null) {
+        return mReadahead.read(offset, buf, (int) size);
+      }
       return mPositionReader.read(offset, buf, (int) size);
     } catch (IOException e) {
       throw AlluxioRuntimeException.from(e);
@@ -155,6 +202,10 @@ public class FusePositionReader implements FuseFileStream {
     }
     mClosed = true;
     try {
+      if (mReadahead != null) {
+        // waits for the chunks being read before closing their reader
+        mReadahead.close();
+      }
       mPositionReader.close();
     } catch (IOException e) {
       throw AlluxioRuntimeException.from(e);
@@ -0,0 +1,431 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.fuse.file;
+
+import alluxio.PositionReader;
+import alluxio.conf.AlluxioConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.network.protocol.databuffer.PooledDirectNioByteBuf;
+import alluxio.util.ThreadFactoryUtils;
+
+import com.codahale.metrics.Counter;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Reads a file opened through FUSE ahead of its sequential reader.
+ *
+ * The kernel reads a file in requests of at most the max read size of the mount, typically
+ * 128KB, each of which would otherwise be a synchronous read from the worker. When the reads of
+ * the file handle are sequential, the file is instead read in larger chunks, and a number of
+ * chunks ahead of the reader are kept in flight, read asynchronously by a pool of threads
+ * shared by all the file handles. The reads of the kernel are served from the chunks, waiting
+ * for a chunk if it is still in flight. The first read of the handle, and a read away from the
+ * previous one, are served directly and drop the chunks, so the file is only read ahead once a
+ * read follows the previous one. The reads beyond the chunks that could be read ahead are also
+ * served directly.
+ *
+ * The kernel may issue the reads of a handle concurrently and slightly out of order, so a read
+ * within a chunk of the end of the previous read is still considered sequential, and the chunk
+ * before the one being read is kept.
+ */
+@ThreadSafe
+public final class FuseReadahead implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(FuseReadahead.class);
+
+  private final Factory mFactory;
+  private final PositionReader mReader;
+  private final long mFileLength;
+  /** The chunks read ahead or in flight, by index in the file. */
+  @GuardedBy("this")
+  private final NavigableMap<Long, Chunk> mChunks = new TreeMap<>();
+  /**
+   * The end of the furthest read, where the next read starts if the reader is sequential, or -1
+   * before the first read.
+   */
+  @GuardedBy("this")
+  private long mNextPosition = -1;
+  /** The number of chunks whose read has started and not completed. */
+  @GuardedBy("this")
+  private int mLoadsInProgress = 0;
+  @GuardedBy("this")
+  private boolean mClosed = false;
+
+  private FuseReadahead(Factory factory, PositionReader reader, long fileLength) {
+    mFactory = factory;
+    mReader = reader;
+    mFileLength = fileLength;
+  }
+
+  /**
+   * Reads from the file, serving the read from the chunks read ahead if the reader is
+   * sequential, and directly from the reader otherwise.
+   *
+   * @param position the position in the file to read from
+   * @param buf the buffer to read into
+   * @param length the number of bytes to read
+   * @return the number of bytes read, or -1 if nothing is read
+   */
+  public int read(long position, ByteBuffer buf, int length) throws IOException {
+    int toRead = (int) Math.min(length, mFileLength - position);
+    if (toRead <= 0) {
+      return mReader.read(position, buf, length);
+    }
+    int bytesRead = 0;
+    for (Chunk chunk : getChunks(position, toRead)) {
+      int copied = copy(chunk, position + bytesRead, buf, toRead - bytesRead);
+      if (copied <= 0) {
+        break;
+      }
+      bytesRead += copied;
+    }
+    if (bytesRead < toRead) {
+      int directRead = mReader.read(position + bytesRead, buf, toRead - bytesRead);
+      if (directRead > 0) {
+        bytesRead += directRead;
+      } else if (bytesRead == 0) {
+        return directRead;
+      }
+    }
+    return bytesRead;
+  }
+
+  /**
+   * Updates the readahead with a read, and gets the chunks serving the read.
+   *
+   * @return the chunks covering the beginning of the read, in order
+   */
+  private synchronized List<Chunk> getChunks(long position, int length) {
+    if (mClosed) {
+      return Collections.emptyList();
+    }
+    int chunkSize = mFactory.mChunkSize;
+    if (mNextPosition < 0
+        || position < mNextPosition - chunkSize || position > mNextPosition + chunkSize) {
+      mNextPosition = position + length;
+      dropChunks(mChunks);
+      return Collections.emptyList();
+    }
+    mNextPosition = Math.max(mNextPosition, position + length);
+    long first = position / chunkSize;
+    long last = (position + length - 1) / chunkSize;
+    dropChunks(mChunks.headMap(first - 1, false));
+    long lastAhead = Math.min((mFileLength - 1) / chunkSize,
+        Math.max(last, first + mFactory.mMaxChunks - 1));
+    for (long index = first; index <= lastAhead; index++) {
+      if (!mChunks.containsKey(index) && !schedule(index)) {
+        break;
+      }
+    }
+    List<Chunk> chunks = new ArrayList<>();
+    for (long index = first; index <= last; index++) {
+      Chunk chunk = mChunks.get(index);
+      if (chunk == null) {
+        break;
+      }
+      chunks.add(chunk);
+    }
+    return chunks;
+  }
+
+  /**
+   * Schedules the read of a chunk, unless there is no room for it.
+   *
+   * @return whether the chunk is scheduled
+   */
+  @GuardedBy("this")
+  private boolean schedule(long index) {
+    long start = index * mFactory.mChunkSize;
+    int length = (int) Math.min(mFactory.mChunkSize, mFileLength - start);
+    if (!mFactory.reserve(length)) {
+      return false;
+    }
+    Chunk chunk = new Chunk(index, length);
+    mChunks.put(index, chunk);
+    try {
+      mFactory.mExecutor.execute(() -> load(chunk, start));
+    } catch (RejectedExecutionException e) {
+      onLoaded(chunk, null);
+    }
+    return true;
+  }
+
+  private void load(Chunk chunk, long start) {
+    synchronized (this) {
+      if (chunk.mDropped) {
+        // dropped and freed before the read started, the reader may be closed already
+        chunk.mFuture.complete(null);
+        return;
+      }
+      chunk.mLoading = true;
+      mLoadsInProgress++;
+    }
+    ByteBuf buf = null;
+    try {
+      buf = PooledDirectNioByteBuf.allocate(chunk.mLength);
+      int bytesRead = 0;
+      while (bytesRead < chunk.mLength) {
+        buf.writerIndex(bytesRead);
+        int read = mReader.read(start + bytesRead, buf, chunk.mLength - bytesRead);
+        if (read <= 0) {
+          break;
+        }
+        bytesRead += read;
+      }
+      buf.readerIndex(0).writerIndex(bytesRead);
+      Metrics.BYTES_PREFETCHED.inc(bytesRead);
+    } catch (Throwable t) {
+      LOG.debug("Failed to read ahead chunk {} of a file", chunk.mIndex, t);
+      if (buf != null) {
+        buf.release();
+        buf = null;
+      }
+    }
+    onLoaded(chunk, buf);
+  }
+
+  private void onLoaded(Chunk chunk, @Nullable ByteBuf buf) {
+    synchronized (this) {
+      chunk.mBuf = buf;
+      if (chunk.mLoading) {
+        chunk.mLoading = false;
+        mLoadsInProgress--;
+        notifyAll();
+      }
+      if (buf == null && !chunk.mDropped) {
+        // the read is served directly instead
+        mChunks.remove(chunk.mIndex, chunk);
+        chunk.mDropped = true;
+      }
+      if (chunk.mDropped) {
+        free(chunk);
+      }
+    }
+    chunk.mFuture.complete(null);
+  }
+
+  /**
+   * Copies the data of a chunk to the buffer, waiting for the chunk if it is in flight.
+   *
+   * @return the number of bytes copied, 0 if the chunk is not available
+   */
+  private int copy(Chunk chunk, long position, ByteBuffer out, int length) {
+    chunk.mFuture.join();
+    ByteBuf buf;
+    synchronized (this) {
+      buf = chunk.mBuf;
+      if (buf == null || chunk.mDropped) {
+        return 0;
+      }
+      // keeps the chunk from being freed while being copied
+      buf.retain();
+    }
+    try {
+      int offset = (int) (position - chunk.mIndex * mFactory.mChunkSize);
+      int toCopy = Math.min(length, buf.readableBytes() - offset);
+      if (toCopy <= 0) {
+        return 0;
+      }
+      ByteBuffer slice = out.slice();
+      slice.limit(toCopy);
+      buf.getBytes(offset, slice);
+      out.position(out.position() + toCopy);
+      Metrics.BYTES_HIT.inc(toCopy);
+      return toCopy;
+    } finally {
+      buf.release();
+    }
+  }
+
+  /**
+   * Drops chunks, the chunks being loaded are freed once loaded.
+   */
+  @GuardedBy("this")
+  private void dropChunks(Map<Long, Chunk> chunks) {
+    for (Chunk chunk : chunks.values()) {
+      chunk.mDropped = true;
+      if (!chunk.mLoading) {
+        free(chunk);
+      }
+    }
+    chunks.clear();
+  }
+
+  @GuardedBy("this")
+  private void free(Chunk chunk) {
+    if (chunk.mBuf != null) {
+      chunk.mBuf.release();
+      chunk.mBuf = null;
+    }
+    mFactory.release(chunk.mLength);
+  }
+
+  /**
+   * @return the indexes of the chunks read ahead or in flight
+   */
+  @VisibleForTesting
+  synchronized List<Long> getChunkIndexes() {
+    return new ArrayList<>(mChunks.keySet());
+  }
+
+  /**
+   * Stops reading ahead. The chunks are dropped unless their read has started, in which case
+   * the read is waited for, so the reader can be closed once this returns.
+   */
+  @Override
+  public synchronized void close() {
+    if (!mClosed) {
+      mClosed = true;
+      dropChunks(mChunks);
+    }
+    while (mLoadsInProgress > 0) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Creates the readahead of the files opened through FUSE, bounding the memory taken by the
+   * chunks of all the files.
+   */
+  @ThreadSafe
+  public static final class Factory {
+    private final int mChunkSize;
+    private final int mMaxChunks;
+    private final long mCapacity;
+    private final ExecutorService mExecutor;
+    private final AtomicLong mBytesReserved = new AtomicLong();
+
+    /**
+     * @param conf the configuration
+     * @return the readahead factory
+     */
+    public static Factory create(AlluxioConfiguration conf) {
+      return new Factory((int) conf.getBytes(PropertyKey.FUSE_READAHEAD_CHUNK_SIZE),
+          conf.getInt(PropertyKey.FUSE_READAHEAD_MAX_CHUNKS),
+          conf.getBytes(PropertyKey.FUSE_READAHEAD_BUFFER_SIZE),
+          conf.getInt(PropertyKey.FUSE_READAHEAD_THREADS));
+    }
+
+    /**
+     * @param chunkSize the size of a chunk
+     * @param maxChunks the max number of chunks read ahead of a reader
+     * @param capacity the max number of bytes taken by the chunks of all the readers
+     * @param numThreads the number of threads reading the chunks
+     */
+    @VisibleForTesting
+    public Factory(int chunkSize, int maxChunks, long capacity, int numThreads) {
+      Preconditions.checkArgument(chunkSize > 0, "chunk size must be positive: %s", chunkSize);
+      Preconditions.checkArgument(maxChunks > 0,
+          "max readahead chunks must be positive: %s", maxChunks);
+      Preconditions.checkArgument(numThreads > 0,
+          "number of readahead threads must be positive: %s", numThreads);
+      mChunkSize = chunkSize;
+      mMaxChunks = maxChunks;
+      mCapacity = capacity;
+      ThreadPoolExecutor executor = new ThreadPoolExecutor(numThreads, numThreads,
+          30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+          ThreadFactoryUtils.build("fuse-readahead-%d", true));
+      executor.allowCoreThreadTimeOut(true);
+      mExecutor = executor;
+    }
+
+    /**
+     * @param reader the reader of the file
+     * @param fileLength the length of the file
+     * @return the readahead of the file
+     */
+    public FuseReadahead create(PositionReader reader, long fileLength) {
+      return new FuseReadahead(this, Preconditions.checkNotNull(reader), fileLength);
+    }
+
+    /**
+     * @return the number of bytes taken by the chunks, including those in flight
+     */
+    @VisibleForTesting
+    public long getBytesReserved() {
+      return mBytesReserved.get();
+    }
+
+    private boolean reserve(int length) {
+      long reserved;
+      do {
+        reserved = mBytesReserved.get();
+        if (reserved + length > mCapacity) {
+          return false;
+        }
+      } while (!mBytesReserved.compareAndSet(reserved, reserved + length));
+      return true;
+    }
+
+    private void release(int length) {
+      mBytesReserved.addAndGet(-length);
+    }
+  }
+
+  private static final class Chunk {
+    private final long mIndex;
+    private final int mLength;
+    /** Completed once the chunk is loaded, or failed to load. */
+    private final CompletableFuture<Void> mFuture = new CompletableFuture<>();
+    /** The data of the chunk, guarded by the lock of the readahead. */
+    @Nullable
+    private ByteBuf mBuf;
+    /** Whether the read of the chunk is in progress, guarded by the lock of the readahead. */
+    private boolean mLoading = false;
+    /** Whether the chunk is dropped, guarded by the lock of the readahead. */
+    private boolean mDropped = false;
+
+    private Chunk(long index, int length) {
+      mIndex = index;
+      mLength = length;
+    }
+  }
+
+  private static final class Metrics {
+    private static final Counter BYTES_PREFETCHED =
+        MetricsSystem.counter(MetricKey.FUSE_READAHEAD_BYTES_PREFETCHED.getName());
+    private static final Counter BYTES_HIT =
+        MetricsSystem.counter(MetricKey.FUSE_READAHEAD_BYTES_HIT.getName());
+
+    private Metrics() {} // prevent instantiation
+  }
+}
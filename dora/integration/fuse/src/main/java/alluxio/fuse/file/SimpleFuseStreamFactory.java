@@ -19,9 +19,11 @@ import alluxio.conf.Configuration;
 import alluxio.conf.PropertyKey;
 import alluxio.fuse.auth.AuthPolicy;
 import alluxio.fuse.lock.FuseReadWriteLockManager;
+import alluxio.fuse.meta.FuseAttributeCache;
 
 import jnr.constants.platform.OpenFlags;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
@@ -32,9 +34,15 @@ public class SimpleFuseStreamFactory implements FuseStreamFactory {
   private final FuseReadWriteLockManager mLockManager = new FuseReadWriteLockManager();
   private final FileSystem mFileSystem;
   private final AuthPolicy mAuthPolicy;
+  @Nullable
+  private final FuseAttributeCache mAttributeCache;
   // TODO(lu) allow different threads reading from same file to share the same position reader
   private final boolean mPositionReadEnabled
       = Configuration.getBoolean(PropertyKey.FUSE_POSITION_READ_ENABLED);
+  @Nullable
+  private final FuseReadahead.Factory mReadaheadFactory
+      = Configuration.getBoolean(PropertyKey.FUSE_READAHEAD_ENABLED)
+      ? FuseReadahead.Factory.create(Configuration.global()) : null;
 
   /**
    * Creates an instance of {@link FuseStreamFactory} for
@@ -44,8 +52,23 @@ public class SimpleFuseStreamFactory implements FuseStreamFactory {
    * @param authPolicy the authentication policy
    */
   public SimpleFuseStreamFactory(FileSystem fileSystem, AuthPolicy authPolicy) {
+    this(fileSystem, authPolicy, null);
+  }
+
+  /**
+   * Creates an instance of {@link FuseStreamFactory} for
+   * creating fuse streams.
+   *
+   * @param fileSystem the file system
+   * @param authPolicy the authentication policy
+   * @param attributeCache the cache of the file statuses to open the files with,
+   *        or null to fetch the status of each opened file
+   */
+  public SimpleFuseStreamFactory(FileSystem fileSystem, AuthPolicy authPolicy,
+      @Nullable FuseAttributeCache attributeCache) {
     mFileSystem = fileSystem;
     mAuthPolicy = authPolicy;
+    mAttributeCache = attributeCache;
   }
 
   /**
@@ -63,7 +86,8 @@ public class SimpleFuseStreamFactory implements FuseStreamFactory {
     switch (OpenFlags.valueOf(flags & O_ACCMODE.intValue())) {
       case O_RDONLY:
         if (mPositionReadEnabled) {
-          return FusePositionReader.create(mFileSystem, mLockManager, uri);
+          return FusePositionReader.create(mFileSystem, mLockManager, uri, mAttributeCache,
+              mReadaheadFactory);
         }
         return FuseFileInStream.create(mFileSystem, mLockManager, uri);
       case O_WRONLY:
@@ -0,0 +1,254 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.fuse.meta;
+
+import alluxio.client.file.URIStatus;
+import alluxio.conf.AlluxioConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A short-lived cache of the statuses of the Alluxio paths accessed through FUSE, used to answer
+ * getattr and open calls without fetching the status of each path. The cache is mostly filled
+ * from the statuses returned by the directory listings, as a readdir is usually followed by a
+ * getattr of each listed entry, e.g. for {@code ls -l}, or by libfuse itself to answer a
+ * readdirplus. The paths found missing are cached as well, for a shorter time.
+ *
+ * Only the statuses of completed files and of directories are cached, and the cached status of
+ * a path is dropped when the path is changed through the FUSE mount, or when the worker owning
+ * the path finds it changed in the UFS, see {@link MetadataInvalidationWatcher}.
+ */
+@ThreadSafe
+public final class FuseAttributeCache {
+  private final Cache<String, URIStatus> mStatuses;
+  /** The paths found missing, null if they are not cached. */
+  @Nullable
+  private final Cache<String, Boolean> mMissingPaths;
+  private final LongAdder mHits = new LongAdder();
+  private final LongAdder mMisses = new LongAdder();
+  private final LongAdder mNegativeHits = new LongAdder();
+  private final LongAdder mWorkerInvalidations = new LongAdder();
+
+  /**
+   * @param conf the configuration
+   * @return the attribute cache
+   */
+  public static FuseAttributeCache create(AlluxioConfiguration conf) {
+    return new FuseAttributeCache(
+        isEnabled(conf) ? conf.getInt(PropertyKey.FUSE_ATTR_CACHE_MAX_SIZE) : 0,
+        conf.getMs(PropertyKey.FUSE_ATTR_CACHE_EXPIRATION_TIME),
+        conf.getMs(PropertyKey.FUSE_ATTR_CACHE_NEGATIVE_EXPIRATION_TIME));
+  }
+
+  /**
+   * The attribute cache is disabled by default, and is enabled by setting a positive
+   * {@link PropertyKey#FUSE_ATTR_CACHE_EXPIRATION_TIME}.
+   *
+   * @param conf the configuration
+   * @return whether the attribute cache is enabled
+   */
+  public static boolean isEnabled(AlluxioConfiguration conf) {
+    return conf.getInt(PropertyKey.FUSE_ATTR_CACHE_MAX_SIZE) > 0
+        && conf.getMs(PropertyKey.FUSE_ATTR_CACHE_EXPIRATION_TIME) > 0;
+  }
+
+  /**
+   * @param maxSize the max number of cached paths, 0 to disable the cache
+   * @param expirationMs the time after which a cached status expires
+   */
+  public FuseAttributeCache(long maxSize, long expirationMs) {
+    this(maxSize, expirationMs, 0);
+  }
+
+  /**
+   * @param maxSize the max number of cached paths, 0 to disable the cache
+   * @param expirationMs the time after which a cached status expires
+   * @param negativeExpirationMs the time after which a path cached as missing expires,
+   *        0 to not cache the missing paths
+   */
+  public FuseAttributeCache(long maxSize, long expirationMs, long negativeExpirationMs) {
+    mStatuses = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(expirationMs, TimeUnit.MILLISECONDS)
+        .build();
+    mMissingPaths = maxSize > 0 && negativeExpirationMs > 0
+        ? CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(negativeExpirationMs, TimeUnit.MILLISECONDS)
+            .build()
+        : null;
+  }
+
+  /**
+   * Registers the metrics of the cache.
+   */
+  public void registerMetrics() {
+    MetricsSystem.registerGaugeIfAbsent(
+        MetricsSystem.getMetricName(MetricKey.FUSE_ATTR_CACHE_HITS.getName()), mHits::sum);
+    MetricsSystem.registerGaugeIfAbsent(
+        MetricsSystem.getMetricName(MetricKey.FUSE_ATTR_CACHE_MISSES.getName()), mMisses::sum);
+    MetricsSystem.registerGaugeIfAbsent(
+        MetricsSystem.getMetricName(MetricKey.FUSE_ATTR_CACHE_NEGATIVE_HITS.getName()),
+        mNegativeHits::sum);
+    MetricsSystem.registerGaugeIfAbsent(
+        MetricsSystem.getMetricName(MetricKey.FUSE_ATTR_CACHE_SIZE.getName()), this::size);
+    MetricsSystem.registerGaugeIfAbsent(
+        MetricsSystem.getMetricName(MetricKey.FUSE_ATTR_CACHE_WORKER_INVALIDATIONS.getName()),
+        mWorkerInvalidations::sum);
+  }
+
+  /**
+   * @param path the Alluxio path
+   * @return the cached status of the path, or null if not cached
+   */
+  @Nullable
+  public URIStatus get(String path) {
+    return mStatuses.getIfPresent(path);
+  }
+
+  /**
+   * Gets the status of a path from the cache, or loads it and caches it if the path is neither
+   * cached as existing nor as missing.
+   *
+   * @param path the Alluxio path
+   * @param loader loads the status of the path, empty if the path does not exist
+   * @return the status of the path, empty if the path does not exist
+   */
+  public Optional<URIStatus> get(String path, Supplier<Optional<URIStatus>> loader) {
+    URIStatus status = mStatuses.getIfPresent(path);
+    if (status != null) {
+      mHits.increment();
+      return Optional.of(status);
+    }
+    if (mMissingPaths != null && mMissingPaths.getIfPresent(path) != null) {
+      mHits.increment();
+      mNegativeHits.increment();
+      return Optional.empty();
+    }
+    mMisses.increment();
+    Optional<URIStatus> loaded = loader.get();
+    if (loaded.isPresent()) {
+      put(path, loaded.get());
+    } else if (mMissingPaths != null) {
+      mMissingPaths.put(path, Boolean.TRUE);
+    }
+    return loaded;
+  }
+
+  /**
+   * Caches the status of a path, unless the path is a file still being written.
+   *
+   * @param path the Alluxio path
+   * @param status the status of the path
+   */
+  public void put(String path, URIStatus status) {
+    if (mMissingPaths != null) {
+      mMissingPaths.invalidate(path);
+    }
+    if (status.isFolder() || status.isCompleted()) {
+      mStatuses.put(path, status);
+    }
+  }
+
+  /**
+   * Drops the cached status of a path, or the path cached as missing.
+   *
+   * @param path the Alluxio path
+   */
+  public void invalidate(String path) {
+    mStatuses.invalidate(path);
+    if (mMissingPaths != null) {
+      mMissingPaths.invalidate(path);
+    }
+  }
+
+  /**
+   * Drops the cached status of a path found changed or removed by the worker owning it.
+   *
+   * @param path the Alluxio path
+   */
+  public void invalidateFromWorker(String path) {
+    mWorkerInvalidations.increment();
+    invalidate(path);
+  }
+
+  /**
+   * Drops the cached statuses of a path and of all the paths under it, e.g. when a directory
+   * is renamed or deleted.
+   *
+   * @param path the Alluxio path
+   */
+  public void invalidateTree(String path) {
+    invalidate(path);
+    String prefix = path.endsWith("/") ? path : path + "/";
+    mStatuses.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    if (mMissingPaths != null) {
+      mMissingPaths.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+  }
+
+  /**
+   * Drops all the cached statuses.
+   */
+  public void invalidateAll() {
+    mStatuses.invalidateAll();
+    if (mMissingPaths != null) {
+      mMissingPaths.invalidateAll();
+    }
+  }
+
+  /**
+   * @return the number of cached paths, including the paths cached as missing
+   */
+  public long size() {
+    return mStatuses.size() + (mMissingPaths == null ? 0 : mMissingPaths.size());
+  }
+
+  /**
+   * @return the number of lookups served by the cache
+   */
+  public long getHits() {
+    return mHits.sum();
+  }
+
+  /**
+   * @return the number of lookups not served by the cache
+   */
+  public long getMisses() {
+    return mMisses.sum();
+  }
+
+  /**
+   * @return the number of lookups served by the cache with the path cached as missing
+   */
+  public long getNegativeHits() {
+    return mNegativeHits.sum();
+  }
+
+  /**
+   * @return the number of paths invalidated by the workers
+   */
+  public long getWorkerInvalidations() {
+    return mWorkerInvalidations.sum();
+  }
+}
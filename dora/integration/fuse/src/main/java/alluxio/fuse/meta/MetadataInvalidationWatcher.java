@@ -0,0 +1,163 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.fuse.meta;
+
+import alluxio.AlluxioURI;
+import alluxio.client.block.BlockWorkerInfo;
+import alluxio.client.file.DoraCacheFileSystem;
+import alluxio.client.file.FileSystemContext;
+import alluxio.exception.InvalidPathException;
+import alluxio.grpc.WatchMetadataInvalidationRequest;
+import alluxio.grpc.WatchMetadataInvalidationResponse;
+import alluxio.util.ThreadFactoryUtils;
+import alluxio.wire.WorkerNetAddress;
+
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Watches the metadata invalidations of the workers, and drops the invalidated paths from the
+ * FUSE attribute cache, so the attributes of a path changed in the UFS are refreshed as soon as
+ * the worker owning the path finds it changed, instead of when the cached attributes expire.
+ *
+ * Each worker streams its invalidations until the watch fails, e.g. when the worker restarts.
+ * The workers are periodically checked, and the workers joining the cluster or whose watch
+ * failed are watched again. The invalidations missed meanwhile, or dropped by a worker when the
+ * watch does not keep up, are bounded by the expiration of the cached attributes.
+ */
+@ThreadSafe
+public final class MetadataInvalidationWatcher implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(MetadataInvalidationWatcher.class);
+
+  private final FileSystemContext mFsContext;
+  private final DoraCacheFileSystem mFileSystem;
+  private final FuseAttributeCache mAttributeCache;
+  private final Map<WorkerNetAddress, Watch> mWatches = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService mExecutor = Executors.newSingleThreadScheduledExecutor(
+      ThreadFactoryUtils.build("fuse-metadata-invalidation-watcher-%d", true));
+
+  /**
+   * @param fsContext the file system context to find the workers
+   * @param fileSystem the file system watching the workers
+   * @param attributeCache the attribute cache to drop the invalidated paths from
+   * @param intervalMs the interval to check the watched workers
+   */
+  public MetadataInvalidationWatcher(FileSystemContext fsContext, DoraCacheFileSystem fileSystem,
+      FuseAttributeCache attributeCache, long intervalMs) {
+    mFsContext = fsContext;
+    mFileSystem = fileSystem;
+    mAttributeCache = attributeCache;
+    mExecutor.scheduleWithFixedDelay(this::watchWorkers, 0, intervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * @return the number of workers being watched
+   */
+  public int getWatchedWorkerCount() {
+    return mWatches.size();
+  }
+
+  private void watchWorkers() {
+    List<BlockWorkerInfo> workers;
+    try {
+      workers = mFsContext.getCachedWorkers(FileSystemContext.GetWorkerListType.ALL);
+    } catch (IOException | RuntimeException e) {
+      LOG.debug("Failed to get the workers to watch the metadata invalidations", e);
+      return;
+    }
+    for (BlockWorkerInfo worker : workers) {
+      WorkerNetAddress address = worker.getNetAddress();
+      if (mWatches.containsKey(address)) {
+        continue;
+      }
+      Watch watch = new Watch(address);
+      mWatches.put(address, watch);
+      try {
+        mFileSystem.watchMetadataInvalidation(address, watch);
+      } catch (IOException | RuntimeException e) {
+        mWatches.remove(address, watch);
+        LOG.debug("Failed to watch the metadata invalidations of worker {}", address, e);
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    mExecutor.shutdownNow();
+    for (Watch watch : mWatches.values()) {
+      watch.cancel();
+    }
+    mWatches.clear();
+  }
+
+  /**
+   * The watch of the metadata invalidations of a worker.
+   */
+  private final class Watch implements ClientResponseObserver<WatchMetadataInvalidationRequest,
+      WatchMetadataInvalidationResponse> {
+    private final WorkerNetAddress mAddress;
+    @Nullable
+    private volatile ClientCallStreamObserver<WatchMetadataInvalidationRequest> mCall;
+
+    private Watch(WorkerNetAddress address) {
+      mAddress = address;
+    }
+
+    @Override
+    public void beforeStart(ClientCallStreamObserver<WatchMetadataInvalidationRequest> call) {
+      mCall = call;
+    }
+
+    @Override
+    public void onNext(WatchMetadataInvalidationResponse response) {
+      for (String ufsPath : response.getUfsPathsList()) {
+        try {
+          mAttributeCache.invalidateFromWorker(
+              mFileSystem.convertToAlluxioPath(new AlluxioURI(ufsPath)).getPath());
+        } catch (InvalidPathException e) {
+          LOG.debug("Ignoring the invalidation of {} out of the mounted UFS", ufsPath);
+        }
+      }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      mWatches.remove(mAddress, this);
+      LOG.debug("The watch of the metadata invalidations of worker {} failed", mAddress, t);
+    }
+
+    @Override
+    public void onCompleted() {
+      mWatches.remove(mAddress, this);
+    }
+
+    private void cancel() {
+      ClientCallStreamObserver<WatchMetadataInvalidationRequest> call = mCall;
+      if (call != null) {
+        call.cancel("The FUSE attribute cache is closed", null);
+      }
+    }
+  }
+}
@@ -0,0 +1,251 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.fuse.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.ByteArrayPositionReader;
+import alluxio.Constants;
+import alluxio.file.ReadTargetBuffer;
+import alluxio.util.CommonUtils;
+import alluxio.util.WaitForOptions;
+import alluxio.util.io.BufferUtils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link FuseReadahead}.
+ */
+public final class FuseReadaheadTest {
+  private static final int CHUNK_SIZE = 64 * Constants.KB;
+  private static final int READ_SIZE = 16 * Constants.KB;
+  private static final int FILE_LENGTH = 16 * CHUNK_SIZE + 100;
+  private static final byte[] DATA = BufferUtils.getIncreasingByteArray(FILE_LENGTH);
+
+  private final CountingPositionReader mReader = new CountingPositionReader(DATA);
+  private FuseReadahead mReadahead;
+
+  @After
+  public void after() {
+    if (mReadahead != null) {
+      mReadahead.close();
+    }
+  }
+
+  @Test
+  public void sequentialRead() throws Exception {
+    FuseReadahead.Factory factory = new FuseReadahead.Factory(CHUNK_SIZE, 4, 8L * CHUNK_SIZE, 4);
+    mReadahead = factory.create(mReader, FILE_LENGTH);
+    for (long position = 0; position < FILE_LENGTH; position += READ_SIZE) {
+      read(position, READ_SIZE);
+      assertTrue(mReadahead.getChunkIndexes().size() <= 5);
+    }
+    // every read but the first is served by the chunks read ahead, not by the reader itself
+    assertEquals(1, mReader.getDirectReads());
+    assertEquals(0, read(FILE_LENGTH, READ_SIZE));
+    mReadahead.close();
+    assertEquals(0, factory.getBytesReserved());
+  }
+
+  @Test
+  public void reorderedRead() throws Exception {
+    FuseReadahead.Factory factory = new FuseReadahead.Factory(CHUNK_SIZE, 4, 8L * CHUNK_SIZE, 4);
+    mReadahead = factory.create(mReader, FILE_LENGTH);
+    // the reads of the kernel may arrive slightly out of order
+    for (long position : new long[] {0, 2 * READ_SIZE, READ_SIZE, 4 * READ_SIZE, 3 * READ_SIZE}) {
+      read(position, READ_SIZE);
+    }
+    assertEquals(1, mReader.getDirectReads());
+    assertEquals(Arrays.asList(0L, 1L, 2L, 3L, 4L), mReadahead.getChunkIndexes());
+  }
+
+  @Test
+  public void firstReadNotReadAhead() throws Exception {
+    FuseReadahead.Factory factory = new FuseReadahead.Factory(CHUNK_SIZE, 4, 8L * CHUNK_SIZE, 4);
+    mReadahead = factory.create(mReader, FILE_LENGTH);
+    read(0, READ_SIZE);
+    assertEquals(1, mReader.getDirectReads());
+    assertEquals(Collections.emptyList(), mReadahead.getChunkIndexes());
+    assertEquals(0, factory.getBytesReserved());
+    // a read following the first one reads ahead
+    read(READ_SIZE, READ_SIZE);
+    assertEquals(1, mReader.getDirectReads());
+    assertEquals(Arrays.asList(0L, 1L, 2L, 3L), mReadahead.getChunkIndexes());
+  }
+
+  @Test
+  public void randomRead() throws Exception {
+    FuseReadahead.Factory factory = new FuseReadahead.Factory(CHUNK_SIZE, 4, 8L * CHUNK_SIZE, 4);
+    mReadahead = factory.create(mReader, FILE_LENGTH);
+    read(0, READ_SIZE);
+    for (long position : new long[] {10L * CHUNK_SIZE, 3L * CHUNK_SIZE + 5, 14L * CHUNK_SIZE}) {
+      read(position, READ_SIZE);
+      assertEquals(Collections.emptyList(), mReadahead.getChunkIndexes());
+    }
+    assertEquals(4, mReader.getDirectReads());
+    // reading sequentially again reads ahead again
+    read(14L * CHUNK_SIZE + READ_SIZE, READ_SIZE);
+    assertEquals(4, mReader.getDirectReads());
+    assertEquals(Arrays.asList(14L, 15L, 16L), mReadahead.getChunkIndexes());
+  }
+
+  @Test
+  public void boundedMemory() throws Exception {
+    FuseReadahead.Factory factory = new FuseReadahead.Factory(CHUNK_SIZE, 4, 3L * CHUNK_SIZE, 4);
+    mReadahead = factory.create(mReader, FILE_LENGTH);
+    FuseReadahead other = factory.create(new CountingPositionReader(DATA), FILE_LENGTH);
+    try {
+      for (long position = 0; position < FILE_LENGTH; position += READ_SIZE) {
+        read(position, READ_SIZE);
+        ByteBuffer buf = ByteBuffer.allocate(READ_SIZE);
+        int bytesRead = other.read(position, buf, READ_SIZE);
+        buf.flip();
+        assertTrue(BufferUtils.equalIncreasingByteBuffer((int) position, bytesRead, buf));
+        assertTrue(factory.getBytesReserved() <= 3L * CHUNK_SIZE);
+      }
+    } finally {
+      other.close();
+    }
+    mReadahead.close();
+    assertEquals(0, factory.getBytesReserved());
+  }
+
+  @Test
+  public void closeWaitsForChunksInFlight() throws Exception {
+    FuseReadahead.Factory factory = new FuseReadahead.Factory(CHUNK_SIZE, 4, 8L * CHUNK_SIZE, 1);
+    CountDownLatch loadLatch = new CountDownLatch(1);
+    // the chunks after the first one are read slowly, until released
+    BlockingPositionReader reader = new BlockingPositionReader(DATA, CHUNK_SIZE, loadLatch);
+    FuseReadahead readahead = factory.create(reader, FILE_LENGTH);
+    ByteBuffer buf = ByteBuffer.allocate(READ_SIZE);
+    readahead.read(0, buf, READ_SIZE);
+    buf.clear();
+    readahead.read(READ_SIZE, buf, READ_SIZE);
+    assertEquals(Arrays.asList(0L, 1L, 2L, 3L), readahead.getChunkIndexes());
+    CommonUtils.waitFor("second chunk is being read", () -> reader.getBlockedReads() == 1);
+    CompletableFuture<Void> closed = CompletableFuture.runAsync(() -> {
+      readahead.close();
+      reader.close();
+    });
+    // the readahead waits for the chunk being read with its reader
+    Thread.sleep(100);
+    assertFalse(closed.isDone());
+    loadLatch.countDown();
+    closed.get(10, TimeUnit.SECONDS);
+    assertEquals(Collections.emptyList(), readahead.getChunkIndexes());
+    // the chunks not read yet are dropped without reading the closed reader
+    CommonUtils.waitFor("chunks to be freed", () -> factory.getBytesReserved() == 0,
+        WaitForOptions.defaults().setTimeoutMs(10000));
+    assertEquals(1, reader.getBlockedReads());
+    assertEquals(0, reader.getReadsAfterClose());
+  }
+
+  /**
+   * Reads from the readahead, and checks the data read.
+   *
+   * @return the number of bytes read
+   */
+  private int read(long position, int length) throws IOException {
+    ByteBuffer buf = ByteBuffer.allocateDirect(length);
+    int bytesRead = mReadahead.read(position, buf, length);
+    assertEquals(Math.max(0, Math.min(length, FILE_LENGTH - position)), Math.max(0, bytesRead));
+    buf.flip();
+    assertTrue(BufferUtils.equalIncreasingByteBuffer((int) position, buf.remaining(), buf));
+    return Math.max(0, bytesRead);
+  }
+
+  /**
+   * Counts the reads issued by the test thread, i.e. not by the readahead threads.
+   */
+  private static final class CountingPositionReader extends ByteArrayPositionReader {
+    private final Thread mTestThread = Thread.currentThread();
+    private final AtomicInteger mDirectReads = new AtomicInteger();
+
+    CountingPositionReader(byte[] data) {
+      super(data);
+    }
+
+    @Override
+    public int readInternal(long position, ReadTargetBuffer buffer, int length)
+        throws IOException {
+      if (Thread.currentThread() == mTestThread) {
+        mDirectReads.incrementAndGet();
+      }
+      return super.readInternal(position, buffer, length);
+    }
+
+    int getDirectReads() {
+      return mDirectReads.get();
+    }
+  }
+
+  /**
+   * Blocks the reads from a position on until released, and counts the reads after being closed.
+   */
+  private static final class BlockingPositionReader extends ByteArrayPositionReader {
+    private final long mBlockedPosition;
+    private final CountDownLatch mLatch;
+    private final AtomicInteger mBlockedReads = new AtomicInteger();
+    private final AtomicInteger mReadsAfterClose = new AtomicInteger();
+    private volatile boolean mClosed = false;
+
+    BlockingPositionReader(byte[] data, long blockedPosition, CountDownLatch latch) {
+      super(data);
+      mBlockedPosition = blockedPosition;
+      mLatch = latch;
+    }
+
+    @Override
+    public int readInternal(long position, ReadTargetBuffer buffer, int length)
+        throws IOException {
+      if (mClosed) {
+        mReadsAfterClose.incrementAndGet();
+        throw new IOException("reader is closed");
+      }
+      if (position >= mBlockedPosition) {
+        mBlockedReads.incrementAndGet();
+        try {
+          mLatch.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException(e);
+        }
+      }
+      return super.readInternal(position, buffer, length);
+    }
+
+    @Override
+    public void close() {
+      mClosed = true;
+    }
+
+    int getBlockedReads() {
+      return mBlockedReads.get();
+    }
+
+    int getReadsAfterClose() {
+      return mReadsAfterClose.get();
+    }
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.fuse.meta;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.Constants;
+import alluxio.client.file.URIStatus;
+import alluxio.conf.Configuration;
+import alluxio.conf.InstancedConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.wire.FileInfo;
+
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link FuseAttributeCache}.
+ */
+public final class FuseAttributeCacheTest {
+  private final FuseAttributeCache mCache = new FuseAttributeCache(100, Constants.MINUTE_MS);
+
+  @Test
+  public void putAndGet() {
+    URIStatus file = file("/dir/file", true);
+    URIStatus dir = dir("/dir");
+    mCache.put("/dir/file", file);
+    mCache.put("/dir", dir);
+    assertEquals(file, mCache.get("/dir/file"));
+    assertEquals(dir, mCache.get("/dir"));
+    assertNull(mCache.get("/dir/other"));
+  }
+
+  @Test
+  public void incompleteFileNotCached() {
+    mCache.put("/file", file("/file", false));
+    assertNull(mCache.get("/file"));
+  }
+
+  @Test
+  public void invalidate() {
+    mCache.put("/dir", dir("/dir"));
+    mCache.put("/dir/file", file("/dir/file", true));
+    mCache.invalidate("/dir");
+    assertNull(mCache.get("/dir"));
+    assertEquals(1, mCache.size());
+  }
+
+  @Test
+  public void invalidateTree() {
+    mCache.put("/dir", dir("/dir"));
+    mCache.put("/dir/sub", dir("/dir/sub"));
+    mCache.put("/dir/sub/file", file("/dir/sub/file", true));
+    mCache.put("/dir2", dir("/dir2"));
+    mCache.invalidateTree("/dir");
+    assertNull(mCache.get("/dir"));
+    assertNull(mCache.get("/dir/sub"));
+    assertNull(mCache.get("/dir/sub/file"));
+    assertEquals(dir("/dir2"), mCache.get("/dir2"));
+  }
+
+  @Test
+  public void disabled() {
+    FuseAttributeCache cache = new FuseAttributeCache(0, Constants.MINUTE_MS);
+    cache.put("/file", file("/file", true));
+    assertNull(cache.get("/file"));
+  }
+
+  @Test
+  public void disabledByDefault() {
+    InstancedConfiguration conf = Configuration.copyGlobal();
+    assertFalse(FuseAttributeCache.isEnabled(conf));
+    FuseAttributeCache cache = FuseAttributeCache.create(conf);
+    cache.put("/file", file("/file", true));
+    assertNull(cache.get("/file"));
+    assertFalse(cache.get("/missing", Optional::empty).isPresent());
+    assertTrue(cache.get("/missing", () -> Optional.of(file("/missing", true))).isPresent());
+
+    conf.set(PropertyKey.FUSE_ATTR_CACHE_EXPIRATION_TIME, "10s");
+    assertTrue(FuseAttributeCache.isEnabled(conf));
+    cache = FuseAttributeCache.create(conf);
+    URIStatus file = file("/file", true);
+    cache.put("/file", file);
+    assertEquals(file, cache.get("/file"));
+  }
+
+  @Test
+  public void loadThrough() {
+    FuseAttributeCache cache = new FuseAttributeCache(100, Constants.MINUTE_MS,
+        Constants.MINUTE_MS);
+    AtomicInteger loads = new AtomicInteger();
+    URIStatus file = file("/file", true);
+    assertEquals(file, cache.get("/file", () -> {
+      loads.incrementAndGet();
+      return Optional.of(file);
+    }).get());
+    assertEquals(file, cache.get("/file", Optional::empty).get());
+    // the missing path is cached as missing
+    assertFalse(cache.get("/missing", () -> {
+      loads.incrementAndGet();
+      return Optional.empty();
+    }).isPresent());
+    assertFalse(cache.get("/missing", () -> Optional.of(file("/missing", true))).isPresent());
+    assertEquals(2, loads.get());
+    assertEquals(2, cache.getHits());
+    assertEquals(1, cache.getNegativeHits());
+    assertEquals(2, cache.getMisses());
+  }
+
+  @Test
+  public void invalidateMissingPath() {
+    FuseAttributeCache cache = new FuseAttributeCache(100, Constants.MINUTE_MS,
+        Constants.MINUTE_MS);
+    cache.get("/dir/missing", Optional::empty);
+    cache.get("/dir/sub/missing", Optional::empty);
+    cache.invalidateFromWorker("/dir/missing");
+    assertEquals(1, cache.getWorkerInvalidations());
+    URIStatus file = file("/dir/missing", true);
+    assertEquals(file, cache.get("/dir/missing", () -> Optional.of(file)).get());
+    cache.invalidateTree("/dir/sub");
+    assertEquals(1, cache.size());
+    // a listed path is no longer cached as missing
+    cache.get("/dir/new", Optional::empty);
+    cache.put("/dir/new", file("/dir/new", true));
+    assertEquals(file("/dir/new", true), cache.get("/dir/new", Optional::empty).get());
+  }
+
+  @Test
+  public void negativeCacheDisabled() {
+    AtomicInteger loads = new AtomicInteger();
+    mCache.get("/missing", () -> {
+      loads.incrementAndGet();
+      return Optional.empty();
+    });
+    mCache.get("/missing", () -> {
+      loads.incrementAndGet();
+      return Optional.empty();
+    });
+    assertEquals(2, loads.get());
+    assertEquals(0, mCache.size());
+  }
+
+  private static URIStatus file(String path, boolean completed) {
+    return new URIStatus(new FileInfo().setPath(path).setName(path.substring(
+        path.lastIndexOf('/') + 1)).setCompleted(completed).setLength(Constants.KB));
+  }
+
+  private static URIStatus dir(String path) {
+    return new URIStatus(new FileInfo().setPath(path).setName(path.substring(
+        path.lastIndexOf('/') + 1)).setFolder(true).setCompleted(true));
+  }
+}
@@ -96,11 +96,14 @@ jint JNICALL Java_alluxio_jnifuse_FuseFillDir_fill(JNIEnv *env, jclass cls,
   LOGD("enter fill");
   fuse_fill_dir_t filler = (fuse_fill_dir_t)(void *)address;
   const char *fn = env->GetStringUTFChars(name, 0);
+  // the attributes of the entry if known, copied by the filler
+  struct stat *st =
+      stbuf == NULL ? NULL : (struct stat *)env->GetDirectBufferAddress(stbuf);
 
 #if FUSE_USE_VERSION >= 30
-  int ret = filler((void *)bufaddr, fn, NULL, 0, fuse_fill_dir_flags::FUSE_FILL_DIR_PLUS);
+  int ret = filler((void *)bufaddr, fn, st, 0, fuse_fill_dir_flags::FUSE_FILL_DIR_PLUS);
 #else
-  int ret = filler((void *)bufaddr, fn, NULL, 0);
+  int ret = filler((void *)bufaddr, fn, st, 0);
 #endif
   env->ReleaseStringUTFChars(name, fn);
 
@@ -0,0 +1,102 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import alluxio.client.file.cache.evictor.BufferedLRUCacheEvictor;
+import alluxio.client.file.cache.evictor.CacheEvictor;
+import alluxio.client.file.cache.evictor.CacheEvictorOptions;
+import alluxio.client.file.cache.evictor.LRUCacheEvictor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the cache hit path of the {@link CacheEvictor} implementations. Run with a
+ * different number of threads, e.g. {@code -t 1}, {@code -t 16} or {@code -t 128}, to compare
+ * how the evictors scale.
+ */
+@Fork(value = 1, jvmArgsPrepend = "-server")
+@Warmup(iterations = 2, time = 3, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 6, time = 3, timeUnit = TimeUnit.SECONDS)
+@BenchmarkMode(Mode.Throughput)
+@Threads(16)
+public class CacheEvictorBench {
+
+  @State(Scope.Benchmark)
+  public static class BenchState {
+    @Param({"LRU", "BUFFERED_LRU"})
+    public String mEvictorType;
+
+    @Param({"100000"})
+    public int mNumPages;
+
+    CacheEvictor mEvictor;
+    PageId[] mPages;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      CacheEvictorOptions options = new CacheEvictorOptions();
+      switch (mEvictorType) {
+        case "LRU":
+          mEvictor = new LRUCacheEvictor(options);
+          break;
+        case "BUFFERED_LRU":
+          mEvictor = new BufferedLRUCacheEvictor(options);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown evictor type " + mEvictorType);
+      }
+      mPages = new PageId[mNumPages];
+      for (int i = 0; i < mNumPages; i++) {
+        mPages[i] = new PageId(Integer.toString(i % 100), i);
+        mEvictor.updateOnPut(mPages[i]);
+      }
+    }
+  }
+
+  @Benchmark
+  public void updateOnGet(BenchState state) {
+    state.mEvictor.updateOnGet(
+        state.mPages[ThreadLocalRandom.current().nextInt(state.mNumPages)]);
+  }
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    Options argsCli = new CommandLineOptions(args);
+    Options opts = new OptionsBuilder()
+        .parent(argsCli)
+        .include(CacheEvictorBench.class.getName())
+        .result("results.json")
+        .resultFormat(ResultFormatType.JSON)
+        .build();
+    new Runner(opts).run();
+  }
+}
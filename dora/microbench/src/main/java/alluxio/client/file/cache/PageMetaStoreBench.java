@@ -0,0 +1,143 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import alluxio.Constants;
+import alluxio.client.file.cache.evictor.CacheEvictorOptions;
+import alluxio.client.file.cache.evictor.LRUCacheEvictor;
+import alluxio.client.file.cache.store.MemoryPageStore;
+import alluxio.client.file.cache.store.MemoryPageStoreDir;
+import alluxio.client.file.cache.store.PageStoreDir;
+import alluxio.client.file.cache.store.PageStoreOptions;
+import alluxio.exception.PageNotFoundException;
+import alluxio.resource.LockResource;
+
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the {@link PageMetaStore} implementations, following the locking pattern of
+ * {@link LocalCacheManager}: lookups run under the read lock of the store, and page insertions
+ * and removals run under the write lock. Run with a different number of threads, e.g.
+ * {@code -t 1}, {@code -t 16} or {@code -t 128}, to compare how the stores scale.
+ */
+@Fork(value = 1, jvmArgsPrepend = "-server")
+@Warmup(iterations = 2, time = 3, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 6, time = 3, timeUnit = TimeUnit.SECONDS)
+@BenchmarkMode(Mode.Throughput)
+@Threads(16)
+public class PageMetaStoreBench {
+
+  @State(Scope.Benchmark)
+  public static class BenchState {
+    @Param({"DEFAULT", "SHARDED"})
+    public String mMetaStoreType;
+
+    @Param({"100000"})
+    public int mNumPages;
+
+    @Param({"1000"})
+    public int mNumFiles;
+
+    /** Percentage of operations that add or remove a page. */
+    @Param({"5"})
+    public int mWritePercentage;
+
+    PageMetaStore mMetaStore;
+    PageStoreDir mDir;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      PageStoreOptions options = new PageStoreOptions()
+          .setPageSize(Constants.KB)
+          .setCacheSize((long) Constants.KB * mNumPages * 2);
+      mDir = new MemoryPageStoreDir(options, new MemoryPageStore((int) options.getPageSize()),
+          new LRUCacheEvictor(new CacheEvictorOptions()));
+      List<PageStoreDir> dirs = ImmutableList.of(mDir);
+      switch (mMetaStoreType) {
+        case "DEFAULT":
+          mMetaStore = new DefaultPageMetaStore(dirs);
+          break;
+        case "SHARDED":
+          mMetaStore = new ShardedPageMetaStore(dirs);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown meta store type " + mMetaStoreType);
+      }
+      for (int i = 0; i < mNumPages; i++) {
+        PageId pageId = pageId(i);
+        mMetaStore.addPage(pageId, new PageInfo(pageId, Constants.KB, mDir));
+      }
+    }
+
+    PageId pageId(int i) {
+      return new PageId(Integer.toString(i % mNumFiles), i / mNumFiles);
+    }
+  }
+
+  @Benchmark
+  public Object readWrite(BenchState state) throws Exception {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    PageMetaStore metaStore = state.mMetaStore;
+    PageId pageId = state.pageId(random.nextInt(state.mNumPages));
+    if (random.nextInt(100) >= state.mWritePercentage) {
+      try (LockResource r = new LockResource(metaStore.getLock().readLock())) {
+        try {
+          return metaStore.getPageInfo(pageId);
+        } catch (PageNotFoundException e) {
+          return null;
+        }
+      }
+    }
+    try (LockResource r = new LockResource(metaStore.getLock().writeLock())) {
+      if (metaStore.hasPage(pageId)) {
+        return metaStore.removePage(pageId);
+      }
+      PageInfo pageInfo = new PageInfo(pageId, Constants.KB, state.mDir);
+      metaStore.addPage(pageId, pageInfo);
+      return pageInfo;
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    Options argsCli = new CommandLineOptions(args);
+    Options opts = new OptionsBuilder()
+        .parent(argsCli)
+        .include(PageMetaStoreBench.class.getName())
+        .result("results.json")
+        .resultFormat(ResultFormatType.JSON)
+        .build();
+    new Runner(opts).run();
+  }
+}
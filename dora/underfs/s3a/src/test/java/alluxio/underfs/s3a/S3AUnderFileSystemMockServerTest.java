@@ -18,6 +18,7 @@ import static org.junit.Assert.assertNotNull;
 import alluxio.AlluxioURI;
 import alluxio.conf.Configuration;
 import alluxio.conf.InstancedConfiguration;
+import alluxio.conf.PropertyKey;
 import alluxio.file.options.DescendantType;
 import alluxio.underfs.UfsLoadResult;
 import alluxio.underfs.UfsStatus;
@@ -33,6 +34,7 @@ import com.amazonaws.regions.Regions;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.s3.transfer.TransferManager;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterators;
 import org.apache.commons.io.IOUtils;
 import org.gaul.s3proxy.junit.S3ProxyRule;
@@ -227,4 +229,38 @@ public class S3AUnderFileSystemMockServerTest {
     Arrays.sort(statusesFromListing, Comparator.comparing(UfsStatus::getName));
     assertArrayEquals(statusesFromIterator, statusesFromListing);
   }
+
+  @Test
+  public void parallelIterator() throws IOException {
+    for (String key : new String[] {"a/x", "a/b/c", "a/b/d", "a.txt", "a-b/y", "b", "c/d/e/f"}) {
+      mClient.putObject(TEST_BUCKET, key, TEST_CONTENT);
+    }
+    UnderFileSystemConfiguration sequentialConf = UnderFileSystemConfiguration.defaults(CONF)
+        .createMountSpecificConf(ImmutableMap.of(
+            PropertyKey.Name.UNDERFS_OBJECT_STORE_LISTING_PARALLELISM, "1"));
+    S3AUnderFileSystem sequentialUfs =
+        new S3AUnderFileSystem(new AlluxioURI("s3://" + TEST_BUCKET), mClient,
+            null, TEST_BUCKET,
+            Executors.newSingleThreadExecutor(), new TransferManager(),
+            sequentialConf, false, false);
+
+    for (String path : new String[] {"/", "/a", "/c"}) {
+      UfsStatus[] statusesFromListing =
+          mS3UnderFileSystem.listStatus(path, ListOptions.defaults().setRecursive(true));
+      assertNotNull(statusesFromListing);
+      // the iterators list in the order of the keys, where the directories end with a separator
+      Arrays.sort(statusesFromListing, Comparator.comparing(
+          status -> status.isDirectory() ? status.getName() + "/" : status.getName()));
+      // the chunks of the listings are smaller than the directories
+      Iterator<UfsStatus> parallelIterator = mS3UnderFileSystem.listStatusIterable(
+          path, ListOptions.defaults().setRecursive(true), null, 2);
+      Iterator<UfsStatus> sequentialIterator = sequentialUfs.listStatusIterable(
+          path, ListOptions.defaults().setRecursive(true), null, 2);
+      assertNotNull(parallelIterator);
+      assertNotNull(sequentialIterator);
+      assertArrayEquals(statusesFromListing, Iterators.toArray(parallelIterator, UfsStatus.class));
+      assertArrayEquals(statusesFromListing,
+          Iterators.toArray(sequentialIterator, UfsStatus.class));
+    }
+  }
 }